@@ -0,0 +1,89 @@
+package com.example.holidayplanner.cache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing and formatting the dates of one year of holidays with {@link LocalDate} against {@link IsoDateCodec}.
+ * <p>
+ * Run with {@code mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=IsoDateCodecBenchmark}, add
+ * {@code -prof gc} to the benchmark arguments to compare allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IsoDateCodecBenchmark {
+
+    private String[] dates;
+    private int[] epochDays;
+
+    @Setup
+    public void setUp() {
+        // about the number of holidays of a country with regional holidays
+        LocalDate date = LocalDate.of(2025, 1, 1);
+        dates = new String[20];
+        epochDays = new int[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = date.toString();
+            epochDays[i] = (int) date.toEpochDay();
+            date = date.plusDays(17);
+        }
+    }
+
+    @Benchmark
+    public void parseLocalDate(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(LocalDate.parse(date).toEpochDay());
+        }
+    }
+
+    @Benchmark
+    public void parseCodec(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(IsoDateCodec.parseEpochDay(date));
+        }
+    }
+
+    @Benchmark
+    public void formatLocalDate(Blackhole blackhole) {
+        for (int epochDay : epochDays) {
+            blackhole.consume(LocalDate.ofEpochDay(epochDay).toString());
+        }
+    }
+
+    @Benchmark
+    public void formatCodec(Blackhole blackhole) {
+        for (int epochDay : epochDays) {
+            blackhole.consume(IsoDateCodec.format(epochDay));
+        }
+    }
+
+    @Benchmark
+    public void dayOfWeekLocalDate(Blackhole blackhole) {
+        for (int epochDay : epochDays) {
+            blackhole.consume(LocalDate.ofEpochDay(epochDay).getDayOfWeek().getValue());
+        }
+    }
+
+    @Benchmark
+    public void dayOfWeekCodec(Blackhole blackhole) {
+        for (int epochDay : epochDays) {
+            blackhole.consume(IsoDateCodec.isoDayOfWeek(epochDay));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.holidayplanner.validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.example.holidayplanner.model.AvailableCountry;
+
+/**
+ * Compares the country code checks of the validator, the previous scans of the ISO and available country lists
+ * against the {@link CountryCodeRegistry} bitsets.
+ * <p>
+ * Run with {@code mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=CountryCodeValidationBenchmark}, add
+ * {@code -prof gc} to the benchmark arguments to compare allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CountryCodeValidationBenchmark {
+
+    /**
+     * Input country codes of one request, valid and supported, valid but unsupported and invalid.
+     */
+    @Param({"NL", "AQ", "XX"})
+    public String countryCode;
+
+    private Set<AvailableCountry> availableCountries;
+    private CountryCodeRegistry countryCodeRegistry;
+
+    @Setup
+    public void setUp() {
+        // Nager Date API supports about 120 countries, every other ISO country is used here
+        List<String> isoCountries = List.of(Locale.getISOCountries());
+        availableCountries = isoCountries.stream()
+                .filter(isoCountry -> isoCountries.indexOf(isoCountry) % 2 == 0 || "NL".equals(isoCountry))
+                .filter(isoCountry -> !"AQ".equals(isoCountry))
+                .map(isoCountry -> {
+                    AvailableCountry availableCountry = new AvailableCountry();
+                    availableCountry.setCountryCode(isoCountry);
+                    return availableCountry;
+                })
+                .collect(Collectors.toSet());
+        countryCodeRegistry = new CountryCodeRegistry();
+    }
+
+    @Benchmark
+    public void listScan(Blackhole blackhole) {
+        boolean isoCountry = Arrays.stream(Locale.getISOCountries()).anyMatch(isoCode -> isoCode.equalsIgnoreCase(countryCode));
+        blackhole.consume(isoCountry);
+        if (List.of(Locale.getISOCountries()).contains(countryCode)) {
+            blackhole.consume(availableCountries.stream().anyMatch(country -> country.getCountryCode().equalsIgnoreCase(countryCode)));
+        }
+    }
+
+    @Benchmark
+    public void registry(Blackhole blackhole) {
+        boolean isoCountry = CountryCodeRegistry.isIsoCountry(countryCode);
+        blackhole.consume(isoCountry);
+        if (isoCountry) {
+            blackhole.consume(countryCodeRegistry.isSupported(availableCountries, countryCode));
+        }
+    }
+}
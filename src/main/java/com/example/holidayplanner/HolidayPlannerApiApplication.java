@@ -2,17 +2,15 @@ package com.example.holidayplanner;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-
-import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class to bootstrap the Spring Boot application.
  * <p>
- * This class serves as the entry point for the Holiday Planner API, enabling caching and
- * initializing the Spring Boot context.
+ * This class serves as the entry point for the Holiday Planner API, initializing the Spring Boot context.
  */
-@EnableCaching
 @SpringBootApplication
+@EnableScheduling
 public class
 HolidayPlannerApiApplication{
 
@@ -0,0 +1,92 @@
+package com.example.holidayplanner.cache;
+
+import java.util.Set;
+
+import com.example.holidayplanner.model.AvailableCountry;
+
+/**
+ * Estimated heap footprint of cache entries in bytes, used as Caffeine weights so cache budgets are byte budgets.
+ * <p>
+ * Estimates assume a 64 bit JVM with compressed references and compact strings. They do not need to be exact,
+ * only proportional: each holiday adds its array slots and local name to a fixed overhead per entry, so a country
+ * with 40 holidays weighs about four and a half times one with 5. Interned local names
+ * are counted in every entry using them, which overestimates large caches slightly and keeps them on the safe side.
+ */
+public final class CacheWeights {
+
+    private static final int OBJECT_HEADER = 16;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int STRING = 24 + ARRAY_HEADER;
+    private static final int HASH_SET_ENTRY = 32 + REFERENCE;
+
+    private CacheWeights() {
+    }
+
+    /**
+     * Weight of one holidays cache entry.
+     *
+     * @param key Year and country code
+     * @param value Holidays with upstream validators
+     * @return Estimated bytes of key and value
+     */
+    public static int holidays(HolidayCacheKey key, CachedHolidays value) {
+        long bytes = OBJECT_HEADER + string(key.countryCode())
+                + OBJECT_HEADER + string(value.eTag()) + string(value.lastModified())
+                + calendar(value.calendar());
+        return saturatedInt(bytes);
+    }
+
+    /**
+     * Weight of the available countries cache entry.
+     *
+     * @param key Cache key
+     * @param countries Available countries
+     * @return Estimated bytes of key and value
+     */
+    public static int availableCountries(String key, Set<AvailableCountry> countries) {
+        long bytes = string(key) + OBJECT_HEADER + ARRAY_HEADER;
+        for (AvailableCountry country : countries) {
+            bytes += HASH_SET_ENTRY + OBJECT_HEADER + string(country.getCountryCode()) + string(country.getName());
+        }
+        return saturatedInt(bytes);
+    }
+
+    /**
+     * Estimated bytes of a holiday calendar, its epoch day, day of week and local name arrays, the names, the
+     * aggregates with their day of week counts, the day of year bitmap and the version.
+     *
+     * @param calendar Holiday calendar
+     * @return Estimated bytes
+     */
+    private static long calendar(HolidayCalendar calendar) {
+        int size = calendar.size();
+        long bytes = OBJECT_HEADER + 3L * ARRAY_HEADER + size * (Integer.BYTES + Byte.BYTES + REFERENCE)
+                + 3L * OBJECT_HEADER + ARRAY_HEADER + 7 * Integer.BYTES
+                + ARRAY_HEADER + HolidayCalendar.DAY_OF_YEAR_WORDS * Long.BYTES + Long.BYTES;
+        for (int i = 0; i < size; i++) {
+            bytes += string(calendar.localName(i));
+        }
+        return bytes;
+    }
+
+    /**
+     * Estimated bytes of a string, assuming one byte per character.
+     *
+     * @param value String, may be null
+     * @return Estimated bytes, 0 for null
+     */
+    private static long string(String value) {
+        return value == null ? 0 : STRING + value.length();
+    }
+
+    /**
+     * Clamp a weight to the int range used by Caffeine.
+     *
+     * @param bytes Estimated bytes
+     * @return Weight
+     */
+    private static int saturatedInt(long bytes) {
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+}
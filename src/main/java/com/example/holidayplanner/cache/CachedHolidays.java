@@ -0,0 +1,47 @@
+package com.example.holidayplanner.cache;
+
+/**
+ * Value of the holidays cache, the holidays of one year and country with the upstream validators of the response.
+ * <p>
+ * The validators are sent back as If-None-Match and If-Modified-Since when the entry is reloaded, so unchanged
+ * holidays are confirmed with a 304 instead of downloading and parsing them again.
+ *
+ * @param calendar Holidays of the year and country
+ * @param eTag ETag of the upstream response, null when not sent
+ * @param lastModified Last-Modified of the upstream response as sent, null when not sent
+ * @param contentLength Body size of the upstream response in bytes, -1 when unknown
+ */
+public record CachedHolidays(HolidayCalendar calendar, String eTag, String lastModified, long contentLength) {
+
+    /**
+     * Holidays without upstream validators, reloads download them in full.
+     *
+     * @param calendar Holidays of the year and country
+     * @return Cached holidays without validators
+     */
+    public static CachedHolidays of(HolidayCalendar calendar) {
+        return new CachedHolidays(calendar, null, null, -1);
+    }
+
+    /**
+     * Whether a reload can be sent as conditional request.
+     *
+     * @return true when an ETag or Last-Modified is known
+     */
+    public boolean hasValidators() {
+        return eTag != null || lastModified != null;
+    }
+
+    /**
+     * Copy of this entry after the upstream confirmed it unchanged, validators sent with the 304 replace the old ones.
+     * A new instance is returned so the cache treats it as freshly written.
+     *
+     * @param newETag ETag of the 304 response, null to keep the current one
+     * @param newLastModified Last-Modified of the 304 response, null to keep the current one
+     * @return Revalidated copy of this entry
+     */
+    public CachedHolidays revalidated(String newETag, String newLastModified) {
+        return new CachedHolidays(calendar, newETag != null ? newETag : eTag,
+                newLastModified != null ? newLastModified : lastModified, contentLength);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.holidayplanner.cache;
+
+import java.time.DayOfWeek;
+import java.util.OptionalInt;
+
+/**
+ * Aggregates of the holidays of one country and year, computed once when the {@link HolidayCalendar} is built.
+ * <p>
+ * They live in the calendar, so they are cached, evicted, refreshed and restored together with the holidays they
+ * are derived from and never have to be invalidated on their own. Holidays on the same date are counted per holiday,
+ * as the non-weekend count always did.
+ */
+public final class HolidayAggregates {
+
+    private static final int DAYS_OF_WEEK = 7;
+
+    private final int nonWeekendCount;
+    private final int[] countsByDayOfWeek;
+    private final int dayOfWeekMask;
+    private final OptionalInt firstEpochDay;
+    private final OptionalInt lastEpochDay;
+
+    private HolidayAggregates(int nonWeekendCount, int[] countsByDayOfWeek, int dayOfWeekMask,
+                              OptionalInt firstEpochDay, OptionalInt lastEpochDay) {
+        this.nonWeekendCount = nonWeekendCount;
+        this.countsByDayOfWeek = countsByDayOfWeek;
+        this.dayOfWeekMask = dayOfWeekMask;
+        this.firstEpochDay = firstEpochDay;
+        this.lastEpochDay = lastEpochDay;
+    }
+
+    /**
+     * Compute the aggregates of sorted holidays.
+     *
+     * @param epochDays Epoch day of each holiday, sorted ascending
+     * @param daysOfWeek ISO day of week of each holiday, 1 for Monday to 7 for Sunday
+     * @return Aggregates of the holidays
+     */
+    static HolidayAggregates of(int[] epochDays, byte[] daysOfWeek) {
+        int[] countsByDayOfWeek = new int[DAYS_OF_WEEK];
+        int dayOfWeekMask = 0;
+        for (byte dayOfWeek : daysOfWeek) {
+            countsByDayOfWeek[dayOfWeek - 1]++;
+            dayOfWeekMask |= 1 << (dayOfWeek - 1);
+        }
+        int nonWeekendCount = 0;
+        for (int i = DayOfWeek.MONDAY.ordinal(); i <= DayOfWeek.FRIDAY.ordinal(); i++) {
+            nonWeekendCount += countsByDayOfWeek[i];
+        }
+        return epochDays.length == 0
+                ? new HolidayAggregates(0, countsByDayOfWeek, 0, OptionalInt.empty(), OptionalInt.empty())
+                : new HolidayAggregates(nonWeekendCount, countsByDayOfWeek, dayOfWeekMask,
+                        OptionalInt.of(epochDays[0]), OptionalInt.of(epochDays[epochDays.length - 1]));
+    }
+
+    /**
+     * Number of holidays from Monday to Friday.
+     *
+     * @return Non-weekend holidays
+     */
+    public int nonWeekendCount() {
+        return nonWeekendCount;
+    }
+
+    /**
+     * Number of holidays on given day of week.
+     *
+     * @param dayOfWeek Day of week
+     * @return Holidays on that day of week
+     */
+    public int count(DayOfWeek dayOfWeek) {
+        return countsByDayOfWeek[dayOfWeek.ordinal()];
+    }
+
+    /**
+     * Days of week with at least one holiday as bitmask, bit 0 for Monday to bit 6 for Sunday.
+     *
+     * @return Day of week bitmask
+     */
+    public int dayOfWeekMask() {
+        return dayOfWeekMask;
+    }
+
+    /**
+     * Epoch day of the first holiday of the year.
+     *
+     * @return First epoch day, empty without holidays
+     */
+    public OptionalInt firstEpochDay() {
+        return firstEpochDay;
+    }
+
+    /**
+     * Epoch day of the last holiday of the year.
+     *
+     * @return Last epoch day, empty without holidays
+     */
+    public OptionalInt lastEpochDay() {
+        return lastEpochDay;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.holidayplanner.cache;
+
+/**
+ * Key of the holidays cache, one entry per year and country code.
+ *
+ * @param year Year of the holidays
+ * @param countryCode Upper case ISO 3166-1 alpha-2 country code
+ */
+public record HolidayCacheKey(int year, String countryCode) {
+
+    /**
+     * Key rendered as year_countryCode, used in logs and as single-flight key.
+     *
+     * @return key as year_countryCode
+     */
+    @Override
+    public String toString() {
+        return year + "_" + countryCode;
+    }
+}
@@ -0,0 +1,387 @@
+package com.example.holidayplanner.cache;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.benmanes.caffeine.cache.Interner;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.example.holidayplanner.generated.model.Holiday;
+
+/**
+ * Compact, immutable holidays of one country and year.
+ * <p>
+ * Holidays are kept as epoch days sorted ascending, with the ISO day of week of each date and its interned local
+ * name at the same index. Holidays on the same date keep their upstream order. Holidays without a date are dropped
+ * when the calendar is built, as no holiday operation uses them. Generated Holiday DTOs are only created when a
+ * response is built. {@link HolidayAggregates} such as the non-weekend count and a bitmap of the days of the year
+ * with a holiday, used to intersect the calendars of several countries, are computed when the calendar is built,
+ * as is a version of the holidays used for HTTP ETags.
+ */
+public final class HolidayCalendar {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Interner<String> LOCAL_NAMES = Interner.newWeakInterner();
+    private static final HolidayCalendar EMPTY = new HolidayCalendar(new int[0], new byte[0], new String[0]);
+
+    /**
+     * Number of words of a day of year bitmap, 366 bits.
+     */
+    public static final int DAY_OF_YEAR_WORDS = 6;
+
+    private final int[] epochDays;
+    private final byte[] daysOfWeek;
+    private final String[] localNames;
+    private final HolidayAggregates aggregates;
+    private final int year;
+    private final long[] daysOfYear;
+    private final long version;
+
+    private HolidayCalendar(int[] epochDays, byte[] daysOfWeek, String[] localNames) {
+        this.epochDays = epochDays;
+        this.daysOfWeek = daysOfWeek;
+        this.localNames = localNames;
+        this.aggregates = HolidayAggregates.of(epochDays, daysOfWeek);
+        this.year = epochDays.length > 0 ? LocalDate.ofEpochDay(epochDays[0]).getYear() : 0;
+        this.daysOfYear = daysOfYearOf(epochDays, year);
+        this.version = versionOf(epochDays, localNames);
+    }
+
+    /**
+     * Calendar without holidays.
+     *
+     * @return Empty calendar
+     */
+    public static HolidayCalendar empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build a calendar from holiday DTOs.
+     *
+     * @param holidays Holidays with dates in yyyy-MM-dd format
+     * @return Calendar of the holidays
+     * @throws DateTimeParseException if a date is not in yyyy-MM-dd format
+     */
+    public static HolidayCalendar of(List<Holiday> holidays) {
+        Builder builder = new Builder(holidays.size());
+        for (Holiday holiday : holidays) {
+            builder.add(holiday.getDate(), holiday.getLocalName());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Build a calendar from epoch days and local names, as stored in snapshots.
+     *
+     * @param epochDays Epoch day of each holiday
+     * @param localNames Local name of each holiday
+     * @return Calendar of the holidays
+     */
+    public static HolidayCalendar of(int[] epochDays, String[] localNames) {
+        Builder builder = new Builder(epochDays.length);
+        for (int i = 0; i < epochDays.length; i++) {
+            builder.add(epochDays[i], localNames[i]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Read a calendar from a JSON array of holidays in Nager Date API format with the streaming parser,
+     * only date and localName are read, all other fields are skipped without binding them.
+     *
+     * @param json JSON array of holidays
+     * @return Calendar of the holidays, empty for an empty or null body
+     * @throws IOException if the body is not a JSON array of holiday objects or a date is not in yyyy-MM-dd format
+     */
+    public static HolidayCalendar parse(byte[] json) throws IOException {
+        if (json == null || json.length == 0) {
+            return EMPTY;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return EMPTY;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "expected array of holidays");
+            }
+            Builder builder = new Builder(16);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                int epochDay = 0;
+                boolean hasDate = false;
+                String localName = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.currentName();
+                    JsonToken valueToken = parser.nextToken();
+                    if ("date".equals(fieldName)) {
+                        hasDate = valueToken != JsonToken.VALUE_NULL;
+                        if (hasDate) {
+                            // parsed from the buffer of the parser, without creating a string per date
+                            epochDay = IsoDateCodec.parseEpochDay(parser.getTextCharacters(), parser.getTextOffset(),
+                                    parser.getTextLength());
+                        }
+                    } else if ("localName".equals(fieldName)) {
+                        localName = valueToken == JsonToken.VALUE_NULL ? null : parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (hasDate) {
+                    builder.add(epochDay, localName);
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "expected holiday object");
+            }
+            return builder.build();
+        } catch (DateTimeParseException e) {
+            throw new IOException("invalid holiday date: " + e.getParsedString(), e);
+        }
+    }
+
+    /**
+     * Number of holidays.
+     *
+     * @return Number of holidays
+     */
+    public int size() {
+        return epochDays.length;
+    }
+
+    /**
+     * Epoch day of the holiday at given index.
+     *
+     * @param index Index of the holiday, holidays are sorted by date
+     * @return Epoch day of the holiday
+     */
+    public int epochDay(int index) {
+        return epochDays[index];
+    }
+
+    /**
+     * Day of week of the holiday at given index.
+     *
+     * @param index Index of the holiday, holidays are sorted by date
+     * @return Day of week of the holiday
+     */
+    public DayOfWeek dayOfWeek(int index) {
+        return DayOfWeek.of(daysOfWeek[index]);
+    }
+
+    /**
+     * Local name of the holiday at given index.
+     *
+     * @param index Index of the holiday, holidays are sorted by date
+     * @return Local name of the holiday, may be null
+     */
+    public String localName(int index) {
+        return localNames[index];
+    }
+
+    /**
+     * Aggregates computed when the calendar was built.
+     *
+     * @return Aggregates of the holidays
+     */
+    public HolidayAggregates aggregates() {
+        return aggregates;
+    }
+
+    /**
+     * Version of the holidays, computed from their dates and local names when the calendar was built. Calendars with
+     * equal holidays have the same version, also on other instances and after restarts, so it can be used in ETags.
+     *
+     * @return Version of the holidays
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Index of the first holiday after given epoch day, all holidays before it are on or before that day.
+     *
+     * @param epochDay Epoch day
+     * @return Index of the first holiday after the day, size when there is none
+     */
+    public int indexAfter(int epochDay) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (epochDays[middle] <= epochDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the first holiday on given epoch day.
+     *
+     * @param epochDay Epoch day
+     * @return Index of the first holiday on the day, -1 when there is none
+     */
+    public int indexOf(int epochDay) {
+        int index = indexAfter(epochDay - 1);
+        return index < epochDays.length && epochDays[index] == epochDay ? index : -1;
+    }
+
+    /**
+     * Clear the bits of all days of given year without holiday in a day of year bitmap, bit 0 of word 0 for January 1.
+     * The bitmap of the year of the calendar is computed when it is built, other years are computed on demand.
+     *
+     * @param year Year of the bitmap
+     * @param days Bitmap of {@link #DAY_OF_YEAR_WORDS} words, updated in place
+     */
+    public void retainDaysOfYear(int year, long[] days) {
+        long[] holidays = year == this.year ? daysOfYear : daysOfYearOf(epochDays, year);
+        for (int i = 0; i < DAY_OF_YEAR_WORDS; i++) {
+            days[i] &= holidays[i];
+        }
+    }
+
+    /**
+     * Build the DTO of the holiday at given index.
+     *
+     * @param index Index of the holiday, holidays are sorted by date
+     * @return Holiday DTO with date in yyyy-MM-dd format, formatted by {@link IsoDateCodec}
+     */
+    public Holiday toHoliday(int index) {
+        return new Holiday(IsoDateCodec.format(epochDays[index]), localNames[index]);
+    }
+
+    /**
+     * Build the DTOs of all holidays.
+     *
+     * @return Holiday DTOs sorted by date
+     */
+    public List<Holiday> toHolidays() {
+        List<Holiday> holidays = new ArrayList<>(epochDays.length);
+        for (int i = 0; i < epochDays.length; i++) {
+            holidays.add(toHoliday(i));
+        }
+        return holidays;
+    }
+
+    private static long[] daysOfYearOf(int[] epochDays, int year) {
+        long[] days = new long[DAY_OF_YEAR_WORDS];
+        if (epochDays.length == 0) {
+            return days;
+        }
+        LocalDate firstDay = LocalDate.ofYearDay(year, 1);
+        long firstEpochDay = firstDay.toEpochDay();
+        int daysInYear = firstDay.lengthOfYear();
+        for (int epochDay : epochDays) {
+            long dayIndex = epochDay - firstEpochDay;
+            if (dayIndex >= 0 && dayIndex < daysInYear) {
+                days[(int) (dayIndex >>> 6)] |= 1L << dayIndex;
+            }
+        }
+        return days;
+    }
+
+    private static long versionOf(int[] epochDays, String[] localNames) {
+        long version = epochDays.length;
+        for (int i = 0; i < epochDays.length; i++) {
+            version = mix(version + epochDays[i]);
+            version = mix(version + (localNames[i] != null ? localNames[i].hashCode() : 0));
+        }
+        return version;
+    }
+
+    /**
+     * Spreads the bits of a value over all 64 bits, finalizer of the SplitMix64 generator.
+     *
+     * @param value Value to mix
+     * @return Mixed value
+     */
+    public static long mix(long value) {
+        long mixed = (value + 0x9E3779B97F4A7C15L);
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return mixed ^ (mixed >>> 31);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof HolidayCalendar calendar
+                && Arrays.equals(epochDays, calendar.epochDays) && Arrays.equals(localNames, calendar.localNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(epochDays) + Arrays.hashCode(localNames);
+    }
+
+    @Override
+    public String toString() {
+        return "HolidayCalendar" + toHolidays();
+    }
+
+    /**
+     * Collects holidays in upstream order and sorts them by date, keeping the order of holidays on the same date.
+     */
+    private static final class Builder {
+
+        private int[] epochDays;
+        private String[] localNames;
+        private int size;
+
+        private Builder(int capacity) {
+            this.epochDays = new int[Math.max(capacity, 1)];
+            this.localNames = new String[Math.max(capacity, 1)];
+        }
+
+        private void add(String date, String localName) {
+            if (date != null) {
+                add(IsoDateCodec.parseEpochDay(date), localName);
+            }
+        }
+
+        private void add(int epochDay, String localName) {
+            if (size == epochDays.length) {
+                epochDays = Arrays.copyOf(epochDays, size * 2);
+                localNames = Arrays.copyOf(localNames, size * 2);
+            }
+            epochDays[size] = epochDay;
+            localNames[size] = localName != null ? LOCAL_NAMES.intern(localName) : null;
+            size++;
+        }
+
+        private HolidayCalendar build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            // insertion sort is stable and linear for upstream data, which is already sorted by date
+            for (int i = 1; i < size; i++) {
+                int epochDay = epochDays[i];
+                String localName = localNames[i];
+                int j = i - 1;
+                while (j >= 0 && epochDays[j] > epochDay) {
+                    epochDays[j + 1] = epochDays[j];
+                    localNames[j + 1] = localNames[j];
+                    j--;
+                }
+                epochDays[j + 1] = epochDay;
+                localNames[j + 1] = localName;
+            }
+            int[] sortedEpochDays = Arrays.copyOf(epochDays, size);
+            byte[] daysOfWeek = new byte[size];
+            for (int i = 0; i < size; i++) {
+                daysOfWeek[i] = (byte) IsoDateCodec.isoDayOfWeek(sortedEpochDays[i]);
+            }
+            return new HolidayCalendar(sortedEpochDays, daysOfWeek, Arrays.copyOf(localNames, size));
+        }
+    }
+}
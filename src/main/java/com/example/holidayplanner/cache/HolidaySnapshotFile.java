@@ -0,0 +1,245 @@
+package com.example.holidayplanner.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.holidayplanner.model.AvailableCountry;
+
+/**
+ * Compact binary file format for snapshots of the holidays and availableCountries caches.
+ * <p>
+ * Layout: magic, version, write time, available countries (count or -1 when absent, then code and name each),
+ * holiday entries (count, then year, country code, holiday count, per holiday epoch day and local name, and the
+ * ETag, Last-Modified and content length of the upstream response).
+ * Strings are written as an int byte length (-1 for null) followed by UTF-8 bytes.
+ * Counts and lengths are checked against the bytes left before anything is allocated, so a corrupt file fails as
+ * truncated instead of allocating huge or negative arrays.
+ * Snapshots are written to a temporary file and atomically moved in place, and read through a memory-mapped buffer.
+ */
+public final class HolidaySnapshotFile {
+
+    private static final int MAGIC = 0x48504C53;
+    private static final int VERSION = 4;
+    private static final int ABSENT = -1;
+    // smallest encodings, used to bound counts read from the buffer by the bytes left
+    private static final int MIN_STRING_BYTES = Integer.BYTES;
+    private static final int MIN_COUNTRY_BYTES = 2 * MIN_STRING_BYTES;
+    private static final int MIN_HOLIDAY_BYTES = Integer.BYTES + MIN_STRING_BYTES;
+    private static final int MIN_HOLIDAYS_BYTES = Integer.BYTES + 2 * MIN_STRING_BYTES + Long.BYTES;
+    private static final int MIN_ENTRY_BYTES = Short.BYTES + MIN_STRING_BYTES + MIN_HOLIDAYS_BYTES;
+
+    /**
+     * Content of one snapshot.
+     *
+     * @param writtenAt Time the snapshot was taken
+     * @param availableCountries Available countries, null when they were not cached
+     * @param holidays Holidays with their upstream validators per year and country code
+     */
+    public record Snapshot(Instant writtenAt, Set<AvailableCountry> availableCountries,
+                           Map<HolidayCacheKey, CachedHolidays> holidays) {
+    }
+
+    private HolidaySnapshotFile() {
+    }
+
+    /**
+     * Write snapshot to given path, replacing an existing snapshot only once the new one is complete.
+     *
+     * @param path Snapshot file path
+     * @param snapshot Snapshot to write
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static void write(Path path, Snapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(snapshot.writtenAt().toEpochMilli());
+
+            Set<AvailableCountry> availableCountries = snapshot.availableCountries();
+            out.writeInt(availableCountries != null ? availableCountries.size() : ABSENT);
+            if (availableCountries != null) {
+                for (AvailableCountry country : availableCountries) {
+                    writeString(out, country.getCountryCode());
+                    writeString(out, country.getName());
+                }
+            }
+
+            out.writeInt(snapshot.holidays().size());
+            for (Map.Entry<HolidayCacheKey, CachedHolidays> entry : snapshot.holidays().entrySet()) {
+                out.writeShort(entry.getKey().year());
+                writeString(out, entry.getKey().countryCode());
+                writeHolidays(out, entry.getValue());
+            }
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporaryFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporaryFile, bytes.toByteArray());
+            Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Read snapshot from given path through a read-only memory-mapped buffer.
+     *
+     * @param path Snapshot file path
+     * @return Snapshot read from the file
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static Snapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("unsupported holiday snapshot format in " + path);
+            }
+            Instant writtenAt = Instant.ofEpochMilli(buffer.getLong());
+
+            Set<AvailableCountry> availableCountries = null;
+            int countryCount = buffer.getInt();
+            if (countryCount != ABSENT) {
+                checkCount(buffer, countryCount, MIN_COUNTRY_BYTES);
+                availableCountries = new HashSet<>(countryCount * 2);
+                for (int i = 0; i < countryCount; i++) {
+                    AvailableCountry country = new AvailableCountry();
+                    country.setCountryCode(readString(buffer));
+                    country.setName(readString(buffer));
+                    availableCountries.add(country);
+                }
+            }
+
+            int entryCount = buffer.getInt();
+            checkCount(buffer, entryCount, MIN_ENTRY_BYTES);
+            Map<HolidayCacheKey, CachedHolidays> holidays = new HashMap<>(entryCount * 2);
+            for (int i = 0; i < entryCount; i++) {
+                HolidayCacheKey key = new HolidayCacheKey(buffer.getShort(), readString(buffer));
+                holidays.put(key, readHolidays(buffer));
+            }
+            return new Snapshot(writtenAt, availableCountries, holidays);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("truncated holiday snapshot " + path, e);
+        }
+    }
+
+    /**
+     * Serialize one entry in the record format, used by the off-heap store and to answer cluster peers.
+     *
+     * @param cachedHolidays Holidays with upstream validators
+     * @return Serialized record
+     */
+    public static byte[] encodeHolidays(CachedHolidays cachedHolidays) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeHolidays(out, cachedHolidays);
+        } catch (IOException e) {
+            // writing to memory does not fail
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Read one entry serialized by {@link #encodeHolidays}.
+     *
+     * @param record Serialized record
+     * @return Holidays with upstream validators
+     * @throws BufferUnderflowException if the record is truncated or corrupt
+     */
+    public static CachedHolidays decodeHolidays(byte[] record) {
+        return readHolidays(ByteBuffer.wrap(record));
+    }
+
+    /**
+     * Write the holidays and upstream validators of one entry, the record format shared with the off-heap store and peers.
+     *
+     * @param out Output to write to
+     * @param cachedHolidays Holidays with upstream validators
+     * @throws IOException if the output cannot be written
+     */
+    static void writeHolidays(DataOutputStream out, CachedHolidays cachedHolidays) throws IOException {
+        HolidayCalendar calendar = cachedHolidays.calendar();
+        out.writeInt(calendar.size());
+        for (int i = 0; i < calendar.size(); i++) {
+            out.writeInt(calendar.epochDay(i));
+            writeString(out, calendar.localName(i));
+        }
+        writeString(out, cachedHolidays.eTag());
+        writeString(out, cachedHolidays.lastModified());
+        out.writeLong(cachedHolidays.contentLength());
+    }
+
+    /**
+     * Read the holidays and upstream validators of one entry written by {@link #writeHolidays}.
+     *
+     * @param buffer Buffer positioned at the entry
+     * @return Holidays with upstream validators
+     * @throws BufferUnderflowException if the buffer ends before the entry or the entry is corrupt
+     */
+    static CachedHolidays readHolidays(ByteBuffer buffer) {
+        int holidayCount = buffer.getInt();
+        checkCount(buffer, holidayCount, MIN_HOLIDAY_BYTES);
+        int[] epochDays = new int[holidayCount];
+        String[] localNames = new String[holidayCount];
+        for (int i = 0; i < holidayCount; i++) {
+            epochDays[i] = buffer.getInt();
+            localNames[i] = readString(buffer);
+        }
+        return new CachedHolidays(HolidayCalendar.of(epochDays, localNames), readString(buffer), readString(buffer),
+                buffer.getLong());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(ABSENT);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == ABSENT) {
+            return null;
+        }
+        checkCount(buffer, length, 1);
+        byte[] utf8 = new byte[length];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Check a count read from the buffer against the bytes left, before anything is allocated for it.
+     *
+     * @param buffer Buffer positioned after the count
+     * @param count Count read from the buffer
+     * @param minBytesEach Smallest encoding of one counted element
+     * @throws BufferUnderflowException if the count is negative or its elements cannot fit in the bytes left
+     */
+    private static void checkCount(ByteBuffer buffer, int count, int minBytesEach) {
+        if (count < 0 || (long) count * minBytesEach > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+    }
+}
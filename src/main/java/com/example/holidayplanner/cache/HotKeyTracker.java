@@ -0,0 +1,146 @@
+package com.example.holidayplanner.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class counts accesses per holidays cache key over a rolling window, to know which keys are hot.
+ * <p>
+ * Accesses are counted in a current and a previous window, rotated every holiday.warmup.window, so keys which were
+ * hot a while ago fade out. The hottest keys are written to a small text file on every rotation and on shutdown,
+ * the next start reads them back to warm up the cache before reporting ready.
+ */
+@Component
+@Slf4j
+public class HotKeyTracker {
+
+    private final Path hotKeysPath;
+    private final int maximumKeys;
+    private final Map<HolidayCacheKey, Long> persistedCounts;
+    private volatile ConcurrentHashMap<HolidayCacheKey, LongAdder> currentWindow = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<HolidayCacheKey, LongAdder> previousWindow = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the tracker and reads the hot keys persisted by the previous run.
+     *
+     * @param hotKeysPath File the hottest keys are persisted to
+     * @param maximumKeys Maximum number of keys persisted
+     */
+    public HotKeyTracker(@Value("${holiday.warmup.hot-keys-path:${java.io.tmpdir}/holiday-planner-api/hot-keys.txt}") Path hotKeysPath,
+                         @Value("${holiday.warmup.top-keys:200}") int maximumKeys) {
+        this.hotKeysPath = hotKeysPath;
+        this.maximumKeys = maximumKeys;
+        this.persistedCounts = readHotKeys(hotKeysPath);
+    }
+
+    /**
+     * Count one access of given key.
+     *
+     * @param key Accessed cache key
+     */
+    public void recordAccess(HolidayCacheKey key) {
+        currentWindow.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Hottest keys of the current and previous window, keys persisted by the previous run count as well.
+     *
+     * @param limit Maximum number of keys returned
+     * @return Keys ordered by access count, hottest first
+     */
+    public List<HolidayCacheKey> topKeys(int limit) {
+        return topCounts(limit).stream().map(Map.Entry::getKey).toList();
+    }
+
+    /**
+     * Start a new window, dropping counts of the previous one, and persist the hottest keys.
+     */
+    @Scheduled(initialDelayString = "${holiday.warmup.window:1h}", fixedDelayString = "${holiday.warmup.window:1h}")
+    public void rotate() {
+        writeHotKeys();
+        persistedCounts.clear();
+        previousWindow = currentWindow;
+        currentWindow = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Persist the hottest keys when the application context is closed.
+     */
+    @PreDestroy
+    public void writeHotKeys() {
+        List<Map.Entry<HolidayCacheKey, Long>> hotKeys = topCounts(maximumKeys);
+        if (hotKeys.isEmpty()) {
+            return;
+        }
+        List<String> lines = hotKeys.stream().map(entry -> entry.getKey() + " " + entry.getValue()).toList();
+        try {
+            Path directory = hotKeysPath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporaryFile = Files.createTempFile(directory, hotKeysPath.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temporaryFile, lines, StandardCharsets.UTF_8);
+                Files.move(temporaryFile, hotKeysPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (IOException e) {
+            log.warn("failed to write hot keys {}: {}", hotKeysPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Access counts of the hottest keys over both windows and the keys persisted by the previous run.
+     *
+     * @param limit Maximum number of keys returned
+     * @return Keys with their access count, hottest first
+     */
+    private List<Map.Entry<HolidayCacheKey, Long>> topCounts(int limit) {
+        Map<HolidayCacheKey, Long> counts = new HashMap<>(persistedCounts);
+        previousWindow.forEach((key, count) -> counts.merge(key, count.sum(), Long::sum));
+        currentWindow.forEach((key, count) -> counts.merge(key, count.sum(), Long::sum));
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<HolidayCacheKey, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Read hot keys persisted by a previous run, lines are year_countryCode followed by the access count.
+     *
+     * @param path File the hot keys were persisted to
+     * @return Access counts per key, empty when the file is missing or unreadable
+     */
+    private static Map<HolidayCacheKey, Long> readHotKeys(Path path) {
+        Map<HolidayCacheKey, Long> counts = new ConcurrentHashMap<>();
+        if (!Files.isReadable(path)) {
+            return counts;
+        }
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                String[] parts = line.trim().split("[_ ]");
+                if (parts.length == 3) {
+                    counts.put(new HolidayCacheKey(Integer.parseInt(parts[0]), parts[1]), Long.parseLong(parts[2]));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.warn("ignoring hot keys {}: {}", path, e.getMessage());
+            counts.clear();
+        }
+        return counts;
+    }
+}
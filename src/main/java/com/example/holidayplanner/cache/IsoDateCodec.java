@@ -0,0 +1,177 @@
+package com.example.holidayplanner.cache;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Converts holiday dates between the yyyy-MM-dd form used by Nager Date API and the API, epoch days and days of week.
+ * <p>
+ * Parsing reads the ten characters in place and computes the epoch day arithmetically, so no {@link LocalDate},
+ * formatter or parsed state is allocated per date, only an exception for invalid input. Formatting returns one shared
+ * string per date of the years {@value #FIRST_CACHED_YEAR} to {@value #LAST_CACHED_YEAR}, created on first use, so
+ * building responses does not format the same dates over and over. Other dates are formatted on every call.
+ */
+public final class IsoDateCodec {
+
+    /**
+     * First year of which formatted dates are cached.
+     */
+    public static final int FIRST_CACHED_YEAR = 1970;
+
+    /**
+     * Last year of which formatted dates are cached.
+     */
+    public static final int LAST_CACHED_YEAR = 2099;
+
+    private static final int LENGTH = 10;
+    private static final int DAYS_0000_TO_1970 = 719_528;
+    private static final int FIRST_CACHED_EPOCH_DAY = (int) LocalDate.of(FIRST_CACHED_YEAR, 1, 1).toEpochDay();
+    private static final int LAST_CACHED_EPOCH_DAY = (int) LocalDate.of(LAST_CACHED_YEAR, 12, 31).toEpochDay();
+
+    // racy but safe, strings are immutable and two threads formatting the same day store equal strings
+    private static final String[] FORMATTED = new String[LAST_CACHED_EPOCH_DAY - FIRST_CACHED_EPOCH_DAY + 1];
+
+    private IsoDateCodec() {
+    }
+
+    /**
+     * Parse a date in yyyy-MM-dd format.
+     *
+     * @param text Date in yyyy-MM-dd format
+     * @return Epoch day of the date
+     * @throws DateTimeParseException if the text is not a valid date in yyyy-MM-dd format
+     */
+    public static int parseEpochDay(CharSequence text) {
+        if (text.length() != LENGTH || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            throw invalidDate(text);
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        if (!isValid(year, month, day)) {
+            throw invalidDate(text);
+        }
+        return epochDayOf(year, month, day);
+    }
+
+    /**
+     * Parse a date in yyyy-MM-dd format from a character buffer, such as the text buffer of a JSON parser.
+     *
+     * @param chars Character buffer
+     * @param offset Index of the first character of the date
+     * @param length Number of characters of the date
+     * @return Epoch day of the date
+     * @throws DateTimeParseException if the characters are not a valid date in yyyy-MM-dd format
+     */
+    public static int parseEpochDay(char[] chars, int offset, int length) {
+        if (length != LENGTH || chars[offset + 4] != '-' || chars[offset + 7] != '-') {
+            throw invalidDate(new String(chars, offset, length));
+        }
+        int year = digits(chars, offset, offset + 4);
+        int month = digits(chars, offset + 5, offset + 7);
+        int day = digits(chars, offset + 8, offset + 10);
+        if (!isValid(year, month, day)) {
+            throw invalidDate(new String(chars, offset, length));
+        }
+        return epochDayOf(year, month, day);
+    }
+
+    /**
+     * Format an epoch day in yyyy-MM-dd format.
+     *
+     * @param epochDay Epoch day
+     * @return Date in yyyy-MM-dd format, shared between calls for cached years
+     */
+    public static String format(int epochDay) {
+        if (epochDay < FIRST_CACHED_EPOCH_DAY || epochDay > LAST_CACHED_EPOCH_DAY) {
+            return LocalDate.ofEpochDay(epochDay).toString();
+        }
+        int index = epochDay - FIRST_CACHED_EPOCH_DAY;
+        String formatted = FORMATTED[index];
+        if (formatted == null) {
+            formatted = LocalDate.ofEpochDay(epochDay).toString();
+            FORMATTED[index] = formatted;
+        }
+        return formatted;
+    }
+
+    /**
+     * ISO day of week of an epoch day.
+     *
+     * @param epochDay Epoch day
+     * @return Day of week, 1 for Monday to 7 for Sunday
+     */
+    public static int isoDayOfWeek(int epochDay) {
+        // 1970-01-01 was a Thursday
+        return Math.floorMod(epochDay + 3, 7) + 1;
+    }
+
+    /**
+     * Day of week of an epoch day.
+     *
+     * @param epochDay Epoch day
+     * @return Day of week
+     */
+    public static DayOfWeek dayOfWeek(int epochDay) {
+        return DayOfWeek.of(isoDayOfWeek(epochDay));
+    }
+
+    private static int digits(CharSequence text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int digits(char[] chars, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isValid(int year, int month, int day) {
+        return year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static boolean isLeap(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    // same arithmetic as LocalDate.toEpochDay for years 0 to 9999
+    private static int epochDayOf(int year, int month, int day) {
+        int total = 365 * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeap(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static DateTimeParseException invalidDate(CharSequence text) {
+        return new DateTimeParseException("Text '" + text + "' is not a date in yyyy-MM-dd format", text, 0);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.holidayplanner.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+/**
+ * Caffeine backed cache of failed lookups, so keys the upstream cannot answer are not asked again on every request.
+ * <p>
+ * Lookups the upstream answered as not found are kept for the not-found TTL, lookups which failed because the
+ * upstream was unreachable or erroring for the shorter failure TTL. A hit rethrows the failure recorded for the key,
+ * so callers get the same error response without an upstream call.
+ *
+ * @param <K> Type of cache key
+ */
+public class NegativeLookupCache<K> {
+
+    /**
+     * Settings of one negative cache.
+     *
+     * @param maximumSize Maximum number of failed lookups kept
+     * @param notFoundTtl How long lookups answered as not found are kept
+     * @param failureTtl How long lookups failed by an unavailable upstream are kept
+     */
+    public record Settings(long maximumSize, Duration notFoundTtl, Duration failureTtl) {
+    }
+
+    /**
+     * Failure recorded for one key.
+     *
+     * @param failure Exception the lookup failed with
+     * @param notFound Whether the upstream answered the key as not found
+     */
+    private record Entry(RuntimeException failure, boolean notFound) {
+    }
+
+    private final Cache<K, Entry> failures;
+    private final Settings settings;
+    private final Counter notFoundHits;
+    private final Counter failureHits;
+
+    /**
+     * Creates the cache and registers its hit counters and size gauge with Micrometer.
+     *
+     * @param name Name of the cache the failed lookups belong to, used in metric tags
+     * @param settings Size and TTL settings
+     * @param ticker Time source, system ticker outside of tests
+     * @param meterRegistry Registry to publish negative cache metrics to
+     */
+    public NegativeLookupCache(String name, Settings settings, Ticker ticker, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(settings.maximumSize())
+                .expireAfter(new Expiry<K, Entry>() {
+                    @Override
+                    public long expireAfterCreate(K key, Entry entry, long currentTime) {
+                        return ttlOf(entry);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(K key, Entry entry, long currentTime, long currentDuration) {
+                        return ttlOf(entry);
+                    }
+
+                    @Override
+                    public long expireAfterRead(K key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .build();
+        this.notFoundHits = Counter.builder("holiday.cache.negative.hits")
+                .description("Lookups answered from the negative cache without upstream call, by recorded failure")
+                .tag("cache", name)
+                .tag("failure", "not_found")
+                .register(meterRegistry);
+        this.failureHits = Counter.builder("holiday.cache.negative.hits")
+                .description("Lookups answered from the negative cache without upstream call, by recorded failure")
+                .tag("cache", name)
+                .tag("failure", "unavailable")
+                .register(meterRegistry);
+        Gauge.builder("holiday.cache.negative.size", failures, Cache::estimatedSize)
+                .description("Failed lookups currently kept in the negative cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rethrow the failure recorded for given key, if any.
+     *
+     * @param key Cache key
+     * @throws RuntimeException the recorded failure of the key
+     */
+    public void throwIfPresent(K key) {
+        Entry entry = failures.getIfPresent(key);
+        if (entry != null) {
+            (entry.notFound() ? notFoundHits : failureHits).increment();
+            throw entry.failure();
+        }
+    }
+
+    /**
+     * Record that the upstream answered given key as not found.
+     *
+     * @param key Cache key
+     * @param failure Exception the lookup failed with, rethrown on hits
+     */
+    public void recordNotFound(K key, RuntimeException failure) {
+        failures.put(key, new Entry(failure, true));
+    }
+
+    /**
+     * Record that the lookup of given key failed because the upstream was unavailable, unless failures are not kept.
+     *
+     * @param key Cache key
+     * @param failure Exception the lookup failed with, rethrown on hits
+     */
+    public void recordFailure(K key, RuntimeException failure) {
+        if (!settings.failureTtl().isZero()) {
+            failures.put(key, new Entry(failure, false));
+        }
+    }
+
+    /**
+     * Time to live of a recorded failure, depending on whether the upstream answered the key as not found.
+     *
+     * @param entry Recorded failure
+     * @return Time to live in nanoseconds
+     */
+    private long ttlOf(Entry entry) {
+        return (entry.notFound() ? settings.notFoundTtl() : settings.failureTtl()).toNanos();
+    }
+
+    /**
+     * Drop the failure recorded for given key, for example once a value was loaded for it.
+     *
+     * @param key Cache key
+     */
+    public void invalidate(K key) {
+        failures.invalidate(key);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.holidayplanner.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * This class is the off-heap second level of the holidays cache, holding serialized entries in one direct buffer.
+ * <p>
+ * Entries are appended to the buffer as records in the snapshot entry format and the buffer is reused as a ring:
+ * when a record does not fit, the oldest records are evicted first (FIFO), so the store never allocates after
+ * startup and its content is invisible to the garbage collector. Only the small key index lives on the heap.
+ * <p>
+ * Entries older than holiday.cache.holidays.off-heap.max-age are not served, it defaults to the refresh-after-write
+ * of the holidays cache, so background reloads of aged entries still reach the upstream. The buffer counts against
+ * -XX:MaxDirectMemorySize, which defaults to -Xmx.
+ */
+@Component
+public class OffHeapHolidayStore {
+
+    private final ByteBuffer arena;
+    private final long maxAgeMillis;
+    private final Clock clock;
+    private final Map<HolidayCacheKey, Slot> index = new HashMap<>();
+    private final ArrayDeque<Slot> slots = new ArrayDeque<>();
+    private int writePosition;
+    private long usedBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    /**
+     * Position of one record in the arena.
+     *
+     * @param key Key of the record
+     * @param offset Offset of the record in the arena
+     * @param length Length of the record in bytes
+     * @param storedAtMillis Time the record was stored
+     */
+    private record Slot(HolidayCacheKey key, int offset, int length, long storedAtMillis) {
+    }
+
+    /**
+     * Creates the store and allocates its direct buffer.
+     *
+     * @param enabled Whether entries are stored at all, a disabled store allocates nothing
+     * @param capacity Size of the direct buffer
+     * @param maxAge Maximum age of entries served
+     * @param meterRegistry Registry to publish store metrics to
+     */
+    @Autowired
+    public OffHeapHolidayStore(@Value("${holiday.cache.holidays.off-heap.enabled:true}") boolean enabled,
+                               @Value("${holiday.cache.holidays.off-heap.capacity:32MB}") DataSize capacity,
+                               @Value("${holiday.cache.holidays.off-heap.max-age:${holiday.cache.holidays.refresh-after-write:12h}}") Duration maxAge,
+                               MeterRegistry meterRegistry) {
+        this(enabled ? capacity : DataSize.ofBytes(0), maxAge, Clock.systemUTC(), meterRegistry);
+    }
+
+    /**
+     * Creates the store with given clock.
+     *
+     * @param capacity Size of the direct buffer, 0 to store nothing
+     * @param maxAge Maximum age of entries served
+     * @param clock Time source of store times
+     * @param meterRegistry Registry to publish store metrics to
+     */
+    OffHeapHolidayStore(DataSize capacity, Duration maxAge, Clock clock, MeterRegistry meterRegistry) {
+        if (capacity.toBytes() < 0 || capacity.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalStateException("holiday.cache.holidays.off-heap.capacity must be between 0 and 2GB");
+        }
+        this.arena = ByteBuffer.allocateDirect((int) capacity.toBytes());
+        this.maxAgeMillis = maxAge.toMillis();
+        this.clock = clock;
+        this.hits = Counter.builder("holiday.cache.offheap.requests")
+                .description("Lookups of the off-heap holidays store, by whether a fresh entry was found")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("holiday.cache.offheap.requests")
+                .description("Lookups of the off-heap holidays store, by whether a fresh entry was found")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("holiday.cache.offheap.evictions")
+                .description("Entries evicted from the off-heap holidays store to make room for new ones")
+                .register(meterRegistry);
+        Gauge.builder("holiday.cache.offheap.used", this, OffHeapHolidayStore::getUsedBytes)
+                .description("Bytes of live entries in the off-heap holidays store")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("holiday.cache.offheap.capacity", arena, ByteBuffer::capacity)
+                .description("Size of the off-heap holidays store")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("holiday.cache.offheap.entries", this, OffHeapHolidayStore::size)
+                .description("Entries in the off-heap holidays store")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the entry of given key if it is stored and not older than the maximum age.
+     *
+     * @param key Year and country code
+     * @return Stored holidays with their upstream validators
+     */
+    public Optional<CachedHolidays> get(HolidayCacheKey key) {
+        byte[] record;
+        synchronized (this) {
+            Slot slot = index.get(key);
+            if (slot == null || clock.millis() - slot.storedAtMillis() >= maxAgeMillis) {
+                misses.increment();
+                return Optional.empty();
+            }
+            record = new byte[slot.length()];
+            arena.get(slot.offset(), record);
+        }
+        hits.increment();
+        return Optional.of(HolidaySnapshotFile.decodeHolidays(record));
+    }
+
+    /**
+     * Store the entry of given key, replacing a stored one and evicting the oldest entries when the buffer is full.
+     * Entries larger than the whole buffer are not stored.
+     *
+     * @param key Year and country code
+     * @param holidays Holidays with their upstream validators
+     */
+    public void put(HolidayCacheKey key, CachedHolidays holidays) {
+        if (arena.capacity() == 0) {
+            return;
+        }
+        byte[] record = HolidaySnapshotFile.encodeHolidays(holidays);
+        synchronized (this) {
+            Slot replaced = index.remove(key);
+            if (replaced != null) {
+                // the replaced record stays in the ring as dead space until it is overwritten
+                usedBytes -= replaced.length();
+            }
+            if (record.length > arena.capacity()) {
+                return;
+            }
+            if (writePosition + record.length > arena.capacity()) {
+                // the records between the write position and the end are the oldest, drop them and wrap around
+                while (!slots.isEmpty() && slots.peekFirst().offset() >= writePosition) {
+                    evict(slots.pollFirst());
+                }
+                writePosition = 0;
+            }
+            while (!slots.isEmpty() && slots.peekFirst().offset() >= writePosition
+                    && slots.peekFirst().offset() < writePosition + record.length) {
+                evict(slots.pollFirst());
+            }
+            arena.put(writePosition, record);
+            Slot slot = new Slot(key, writePosition, record.length, clock.millis());
+            slots.addLast(slot);
+            index.put(key, slot);
+            writePosition += record.length;
+            usedBytes += record.length;
+        }
+    }
+
+    /**
+     * Number of entries stored.
+     *
+     * @return Stored entries, including entries past the maximum age
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Bytes of the stored entries, space of replaced entries not yet overwritten is not counted.
+     *
+     * @return Used bytes
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Drop the record of an overwritten slot from the index, unless its key was stored again since.
+     *
+     * @param slot Overwritten slot
+     */
+    private void evict(Slot slot) {
+        if (index.get(slot.key()) == slot) {
+            index.remove(slot.key());
+            usedBytes -= slot.length();
+            evictions.increment();
+        }
+    }
+}
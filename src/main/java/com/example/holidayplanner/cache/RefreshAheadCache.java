@@ -0,0 +1,273 @@
+package com.example.holidayplanner.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.Weigher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import lombok.SneakyThrows;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Caffeine backed cache with a soft and a hard time to live.
+ * <p>
+ * Entries older than the soft TTL (refreshAfterWrite) are still served while a reload runs in the background,
+ * only entries older than the hard TTL (expireAfterWrite) or missing entries make the caller wait for the loader.
+ * When a background reload fails the old value stays in place until the hard TTL.
+ * <p>
+ * The cache is bounded by total weight, entries weigh 1 unless a weigher estimating their bytes is given.
+ * <p>
+ * Entries leaving the cache because of size or hard TTL are kept in a larger, longer lived last-known-good store,
+ * which callers can fall back to when the upstream is unavailable. Loaders may receive the previous value of a key,
+ * the current one on reloads and the last-known-good one on misses, to revalidate it instead of loading it again.
+ *
+ * @param <K> Type of cache key
+ * @param <V> Type of cached value
+ */
+public class RefreshAheadCache<K, V> {
+
+    /**
+     * Settings of one refresh-ahead cache.
+     *
+     * @param maximumWeight Maximum total weight of entries, a number of entries when every entry weighs 1
+     * @param refreshAfterWrite Soft TTL, after which entries are reloaded in the background
+     * @param expireAfterWrite Hard TTL, after which entries are dropped and reloaded inline
+     * @param lastKnownGoodMaximumWeight Maximum total weight of entries kept after leaving the cache
+     * @param lastKnownGoodRetention How long entries are kept after leaving the cache
+     */
+    public record Settings(long maximumWeight, Duration refreshAfterWrite, Duration expireAfterWrite,
+                           long lastKnownGoodMaximumWeight, Duration lastKnownGoodRetention) {
+    }
+
+    @Getter
+    private final String name;
+    private final LoadingCache<K, V> cache;
+    private final Cache<K, V> lastKnownGood;
+    private final Policy.FixedRefresh<K, V> refreshPolicy;
+    private final long refreshAfterWriteNanos;
+
+    private final Counter refreshes;
+    private final Counter refreshFailures;
+    private final Counter staleServes;
+    private final Counter lastKnownGoodServes;
+
+    /**
+     * Creates the cache and registers its Caffeine statistics and refresh counters with Micrometer.
+     *
+     * @param name Cache name used in metric tags
+     * @param settings Size and TTL settings
+     * @param loader Loader used for misses and background reloads
+     * @param refreshExecutor Executor running background reloads
+     * @param ticker Time source, system ticker outside of tests
+     * @param meterRegistry Registry to publish cache metrics to
+     */
+    public RefreshAheadCache(String name, Settings settings, Function<K, V> loader, Executor refreshExecutor,
+                             Ticker ticker, MeterRegistry meterRegistry) {
+        this(name, settings, (K key, V previousValue) -> loader.apply(key), refreshExecutor, ticker, meterRegistry);
+    }
+
+    /**
+     * Creates the cache with a loader receiving the previous value of the key, null when none is retained.
+     *
+     * @param name Cache name used in metric tags
+     * @param settings Size and TTL settings
+     * @param loader Loader used for misses and background reloads, called with key and previous value
+     * @param refreshExecutor Executor running background reloads
+     * @param ticker Time source, system ticker outside of tests
+     * @param meterRegistry Registry to publish cache metrics to
+     */
+    public RefreshAheadCache(String name, Settings settings, BiFunction<K, V, V> loader, Executor refreshExecutor,
+                             Ticker ticker, MeterRegistry meterRegistry) {
+        this(name, settings, loader, Weigher.singletonWeigher(), refreshExecutor, ticker, meterRegistry);
+    }
+
+    /**
+     * Creates the cache with a weigher, the maximum weights of the settings are then budgets in the weigher's unit.
+     *
+     * @param name Cache name used in metric tags
+     * @param settings Weight and TTL settings
+     * @param loader Loader used for misses and background reloads, called with key and previous value
+     * @param weigher Weight of one entry, used for the cache and the last-known-good store
+     * @param refreshExecutor Executor running background reloads
+     * @param ticker Time source, system ticker outside of tests
+     * @param meterRegistry Registry to publish cache metrics to
+     */
+    public RefreshAheadCache(String name, Settings settings, BiFunction<K, V, V> loader, Weigher<? super K, ? super V> weigher,
+                             Executor refreshExecutor, Ticker ticker, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.refreshAfterWriteNanos = settings.refreshAfterWrite().toNanos();
+        this.refreshes = Counter.builder("holiday.cache.refreshes")
+                .description("Background reloads of entries past their soft TTL")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.refreshFailures = Counter.builder("holiday.cache.refresh.failures")
+                .description("Background reloads which failed and kept the stale value")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.staleServes = Counter.builder("holiday.cache.stale.serves")
+                .description("Reads answered with an entry past its soft TTL")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.lastKnownGoodServes = Counter.builder("holiday.cache.last.known.good.serves")
+                .description("Reads answered from the last-known-good store because loading failed")
+                .tag("cache", name)
+                .register(meterRegistry);
+
+        this.lastKnownGood = Caffeine.newBuilder()
+                .maximumWeight(settings.lastKnownGoodMaximumWeight())
+                .weigher(weigher)
+                .expireAfterWrite(settings.lastKnownGoodRetention())
+                .ticker(ticker)
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(settings.maximumWeight())
+                .weigher(weigher)
+                .refreshAfterWrite(settings.refreshAfterWrite())
+                .expireAfterWrite(settings.expireAfterWrite())
+                .executor(refreshExecutor)
+                .ticker(ticker)
+                // runs synchronously while the entry is evicted, so the value is kept before a reload can fail
+                .evictionListener((K key, V value, RemovalCause cause) -> {
+                    if (key != null && value != null) {
+                        lastKnownGood.put(key, value);
+                    }
+                })
+                .recordStats()
+                .build(new CountingLoader(loader));
+        this.refreshPolicy = cache.policy().refreshAfterWrite().orElseThrow();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Policy.Eviction<K, V> eviction = cache.policy().eviction().orElseThrow();
+        Gauge.builder("holiday.cache.weighted.size", eviction, e -> e.weightedSize().orElse(0L))
+                .description("Total weight of the entries in the cache, estimated bytes for byte weighted caches")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("holiday.cache.maximum.weight", settings, Settings::maximumWeight)
+                .description("Maximum total weight of the entries in the cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the value for given key, loading it inline only when missing or past the hard TTL.
+     * <p>
+     * Exceptions thrown by the loader are rethrown unchanged.
+     *
+     * @param key Cache key
+     * @return Cached or freshly loaded value
+     */
+    @SneakyThrows
+    public V get(K key) {
+        V value;
+        try {
+            value = cache.get(key);
+        } catch (CompletionException e) {
+            // caffeine wraps checked exceptions of the loader, callers expect the original one
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+        if (refreshPolicy.ageOf(key, TimeUnit.NANOSECONDS).orElse(0L) >= refreshAfterWriteNanos) {
+            staleServes.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Get the value for given key without loading it.
+     *
+     * @param key Cache key
+     * @return Cached value if present
+     */
+    public Optional<V> getIfPresent(K key) {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    /**
+     * Get the last value known for given key, from the cache or from entries which already left it.
+     * <p>
+     * Meant as fallback when loading fails, every value returned is counted as last-known-good serve.
+     *
+     * @param key Cache key
+     * @return Last known value if still retained
+     */
+    public Optional<V> getLastKnownGood(K key) {
+        V value = cache.getIfPresent(key);
+        if (value == null) {
+            value = lastKnownGood.getIfPresent(key);
+        }
+        if (value != null) {
+            lastKnownGoodServes.increment();
+        }
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * Store a value for given key, replacing any existing entry.
+     *
+     * @param key Cache key
+     * @param value Value to store
+     */
+    public void put(K key, V value) {
+        cache.put(key, value);
+    }
+
+    /**
+     * Copy of all entries currently in the cache, without affecting their access statistics.
+     *
+     * @return Entries of the cache
+     */
+    public Map<K, V> entries() {
+        return Map.copyOf(cache.asMap());
+    }
+
+    /**
+     * Drop the entry for given key.
+     *
+     * @param key Cache key
+     */
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * Loader wrapper passing previous values to the loader and counting background reloads and their failures.
+     */
+    private final class CountingLoader implements CacheLoader<K, V> {
+
+        private final BiFunction<K, V, V> loader;
+
+        private CountingLoader(BiFunction<K, V, V> loader) {
+            this.loader = loader;
+        }
+
+        @Override
+        public V load(K key) {
+            return loader.apply(key, lastKnownGood.getIfPresent(key));
+        }
+
+        @Override
+        public V reload(K key, V oldValue) throws Exception {
+            refreshes.increment();
+            try {
+                return loader.apply(key, oldValue);
+            } catch (Exception e) {
+                refreshFailures.increment();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.holidayplanner.cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.Weigher;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.example.holidayplanner.ratelimit.UpstreamPriority;
+
+/**
+ * Factory creating named refresh-ahead caches configured from application properties.
+ * <p>
+ * Settings are read per cache name from holiday.cache.{name}.refresh-after-write, expire-after-write and
+ * last-known-good.retention. Caches created with a weigher are bounded by an estimated byte budget, a share of the
+ * maximum heap set by heap-share and last-known-good.heap-share or a fixed size set by maximum-weight and
+ * last-known-good.maximum-weight, so the budget follows the -Xmx of the container. Caches without weigher are bounded
+ * by maximum-size and last-known-good.maximum-size entries. Negative caches of failed lookups are configured under
+ * negative.maximum-size, not-found-ttl and failure-ttl. All caches share one small pool for background reloads,
+ * so blocking upstream calls never run on the common fork join pool, its upstream calls run as BACKGROUND priority.
+ */
+@Component
+public class RefreshAheadCacheFactory {
+
+    private static final double DEFAULT_HEAP_SHARE = 0.05;
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final long maximumHeapBytes;
+
+    /**
+     * Creates the factory and its background reload pool.
+     *
+     * @param environment Environment to read per cache settings from
+     * @param meterRegistry Registry to publish cache metrics to
+     * @param refreshThreads Number of threads running background reloads
+     */
+    @Autowired
+    public RefreshAheadCacheFactory(Environment environment, MeterRegistry meterRegistry,
+                                    @Value("${holiday.cache.refresh-threads:2}") int refreshThreads) {
+        this(environment, meterRegistry, refreshThreads, Runtime.getRuntime().maxMemory());
+    }
+
+    /**
+     * Creates the factory for given maximum heap size, which byte budgets of weighted caches are a share of.
+     *
+     * @param environment Environment to read per cache settings from
+     * @param meterRegistry Registry to publish cache metrics to
+     * @param refreshThreads Number of threads running background reloads
+     * @param maximumHeapBytes Maximum heap size in bytes
+     */
+    RefreshAheadCacheFactory(Environment environment, MeterRegistry meterRegistry, int refreshThreads, long maximumHeapBytes) {
+        this.environment = environment;
+        this.maximumHeapBytes = maximumHeapBytes;
+        this.meterRegistry = meterRegistry;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-refresh-");
+        threadFactory.setDaemon(true);
+        // reloads beyond the queue capacity are dropped by caffeine and retried on a later read
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(1000), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Create a refresh-ahead cache with settings of given cache name.
+     *
+     * @param cacheName Name of the cache, also used as property and metric name
+     * @param loader Loader used for misses and background reloads
+     * @param <K> Type of cache key
+     * @param <V> Type of cached value
+     * @return New refresh-ahead cache
+     */
+    public <K, V> RefreshAheadCache<K, V> create(String cacheName, Function<K, V> loader) {
+        return create(cacheName, (K key, V previousValue) -> loader.apply(key));
+    }
+
+    /**
+     * Create a refresh-ahead cache with settings of given cache name and a loader revalidating previous values.
+     *
+     * @param cacheName Name of the cache, also used as property and metric name
+     * @param loader Loader used for misses and background reloads, called with key and previous value or null
+     * @param <K> Type of cache key
+     * @param <V> Type of cached value
+     * @return New refresh-ahead cache
+     */
+    public <K, V> RefreshAheadCache<K, V> create(String cacheName, BiFunction<K, V, V> loader) {
+        String prefix = "holiday.cache." + cacheName + ".";
+        long maximumSize = environment.getProperty(prefix + "maximum-size", Long.class, 1000L);
+        long lastKnownGoodMaximumSize = environment.getProperty(prefix + "last-known-good.maximum-size", Long.class, maximumSize * 5);
+        return new RefreshAheadCache<>(cacheName, settingsOf(cacheName, maximumSize, lastKnownGoodMaximumSize), loader,
+                UpstreamPriority.background(refreshExecutor), Ticker.systemTicker(), meterRegistry);
+    }
+
+    /**
+     * Create a refresh-ahead cache with settings of given cache name, bounded by the estimated bytes of its entries.
+     *
+     * @param cacheName Name of the cache, also used as property and metric name
+     * @param loader Loader used for misses and background reloads, called with key and previous value or null
+     * @param weigher Estimated bytes of one entry
+     * @param <K> Type of cache key
+     * @param <V> Type of cached value
+     * @return New refresh-ahead cache
+     */
+    public <K, V> RefreshAheadCache<K, V> create(String cacheName, BiFunction<K, V, V> loader, Weigher<? super K, ? super V> weigher) {
+        String prefix = "holiday.cache." + cacheName + ".";
+        long maximumWeight = byteBudgetOf(prefix, (long) (maximumHeapBytes * DEFAULT_HEAP_SHARE));
+        long lastKnownGoodMaximumWeight = byteBudgetOf(prefix + "last-known-good.", maximumWeight);
+        return new RefreshAheadCache<>(cacheName, settingsOf(cacheName, maximumWeight, lastKnownGoodMaximumWeight), loader,
+                weigher, UpstreamPriority.background(refreshExecutor), Ticker.systemTicker(), meterRegistry);
+    }
+
+    /**
+     * Create the negative cache of failed lookups of given cache name, configured from holiday.cache.{name}.negative.*
+     * properties. Lookups answered as not found are kept for 10 minutes and failed lookups for 5 seconds by default,
+     * up to 10000 keys.
+     *
+     * @param cacheName Name of the cache whose failed lookups are kept, also used as metric tag
+     * @param <K> Type of cache key
+     * @return New negative cache
+     */
+    public <K> NegativeLookupCache<K> createNegative(String cacheName) {
+        String prefix = "holiday.cache." + cacheName + ".negative.";
+        long maximumSize = environment.getProperty(prefix + "maximum-size", Long.class, 10_000L);
+        Duration notFoundTtl = environment.getProperty(prefix + "not-found-ttl", Duration.class, Duration.ofMinutes(10));
+        Duration failureTtl = environment.getProperty(prefix + "failure-ttl", Duration.class, Duration.ofSeconds(5));
+        if (failureTtl.compareTo(notFoundTtl) > 0) {
+            throw new IllegalStateException(prefix + "failure-ttl must not be longer than " + prefix + "not-found-ttl");
+        }
+        return new NegativeLookupCache<>(cacheName, new NegativeLookupCache.Settings(maximumSize, notFoundTtl, failureTtl),
+                Ticker.systemTicker(), meterRegistry);
+    }
+
+    /**
+     * Read settings of given cache name, caches without own settings keep entries for 24 hours,
+     * refresh them in the background after 12 hours and keep evicted entries for 7 more days.
+     *
+     * @param cacheName Name of the cache
+     * @param maximumWeight Maximum total weight of the cache
+     * @param lastKnownGoodMaximumWeight Maximum total weight of the last-known-good store
+     * @return Settings of the cache
+     */
+    private RefreshAheadCache.Settings settingsOf(String cacheName, long maximumWeight, long lastKnownGoodMaximumWeight) {
+        String prefix = "holiday.cache." + cacheName + ".";
+        Duration refreshAfterWrite = environment.getProperty(prefix + "refresh-after-write", Duration.class, Duration.ofHours(12));
+        Duration expireAfterWrite = environment.getProperty(prefix + "expire-after-write", Duration.class, Duration.ofHours(24));
+        Duration lastKnownGoodRetention = environment.getProperty(prefix + "last-known-good.retention", Duration.class, Duration.ofDays(7));
+        if (refreshAfterWrite.compareTo(expireAfterWrite) >= 0) {
+            throw new IllegalStateException(prefix + "refresh-after-write must be shorter than " + prefix + "expire-after-write");
+        }
+        return new RefreshAheadCache.Settings(maximumWeight, refreshAfterWrite, expireAfterWrite,
+                lastKnownGoodMaximumWeight, lastKnownGoodRetention);
+    }
+
+    /**
+     * Read the byte budget under given property prefix, a fixed maximum-weight wins over a heap-share.
+     *
+     * @param prefix Property prefix ending with a dot
+     * @param defaultBytes Byte budget used when neither property is set
+     * @return Byte budget, at least 1
+     */
+    private long byteBudgetOf(String prefix, long defaultBytes) {
+        DataSize maximumWeight = environment.getProperty(prefix + "maximum-weight", DataSize.class);
+        if (maximumWeight != null) {
+            return Math.max(1, maximumWeight.toBytes());
+        }
+        Double heapShare = environment.getProperty(prefix + "heap-share", Double.class);
+        if (heapShare == null) {
+            return Math.max(1, defaultBytes);
+        }
+        if (heapShare <= 0 || heapShare > 1) {
+            throw new IllegalStateException(prefix + "heap-share must be greater than 0 and at most 1");
+        }
+        return Math.max(1, (long) (maximumHeapBytes * heapShare));
+    }
+
+    /**
+     * Stop the background reload pool when the application context is closed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.holidayplanner.cache;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the dates on which all of several countries have a holiday.
+ * <p>
+ * The day of year bitmaps of the calendars, computed when they were built, are ANDed word by word, so the cost
+ * grows with the number of countries and not with their holidays. Set bits of the result are read in ascending
+ * order, so shared dates come out in date order without sorting, and local names are looked up per shared date only.
+ */
+public final class SharedHolidayIntersection {
+
+    /**
+     * Date on which all countries have a holiday.
+     *
+     * @param epochDay Epoch day of the date
+     * @param localNames Local name of the first holiday on that date per country, in the order of the calendars
+     */
+    public record SharedDay(int epochDay, List<String> localNames) {
+    }
+
+    private SharedHolidayIntersection() {
+    }
+
+    /**
+     * Find the dates of given year on which every calendar has a holiday.
+     *
+     * @param year Year of the holidays
+     * @param calendars Holidays of each country for the year
+     * @return Shared dates in ascending order, empty without calendars
+     */
+    public static List<SharedDay> of(int year, List<HolidayCalendar> calendars) {
+        if (calendars.isEmpty()) {
+            return List.of();
+        }
+        long[] days = new long[HolidayCalendar.DAY_OF_YEAR_WORDS];
+        Arrays.fill(days, -1L);
+        for (HolidayCalendar calendar : calendars) {
+            calendar.retainDaysOfYear(year, days);
+        }
+        int firstEpochDay = (int) LocalDate.ofYearDay(year, 1).toEpochDay();
+        List<SharedDay> sharedDays = new ArrayList<>();
+        for (int word = 0; word < days.length; word++) {
+            long bits = days[word];
+            while (bits != 0) {
+                int epochDay = firstEpochDay + word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                List<String> localNames = new ArrayList<>(calendars.size());
+                for (HolidayCalendar calendar : calendars) {
+                    localNames.add(calendar.localName(calendar.indexOf(epochDay)));
+                }
+                sharedDays.add(new SharedDay(epochDay, localNames));
+                bits &= bits - 1;
+            }
+        }
+        return sharedDays;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.holidayplanner.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces concurrent loads of the same key into a single upstream call.
+ * <p>
+ * The first caller for a key becomes the leader and runs the loader on its own thread, every other caller
+ * arriving while that load is in flight waits on the same future and receives the same value or exception.
+ * Once the load completes the key is released, so the next miss triggers a fresh load.
+ */
+@Component
+public class SingleFlightLoader {
+
+    private final Map<String, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+
+    private final Counter leaderLoads;
+    private final Counter coalescedWaiters;
+
+    /**
+     * Creates the loader and registers its counters and in-flight gauge with Micrometer.
+     *
+     * @param meterRegistry registry to publish single-flight metrics to
+     */
+    public SingleFlightLoader(MeterRegistry meterRegistry) {
+        this.leaderLoads = Counter.builder("nager.api.singleflight.loads")
+                .description("Upstream loads executed by a single-flight leader")
+                .register(meterRegistry);
+        this.coalescedWaiters = Counter.builder("nager.api.singleflight.coalesced")
+                .description("Callers that waited on an in-flight upstream load instead of starting their own")
+                .register(meterRegistry);
+        Gauge.builder("nager.api.singleflight.inflight", inFlightLoads, Map::size)
+                .description("Upstream loads currently in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load the value for given key, joining an already running load for the same key if there is one.
+     *
+     * @param key Key identifying the upstream resource, for example year_countryCode
+     * @param loader Loader performing the actual upstream call, executed only by the leader
+     * @param <T> Type of the loaded value
+     * @return Value loaded by the leader of this flight
+     */
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public <T> T load(String key, Supplier<T> loader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = inFlightLoads.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            coalescedWaiters.increment();
+            try {
+                return (T) inFlight.join();
+            } catch (CompletionException e) {
+                // rethrow exactly what the leader got so callers see the same exception type
+                throw e.getCause();
+            }
+        }
+
+        leaderLoads.increment();
+        try {
+            T value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (Throwable t) {
+            flight.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlightLoads.remove(key, flight);
+        }
+    }
+
+    /**
+     * Number of upstream loads executed by single-flight leaders since startup.
+     *
+     * @return count of leader loads
+     */
+    public long getLeaderLoadCount() {
+        return (long) leaderLoads.count();
+    }
+
+    /**
+     * Number of callers that joined an in-flight load instead of calling upstream themselves.
+     *
+     * @return count of coalesced waiters
+     */
+    public long getCoalescedWaiterCount() {
+        return (long) coalescedWaiters.count();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.holidayplanner.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring assigning keys to the members of a static peer list.
+ * <p>
+ * Every member is placed on the ring at a number of virtual node positions, a key is owned by the member of the
+ * first position at or after the hash of the key. All instances building the ring from the same peer list agree on
+ * the owner of every key, and adding or removing one member only moves the keys of its own positions.
+ */
+public final class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> positions = new TreeMap<>();
+
+    /**
+     * Builds the ring for given members.
+     *
+     * @param members Members of the ring, for example base urls of the peers
+     * @param virtualNodes Number of positions per member, more positions spread keys more evenly
+     */
+    public ConsistentHashRing(List<String> members, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be at least 1");
+        }
+        for (String member : members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // on the rare hash collision the first member keeps the position, the same on every instance
+                positions.putIfAbsent(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    /**
+     * Member owning given key.
+     *
+     * @param key Key, for example year_countryCode
+     * @return Owning member, null when the ring has no members
+     */
+    public String ownerOf(String key) {
+        if (positions.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> position = positions.ceilingEntry(hash(key));
+        return position != null ? position.getValue() : positions.firstEntry().getValue();
+    }
+
+    /**
+     * Whether the ring has no members.
+     *
+     * @return true when no key has an owner
+     */
+    public boolean isEmpty() {
+        return positions.isEmpty();
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the UTF-8 bytes, finished with the MurmurHash3 mix so similar keys spread over the ring.
+     *
+     * @param value Value to hash
+     * @return Hash of the value
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
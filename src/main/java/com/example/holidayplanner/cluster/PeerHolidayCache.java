@@ -0,0 +1,236 @@
+package com.example.holidayplanner.cluster;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.BufferUnderflowException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import com.example.holidayplanner.cache.CachedHolidays;
+import com.example.holidayplanner.cache.HolidayCacheKey;
+import com.example.holidayplanner.cache.HolidaySnapshotFile;
+import com.example.holidayplanner.exception.InvalidParameterException;
+
+/**
+ * This class lets replicas share their holidays caches, asking the owning peer before going to Nager Date API.
+ * <p>
+ * Holidays keys are assigned to the instances of the static holiday.cluster.peers list on a consistent-hash ring,
+ * every instance builds the same ring and therefore agrees on the owner of each key. A miss of a key owned by another
+ * instance is first asked from that owner, which answers from its own cache and is the only instance loading the key
+ * from the upstream. A peer which fails or times out is skipped for holiday.cluster.peer-retry-after and the key is
+ * loaded from the upstream as without cluster, so a lost peer never fails a request.
+ * <p>
+ * Peer requests carry the shared holiday.cluster.secret, instances only answer peer requests presenting it.
+ * <p>
+ * Disabled unless holiday.cluster.enabled=true, a disabled instance never asks peers.
+ */
+@Component
+@Slf4j
+public class PeerHolidayCache {
+
+    /**
+     * Path the owner of a key serves its cached holidays on, in the record format of the holidays snapshot.
+     */
+    public static final String PEER_HOLIDAYS_PATH = "/internal/cluster/holidays/{year}/{countryCode}";
+
+    /**
+     * Header carrying the shared secret of the cluster on peer requests.
+     */
+    public static final String PEER_SECRET_HEADER = "X-Holiday-Cluster-Secret";
+
+    @Getter
+    private final boolean enabled;
+    private final String self;
+    private final byte[] secret;
+    private final ConsistentHashRing ring;
+    private final RestClient restClient;
+    private final long retryAfterMillis;
+    private final Clock clock;
+    private final Map<String, Long> unavailableUntilMillis = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter errors;
+    private final Counter skips;
+
+    /**
+     * Creates the peer cache from the cluster properties.
+     *
+     * @param enabled Whether peers are asked at all
+     * @param self Base url of this instance as listed in peers
+     * @param peers Base urls of all instances of the cluster, including this one
+     * @param secret Shared secret of all instances of the cluster
+     * @param virtualNodes Number of ring positions per instance
+     * @param retryAfter Time a failed peer is skipped before it is asked again
+     * @param peerHttpClient Pooled HTTP client of peer requests, with the peer timeouts
+     * @param meterRegistry Registry to publish peer metrics to
+     */
+    @Autowired
+    public PeerHolidayCache(@Value("${holiday.cluster.enabled:false}") boolean enabled,
+                            @Value("${holiday.cluster.self:}") String self,
+                            @Value("${holiday.cluster.peers:}") List<String> peers,
+                            @Value("${holiday.cluster.secret:}") String secret,
+                            @Value("${holiday.cluster.virtual-nodes:128}") int virtualNodes,
+                            @Value("${holiday.cluster.peer-retry-after:10s}") Duration retryAfter,
+                            @Qualifier("peerHttpClient") CloseableHttpClient peerHttpClient,
+                            MeterRegistry meterRegistry) {
+        this(enabled, self, peers, secret, virtualNodes, retryAfter,
+                RestClient.builder().requestFactory(new HttpComponentsClientHttpRequestFactory(peerHttpClient)),
+                Clock.systemUTC(), meterRegistry);
+    }
+
+    /**
+     * Creates the peer cache with given client builder and clock.
+     *
+     * @param enabled Whether peers are asked at all
+     * @param self Base url of this instance as listed in peers
+     * @param peers Base urls of all instances of the cluster, including this one
+     * @param secret Shared secret of all instances of the cluster
+     * @param virtualNodes Number of ring positions per instance
+     * @param retryAfter Time a failed peer is skipped before it is asked again
+     * @param restClientBuilder Builder of the client used for peer requests
+     * @param clock Time source of peer backoffs
+     * @param meterRegistry Registry to publish peer metrics to
+     */
+    PeerHolidayCache(boolean enabled, String self, List<String> peers, String secret, int virtualNodes, Duration retryAfter,
+                     RestClient.Builder restClientBuilder, Clock clock, MeterRegistry meterRegistry) {
+        List<String> members = peers.stream().map(PeerHolidayCache::normalize).filter(peer -> !peer.isEmpty()).distinct().toList();
+        this.self = normalize(self);
+        if (enabled && !members.contains(this.self)) {
+            throw new IllegalStateException("holiday.cluster.self must be one of holiday.cluster.peers");
+        }
+        if (enabled && (secret == null || secret.isBlank())) {
+            throw new IllegalStateException("holiday.cluster.secret must be set when holiday.cluster.enabled=true");
+        }
+        this.enabled = enabled && members.size() > 1;
+        this.secret = this.enabled ? secret.getBytes(StandardCharsets.UTF_8) : null;
+        this.ring = new ConsistentHashRing(this.enabled ? members : List.of(), virtualNodes);
+        this.restClient = this.enabled ? restClientBuilder.defaultHeader(PEER_SECRET_HEADER, secret).build() : restClientBuilder.build();
+        this.retryAfterMillis = retryAfter.toMillis();
+        this.clock = clock;
+        this.hits = Counter.builder("holiday.cluster.peer.requests")
+                .description("Holidays misses asked from the owning peer, by outcome")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.errors = Counter.builder("holiday.cluster.peer.requests")
+                .description("Holidays misses asked from the owning peer, by outcome")
+                .tag("result", "error")
+                .register(meterRegistry);
+        this.skips = Counter.builder("holiday.cluster.peer.requests")
+                .description("Holidays misses asked from the owning peer, by outcome")
+                .tag("result", "skipped")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether this instance owns given key, always true when the cluster is disabled.
+     *
+     * @param key Year and country code
+     * @return true when this instance loads the key from the upstream
+     */
+    public boolean isOwner(HolidayCacheKey key) {
+        return !enabled || self.equals(ring.ownerOf(key.toString()));
+    }
+
+    /**
+     * Whether a peer request presents the shared secret of the cluster, compared in constant time.
+     *
+     * @param presentedSecret Value of the secret header of the request, may be null
+     * @return true if the cluster is enabled and the secret matches
+     */
+    public boolean isAuthorized(String presentedSecret) {
+        return enabled && presentedSecret != null
+                && MessageDigest.isEqual(secret, presentedSecret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Ask the owner of given key for its holidays, unless this instance owns it or the owner recently failed.
+     *
+     * @param key Year and country code
+     * @return Holidays of the owner, empty when the key is to be loaded from the upstream
+     * @throws InvalidParameterException if the owner found no holidays for the year and country code
+     */
+    public Optional<CachedHolidays> fetchFromOwner(HolidayCacheKey key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String owner = ring.ownerOf(key.toString());
+        if (self.equals(owner)) {
+            return Optional.empty();
+        }
+        Long unavailableUntil = unavailableUntilMillis.get(owner);
+        if (unavailableUntil != null && clock.millis() < unavailableUntil) {
+            skips.increment();
+            return Optional.empty();
+        }
+        try {
+            byte[] record = restClient.get()
+                    .uri(owner + PEER_HOLIDAYS_PATH, key.year(), key.countryCode())
+                    .retrieve()
+                    .body(byte[].class);
+            if (record == null) {
+                throw new RestClientException("empty response");
+            }
+            CachedHolidays holidays = HolidaySnapshotFile.decodeHolidays(record);
+            unavailableUntilMillis.remove(owner);
+            hits.increment();
+            return Optional.of(holidays);
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode().isSameCodeAs(HttpStatus.BAD_REQUEST) || e.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+                // the owner asked the upstream, asking it again from here would get the same answer
+                hits.increment();
+                throw new InvalidParameterException("No holidays found for country: " + key.countryCode() + " in year: " + key.year());
+            }
+            return markUnavailable(owner, key, e);
+        } catch (RestClientException | BufferUnderflowException e) {
+            return markUnavailable(owner, key, e);
+        }
+    }
+
+    /**
+     * Skip a failed peer for the retry period, the key is then loaded from the upstream.
+     *
+     * @param owner Base url of the failed peer
+     * @param key Requested key
+     * @param e Failure of the peer request
+     * @return Empty result
+     */
+    private Optional<CachedHolidays> markUnavailable(String owner, HolidayCacheKey key, RuntimeException e) {
+        errors.increment();
+        unavailableUntilMillis.put(owner, clock.millis() + retryAfterMillis);
+        log.warn("peer {} failed to serve holidays '{}', loading them from Nager Date API: {}", owner, key, e.getMessage());
+        return Optional.empty();
+    }
+
+    /**
+     * Peer base url without surrounding blanks and trailing slash, so listings in different forms match.
+     *
+     * @param peer Peer base url
+     * @return Normalized base url, empty for null
+     */
+    private static String normalize(String peer) {
+        if (peer == null) {
+            return "";
+        }
+        String trimmed = peer.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -1,26 +1,195 @@
 package com.example.holidayplanner.config;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+import java.time.Duration;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
 /**
  * Configuration class to define RestClient bean for making REST API calls towards Nager Date API.
  * <p>
- * This class provides a Spring bean for RestClient, which is used to perform HTTP requests to external services.
+ * The RestClient runs on a pooled Apache HttpClient 5 with bounded connections, keep-alive reuse and
+ * connect, read and response timeouts, so slow upstream sockets cannot hold request threads indefinitely.
+ * Connection pool usage is exported to Micrometer.
+ * <p>
+ * Requests to the other instances of the cluster run on a second, smaller pool with the short peer timeout, so a slow
+ * peer cannot take the connections of Nager Date API calls and peer connections are reused and monitored the same way.
  */
 @Configuration
 public class RestClientConfig {
 
+    @Value("${nager.date.api.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${nager.date.api.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${nager.date.api.http.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${nager.date.api.http.read-timeout:5s}")
+    private Duration readTimeout;
+
+    @Value("${nager.date.api.http.response-timeout:5s}")
+    private Duration responseTimeout;
+
+    @Value("${nager.date.api.http.connection-request-timeout:1s}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${nager.date.api.http.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Value("${nager.date.api.http.connection-time-to-live:5m}")
+    private Duration connectionTimeToLive;
+
+    @Value("${holiday.cluster.http.max-connections:20}")
+    private int peerMaxConnections;
+
+    @Value("${holiday.cluster.http.max-connections-per-peer:10}")
+    private int peerMaxConnectionsPerRoute;
+
+    @Value("${holiday.cluster.peer-timeout:500ms}")
+    private Duration peerTimeout;
+
+    /**
+     * Defines the bounded connection pool used for all Nager Date API calls.
+     * <p>
+     * Connect and read (socket) timeouts are set per connection, idle connections are validated before reuse.
+     *
+     * @return pooling connection manager
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager nagerConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(connectionTimeToLive))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Defines the pooled HTTP client, it reuses connections for the shorter of the server keep-alive hint and
+     * the configured keep-alive and evicts expired and idle connections in the background.
+     *
+     * @param nagerConnectionManager connection pool of the client
+     * @return pooled HTTP client
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient nagerHttpClient(@Qualifier("nagerConnectionManager") PoolingHttpClientConnectionManager nagerConnectionManager) {
+        TimeValue maxKeepAlive = TimeValue.of(keepAlive);
+        return HttpClients.custom()
+                .setConnectionManager(nagerConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .build())
+                .setKeepAliveStrategy((response, context) ->
+                        DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context).min(maxKeepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(maxKeepAlive)
+                .build();
+    }
+
     /**
      * Defines a RestClient bean for making REST API calls.
      * <p>
      * This bean is used to interact with the Nager Date API from other service classes.
      *
+     * @param nagerHttpClient pooled HTTP client doing the actual calls
      * @return a new instance of RestClient
      */
     @Bean
-    public RestClient restClient() {
-        return RestClient.create();
+    public RestClient restClient(@Qualifier("nagerHttpClient") CloseableHttpClient nagerHttpClient) {
+        return RestClient.builder()
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(nagerHttpClient))
+                .build();
+    }
+
+    /**
+     * Exports leased, pending, available and max connections of the pool as httpcomponents.httpclient.pool.* metrics.
+     *
+     * @param nagerConnectionManager connection pool to monitor
+     * @return meter binder registered by Spring Boot actuator
+     */
+    @Bean
+    public MeterBinder nagerConnectionPoolMetrics(@Qualifier("nagerConnectionManager") PoolingHttpClientConnectionManager nagerConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(nagerConnectionManager, "nager-date-api");
+    }
+
+    /**
+     * Defines the bounded connection pool of requests to the other instances of the cluster, with the peer timeout
+     * as connect and read timeout. Connections are only opened when the cluster is enabled.
+     *
+     * @return pooling connection manager of peer requests
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager peerConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(peerMaxConnections)
+                .setMaxConnPerRoute(peerMaxConnectionsPerRoute)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(peerTimeout))
+                        .setSocketTimeout(Timeout.of(peerTimeout))
+                        .setTimeToLive(TimeValue.of(connectionTimeToLive))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Defines the pooled HTTP client of peer requests, a peer request waits at most the peer timeout for a connection
+     * and for the response, a slow peer costs less than the upstream call it saves.
+     *
+     * @param peerConnectionManager connection pool of the client
+     * @return pooled HTTP client of peer requests
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient peerHttpClient(@Qualifier("peerConnectionManager") PoolingHttpClientConnectionManager peerConnectionManager) {
+        TimeValue maxKeepAlive = TimeValue.of(keepAlive);
+        return HttpClients.custom()
+                .setConnectionManager(peerConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(peerTimeout))
+                        .setResponseTimeout(Timeout.of(peerTimeout))
+                        .build())
+                .setKeepAliveStrategy((response, context) ->
+                        DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context).min(maxKeepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(maxKeepAlive)
+                .build();
+    }
+
+    /**
+     * Exports the pool of peer requests as httpcomponents.httpclient.pool.* metrics of the holiday-cluster pool.
+     *
+     * @param peerConnectionManager connection pool to monitor
+     * @return meter binder registered by Spring Boot actuator
+     */
+    @Bean
+    public MeterBinder peerConnectionPoolMetrics(@Qualifier("peerConnectionManager") PoolingHttpClientConnectionManager peerConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(peerConnectionManager, "holiday-cluster");
     }
 }
@@ -2,21 +2,43 @@ package com.example.holidayplanner.controller;
 
 import lombok.RequiredArgsConstructor;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.holidayplanner.generated.contract.HolidayPlannerApi;
+import com.example.holidayplanner.generated.model.CommonHoliday;
 import com.example.holidayplanner.generated.model.CountryHolidayCount;
 import com.example.holidayplanner.generated.model.Holiday;
+import com.example.holidayplanner.generated.model.HolidayBatchRequest;
+import com.example.holidayplanner.generated.model.HolidayBatchResponse;
 import com.example.holidayplanner.generated.model.SharedHoliday;
+import com.example.holidayplanner.service.contract.HolidayBatchServiceContract;
 import com.example.holidayplanner.service.contract.HolidayServiceContract;
+import com.example.holidayplanner.service.contract.VersionedResult;
 
 /**
  * REST controller for Holiday Planner API endpoints.
  * <p>
  * This controller exposes endpoints to fetch last N holidays, non-weekend holiday counts,
- * and shared holidays between countries using the HolidayServiceContract.
+ * and shared holidays between two or more countries using the HolidayServiceContract, and runs batches of these
+ * queries using the HolidayBatchServiceContract.
+ * <p>
+ * Responses carry a strong ETag made from the version of the cached result, which changes only when the holidays of
+ * a year and country it was computed from change. A request whose If-None-Match matches the version is answered with
+ * 304 Not Modified before anything is computed or serialized. Cache-Control allows clients to reuse responses for
+ * {@code max-age}, responses for past years for the longer {@code past-year-max-age}, and last N holidays at most
+ * until local midnight, when today changes.
  */
 @RestController
 @RequiredArgsConstructor
@@ -27,6 +49,28 @@ public class HolidayController implements HolidayPlannerApi {
      */
     private final HolidayServiceContract holidayServiceContract;
 
+    /**
+     * Service contract for batches of holiday queries.
+     */
+    private final HolidayBatchServiceContract holidayBatchServiceContract;
+
+    /**
+     * Current request, to evaluate its If-None-Match header and describe it in the errors of batch queries.
+     */
+    private final WebRequest webRequest;
+
+    /**
+     * How long clients may reuse responses.
+     */
+    @Value("${holiday.http.cache-control.max-age:1h}")
+    private Duration maxAge;
+
+    /**
+     * How long clients may reuse responses for past years, whose holidays hardly change.
+     */
+    @Value("${holiday.http.cache-control.past-year-max-age:7d}")
+    private Duration pastYearMaxAge;
+
     /**
      * Endpoint to fetch the last N holidays for a given country code.
      * <p>
@@ -38,7 +82,11 @@ public class HolidayController implements HolidayPlannerApi {
      */
     @Override
     public ResponseEntity<List<Holiday>> getLastNumberOfHolidays(String countryCode, String numberOfHolidays) {
-        return ResponseEntity.ok(holidayServiceContract.getLastNumberOfHolidays(countryCode, numberOfHolidays));
+        ZonedDateTime now = ZonedDateTime.now();
+        Duration untilMidnight = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay(now.getZone()));
+        CacheControl cacheControl = cacheControl(untilMidnight.compareTo(maxAge) < 0 ? untilMidnight : maxAge);
+        return conditionalResponse(() -> holidayServiceContract.getLastNumberOfHolidaysVersion(countryCode, numberOfHolidays),
+                () -> holidayServiceContract.getLastNumberOfHolidaysWithVersion(countryCode, numberOfHolidays), cacheControl);
     }
 
     /**
@@ -52,7 +100,8 @@ public class HolidayController implements HolidayPlannerApi {
      */
     @Override
     public ResponseEntity<List<CountryHolidayCount>> getNonWeekendHolidayCounts(String year, String countryCodes) {
-        return ResponseEntity.ok(holidayServiceContract.getNonWeekendHolidayCounts(year, countryCodes));
+        return conditionalResponse(() -> holidayServiceContract.getNonWeekendHolidayCountsVersion(year, countryCodes),
+                () -> holidayServiceContract.getNonWeekendHolidayCountsWithVersion(year, countryCodes), yearCacheControl(year));
     }
 
     /**
@@ -67,7 +116,89 @@ public class HolidayController implements HolidayPlannerApi {
      */
     @Override
     public ResponseEntity<List<SharedHoliday>> getSharedHolidays(String year, String countryCode1, String countryCode2) {
-        return ResponseEntity.ok(holidayServiceContract.getSharedHolidays(year, countryCode1, countryCode2));
+        return conditionalResponse(() -> holidayServiceContract.getSharedHolidaysVersion(year, countryCode1, countryCode2),
+                () -> holidayServiceContract.getSharedHolidaysWithVersion(year, countryCode1, countryCode2), yearCacheControl(year));
+    }
+
+    /**
+     * Endpoint to fetch holidays shared by several countries for a given year.
+     * <p>
+     * Delegates to HolidayServiceContract to retrieve the holidays celebrated on the same date in all countries.
+     *
+     * @param year Year for which shared holidays are to be fetched
+     * @param countryCodes Comma-separated ISO country codes
+     * @return ResponseEntity containing a list of CommonHoliday objects
+     */
+    @Override
+    public ResponseEntity<List<CommonHoliday>> getCommonHolidays(String year, String countryCodes) {
+        return conditionalResponse(() -> holidayServiceContract.getCommonHolidaysVersion(year, countryCodes),
+                () -> holidayServiceContract.getCommonHolidaysWithVersion(year, countryCodes), yearCacheControl(year));
+    }
+
+    /**
+     * Endpoint to run several holiday queries in one request.
+     * <p>
+     * Delegates to HolidayBatchServiceContract, which fetches the holidays needed by all queries once. The response is
+     * not cached by clients, the results of the single queries are cached by the service.
+     *
+     * @param holidayBatchRequest Queries to run
+     * @return ResponseEntity containing the result or error of each query
+     */
+    @Override
+    public ResponseEntity<HolidayBatchResponse> getHolidayBatch(HolidayBatchRequest holidayBatchRequest) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(holidayBatchServiceContract.getHolidayBatch(holidayBatchRequest, webRequest.getDescription(false)));
+    }
+
+    /**
+     * Answer 304 Not Modified when If-None-Match matches the version of the cached result, otherwise compute the
+     * result and return it with the ETag of the version it comes with. The version is only read for requests with
+     * If-None-Match, and without loading any holidays.
+     *
+     * @param version Validates the request and reads the version of the cached result
+     * @param result Computes the result together with its version
+     * @param cacheControl Cache-Control of the response
+     * @param <T> Type of the result
+     * @return 304 without body or 200 with the result
+     */
+    private <T> ResponseEntity<T> conditionalResponse(Supplier<OptionalLong> version, Supplier<VersionedResult<T>> result,
+                                                      CacheControl cacheControl) {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            OptionalLong cachedVersion = version.get();
+            if (cachedVersion.isPresent() && webRequest.checkNotModified(eTagOf(cachedVersion.getAsLong()))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTagOf(cachedVersion.getAsLong()))
+                        .cacheControl(cacheControl)
+                        .build();
+            }
+        }
+        VersionedResult<T> versionedResult = result.get();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(cacheControl);
+        // empty when the result cache is disabled
+        versionedResult.version().ifPresent(computedVersion -> response.eTag(eTagOf(computedVersion)));
+        return response.body(versionedResult.result());
+    }
+
+    /**
+     * Cache-Control of responses for one year, long-lived for past years.
+     *
+     * @param year Year of the response as requested, invalid years are rejected by the service
+     * @return Cache-Control of the response
+     */
+    private CacheControl yearCacheControl(String year) {
+        try {
+            return cacheControl(Integer.parseInt(year) < LocalDate.now().getYear() ? pastYearMaxAge : maxAge);
+        } catch (NumberFormatException e) {
+            return cacheControl(maxAge);
+        }
+    }
+
+    private static CacheControl cacheControl(Duration maxAge) {
+        return CacheControl.maxAge(maxAge).cachePublic();
+    }
 
+    private static String eTagOf(long version) {
+        return "\"" + Long.toHexString(version) + "\"";
     }
 }
@@ -0,0 +1,60 @@
+package com.example.holidayplanner.controller;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.holidayplanner.cache.HolidayCacheKey;
+import com.example.holidayplanner.cache.HolidaySnapshotFile;
+import com.example.holidayplanner.cluster.PeerHolidayCache;
+import com.example.holidayplanner.service.NagerDateApiService;
+import com.example.holidayplanner.validation.contract.HolidayServiceValidatorContract;
+
+/**
+ * Internal REST controller answering the holidays requests of the other instances of the cluster.
+ * <p>
+ * It is not part of the public API specification and only exists when holiday.cluster.enabled=true. Requests without
+ * the shared secret of the cluster are answered with 403 Forbidden, and keys are validated like public requests
+ * before anything is loaded, so clients cannot make the instance load arbitrary years and countries from the
+ * upstream. Holidays are answered in the binary record format of the holidays snapshot, invalid and unknown year and
+ * country combinations with 400 Bad Request.
+ */
+@RestController
+@ConditionalOnProperty(name = "holiday.cluster.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class PeerHolidayController {
+
+    private final NagerDateApiService nagerDateApiService;
+    private final PeerHolidayCache peerHolidayCache;
+    private final HolidayServiceValidatorContract holidayServiceValidator;
+
+    /**
+     * Endpoint serving the cached holidays of a key this instance owns to a peer.
+     *
+     * @param secret Shared secret of the cluster presented by the peer
+     * @param year Year of the holidays
+     * @param countryCode ISO country code of the holidays
+     * @return ResponseEntity containing the serialized holidays with their upstream validators
+     */
+    @GetMapping(value = PeerHolidayCache.PEER_HOLIDAYS_PATH, produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getHolidays(@RequestHeader(value = PeerHolidayCache.PEER_SECRET_HEADER, required = false) String secret,
+                                              @PathVariable("year") int year, @PathVariable("countryCode") String countryCode) {
+        if (!peerHolidayCache.isAuthorized(secret)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        String upperCaseCountryCode = countryCode.toUpperCase(Locale.ROOT);
+        holidayServiceValidator.validateCountryCodesAndYear(String.valueOf(year), new HashSet<>(List.of(upperCaseCountryCode)));
+        HolidayCacheKey key = new HolidayCacheKey(year, upperCaseCountryCode);
+        return ResponseEntity.ok(HolidaySnapshotFile.encodeHolidays(nagerDateApiService.fetchHolidaysForPeer(key)));
+    }
+}
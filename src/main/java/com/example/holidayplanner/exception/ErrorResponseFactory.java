@@ -0,0 +1,92 @@
+package com.example.holidayplanner.exception;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import jakarta.validation.ConstraintViolationException;
+
+import java.time.OffsetDateTime;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+
+import com.example.holidayplanner.generated.model.ErrorResponse;
+
+/**
+ * This class maps exceptions to the structured error responses of the API.
+ * <p>
+ * It is the one mapping of exceptions to status and message, used by GlobalExceptionHandler for single requests and
+ * by HolidayBatchService for the failed queries of a batch, so both answer the same error the same way.
+ */
+@Component
+public class ErrorResponseFactory {
+
+    /**
+     * URL for fetching available countries from Nager Date API.
+     */
+    private final String availableCountriesApi;
+
+    /**
+     * Creates the factory.
+     *
+     * @param availableCountriesApi URL for fetching available countries, suggested to check on network errors
+     */
+    public ErrorResponseFactory(@Value("${nagar.available.countries.api.url:https://date.nager.at/api/v3/AvailableCountries}") String availableCountriesApi) {
+        this.availableCountriesApi = availableCountriesApi;
+    }
+
+    /**
+     * Error response of given exception.
+     * <p>
+     * Invalid parameters and unreadable requests map to HTTP 400 Bad Request, missing resources to HTTP 404 Not Found,
+     * calls rejected by the open Nager Date API circuit breaker to HTTP 503 Service Unavailable and everything else,
+     * including network errors with troubleshooting info, to HTTP 500 Internal Server Error.
+     *
+     * @param ex Exception thrown
+     * @param path Description of the request, for example uri=/api/holidays/batch
+     * @return ErrorResponse with details of the error
+     */
+    public ErrorResponse errorResponseOf(Exception ex, String path) {
+        HttpStatus status = statusOf(ex);
+        return new ErrorResponse(OffsetDateTime.now(), status.value(), status.getReasonPhrase(), messageOf(ex), path);
+    }
+
+    /**
+     * HTTP status of given exception.
+     *
+     * @param ex Exception thrown
+     * @return HTTP status of the error response
+     */
+    public HttpStatus statusOf(Exception ex) {
+        if (ex instanceof ConstraintViolationException || ex instanceof InvalidParameterException
+                || ex instanceof MethodArgumentTypeMismatchException || ex instanceof MissingServletRequestParameterException
+                || ex instanceof MethodArgumentNotValidException || ex instanceof HttpMessageNotReadableException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        if (ex instanceof NoResourceFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (ex instanceof CallNotPermittedException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private String messageOf(Exception ex) {
+        if (ex instanceof ResourceAccessException) {
+            String errorMessage = ex.getMessage() != null ? ex.getMessage() : "Resource Access Error";
+            if (errorMessage.contains("I/O error")) {
+                errorMessage += " - possible network issue or north bound nagar date service might be down, please check this URL from web browser " + availableCountriesApi;
+            }
+            return errorMessage;
+        }
+        if (ex instanceof CallNotPermittedException) {
+            return ex.getMessage() + " - north bound nagar date service is failing and no earlier data is available, please retry later";
+        }
+        return ex.getMessage();
+    }
+}
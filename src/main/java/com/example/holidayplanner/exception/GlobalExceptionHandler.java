@@ -1,11 +1,13 @@
 package com.example.holidayplanner.exception;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
 
-import java.time.OffsetDateTime;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -20,36 +22,32 @@ import com.example.holidayplanner.generated.model.ErrorResponse;
  * Global exception handler to manage and respond to various exceptions across the application.
  * <p>
  * This class provides centralized handling for common exceptions, returning structured error responses
- * for invalid parameters, resource not found, network issues, and uncaught exceptions.
+ * for invalid parameters, resource not found, network issues, open circuit breaker, and uncaught exceptions.
+ * The error responses are made by ErrorResponseFactory.
  */
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
     /**
-     * URL for fetching available countries from Nager Date API.
+     * Maps exceptions to error responses, shared with the queries of batches.
      */
-    @Value("${nagar.available.countries.api.url:https://date.nager.at/api/v3/AvailableCountries}")
-    private String availableCountriesApi;
+    private final ErrorResponseFactory errorResponseFactory;
 
     /**
      * Handle invalid parameter and method argument mismatch exceptions and return a structured error response.
      * <p>
-     * Catches validation, parameter, and argument type mismatch exceptions and responds with HTTP 400 Bad Request.
+     * Catches validation, parameter, argument type mismatch and unreadable request body exceptions and responds with
+     * HTTP 400 Bad Request.
      *
      * @param ex Exception thrown
      * @param request WebRequest context
      * @return ResponseEntity containing an ErrorResponse with details of the error
      */
-    @ExceptionHandler({ConstraintViolationException.class, InvalidParameterException.class,MethodArgumentTypeMismatchException.class, MissingServletRequestParameterException.class})
+    @ExceptionHandler({ConstraintViolationException.class, InvalidParameterException.class,MethodArgumentTypeMismatchException.class, MissingServletRequestParameterException.class,
+            MethodArgumentNotValidException.class, HttpMessageNotReadableException.class})
     public ResponseEntity<ErrorResponse> handleInvalidParameterException(Exception ex, WebRequest request) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                OffsetDateTime.now(),
-                HttpStatus.BAD_REQUEST.value(),
-                "Bad Request",
-                ex.getMessage(),
-                request.getDescription(false)
-        );
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return responseOf(ex, request);
     }
 
     /**
@@ -63,14 +61,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(NoResourceFoundException.class)
     public ResponseEntity<ErrorResponse> handleNoResourceFoundException(NoResourceFoundException ex, WebRequest request) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                OffsetDateTime.now(),
-                HttpStatus.NOT_FOUND.value(),
-                "Not Found",
-                ex.getMessage(),
-                request.getDescription(false)
-        );
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        return responseOf(ex, request);
     }
 
     /**
@@ -85,18 +76,21 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(ResourceAccessException.class)
     public ResponseEntity<ErrorResponse> handleResourceAccessException(ResourceAccessException ex, WebRequest request) {
-        String errorMessage = ex.getMessage() != null ? ex.getMessage() : "Resource Access Error";
-        if (errorMessage.contains("I/O error")) {
-            errorMessage += " - possible network issue or north bound nagar date service might be down, please check this URL from web browser " + availableCountriesApi;
-        }
-        ErrorResponse errorResponse = new ErrorResponse(
-                OffsetDateTime.now(),
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                "Internal Server Error",
-                errorMessage,
-                request.getDescription(false)
-        );
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        return responseOf(ex, request);
+    }
+
+    /**
+     * Handle calls rejected by the open Nager Date API circuit breaker and return a structured error response.
+     * <p>
+     * Responds with HTTP 503 Service Unavailable right away, without waiting on the failing upstream.
+     *
+     * @param ex CallNotPermittedException thrown
+     * @param request WebRequest context
+     * @return ResponseEntity containing an ErrorResponse with details of the error
+     */
+    @ExceptionHandler(CallNotPermittedException.class)
+    public ResponseEntity<ErrorResponse> handleCallNotPermittedException(CallNotPermittedException ex, WebRequest request) {
+        return responseOf(ex, request);
     }
 
     /**
@@ -110,13 +104,11 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex, WebRequest request) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                OffsetDateTime.now(),
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                "Internal Server Error",
-                ex.getMessage(),
-                request.getDescription(false)
-        );
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        return responseOf(ex, request);
+    }
+
+    private ResponseEntity<ErrorResponse> responseOf(Exception ex, WebRequest request) {
+        ErrorResponse errorResponse = errorResponseFactory.errorResponseOf(ex, request.getDescription(false));
+        return new ResponseEntity<>(errorResponse, HttpStatus.valueOf(errorResponse.getStatus()));
     }
-}
\ No newline at end of file
+}
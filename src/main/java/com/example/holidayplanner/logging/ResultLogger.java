@@ -0,0 +1,134 @@
+package com.example.holidayplanner.logging;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * This class logs the results returned by the holiday operations as JSON, for a sample of the requests only.
+ * <p>
+ * Whether a request is logged is decided before anything is serialized, so requests that are not sampled, or all
+ * requests when INFO is disabled for this logger, spend no time on JSON. The results of sampled requests are
+ * serialized when the log event is formatted and cut off after a maximum length. The number of results is added
+ * as {@code resultCount} key value pair for structured log formats.
+ */
+@Component
+@Slf4j
+public class ResultLogger {
+
+    private static final String TRUNCATED = "...";
+
+    private final ObjectMapper objectMapper;
+    private final double sampleRate;
+    private final int maxLength;
+
+    /**
+     * Creates the logger.
+     *
+     * @param objectMapper Mapper to serialize the results with
+     * @param sampleRate Share of requests logged, 0 for none to 1 for all
+     * @param maxLength Maximum number of characters of the logged results
+     */
+    public ResultLogger(ObjectMapper objectMapper,
+                        @Value("${holiday.result-logging.sample-rate:0.01}") double sampleRate,
+                        @Value("${holiday.result-logging.max-length:2000}") int maxLength) {
+        this.objectMapper = objectMapper;
+        this.sampleRate = sampleRate;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Log results of one request at INFO level if the request is sampled.
+     *
+     * @param message Log message, with one placeholder per argument followed by one for the results
+     * @param results Results returned by the request
+     * @param arguments Arguments of the message before the results
+     */
+    public void log(String message, List<?> results, Object... arguments) {
+        if (!log.isInfoEnabled() || !isSampled()) {
+            return;
+        }
+        Object[] messageArguments = Arrays.copyOf(arguments, arguments.length + 1);
+        messageArguments[arguments.length] = new JsonResults(results);
+        log.atInfo().addKeyValue("resultCount", results.size()).log(message, messageArguments);
+    }
+
+    private boolean isSampled() {
+        return sampleRate >= 1 || sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Results serialized as JSON array when the log event is formatted.
+     */
+    private final class JsonResults {
+
+        private final List<?> results;
+
+        private JsonResults(List<?> results) {
+            this.results = results;
+        }
+
+        @Override
+        public String toString() {
+            BoundedWriter writer = new BoundedWriter(maxLength);
+            try {
+                objectMapper.writeValue(writer, results);
+            } catch (IOException e) {
+                if (writer.isMaxLengthReached()) {
+                    return writer + TRUNCATED;
+                }
+                log.warn("Failed to convert results to json error: {}", e.getMessage());
+            }
+            return writer.toString();
+        }
+    }
+
+    /**
+     * Collects written characters up to a maximum and fails the serialization once it is reached.
+     */
+    private static final class BoundedWriter extends Writer {
+
+        private final StringBuilder output = new StringBuilder();
+        private final int maxLength;
+        private boolean maxLengthReached;
+
+        private BoundedWriter(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            int remaining = maxLength - output.length();
+            output.append(chars, offset, Math.min(length, remaining));
+            if (length > remaining) {
+                maxLengthReached = true;
+                throw new IOException("maximum length of logged results reached");
+            }
+        }
+
+        private boolean isMaxLengthReached() {
+            return maxLengthReached;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return output.toString();
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.holidayplanner.provider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.holidayplanner.cache.HolidayCacheKey;
+import com.example.holidayplanner.cache.HolidayCalendar;
+import com.example.holidayplanner.generated.model.Holiday;
+import com.example.holidayplanner.model.AvailableCountry;
+import com.example.holidayplanner.provider.contract.HolidayDataProvider;
+
+/**
+ * This class provides holiday data from a local dataset directory, it is the first provider of the chain.
+ * <p>
+ * Holidays are read from one file per year and country named {year}_{countryCode}.json or .csv, available countries
+ * from countries.json or countries.csv. JSON files use the Nager Date API response format, CSV files have one
+ * date,localName or countryCode,name line per entry with an optional header line and no quoting.
+ * <p>
+ * All files are indexed in memory at startup, the directory is then watched and changed files are reloaded one by one.
+ * Files which cannot be parsed are logged and skipped, keeping the data of their last valid version.
+ */
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "holiday.provider.file.directory")
+@Slf4j
+public class FileHolidayDataProvider implements HolidayDataProvider {
+
+    private static final Pattern HOLIDAYS_FILE = Pattern.compile("(\\d{4})_([A-Za-z]{2})\\.(json|csv)");
+    private static final Pattern COUNTRIES_FILE = Pattern.compile("countries\\.(json|csv)");
+
+    private final Path directory;
+    private final boolean watchEnabled;
+    private final ObjectMapper objectMapper;
+    private final Map<HolidayCacheKey, HolidayCalendar> holidays = new ConcurrentHashMap<>();
+    private volatile Set<AvailableCountry> availableCountries;
+    private WatchService watchService;
+
+    /**
+     * Creates the provider for given dataset directory.
+     *
+     * @param directory Dataset directory
+     * @param watchEnabled Whether the directory is watched for changes after startup
+     * @param objectMapper Mapper used to read JSON countries files
+     */
+    public FileHolidayDataProvider(@Value("${holiday.provider.file.directory}") Path directory,
+                                   @Value("${holiday.provider.file.watch:true}") boolean watchEnabled,
+                                   ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.watchEnabled = watchEnabled;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Index all dataset files and start watching the directory.
+     *
+     * @throws IOException if the dataset directory cannot be read
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        long startNanos = System.nanoTime();
+        reindex();
+        log.info("indexed {} holiday files from {} in {} ms", holidays.size(), directory, (System.nanoTime() - startNanos) / 1_000_000);
+        if (watchEnabled) {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("holiday-file-watch-");
+            threadFactory.setDaemon(true);
+            threadFactory.newThread(this::watch).start();
+        }
+    }
+
+    /**
+     * Stop watching the dataset directory.
+     *
+     * @throws IOException if the watch service cannot be closed
+     */
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Find holidays of given year and country code in the indexed files.
+     *
+     * @param year Year for which holidays are to be found
+     * @param countryCode Upper case ISO country code for which holidays are to be found
+     * @return Holidays of the year and country code, empty if there is no file for them
+     */
+    @Override
+    public Optional<HolidayCalendar> findHolidays(int year, String countryCode) {
+        return Optional.ofNullable(holidays.get(new HolidayCacheKey(year, countryCode.toUpperCase(Locale.ROOT))));
+    }
+
+    /**
+     * Holidays of given year and country code in the indexed files, the index is held in memory.
+     *
+     * @param year Year for which holidays are to be found
+     * @param countryCode Upper case ISO country code for which holidays are to be found
+     * @return Holidays of the year and country code, empty if there is no file for them
+     */
+    @Override
+    public Optional<HolidayCalendar> peekHolidays(int year, String countryCode) {
+        return findHolidays(year, countryCode);
+    }
+
+    /**
+     * Find available countries in the indexed countries file.
+     *
+     * @return Available countries, empty if there is no countries file
+     */
+    @Override
+    public Optional<Set<AvailableCountry>> findAvailableCountries() {
+        return Optional.ofNullable(availableCountries);
+    }
+
+    /**
+     * Load all files of the dataset directory, dropping data of files which no longer exist.
+     *
+     * @throws IOException if the dataset directory cannot be listed
+     */
+    void reindex() throws IOException {
+        Set<HolidayCacheKey> indexedKeys = new HashSet<>();
+        boolean countriesIndexed = false;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                HolidayCacheKey key = holidaysKeyOf(file);
+                if (key != null) {
+                    indexedKeys.add(key);
+                }
+                countriesIndexed |= COUNTRIES_FILE.matcher(file.getFileName().toString()).matches();
+                load(file);
+            }
+        }
+        holidays.keySet().retainAll(indexedKeys);
+        if (!countriesIndexed) {
+            availableCountries = null;
+        }
+    }
+
+    /**
+     * Load one dataset file, files not following the naming scheme are ignored.
+     *
+     * @param file Dataset file
+     */
+    void load(Path file) {
+        String fileName = file.getFileName().toString();
+        try {
+            HolidayCacheKey key = holidaysKeyOf(file);
+            if (key != null) {
+                holidays.put(key, fileName.endsWith(".json") ? readHolidaysJson(file) : readHolidaysCsv(file));
+            } else if (COUNTRIES_FILE.matcher(fileName).matches()) {
+                availableCountries = fileName.endsWith(".json") ? readCountriesJson(file) : readCountriesCsv(file);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("skipping holiday file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the data of a deleted dataset file.
+     *
+     * @param file Deleted dataset file
+     */
+    void remove(Path file) {
+        HolidayCacheKey key = holidaysKeyOf(file);
+        if (key != null) {
+            holidays.remove(key);
+        } else if (COUNTRIES_FILE.matcher(file.getFileName().toString()).matches()) {
+            availableCountries = null;
+        }
+    }
+
+    /**
+     * Reload changed files until the watch service is closed, a lost event triggers a full reindex.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey watchKey = watchService.take();
+                for (WatchEvent<?> event : watchKey.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        reindex();
+                        continue;
+                    }
+                    Path file = directory.resolve((Path) event.context());
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        remove(file);
+                    } else if (Files.isRegularFile(file)) {
+                        load(file);
+                    }
+                    log.debug("reloaded holiday file {} after {}", file, event.kind());
+                }
+                watchKey.reset();
+            }
+        } catch (ClosedWatchServiceException e) {
+            log.debug("stopped watching holiday files in {}", directory);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("stopped watching holiday files in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Key of a holidays file named {year}_{countryCode}.json or .csv.
+     *
+     * @param file Dataset file
+     * @return Year and upper case country code, null for other files
+     */
+    private static HolidayCacheKey holidaysKeyOf(Path file) {
+        Matcher matcher = HOLIDAYS_FILE.matcher(file.getFileName().toString());
+        return matcher.matches()
+                ? new HolidayCacheKey(Integer.parseInt(matcher.group(1)), matcher.group(2).toUpperCase(Locale.ROOT))
+                : null;
+    }
+
+    /**
+     * Read holidays from a JSON file in Nager Date API response format.
+     *
+     * @param file JSON file
+     * @return Holidays of the file
+     * @throws IOException if the file cannot be read or parsed
+     */
+    private static HolidayCalendar readHolidaysJson(Path file) throws IOException {
+        return HolidayCalendar.parse(Files.readAllBytes(file));
+    }
+
+    /**
+     * Read holidays from a date,localName CSV file.
+     *
+     * @param file CSV file
+     * @return Holidays of the file
+     * @throws IOException if the file cannot be read or parsed
+     */
+    private static HolidayCalendar readHolidaysCsv(Path file) throws IOException {
+        List<Holiday> holidays = new ArrayList<>();
+        for (String[] columns : readCsv(file, "date")) {
+            holidays.add(new Holiday(columns[0], columns[1]));
+        }
+        return HolidayCalendar.of(holidays);
+    }
+
+    /**
+     * Read available countries from a JSON file in Nager Date API response format.
+     *
+     * @param file JSON file
+     * @return Available countries of the file
+     * @throws IOException if the file cannot be read or parsed
+     */
+    private Set<AvailableCountry> readCountriesJson(Path file) throws IOException {
+        return Set.copyOf(Arrays.asList(objectMapper.readValue(file.toFile(), AvailableCountry[].class)));
+    }
+
+    /**
+     * Read available countries from a countryCode,name CSV file.
+     *
+     * @param file CSV file
+     * @return Available countries of the file
+     * @throws IOException if the file cannot be read or parsed
+     */
+    private static Set<AvailableCountry> readCountriesCsv(Path file) throws IOException {
+        Set<AvailableCountry> countries = new HashSet<>();
+        for (String[] columns : readCsv(file, "countryCode")) {
+            AvailableCountry country = new AvailableCountry();
+            country.setCountryCode(columns[0]);
+            country.setName(columns[1]);
+            countries.add(country);
+        }
+        return Set.copyOf(countries);
+    }
+
+    /**
+     * Read two column CSV lines, skipping blank lines and the header line starting with given column name.
+     *
+     * @param file CSV file
+     * @param firstColumnName Name of the first column in the header line
+     * @return Trimmed columns per line
+     * @throws IOException if the file cannot be read or a line has less than two columns
+     */
+    private static List<String[]> readCsv(Path file, String firstColumnName) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith(firstColumnName + ",")) {
+                continue;
+            }
+            String[] columns = line.split(",", 2);
+            if (columns.length != 2) {
+                throw new IOException("expected two columns in line '" + line + "'");
+            }
+            rows.add(new String[]{columns[0].trim(), columns[1].trim()});
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.holidayplanner.provider;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+
+import com.example.holidayplanner.cache.HolidayCalendar;
+import com.example.holidayplanner.exception.InvalidParameterException;
+import com.example.holidayplanner.model.AvailableCountry;
+import com.example.holidayplanner.provider.contract.HolidayDataProvider;
+
+/**
+ * This class asks all holiday data providers in their order and answers with the first one having data.
+ * <p>
+ * With the default configuration the chain is the local dataset directory, when configured, followed by the
+ * cached Nager Date API.
+ */
+@Component
+@RequiredArgsConstructor
+public class HolidayDataProviderChain {
+
+    private final List<HolidayDataProvider> holidayDataProviders;
+
+    /**
+     * Fetch holidays for given year and country code from the first provider having them.
+     *
+     * @param year Year for which holidays are to be fetched
+     * @param countryCode Upper case country code for which holidays are to be fetched
+     * @return Holidays for the given year and country code
+     */
+    public HolidayCalendar fetchHolidays(int year, String countryCode) {
+        for (HolidayDataProvider holidayDataProvider : holidayDataProviders) {
+            Optional<HolidayCalendar> holidays = holidayDataProvider.findHolidays(year, countryCode);
+            if (holidays.isPresent()) {
+                return holidays.get();
+            }
+        }
+        throw new InvalidParameterException("No holidays found for country: " + countryCode + " in year: " + year);
+    }
+
+    /**
+     * Holidays for given year and country code as currently held by the first provider holding them, without
+     * loading anything from a dataset or upstream.
+     *
+     * @param year Year of the holidays
+     * @param countryCode Upper case country code of the holidays
+     * @return Holidays for the given year and country code, empty if no provider holds them
+     */
+    public Optional<HolidayCalendar> peekHolidays(int year, String countryCode) {
+        for (HolidayDataProvider holidayDataProvider : holidayDataProviders) {
+            Optional<HolidayCalendar> holidays = holidayDataProvider.peekHolidays(year, countryCode);
+            if (holidays.isPresent()) {
+                return holidays;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Fetch all supported countries from the first provider having them.
+     *
+     * @return Set of available countries
+     */
+    public Set<AvailableCountry> getAvailableCountries() {
+        for (HolidayDataProvider holidayDataProvider : holidayDataProviders) {
+            Optional<Set<AvailableCountry>> availableCountries = holidayDataProvider.findAvailableCountries();
+            if (availableCountries.isPresent()) {
+                return availableCountries.get();
+            }
+        }
+        throw new InvalidParameterException("No available country found");
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.holidayplanner.provider;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.example.holidayplanner.cache.HolidayCalendar;
+import com.example.holidayplanner.model.AvailableCountry;
+import com.example.holidayplanner.provider.contract.HolidayDataProvider;
+import com.example.holidayplanner.service.AvailableCountriesRefresher;
+import com.example.holidayplanner.service.NagerDateApiService;
+
+/**
+ * This class provides holiday data from the cached Nager Date API, it is the last provider of the chain.
+ * <p>
+ * It always answers, unknown year and country combinations fail with the InvalidParameterException of the upstream.
+ * Disabled with holiday.provider.nager.enabled=false for deployments running only on local datasets.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "holiday.provider.nager.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class NagerHolidayDataProvider implements HolidayDataProvider {
+
+    private final NagerDateApiService nagerDateApiService;
+    private final AvailableCountriesRefresher availableCountriesRefresher;
+
+    /**
+     * Fetch holidays from the holidays cache, loading them from Nager Date API when missing.
+     *
+     * @param year Year for which holidays are to be found
+     * @param countryCode Upper case ISO country code for which holidays are to be found
+     * @return Holidays of the year and country code
+     */
+    @Override
+    public Optional<HolidayCalendar> findHolidays(int year, String countryCode) {
+        return Optional.of(nagerDateApiService.fetchHolidays(year, countryCode));
+    }
+
+    /**
+     * Holidays currently in the holidays cache, without calling Nager Date API.
+     *
+     * @param year Year for which holidays are to be found
+     * @param countryCode Upper case ISO country code for which holidays are to be found
+     * @return Cached holidays of the year and country code, empty if not cached
+     */
+    @Override
+    public Optional<HolidayCalendar> peekHolidays(int year, String countryCode) {
+        return nagerDateApiService.peekHolidays(year, countryCode);
+    }
+
+    /**
+     * Available countries as last refreshed in the background, without calling Nager Date API.
+     *
+     * @return Available countries
+     */
+    @Override
+    public Optional<Set<AvailableCountry>> findAvailableCountries() {
+        return Optional.of(availableCountriesRefresher.getAvailableCountries());
+    }
+}
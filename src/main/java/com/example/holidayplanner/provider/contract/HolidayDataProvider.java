@@ -0,0 +1,41 @@
+package com.example.holidayplanner.provider.contract;
+
+import java.util.Optional;
+import java.util.Set;
+
+import com.example.holidayplanner.cache.HolidayCalendar;
+import com.example.holidayplanner.model.AvailableCountry;
+
+/**
+ * Provider contract interface for the holiday data all holiday operations are computed from.
+ * <p>
+ * Providers are chained in their Spring order, the first provider having data for a request answers it.
+ * A provider without data for a request returns an empty Optional so the next provider is asked.
+ */
+public interface HolidayDataProvider {
+
+    /**
+     * Find holidays for given year and country code.
+     *
+     * @param year Year for which holidays are to be found
+     * @param countryCode Upper case ISO country code for which holidays are to be found
+     * @return Holidays of the year and country code, empty if this provider has none
+     */
+    Optional<HolidayCalendar> findHolidays(int year, String countryCode);
+
+    /**
+     * Holidays for given year and country code as currently held by this provider, without loading anything.
+     *
+     * @param year Year for which holidays are to be found
+     * @param countryCode Upper case ISO country code for which holidays are to be found
+     * @return Holidays of the year and country code, empty if this provider holds none
+     */
+    Optional<HolidayCalendar> peekHolidays(int year, String countryCode);
+
+    /**
+     * Find all countries holidays can be provided for.
+     *
+     * @return Available countries, empty if this provider has none
+     */
+    Optional<Set<AvailableCountry>> findAvailableCountries();
+}
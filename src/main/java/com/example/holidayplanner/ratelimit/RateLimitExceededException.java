@@ -0,0 +1,22 @@
+package com.example.holidayplanner.ratelimit;
+
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Thrown when the upstream rate limiter rejects a call towards Nager Date API, because the queue of its lane is full
+ * or no permit became available within the max wait.
+ * <p>
+ * It is a ResourceAccessException, so last-known-good values are served and the error response stays the same, but
+ * the upstream was never asked and the key is not recorded as failing in the negative cache.
+ */
+public class RateLimitExceededException extends ResourceAccessException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message Reason of the rejection
+     */
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.holidayplanner.ratelimit;
+
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Priority lane of an upstream call, held per thread.
+ * <p>
+ * Calls default to INTERACTIVE, as a request thread is waiting for them. Warmup, prefetch and background refreshes
+ * run as BACKGROUND, which never takes upstream capacity while interactive calls are waiting for it.
+ */
+public enum UpstreamPriority {
+
+    /**
+     * Cache misses of user requests.
+     */
+    INTERACTIVE,
+
+    /**
+     * Warmup, prefetch and background refreshes.
+     */
+    BACKGROUND;
+
+    private static final ThreadLocal<UpstreamPriority> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    /**
+     * Priority of upstream calls made by the current thread.
+     *
+     * @return Current priority, INTERACTIVE unless set otherwise
+     */
+    public static UpstreamPriority current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run a task with given priority for its upstream calls, restoring the previous priority afterwards.
+     *
+     * @param priority Priority of the upstream calls of the task
+     * @param task Task to run
+     * @param <T> Type of the task result
+     * @return Result of the task
+     */
+    public static <T> T callAs(UpstreamPriority priority, Supplier<T> task) {
+        UpstreamPriority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return task.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Run a task with given priority for its upstream calls, restoring the previous priority afterwards.
+     *
+     * @param priority Priority of the upstream calls of the task
+     * @param task Task to run
+     */
+    public static void runAs(UpstreamPriority priority, Runnable task) {
+        callAs(priority, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Executor running all tasks of given executor as BACKGROUND.
+     *
+     * @param executor Executor of background work
+     * @return Executor whose tasks make BACKGROUND upstream calls
+     */
+    public static Executor background(Executor executor) {
+        return task -> executor.execute(() -> runAs(BACKGROUND, task));
+    }
+}
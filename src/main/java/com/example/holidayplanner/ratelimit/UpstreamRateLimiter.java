@@ -0,0 +1,203 @@
+package com.example.holidayplanner.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Token-bucket rate limiter for calls towards Nager Date API, with one lane per {@link UpstreamPriority}.
+ * <p>
+ * Each lane has its own bucket refilled at nager.date.api.rate-limit.{lane}.rate permits per second up to
+ * {lane}.burst permits, so the upstream sees at most the sum of both rates. Callers without permit wait in a bounded
+ * per lane queue of {lane}.queue-capacity for at most {lane}.max-wait, callers beyond the queue or past the wait fail
+ * with a RateLimitExceededException, which serves the last-known-good value where one is retained. BACKGROUND calls also
+ * wait while any INTERACTIVE call is waiting, so background filling never delays a user facing miss.
+ * <p>
+ * Queue depth, wait time and rejections are exported per lane. Disabled with nager.date.api.rate-limit.enabled=false.
+ */
+@Component
+public class UpstreamRateLimiter {
+
+    private static final String PREFIX = "nager.date.api.rate-limit.";
+
+    private final boolean enabled;
+    private final Map<UpstreamPriority, Lane> lanes = new EnumMap<>(UpstreamPriority.class);
+
+    /**
+     * Settings and state of one lane, guarded by the limiter.
+     */
+    private static final class Lane {
+
+        private final double permitsPerNano;
+        private final double burst;
+        private final int queueCapacity;
+        private final long maxWaitNanos;
+        private final Timer waitTimer;
+        private final Counter rejections;
+        private double permits;
+        private long refilledAtNanos;
+        private int waiting;
+
+        private Lane(double permitsPerSecond, double burst, int queueCapacity, Duration maxWait, Timer waitTimer, Counter rejections) {
+            this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.burst = burst;
+            this.queueCapacity = queueCapacity;
+            this.maxWaitNanos = maxWait.toNanos();
+            this.waitTimer = waitTimer;
+            this.rejections = rejections;
+            this.permits = burst;
+            this.refilledAtNanos = System.nanoTime();
+        }
+
+        private void refill(long nowNanos) {
+            permits = Math.min(burst, permits + (nowNanos - refilledAtNanos) * permitsPerNano);
+            refilledAtNanos = nowNanos;
+        }
+
+        private long nanosUntilPermit() {
+            return permitsPerNano > 0 ? (long) Math.ceil((1 - permits) / permitsPerNano) : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Creates the limiter and its lanes from the rate-limit properties.
+     *
+     * @param environment Environment to read per lane settings from
+     * @param meterRegistry Registry to publish limiter metrics to
+     */
+    public UpstreamRateLimiter(Environment environment, MeterRegistry meterRegistry) {
+        this.enabled = environment.getProperty(PREFIX + "enabled", Boolean.class, true);
+        lanes.put(UpstreamPriority.INTERACTIVE, laneOf(environment, meterRegistry, UpstreamPriority.INTERACTIVE, 20, Duration.ofSeconds(2)));
+        lanes.put(UpstreamPriority.BACKGROUND, laneOf(environment, meterRegistry, UpstreamPriority.BACKGROUND, 5, Duration.ofSeconds(10)));
+    }
+
+    /**
+     * Take one permit for an upstream call of the current thread's priority, waiting for it when none is available.
+     *
+     * @throws RateLimitExceededException if the lane queue is full or no permit became available within the max wait
+     */
+    public void acquire() {
+        acquire(UpstreamPriority.current());
+    }
+
+    /**
+     * Take one permit of given lane, waiting for it when none is available.
+     *
+     * @param priority Lane to take the permit from
+     * @throws RateLimitExceededException if the lane queue is full or no permit became available within the max wait
+     */
+    public void acquire(UpstreamPriority priority) {
+        if (!enabled) {
+            return;
+        }
+        Lane lane = lanes.get(priority);
+        long startNanos = System.nanoTime();
+        synchronized (this) {
+            if (tryTake(priority, lane, startNanos)) {
+                lane.waitTimer.record(0, TimeUnit.NANOSECONDS);
+                return;
+            }
+            if (lane.waiting >= lane.queueCapacity) {
+                lane.rejections.increment();
+                throw new RateLimitExceededException("Nager Date API rate limit reached, " + lane.waiting + " "
+                        + priority.name().toLowerCase() + " calls are already waiting");
+            }
+            lane.waiting++;
+            try {
+                long deadline = startNanos + lane.maxWaitNanos;
+                while (true) {
+                    long nowNanos = System.nanoTime();
+                    if (tryTake(priority, lane, nowNanos)) {
+                        lane.waitTimer.record(nowNanos - startNanos, TimeUnit.NANOSECONDS);
+                        return;
+                    }
+                    long remainingNanos = deadline - nowNanos;
+                    if (remainingNanos <= 0) {
+                        lane.rejections.increment();
+                        throw new RateLimitExceededException("Nager Date API rate limit reached, no permit for "
+                                + priority.name().toLowerCase() + " call within " + Duration.ofNanos(lane.maxWaitNanos).toMillis() + " ms");
+                    }
+                    // a lane holding a permit only yields to interactive waiters, it is woken up when one of them leaves
+                    long waitNanos = lane.permits >= 1 ? remainingNanos : Math.min(remainingNanos, lane.nanosUntilPermit());
+                    TimeUnit.NANOSECONDS.timedWait(this, Math.max(1, waitNanos));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResourceAccessException("I/O error: interrupted while waiting for Nager Date API rate limit");
+            } finally {
+                lane.waiting--;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Number of callers waiting in given lane.
+     *
+     * @param priority Lane
+     * @return Waiting callers
+     */
+    public synchronized int getQueueDepth(UpstreamPriority priority) {
+        return lanes.get(priority).waiting;
+    }
+
+    /**
+     * Take a permit of given lane if one is available, background lanes yield while interactive calls are waiting.
+     */
+    private boolean tryTake(UpstreamPriority priority, Lane lane, long nowNanos) {
+        lane.refill(nowNanos);
+        if (priority != UpstreamPriority.INTERACTIVE && lanes.get(UpstreamPriority.INTERACTIVE).waiting > 0) {
+            return false;
+        }
+        if (lane.permits >= 1) {
+            lane.permits -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Read the settings of one lane and register its metrics.
+     *
+     * @param environment Environment to read lane settings from
+     * @param meterRegistry Registry to publish lane metrics to
+     * @param priority Priority served by the lane
+     * @param defaultRate Permits per second unless configured
+     * @param defaultMaxWait Maximum wait for a permit unless configured
+     * @return New lane with a full bucket
+     */
+    private Lane laneOf(Environment environment, MeterRegistry meterRegistry, UpstreamPriority priority, double defaultRate,
+                        Duration defaultMaxWait) {
+        String name = priority.name().toLowerCase();
+        String prefix = PREFIX + name + ".";
+        double rate = environment.getProperty(prefix + "rate", Double.class, defaultRate);
+        double burst = environment.getProperty(prefix + "burst", Double.class, Math.max(1, rate));
+        int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class, 100);
+        Duration maxWait = environment.getProperty(prefix + "max-wait", Duration.class, defaultMaxWait);
+        if (rate <= 0 || burst < 1) {
+            throw new IllegalStateException(prefix + "rate must be greater than 0 and " + prefix + "burst at least 1");
+        }
+        Timer waitTimer = Timer.builder("nager.api.ratelimit.wait")
+                .description("Time upstream calls waited for a rate limit permit")
+                .tag("lane", name)
+                .register(meterRegistry);
+        Counter rejections = Counter.builder("nager.api.ratelimit.rejections")
+                .description("Upstream calls failed because the lane queue was full or the max wait passed")
+                .tag("lane", name)
+                .register(meterRegistry);
+        Gauge.builder("nager.api.ratelimit.queue.depth", this, limiter -> limiter.getQueueDepth(priority))
+                .description("Upstream calls waiting for a rate limit permit")
+                .tag("lane", name)
+                .register(meterRegistry);
+        return new Lane(rate, burst, queueCapacity, maxWait, waitTimer, rejections);
+    }
+}
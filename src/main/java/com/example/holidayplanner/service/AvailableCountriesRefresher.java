@@ -0,0 +1,123 @@
+package com.example.holidayplanner.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.example.holidayplanner.model.AvailableCountry;
+import com.example.holidayplanner.ratelimit.UpstreamPriority;
+
+/**
+ * This class keeps the countries supported by Nager Date API fresh in the background, so validation never waits for
+ * an upstream call.
+ * <p>
+ * It starts with the country list bundled with the application and replaces it with the list of Nager Date API on
+ * every holiday.available-countries.refresh-interval. When a refresh fails the last known list is kept: in fail-open
+ * mode validation goes on using it, otherwise validation fails with a ResourceAccessException until a refresh
+ * succeeds again.
+ */
+@Component
+@ConditionalOnProperty(name = "holiday.provider.nager.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class AvailableCountriesRefresher {
+
+    private final NagerDateApiService nagerDateApiService;
+    private final boolean refreshEnabled;
+    private final boolean failOpen;
+    private final Set<AvailableCountry> bundledCountries;
+    private final Counter successfulRefreshes;
+    private final Counter failedRefreshes;
+
+    private volatile Set<AvailableCountry> availableCountries;
+    private volatile RuntimeException refreshFailure;
+
+    /**
+     * Creates the refresher serving the bundled country list until the first refresh.
+     *
+     * @param nagerDateApiService Service loading available countries from Nager Date API
+     * @param objectMapper Mapper reading the bundled country list
+     * @param bundledCountriesResource Country list bundled with the application, same format as Nager Date API
+     * @param refreshEnabled Whether the list is refreshed from Nager Date API at all
+     * @param failOpen Whether validation keeps using the last known list while refreshes fail
+     * @param meterRegistry Registry to publish refresh metrics to
+     * @throws IllegalStateException if the bundled country list cannot be read
+     */
+    public AvailableCountriesRefresher(NagerDateApiService nagerDateApiService, ObjectMapper objectMapper,
+                                       @Value("${holiday.available-countries.fallback:classpath:available-countries.json}") Resource bundledCountriesResource,
+                                       @Value("${holiday.available-countries.refresh-enabled:true}") boolean refreshEnabled,
+                                       @Value("${holiday.available-countries.fail-open:true}") boolean failOpen,
+                                       MeterRegistry meterRegistry) {
+        this.nagerDateApiService = nagerDateApiService;
+        this.refreshEnabled = refreshEnabled;
+        this.failOpen = failOpen;
+        try (InputStream inputStream = bundledCountriesResource.getInputStream()) {
+            this.bundledCountries = Set.copyOf(Arrays.asList(objectMapper.readValue(inputStream, AvailableCountry[].class)));
+        } catch (IOException e) {
+            throw new IllegalStateException("failed to read bundled available countries " + bundledCountriesResource, e);
+        }
+        this.availableCountries = bundledCountries;
+        this.successfulRefreshes = Counter.builder("holiday.available.countries.refreshes")
+                .description("Background refreshes of available countries from Nager Date API, by result")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.failedRefreshes = Counter.builder("holiday.available.countries.refreshes")
+                .description("Background refreshes of available countries from Nager Date API, by result")
+                .tag("result", "failure")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Currently known available countries, never calling Nager Date API.
+     *
+     * @return Available countries of the last successful refresh, the bundled list before that
+     * @throws ResourceAccessException if the last refresh failed and fail-open is disabled
+     */
+    public Set<AvailableCountry> getAvailableCountries() {
+        RuntimeException failure = refreshFailure;
+        if (failure != null && !failOpen) {
+            throw new ResourceAccessException("I/O error: available countries could not be refreshed from Nager Date API: " + failure.getMessage());
+        }
+        return availableCountries;
+    }
+
+    /**
+     * Reload available countries from Nager Date API as background call, on startup and periodically afterwards.
+     * An empty answer is treated as failed refresh, so the known list is never replaced by nothing.
+     */
+    @Scheduled(fixedDelayString = "${holiday.available-countries.refresh-interval:1h}")
+    public void refresh() {
+        if (!refreshEnabled) {
+            return;
+        }
+        try {
+            Set<AvailableCountry> refreshed = UpstreamPriority.callAs(UpstreamPriority.BACKGROUND, nagerDateApiService::reloadAvailableCountries);
+            if (refreshed.isEmpty()) {
+                throw new IllegalStateException("Nager Date API answered no available countries");
+            }
+            availableCountries = refreshed;
+            refreshFailure = null;
+            successfulRefreshes.increment();
+        } catch (RuntimeException e) {
+            if (availableCountries == bundledCountries) {
+                // a list restored from the snapshot is more recent than the bundled one
+                nagerDateApiService.getCachedAvailableCountries().ifPresent(cached -> availableCountries = cached);
+            }
+            refreshFailure = e;
+            failedRefreshes.increment();
+            log.warn("failed to refresh available countries, {} known list of {} countries: {}",
+                    failOpen ? "keep using" : "rejecting requests until refreshed, keeping", availableCountries.size(), e.getMessage());
+        }
+    }
+}
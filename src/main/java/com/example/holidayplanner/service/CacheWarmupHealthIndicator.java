@@ -0,0 +1,37 @@
+package com.example.holidayplanner.service;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class reports cache warmup progress as cacheWarmup health component.
+ * <p>
+ * While warmup runs the component is OUT_OF_SERVICE, which keeps the readiness probe and the overall health down
+ * until the hot keys are cached or the warmup timeout passed.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmupService cacheWarmupService;
+
+    /**
+     * Report warmup state, keys loaded and failed so far and elapsed time.
+     *
+     * @return UP when warmup is done, OUT_OF_SERVICE while it is pending or running
+     */
+    @Override
+    public Health health() {
+        Health.Builder builder = cacheWarmupService.isDone() ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("state", cacheWarmupService.getState())
+                .withDetail("totalKeys", cacheWarmupService.getTotalKeys())
+                .withDetail("loadedKeys", cacheWarmupService.getLoadedKeys())
+                .withDetail("failedKeys", cacheWarmupService.getFailedKeys())
+                .withDetail("elapsedMs", cacheWarmupService.getElapsed().toMillis())
+                .build();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.holidayplanner.service;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.holidayplanner.cache.HolidayCacheKey;
+import com.example.holidayplanner.cache.HotKeyTracker;
+import com.example.holidayplanner.ratelimit.UpstreamPriority;
+
+/**
+ * This class warms up the caches once the application started, before it reports ready.
+ * <p>
+ * It loads the available countries used by every validation and the hottest holidays keys of the previous run
+ * with bounded concurrency and background upstream priority. Warmup is capped by holiday.warmup.timeout, keys which
+ * failed or were not loaded in time are left to the first request, so a failing upstream cannot block deploys.
+ */
+@Component
+@Slf4j
+public class CacheWarmupService {
+
+    /**
+     * State of the warmup.
+     */
+    public enum State { DISABLED, PENDING, RUNNING, COMPLETED, TIMED_OUT }
+
+    private final NagerDateApiService nagerDateApiService;
+    private final HotKeyTracker hotKeyTracker;
+    private final boolean enabled;
+    private final int topKeys;
+    private final int concurrency;
+    private final Duration timeout;
+
+    @Getter
+    private volatile State state;
+    @Getter
+    private volatile int totalKeys;
+    private final AtomicInteger loadedKeys = new AtomicInteger();
+    private final AtomicInteger failedKeys = new AtomicInteger();
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    /**
+     * Creates the warmup service.
+     *
+     * @param nagerDateApiService Service whose caches are warmed up
+     * @param hotKeyTracker Tracker providing the hottest keys
+     * @param enabled Whether warmup runs at all
+     * @param topKeys Maximum number of holidays keys loaded
+     * @param concurrency Maximum number of concurrent upstream calls
+     * @param timeout Maximum time warmup delays readiness
+     */
+    public CacheWarmupService(NagerDateApiService nagerDateApiService, HotKeyTracker hotKeyTracker,
+                              @Value("${holiday.warmup.enabled:true}") boolean enabled,
+                              @Value("${holiday.warmup.top-keys:200}") int topKeys,
+                              @Value("${holiday.warmup.concurrency:4}") int concurrency,
+                              @Value("${holiday.warmup.timeout:30s}") Duration timeout) {
+        this.nagerDateApiService = nagerDateApiService;
+        this.hotKeyTracker = hotKeyTracker;
+        this.enabled = enabled;
+        this.topKeys = topKeys;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+        this.state = enabled ? State.PENDING : State.DISABLED;
+    }
+
+    /**
+     * Start warmup in the background once the application is started, readiness stays down until it ends.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmup() {
+        if (!enabled) {
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-warmup-");
+        threadFactory.setDaemon(true);
+        threadFactory.newThread(this::warmUp).start();
+    }
+
+    /**
+     * Load available countries and the hottest holidays keys, giving up on keys still pending after the timeout.
+     */
+    void warmUp() {
+        List<HolidayCacheKey> keys = hotKeyTracker.topKeys(topKeys);
+        totalKeys = keys.size() + 1;
+        startNanos = System.nanoTime();
+        state = State.RUNNING;
+        log.info("warming up caches with available countries and {} holidays keys", keys.size());
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-warmup-loader-");
+        threadFactory.setDaemon(true);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, threadFactory);
+        executor.execute(() -> load(nagerDateApiService::getAvailableCountries));
+        keys.forEach(key -> executor.execute(() -> load(() -> nagerDateApiService.prefetchHolidays(key))));
+        executor.shutdown();
+
+        boolean completed;
+        try {
+            completed = executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            completed = false;
+        }
+        if (!completed) {
+            executor.shutdownNow();
+        }
+        endNanos = System.nanoTime();
+        state = completed ? State.COMPLETED : State.TIMED_OUT;
+        log.info("cache warmup {} after {} ms, {} of {} keys loaded, {} failed", state, getElapsed().toMillis(),
+                loadedKeys.get(), totalKeys, failedKeys.get());
+    }
+
+    /**
+     * Whether warmup no longer holds back readiness.
+     *
+     * @return true when warmup is disabled, completed or timed out
+     */
+    public boolean isDone() {
+        return state != State.PENDING && state != State.RUNNING;
+    }
+
+    /**
+     * Number of keys loaded so far.
+     *
+     * @return Loaded keys
+     */
+    public int getLoadedKeys() {
+        return loadedKeys.get();
+    }
+
+    /**
+     * Number of keys which failed to load.
+     *
+     * @return Failed keys
+     */
+    public int getFailedKeys() {
+        return failedKeys.get();
+    }
+
+    /**
+     * Time spent warming up, up to now while warmup is running.
+     *
+     * @return Elapsed warmup time
+     */
+    public Duration getElapsed() {
+        return switch (state) {
+            case DISABLED, PENDING -> Duration.ZERO;
+            case RUNNING -> Duration.ofNanos(System.nanoTime() - startNanos);
+            case COMPLETED, TIMED_OUT -> Duration.ofNanos(endNanos - startNanos);
+        };
+    }
+
+    /**
+     * Run one warmup load with BACKGROUND upstream priority and count its outcome, failures are logged and left to
+     * the first request.
+     *
+     * @param loader Load of one key
+     */
+    private void load(Runnable loader) {
+        try {
+            UpstreamPriority.runAs(UpstreamPriority.BACKGROUND, loader);
+            loadedKeys.incrementAndGet();
+        } catch (RuntimeException e) {
+            failedKeys.incrementAndGet();
+            log.debug("cache warmup load failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.holidayplanner.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.example.holidayplanner.cache.HolidayCacheKey;
+import com.example.holidayplanner.exception.ErrorResponseFactory;
+import com.example.holidayplanner.exception.InvalidParameterException;
+import com.example.holidayplanner.generated.model.HolidayBatchRequest;
+import com.example.holidayplanner.generated.model.HolidayBatchResponse;
+import com.example.holidayplanner.generated.model.HolidayQuery;
+import com.example.holidayplanner.generated.model.HolidayQueryResult;
+import com.example.holidayplanner.service.contract.HolidayBatchServiceContract;
+import com.example.holidayplanner.validation.contract.HolidayServiceValidatorContract;
+
+/**
+ * This service class runs batches of holiday queries.
+ * <p>
+ * All queries are validated in one pass before anything is fetched, and only there. The holidays of the union of the
+ * years and country codes of all valid queries are then fetched once and concurrently, so queries sharing a country
+ * and year cost one upstream call together. Each query is finally answered by HolidayService from the warm holidays
+ * cache without validating it again, with its result or the error response ErrorResponseFactory makes for it as
+ * separate request.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HolidayBatchService implements HolidayBatchServiceContract {
+
+    /**
+     * Maximum number of queries of one batch.
+     */
+    @Value("${max.number.of.batch.queries:50}")
+    private int maxBatchQueries;
+
+    private final HolidayService holidayService;
+    private final HolidayServiceValidatorContract holidayServiceValidator;
+    private final ParallelHolidayFetcher parallelHolidayFetcher;
+    private final ErrorResponseFactory errorResponseFactory;
+
+    /**
+     * Validate all queries, prefetch the holidays of all valid queries and run them.
+     *
+     * @param holidayBatchRequest Queries to run
+     * @param path Description of the batch request, the path of the errors of failed queries
+     * @return Result or error of each query, in the order of the queries
+     */
+    @Override
+    public HolidayBatchResponse getHolidayBatch(HolidayBatchRequest holidayBatchRequest, String path) {
+        List<HolidayQuery> queries = holidayBatchRequest.getQueries();
+        int numberOfQueries = queries == null ? 0 : queries.size();
+        if (numberOfQueries < 1 || numberOfQueries > maxBatchQueries) {
+            throw new InvalidParameterException(String.format("non-supported number of queries '%d', must be between 1 and %d inclusive", numberOfQueries, maxBatchQueries));
+        }
+
+        // validate every query before fetching anything, invalid queries keep their error and fetch nothing
+        int currentYear = LocalDate.now().getYear();
+        Set<HolidayCacheKey> holidayKeys = new LinkedHashSet<>();
+        List<HolidayQueryResult> validationErrors = new ArrayList<>(numberOfQueries);
+        for (HolidayQuery query : queries) {
+            HolidayQueryResult validationError = null;
+            try {
+                holidayKeys.addAll(validateAndGetHolidayKeys(query, currentYear));
+            } catch (RuntimeException e) {
+                validationError = errorResult(query, e, path);
+            }
+            validationErrors.add(validationError);
+        }
+
+        if (!holidayKeys.isEmpty()) {
+            // failed keys are left out here and reported by the queries needing them
+            int fetched = parallelHolidayFetcher.prefetchHolidays(holidayKeys).size();
+            log.debug("prefetched holidays of {} of {} different keys for {} queries", fetched, holidayKeys.size(), numberOfQueries);
+        }
+
+        List<HolidayQueryResult> results = new ArrayList<>(numberOfQueries);
+        for (int i = 0; i < numberOfQueries; i++) {
+            HolidayQuery query = queries.get(i);
+            if (validationErrors.get(i) != null) {
+                results.add(validationErrors.get(i));
+                continue;
+            }
+            try {
+                results.add(runQuery(query));
+            } catch (RuntimeException e) {
+                results.add(errorResult(query, e, path));
+            }
+        }
+        return new HolidayBatchResponse().results(results);
+    }
+
+    /**
+     * Validate the parameters of one query like its endpoint does and get the holidays it needs. The last N holidays
+     * need the current year, older years are only fetched when the query runs and holidays are still missing.
+     *
+     * @param query Query to validate
+     * @param currentYear Current year
+     * @return Years and upper case country codes of the holidays needed by the query
+     */
+    private List<HolidayCacheKey> validateAndGetHolidayKeys(HolidayQuery query, int currentYear) {
+        if (query.getType() == null) {
+            throw new InvalidParameterException("missing query type, must be one of LAST_NUMBER_OF_HOLIDAYS, NON_WEEKEND_HOLIDAY_COUNTS, SHARED_HOLIDAYS, COMMON_HOLIDAYS");
+        }
+        switch (query.getType()) {
+            case LAST_NUMBER_OF_HOLIDAYS -> {
+                String countryCode = requireParameter(query, "countryCode", query.getCountryCode()).toUpperCase();
+                holidayServiceValidator.validateCountryCodesAndDays(new HashSet<>(List.of(countryCode)), query.getNumberOfHolidays());
+                return List.of(new HolidayCacheKey(currentYear, countryCode));
+            }
+            case NON_WEEKEND_HOLIDAY_COUNTS -> {
+                Set<String> countryCodes = countryCodesOf(query);
+                holidayServiceValidator.validateCountryCodesAndYear(requireParameter(query, "year", query.getYear()), countryCodes);
+                return holidayKeysOf(Integer.parseInt(query.getYear()), countryCodes);
+            }
+            case SHARED_HOLIDAYS -> {
+                Set<String> countryCodes = countryCodesOf(query);
+                if (query.getCountryCodes().split(",").length != 2) {
+                    throw new InvalidParameterException(String.format("input country codes '%s' are not two country codes, exactly two must be provided for shared holidays", query.getCountryCodes().toUpperCase()));
+                }
+                holidayServiceValidator.validateSharedHolidayCountryCodesAndYear(requireParameter(query, "year", query.getYear()), countryCodes);
+                return holidayKeysOf(Integer.parseInt(query.getYear()), countryCodes);
+            }
+            case COMMON_HOLIDAYS -> {
+                Set<String> countryCodes = countryCodesOf(query);
+                holidayServiceValidator.validateCommonHolidayCountryCodesAndYear(requireParameter(query, "year", query.getYear()), countryCodes);
+                return holidayKeysOf(Integer.parseInt(query.getYear()), countryCodes);
+            }
+            default -> throw new InvalidParameterException(String.format("non-supported query type '%s'", query.getType()));
+        }
+    }
+
+    /**
+     * Run one validated query through HolidayService, which finds its holidays in the prefetched cache and does not
+     * validate the query again.
+     *
+     * @param query Validated query
+     * @return Result of the query
+     */
+    private HolidayQueryResult runQuery(HolidayQuery query) {
+        HolidayQueryResult result = resultOf(query, HttpStatus.OK);
+        return switch (query.getType()) {
+            case LAST_NUMBER_OF_HOLIDAYS -> result.holidays(holidayService.getValidatedLastNumberOfHolidays(
+                    query.getCountryCode().toUpperCase(), query.getNumberOfHolidays()).result());
+            case NON_WEEKEND_HOLIDAY_COUNTS -> result.holidayCounts(
+                    holidayService.getValidatedNonWeekendHolidayCounts(query.getYear(), countryCodesOf(query)).result());
+            case SHARED_HOLIDAYS -> {
+                String[] countryCodes = query.getCountryCodes().toUpperCase().split(",");
+                yield result.sharedHolidays(holidayService.getValidatedSharedHolidays(query.getYear(), countryCodes[0], countryCodes[1]).result());
+            }
+            case COMMON_HOLIDAYS -> result.commonHolidays(
+                    holidayService.getValidatedCommonHolidays(query.getYear(), new ArrayList<>(countryCodesOf(query))).result());
+        };
+    }
+
+    /**
+     * Result of a query which failed, with the error response it would have got as separate request.
+     *
+     * @param query Failed query
+     * @param e Exception thrown by validating or running the query
+     * @param path Description of the batch request
+     * @return Result with the error of the query
+     */
+    private HolidayQueryResult errorResult(HolidayQuery query, RuntimeException e, String path) {
+        HttpStatus status = errorResponseFactory.statusOf(e);
+        if (status.is5xxServerError()) {
+            log.warn("query '{}' of type {} failed: {}", query.getId(), query.getType(), e.getMessage());
+        }
+        return resultOf(query, status).error(errorResponseFactory.errorResponseOf(e, path));
+    }
+
+    private static HolidayQueryResult resultOf(HolidayQuery query, HttpStatus status) {
+        return new HolidayQueryResult()
+                .id(query.getId())
+                .type(query.getType() != null ? query.getType().getValue() : null)
+                .status(status.value());
+    }
+
+    private static String requireParameter(HolidayQuery query, String name, String value) {
+        if (value == null || value.isBlank()) {
+            throw new InvalidParameterException(String.format("missing parameter '%s' for query type %s", name, query.getType()));
+        }
+        return value;
+    }
+
+    private static Set<String> countryCodesOf(HolidayQuery query) {
+        return new LinkedHashSet<>(List.of(requireParameter(query, "countryCodes", query.getCountryCodes()).toUpperCase().split(",")));
+    }
+
+    private static List<HolidayCacheKey> holidayKeysOf(int year, Set<String> countryCodes) {
+        List<HolidayCacheKey> holidayKeys = new ArrayList<>(countryCodes.size());
+        for (String countryCode : countryCodes) {
+            holidayKeys.add(new HolidayCacheKey(year, countryCode));
+        }
+        return holidayKeys;
+    }
+}
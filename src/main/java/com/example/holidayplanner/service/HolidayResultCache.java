@@ -0,0 +1,256 @@
+package com.example.holidayplanner.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.holidayplanner.cache.HolidayCalendar;
+import com.example.holidayplanner.cache.SingleFlightLoader;
+import com.example.holidayplanner.provider.HolidayDataProviderChain;
+import com.example.holidayplanner.service.contract.VersionedResult;
+
+/**
+ * This class caches the computed results of the holiday operations per {@link HolidayResultKey}.
+ * <p>
+ * Every result records the holidays of each year and country code it was computed from. A cached result is only
+ * returned while the holiday data providers still hold the same holidays for all of them, so a refresh or reload
+ * of one country invalidates exactly the results derived from it, and holidays revalidated unchanged keep them.
+ * The holidays are only peeked at, never loaded, so a hit never waits for an upstream call, and holidays which left
+ * their cache invalidate the results computed from them. Concurrent misses of one key compute it once through the
+ * SingleFlightLoader, outside of any cache lock. Results are kept at most expire-after-write, results of the last
+ * holidays also only until midnight, as they depend on today. The version of a cached result can be read without
+ * computing it, for HTTP ETags.
+ */
+@Component
+public class HolidayResultCache {
+
+    /**
+     * Prefix of the single-flight keys of results, apart from the year_countryCode keys of upstream loads.
+     */
+    private static final String SINGLE_FLIGHT_KEY_PREFIX = "result:";
+
+    /**
+     * Holidays of one year and country code a result was computed from.
+     *
+     * @param year Year of the holidays
+     * @param countryCode Upper case country code
+     * @param calendar Holidays the result was computed from
+     */
+    private record Dependency(int year, String countryCode, HolidayCalendar calendar) {
+    }
+
+    /**
+     * Cached result with the holidays it was computed from.
+     *
+     * @param result Computed result
+     * @param dependencies Holidays the result was computed from
+     * @param version Version of the result, combined from its key and the versions of its holidays
+     */
+    private record Entry(Object result, List<Dependency> dependencies, long version) {
+    }
+
+    /**
+     * Collects the holidays a result is computed from.
+     */
+    public static final class Dependencies {
+
+        private final List<Dependency> dependencies = new ArrayList<>();
+
+        /**
+         * Record holidays the result is computed from.
+         *
+         * @param year Year of the holidays
+         * @param countryCode Upper case country code
+         * @param calendar Holidays as returned by the holiday data providers
+         */
+        public void add(int year, String countryCode, HolidayCalendar calendar) {
+            dependencies.add(new Dependency(year, countryCode, calendar));
+        }
+    }
+
+    private final HolidayDataProviderChain holidayDataProviderChain;
+    private final SingleFlightLoader singleFlightLoader;
+    private final boolean enabled;
+    private final Cache<HolidayResultKey, Entry> results;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+
+    /**
+     * Creates the cache and registers its metrics with Micrometer.
+     *
+     * @param holidayDataProviderChain Providers the holidays of the dependencies are checked against
+     * @param singleFlightLoader Coalesces concurrent computations of the same result
+     * @param enabled Whether results are cached, otherwise every request computes its result
+     * @param maximumSize Maximum number of cached results
+     * @param expireAfterWrite How long a result is kept at most
+     * @param meterRegistry Registry to publish result cache metrics to
+     */
+    public HolidayResultCache(HolidayDataProviderChain holidayDataProviderChain,
+                              SingleFlightLoader singleFlightLoader,
+                              @Value("${holiday.result-cache.enabled:true}") boolean enabled,
+                              @Value("${holiday.result-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${holiday.result-cache.expire-after-write:10m}") Duration expireAfterWrite,
+                              MeterRegistry meterRegistry) {
+        this.holidayDataProviderChain = holidayDataProviderChain;
+        this.singleFlightLoader = singleFlightLoader;
+        this.enabled = enabled;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<HolidayResultKey, Entry>() {
+                    @Override
+                    public long expireAfterCreate(HolidayResultKey key, Entry entry, long currentTime) {
+                        return ttlOf(key, ZonedDateTime.now(), expireAfterWrite);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(HolidayResultKey key, Entry entry, long currentTime, long currentDuration) {
+                        return ttlOf(key, ZonedDateTime.now(), expireAfterWrite);
+                    }
+
+                    @Override
+                    public long expireAfterRead(HolidayResultKey key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.hits = Counter.builder("holiday.result.cache.requests")
+                .description("Requests to the result cache, by whether a cached result was returned")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("holiday.result.cache.requests")
+                .description("Requests to the result cache, by whether a cached result was returned")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("holiday.result.cache.requests")
+                .description("Requests to the result cache, by whether a cached result was returned")
+                .tag("result", "invalidated")
+                .register(meterRegistry);
+        Gauge.builder("holiday.result.cache.size", results, Cache::estimatedSize)
+                .description("Computed results currently cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the result of given key, computed again when it is not cached or any holidays it was computed from changed.
+     * Concurrent misses of the same key wait for a single computation.
+     *
+     * @param key Normalized request parameters
+     * @param compute Computes the result and records the holidays it is computed from
+     * @param <T> Type of the result
+     * @return Cached or computed result
+     */
+    public <T> T get(HolidayResultKey key, Function<Dependencies, T> compute) {
+        return getVersioned(key, compute).result();
+    }
+
+    /**
+     * Get the result of given key like {@link #get(HolidayResultKey, Function)}, together with the version of the
+     * cached result it was taken from.
+     *
+     * @param key Normalized request parameters
+     * @param compute Computes the result and records the holidays it is computed from
+     * @param <T> Type of the result
+     * @return Cached or computed result with its version, the version is empty when the cache is disabled
+     */
+    @SuppressWarnings("unchecked")
+    public <T> VersionedResult<T> getVersioned(HolidayResultKey key, Function<Dependencies, T> compute) {
+        if (!enabled) {
+            return new VersionedResult<>(compute.apply(new Dependencies()), OptionalLong.empty());
+        }
+        Entry entry = results.getIfPresent(key);
+        if (entry != null && isCurrent(entry)) {
+            hits.increment();
+            return new VersionedResult<>((T) entry.result(), OptionalLong.of(entry.version()));
+        }
+        (entry != null ? invalidations : misses).increment();
+        // computed by one caller without holding a lock of the cache, concurrent callers wait for its entry
+        Entry computed = singleFlightLoader.load(SINGLE_FLIGHT_KEY_PREFIX + key, () -> {
+            Dependencies dependencies = new Dependencies();
+            Object result = compute.apply(dependencies);
+            List<Dependency> recorded = List.copyOf(dependencies.dependencies);
+            Entry computedEntry = new Entry(result, recorded, versionOf(key, recorded));
+            results.put(key, computedEntry);
+            return computedEntry;
+        });
+        return new VersionedResult<>((T) computed.result(), OptionalLong.of(computed.version()));
+    }
+
+    /**
+     * Version of the cached result of given key, without computing it or loading any holidays. The version changes
+     * whenever any holidays the result is computed from change, and is the same on every instance for the same
+     * holidays.
+     *
+     * @param key Normalized request parameters
+     * @return Version of the result, empty when no current result is cached or the cache is disabled
+     */
+    public OptionalLong version(HolidayResultKey key) {
+        if (!enabled) {
+            return OptionalLong.empty();
+        }
+        Entry entry = results.getIfPresent(key);
+        return entry != null && isCurrent(entry) ? OptionalLong.of(entry.version()) : OptionalLong.empty();
+    }
+
+    /**
+     * Whether the holiday data providers still hold the holidays the result was computed from, without loading any.
+     *
+     * @param entry Cached result
+     * @return true if no holidays changed or left their cache
+     */
+    private boolean isCurrent(Entry entry) {
+        for (Dependency dependency : entry.dependencies()) {
+            Optional<HolidayCalendar> current = holidayDataProviderChain.peekHolidays(dependency.year(), dependency.countryCode());
+            if (current.isEmpty() || current.get() != dependency.calendar() && !current.get().equals(dependency.calendar())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long versionOf(HolidayResultKey key, List<Dependency> dependencies) {
+        long version = HolidayCalendar.mix(key.operation().ordinal());
+        version = HolidayCalendar.mix(version + key.numberOfHolidays());
+        version = HolidayCalendar.mix(version + key.todayEpochDay());
+        for (Dependency dependency : dependencies) {
+            version = HolidayCalendar.mix(version + dependency.year());
+            version = HolidayCalendar.mix(version + dependency.countryCode().hashCode());
+            version = HolidayCalendar.mix(version + dependency.calendar().version());
+        }
+        return version;
+    }
+
+    /**
+     * Time to live of a result, results of the last holidays expire at the latest at the end of their day.
+     *
+     * @param key Key of the result
+     * @param now Current date and time in the zone of today
+     * @param expireAfterWrite Maximum time to live
+     * @return Time to live in nanoseconds
+     */
+    static long ttlOf(HolidayResultKey key, ZonedDateTime now, Duration expireAfterWrite) {
+        if (key.operation() != HolidayResultKey.Operation.LAST_HOLIDAYS) {
+            return expireAfterWrite.toNanos();
+        }
+        ZonedDateTime midnight = LocalDate.ofEpochDay(key.todayEpochDay() + 1L).atStartOfDay(now.getZone());
+        Duration untilMidnight = Duration.between(now, midnight);
+        if (untilMidnight.isNegative()) {
+            return 0;
+        }
+        return Math.min(untilMidnight.toNanos(), expireAfterWrite.toNanos());
+    }
+}
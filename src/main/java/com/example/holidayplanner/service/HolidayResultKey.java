@@ -0,0 +1,73 @@
+package com.example.holidayplanner.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * Key of the result cache, the operation with its request parameters in normalized form.
+ * <p>
+ * Country codes are upper cased, deduplicated and sorted, so requests for the same countries in a different order
+ * or with repeated codes share one entry. Parameters an operation does not use are 0.
+ *
+ * @param operation Holiday operation of the result
+ * @param year Year of the holidays, 0 for the last holidays
+ * @param countryCodes Different upper case country codes in ascending order
+ * @param numberOfHolidays Number of holidays of the last holidays, 0 otherwise
+ * @param todayEpochDay Epoch day of today of the last holidays, 0 otherwise
+ */
+public record HolidayResultKey(Operation operation, int year, List<String> countryCodes, int numberOfHolidays,
+                               int todayEpochDay) {
+
+    /**
+     * Holiday operations with cached results.
+     */
+    public enum Operation {
+        LAST_HOLIDAYS,
+        NON_WEEKEND_COUNTS,
+        SHARED_HOLIDAYS
+    }
+
+    /**
+     * Key of the last holidays of a country, only valid on the day it was created.
+     *
+     * @param countryCode Country code
+     * @param numberOfHolidays Number of holidays returned
+     * @param todayEpochDay Epoch day of today
+     * @return Key of the last holidays
+     */
+    public static HolidayResultKey lastHolidays(String countryCode, int numberOfHolidays, int todayEpochDay) {
+        return new HolidayResultKey(Operation.LAST_HOLIDAYS, 0, normalize(List.of(countryCode)), numberOfHolidays, todayEpochDay);
+    }
+
+    /**
+     * Key of the non-weekend holiday counts of several countries.
+     *
+     * @param year Year of the holidays
+     * @param countryCodes Country codes in any order, may repeat
+     * @return Key of the non-weekend holiday counts
+     */
+    public static HolidayResultKey nonWeekendCounts(int year, Collection<String> countryCodes) {
+        return new HolidayResultKey(Operation.NON_WEEKEND_COUNTS, year, normalize(countryCodes), 0, 0);
+    }
+
+    /**
+     * Key of the holidays shared by several countries.
+     *
+     * @param year Year of the holidays
+     * @param countryCodes Country codes in any order, may repeat
+     * @return Key of the shared holidays
+     */
+    public static HolidayResultKey sharedHolidays(int year, Collection<String> countryCodes) {
+        return new HolidayResultKey(Operation.SHARED_HOLIDAYS, year, normalize(countryCodes), 0, 0);
+    }
+
+    private static List<String> normalize(Collection<String> countryCodes) {
+        TreeSet<String> normalized = new TreeSet<>();
+        for (String countryCode : countryCodes) {
+            normalized.add(countryCode.toUpperCase(Locale.ROOT));
+        }
+        return List.copyOf(normalized);
+    }
+}
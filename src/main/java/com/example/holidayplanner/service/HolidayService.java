@@ -7,21 +7,29 @@ import org.springframework.beans.factory.annotation.Value;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.OptionalLong;
+import java.util.Set;
 import org.springframework.stereotype.Service;
 
+import com.example.holidayplanner.cache.HolidayCacheKey;
+import com.example.holidayplanner.cache.HolidayCalendar;
+import com.example.holidayplanner.cache.IsoDateCodec;
+import com.example.holidayplanner.cache.SharedHolidayIntersection;
+import com.example.holidayplanner.exception.InvalidParameterException;
+import com.example.holidayplanner.generated.model.CommonHoliday;
 import com.example.holidayplanner.generated.model.CountryHolidayCount;
+import com.example.holidayplanner.generated.model.CountryLocalName;
 import com.example.holidayplanner.generated.model.Holiday;
 import com.example.holidayplanner.generated.model.SharedHoliday;
+import com.example.holidayplanner.logging.ResultLogger;
+import com.example.holidayplanner.provider.HolidayDataProviderChain;
 import com.example.holidayplanner.service.contract.HolidayServiceContract;
+import com.example.holidayplanner.service.contract.VersionedResult;
 import com.example.holidayplanner.validation.contract.HolidayServiceValidatorContract;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * This service class contains business logic for all holiday API related operations.
@@ -39,60 +47,53 @@ public class HolidayService implements HolidayServiceContract {
     @Value("${default.number.of.holidays.to-return:3}")
     private int defaultNumberOfHolidays;
 
+    /**
+     * Oldest year looked at for the last N holidays.
+     */
+    @Value("${min.holiday.search.supported.year:1975}")
+    private int minHolidaySupportedYear;
+
 
-    private final NagerDateApiService nagerDateApiService;
+    private final HolidayDataProviderChain holidayDataProviderChain;
+    private final ParallelHolidayFetcher parallelHolidayFetcher;
     private final HolidayServiceValidatorContract holidayServiceValidator;
-    private final  ObjectMapper objectMapper;
+    private final HolidayResultCache holidayResultCache;
+    private final ResultLogger resultLogger;
 
     /**
-     * Fetch holidays for given year and country code from Nager Date API service.
+     * Fetch holidays for given year and country code from the holiday data providers.
      *
      * @param year Year for which holidays are to be fetched
      * @param countryCode Country code for which holidays are to be fetched
-     * @return List of holidays for the given year and country code
+     * @return Holidays for the given year and country code
      */
-    private List<Holiday> fetchHolidays(int year, String countryCode) {
-        return nagerDateApiService.fetchHolidays(year, countryCode.toUpperCase());
+    private HolidayCalendar fetchHolidays(int year, String countryCode) {
+        return holidayDataProviderChain.fetchHolidays(year, countryCode.toUpperCase());
     }
 
     /**
-     * Convert list of objects to JSON string for logging purpose.
+     * Add past holidays of one year by date (descending) until the required number is reached, holidays on the same
+     * date keep their upstream order. Only the first binary search depends on today, older years are scanned from
+     * their end.
      *
-     * @param listOfObjects List of objects to convert
-     * @param classType Class type of objects
-     * @return JSON string representation of the list
+     * @param holidays Holidays of one year sorted by date (ascending)
+     * @param todayEpochDay Epoch day of the current date
+     * @param numberOfHolidaysRequired Total number of holidays to return
+     * @param lastHolidays Holidays found so far, in newer years
      */
-    private String getJsonString(List<?> listOfObjects, Class<?> classType) {
-        StringBuilder stringBuilder = new StringBuilder();
-            for (Object inputObject : listOfObjects) {
-            try {
-                stringBuilder.append(objectMapper.writeValueAsString(inputObject));
-            } catch (JsonProcessingException e) {
-                log.warn("Failed to convert {} to json error: {}", classType, e.getMessage());
+    private void addLastGivenNumberOfHolidays(HolidayCalendar holidays, int todayEpochDay, int numberOfHolidaysRequired, List<Holiday> lastHolidays) {
+        int groupEnd = holidays.indexAfter(todayEpochDay);
+        while (groupEnd > 0 && lastHolidays.size() < numberOfHolidaysRequired) {
+            // walk back one date at a time and emit the holidays of that date in upstream order
+            int groupStart = groupEnd - 1;
+            while (groupStart > 0 && holidays.epochDay(groupStart - 1) == holidays.epochDay(groupEnd - 1)) {
+                groupStart--;
+            }
+            for (int i = groupStart; i < groupEnd && lastHolidays.size() < numberOfHolidaysRequired; i++) {
+                lastHolidays.add(holidays.toHoliday(i));
             }
+            groupEnd = groupStart;
         }
-        return stringBuilder.toString();
-    }
-
-    /**
-     * Sort by date (descending) and filter past holidays.
-     *
-     * @param holidays List of holidays to filter and sort
-     * @param today Current date
-     * @param numberOfHolidaysRequired Number of holidays to return
-     * @return List of last given number of holidays before today
-     */
-    private List<Holiday> getLastGivenNumberOfHolidays(List<Holiday> holidays, LocalDate today, int numberOfHolidaysRequired) {
-        return holidays.stream()
-                .filter(holiday -> holiday.getDate() != null && LocalDate.parse(holiday.getDate()).isBefore(today.plusDays(1)))
-                .sorted((holiday1, holiday2) -> {
-                    if (holiday2.getDate() == null && holiday1.getDate() == null) return 0;
-                    if (holiday2.getDate() == null) return 1;
-                    if (holiday1.getDate() == null) return -1;
-                    return LocalDate.parse(holiday2.getDate()).compareTo(LocalDate.parse(holiday1.getDate()));
-                })
-                .limit(numberOfHolidaysRequired)
-                .collect(Collectors.toCollection(ArrayList::new));
     }
 
     /**
@@ -117,7 +118,10 @@ public class HolidayService implements HolidayServiceContract {
     }
 
     /**
-     * Fetch holidays for current and previous year to get last N holidays.
+     * Walk the cached yearly calendars of the country back from the current year as one timeline sorted by date,
+     * until the last N holidays are found. Years are fetched only while holidays are missing, at most N years back,
+     * and the walk stops at the minimum supported year or the first older year the holiday data providers do not know.
+     * Results are cached for the current day.
      *
      * @param countryCode Country code for which holidays are to be fetched
      * @param inputNumberOfHolidaysStr Number of holidays to return as string
@@ -125,21 +129,36 @@ public class HolidayService implements HolidayServiceContract {
      */
     @Override
     public List<Holiday> getLastNumberOfHolidays(String countryCode, String inputNumberOfHolidaysStr) {
+        return getLastNumberOfHolidaysWithVersion(countryCode, inputNumberOfHolidaysStr).result();
+    }
+
+    /**
+     * Last N holidays like {@link #getLastNumberOfHolidays(String, String)}, with the version of the cached result.
+     *
+     * @param countryCode Country code for which holidays are to be fetched
+     * @param inputNumberOfHolidaysStr Number of holidays to return as string
+     * @return List of last N holidays for the given country code with its version
+     */
+    @Override
+    public VersionedResult<List<Holiday>> getLastNumberOfHolidaysWithVersion(String countryCode, String inputNumberOfHolidaysStr) {
         holidayServiceValidator.validateCountryCodesAndDays(new HashSet<>(Collections.singletonList(countryCode.toUpperCase())), inputNumberOfHolidaysStr);
+        return getValidatedLastNumberOfHolidays(countryCode.toUpperCase(), inputNumberOfHolidaysStr);
+    }
+
+    /**
+     * Last N holidays with the version of the cached result, for input already validated by the caller.
+     *
+     * @param countryCode Valid upper case country code
+     * @param inputNumberOfHolidaysStr Valid number of holidays to return as string
+     * @return List of last N holidays for the given country code with its version
+     */
+    VersionedResult<List<Holiday>> getValidatedLastNumberOfHolidays(String countryCode, String inputNumberOfHolidaysStr) {
         LocalDate today = LocalDate.now();
-        int currentYear = today.getYear();
         int inputNumberOfHolidays = getInputNumberOfHolidays(inputNumberOfHolidaysStr);
-        // Fetch holidays for current year
-        List<Holiday> currentYearAllHolidays = fetchHolidays(currentYear, countryCode);
-        List<Holiday> holidaysToReturn = getLastGivenNumberOfHolidays(currentYearAllHolidays, today, inputNumberOfHolidays);
-        // If requested count of holidays in current year is lower than input Number of holidays, fetch from previous year
-        if (holidaysToReturn.size() < inputNumberOfHolidays) {
-            // Fetch holidays for previous year
-            List<Holiday> lastYearAllHolidays = fetchHolidays(currentYear - 1, countryCode);
-            int remainingHolidays = inputNumberOfHolidays - holidaysToReturn.size();
-            holidaysToReturn.addAll(getLastGivenNumberOfHolidays(lastYearAllHolidays, today, remainingHolidays));
-        }
-        log.info("last {} holidays for country code '{}' are: {}", inputNumberOfHolidaysStr, countryCode.toUpperCase(), getJsonString(holidaysToReturn, Holiday.class));
+        HolidayResultKey resultKey = HolidayResultKey.lastHolidays(countryCode, inputNumberOfHolidays, (int) today.toEpochDay());
+        VersionedResult<List<Holiday>> holidaysToReturn = holidayResultCache.getVersioned(resultKey,
+                dependencies -> findLastNumberOfHolidays(countryCode.toUpperCase(), today, inputNumberOfHolidays, dependencies));
+        resultLogger.log("last {} holidays for country code '{}' are: {}", holidaysToReturn.result(), inputNumberOfHolidaysStr, countryCode.toUpperCase());
         return holidaysToReturn;
     }
 
@@ -152,30 +171,36 @@ public class HolidayService implements HolidayServiceContract {
      */
     @Override
     public List<CountryHolidayCount> getNonWeekendHolidayCounts(String yearString, String countryCodes) {
+        return getNonWeekendHolidayCountsWithVersion(yearString, countryCodes).result();
+    }
+
+    /**
+     * Non-weekend holiday counts like {@link #getNonWeekendHolidayCounts(String, String)}, with the version of the
+     * cached result.
+     *
+     * @param yearString Year as string
+     * @param countryCodes Comma separated country codes
+     * @return List of country holiday counts for non-weekend holidays with its version
+     */
+    @Override
+    public VersionedResult<List<CountryHolidayCount>> getNonWeekendHolidayCountsWithVersion(String yearString, String countryCodes) {
         HashSet<String> countryCodesSet = new HashSet<>(List.of(countryCodes.toUpperCase().split(",")));
         holidayServiceValidator.validateCountryCodesAndYear(yearString, countryCodesSet);
-        List<CountryHolidayCount> holidayCounts = new ArrayList<>();
+        return getValidatedNonWeekendHolidayCounts(yearString, countryCodesSet);
+    }
 
-        // For each country code fetch holidays and count non-weekend holidays
-        for (String countryCode : countryCodesSet) {
-            List<Holiday> holidays = fetchHolidays(Integer.parseInt(yearString), countryCode);
-            long nonWeekendCount = holidays.stream()
-                    .filter(holiday ->  holiday.getDate() != null)
-                    .map(holiday -> LocalDate.parse(holiday.getDate()))
-                    .filter(date -> date.getDayOfWeek().getValue() <= 5) // Monday to Friday
-                    .count();
-            holidayCounts.add(new CountryHolidayCount(countryCode.toUpperCase(),  (int)nonWeekendCount));
-        }
-        // Sort in descending order by holiday count
-        List<CountryHolidayCount> countryHolidayCounts = holidayCounts.stream()
-                .sorted((countryHolidayCount1, countryHolidayCount2)
-                        -> {
-                    if (countryHolidayCount1.getHolidayCount() == null || countryHolidayCount2.getHolidayCount() == null) return 0;
-                    return Integer.compare(countryHolidayCount2.getHolidayCount(), countryHolidayCount1.getHolidayCount());
-                })
-                .toList();
-        log.info("non weekend holiday counts for country codes '{}', are: {}", String.join(",", countryCodesSet)
-                ,getJsonString(countryHolidayCounts, CountryHolidayCount.class));
+    /**
+     * Non-weekend holiday counts with the version of the cached result, for input already validated by the caller.
+     *
+     * @param yearString Valid year as string
+     * @param countryCodesSet Valid upper case country codes
+     * @return List of country holiday counts for non-weekend holidays with its version
+     */
+    VersionedResult<List<CountryHolidayCount>> getValidatedNonWeekendHolidayCounts(String yearString, Set<String> countryCodesSet) {
+        HolidayResultKey resultKey = HolidayResultKey.nonWeekendCounts(Integer.parseInt(yearString), countryCodesSet);
+        VersionedResult<List<CountryHolidayCount>> countryHolidayCounts = holidayResultCache.getVersioned(resultKey,
+                dependencies -> countNonWeekendHolidays(resultKey.year(), resultKey.countryCodes(), dependencies));
+        resultLogger.log("non weekend holiday counts for country codes '{}', are: {}", countryHolidayCounts.result(), String.join(",", countryCodesSet));
         return countryHolidayCounts;
     }
 
@@ -189,23 +214,271 @@ public class HolidayService implements HolidayServiceContract {
      */
     @Override
     public List<SharedHoliday> getSharedHolidays(String year, String countryCode1, String countryCode2) {
+        return getSharedHolidaysWithVersion(year, countryCode1, countryCode2).result();
+    }
+
+    /**
+     * Shared holidays like {@link #getSharedHolidays(String, String, String)}, with the version of the cached result.
+     *
+     * @param year Year as string
+     * @param countryCode1 First country code
+     * @param countryCode2 Second country code
+     * @return List of shared holidays between the two countries for the given year with its version
+     */
+    @Override
+    public VersionedResult<List<SharedHoliday>> getSharedHolidaysWithVersion(String year, String countryCode1, String countryCode2) {
+        holidayServiceValidator.validateSharedHolidayCountryCodesAndYear(year, new HashSet<>(List.of(countryCode1.toUpperCase(), countryCode2.toUpperCase())));
+        return getValidatedSharedHolidays(year, countryCode1, countryCode2);
+    }
+
+    /**
+     * Shared holidays of two countries with the version of the cached result, for input already validated by the
+     * caller.
+     *
+     * @param year Valid year as string
+     * @param countryCode1 Valid first country code
+     * @param countryCode2 Valid second country code
+     * @return List of shared holidays between the two countries for the given year with its version
+     */
+    VersionedResult<List<SharedHoliday>> getValidatedSharedHolidays(String year, String countryCode1, String countryCode2) {
+        // NL/DE and DE/NL share the shared days, local names are taken in the requested order
+        HolidayResultKey resultKey = HolidayResultKey.sharedHolidays(Integer.parseInt(year), List.of(countryCode1, countryCode2));
+        int index1 = resultKey.countryCodes().indexOf(countryCode1.toUpperCase());
+        int index2 = resultKey.countryCodes().indexOf(countryCode2.toUpperCase());
+        VersionedResult<List<SharedHolidayIntersection.SharedDay>> sharedDays = getSharedDays(resultKey);
+        List<SharedHoliday> sharedHolidays = new ArrayList<>();
+        for (SharedHolidayIntersection.SharedDay sharedDay : sharedDays.result()) {
+            sharedHolidays.add(new SharedHoliday(IsoDateCodec.format(sharedDay.epochDay()),
+                    sharedDay.localNames().get(index1), sharedDay.localNames().get(index2)));
+        }
+        resultLogger.log("shared holiday for country code '{}' and '{}' are: {}", sharedHolidays, countryCode1.toUpperCase(), countryCode2.toUpperCase());
+        return new VersionedResult<>(sharedHolidays, sharedDays.version());
+    }
+
+    /**
+     * Fetch holidays for given year and comma separated country codes and find holidays shared by all of them.
+     *
+     * @param year Year as string
+     * @param countryCodes Comma separated country codes
+     * @return List of holidays shared by all countries for the given year, with the local name in each country
+     */
+    @Override
+    public List<CommonHoliday> getCommonHolidays(String year, String countryCodes) {
+        return getCommonHolidaysWithVersion(year, countryCodes).result();
+    }
+
+    /**
+     * Holidays shared by several countries like {@link #getCommonHolidays(String, String)}, with the version of the
+     * cached result.
+     *
+     * @param year Year as string
+     * @param countryCodes Comma separated country codes
+     * @return List of holidays shared by all countries for the given year with its version
+     */
+    @Override
+    public VersionedResult<List<CommonHoliday>> getCommonHolidaysWithVersion(String year, String countryCodes) {
+        // keep the requested order of the countries for the local names
+        List<String> countryCodeList = new ArrayList<>(new LinkedHashSet<>(List.of(countryCodes.toUpperCase().split(","))));
+        holidayServiceValidator.validateCommonHolidayCountryCodesAndYear(year, new HashSet<>(countryCodeList));
+        return getValidatedCommonHolidays(year, countryCodeList);
+    }
+
+    /**
+     * Holidays shared by several countries with the version of the cached result, for input already validated by the
+     * caller.
+     *
+     * @param year Valid year as string
+     * @param countryCodeList Valid different upper case country codes, in the order of their local names
+     * @return List of holidays shared by all countries for the given year with its version
+     */
+    VersionedResult<List<CommonHoliday>> getValidatedCommonHolidays(String year, List<String> countryCodeList) {
+        HolidayResultKey resultKey = HolidayResultKey.sharedHolidays(Integer.parseInt(year), countryCodeList);
+        int[] indexes = new int[countryCodeList.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = resultKey.countryCodes().indexOf(countryCodeList.get(i));
+        }
+        VersionedResult<List<SharedHolidayIntersection.SharedDay>> sharedDays = getSharedDays(resultKey);
+        List<CommonHoliday> commonHolidays = new ArrayList<>();
+        for (SharedHolidayIntersection.SharedDay sharedDay : sharedDays.result()) {
+            List<CountryLocalName> localNames = new ArrayList<>(countryCodeList.size());
+            for (int i = 0; i < countryCodeList.size(); i++) {
+                localNames.add(new CountryLocalName(countryCodeList.get(i), sharedDay.localNames().get(indexes[i])));
+            }
+            commonHolidays.add(new CommonHoliday(IsoDateCodec.format(sharedDay.epochDay()), localNames));
+        }
+        resultLogger.log("shared holidays for country codes '{}' are: {}", commonHolidays, String.join(",", countryCodeList));
+        return new VersionedResult<>(commonHolidays, sharedDays.version());
+    }
+
+    /**
+     * Version of the cached last N holidays of today.
+     *
+     * @param countryCode Country code for which holidays are to be fetched
+     * @param inputNumberOfHolidaysStr Number of holidays to return as string
+     * @return Version of the current result, empty when it is not cached
+     */
+    @Override
+    public OptionalLong getLastNumberOfHolidaysVersion(String countryCode, String inputNumberOfHolidaysStr) {
+        holidayServiceValidator.validateCountryCodesAndDays(new HashSet<>(Collections.singletonList(countryCode.toUpperCase())), inputNumberOfHolidaysStr);
+        return holidayResultCache.version(HolidayResultKey.lastHolidays(countryCode,
+                getInputNumberOfHolidays(inputNumberOfHolidaysStr), (int) LocalDate.now().toEpochDay()));
+    }
+
+    /**
+     * Version of the cached non-weekend holiday counts.
+     *
+     * @param yearString Year as string
+     * @param countryCodes Comma separated country codes
+     * @return Version of the current result, empty when it is not cached
+     */
+    @Override
+    public OptionalLong getNonWeekendHolidayCountsVersion(String yearString, String countryCodes) {
+        HashSet<String> countryCodesSet = new HashSet<>(List.of(countryCodes.toUpperCase().split(",")));
+        holidayServiceValidator.validateCountryCodesAndYear(yearString, countryCodesSet);
+        return holidayResultCache.version(HolidayResultKey.nonWeekendCounts(Integer.parseInt(yearString), countryCodesSet));
+    }
+
+    /**
+     * Version of the cached shared holidays of two countries, the same for both orders of the countries.
+     *
+     * @param year Year as string
+     * @param countryCode1 First country code
+     * @param countryCode2 Second country code
+     * @return Version of the current result, empty when it is not cached
+     */
+    @Override
+    public OptionalLong getSharedHolidaysVersion(String year, String countryCode1, String countryCode2) {
         holidayServiceValidator.validateSharedHolidayCountryCodesAndYear(year, new HashSet<>(List.of(countryCode1.toUpperCase(), countryCode2.toUpperCase())));
-        List<Holiday> holidays1 = fetchHolidays(Integer.parseInt(year), countryCode1);
-        List<Holiday> holidays2 = fetchHolidays(Integer.parseInt(year), countryCode2);
+        return holidayResultCache.version(HolidayResultKey.sharedHolidays(Integer.parseInt(year), List.of(countryCode1, countryCode2)));
+    }
 
-        Map<String, String> holidayMap1 = new HashMap<>();
-        for (Holiday holiday : holidays1) {
-            holidayMap1.putIfAbsent(holiday.getDate(), holiday.getLocalName());
+    /**
+     * Version of the cached holidays shared by several countries, the same for every order of the countries.
+     *
+     * @param year Year as string
+     * @param countryCodes Comma separated country codes
+     * @return Version of the current result, empty when it is not cached
+     */
+    @Override
+    public OptionalLong getCommonHolidaysVersion(String year, String countryCodes) {
+        Set<String> countryCodeSet = new HashSet<>(List.of(countryCodes.toUpperCase().split(",")));
+        holidayServiceValidator.validateCommonHolidayCountryCodesAndYear(year, countryCodeSet);
+        return holidayResultCache.version(HolidayResultKey.sharedHolidays(Integer.parseInt(year), countryCodeSet));
+    }
+
+    /**
+     * Walk the yearly calendars of the country back from the current year until the last N holidays are found.
+     * <p>
+     * The current and previous year are fetched one after the other, they hold the last N holidays of nearly every
+     * request. Every older year with holidays adds at least one, so the walk looks at most N years back, and the
+     * number of years still missing holidays is fetched at once through ParallelHolidayFetcher under its deadline
+     * instead of one sequential upstream call per year.
+     *
+     * @param countryCode Upper case country code
+     * @param today Current date
+     * @param numberOfHolidays Number of holidays to return
+     * @param dependencies Records the holidays of each year walked
+     * @return Last N holidays, newest first
+     */
+    private List<Holiday> findLastNumberOfHolidays(String countryCode, LocalDate today, int numberOfHolidays,
+                                                   HolidayResultCache.Dependencies dependencies) {
+        int currentYear = today.getYear();
+        int todayEpochDay = (int) today.toEpochDay();
+        int oldestYear = Math.max(minHolidaySupportedYear, currentYear - numberOfHolidays);
+        List<Holiday> holidaysToReturn = new ArrayList<>(numberOfHolidays);
+        // unknown country codes fail on the current year
+        HolidayCalendar currentYearHolidays = fetchHolidays(currentYear, countryCode);
+        dependencies.add(currentYear, countryCode, currentYearHolidays);
+        addLastGivenNumberOfHolidays(currentYearHolidays, todayEpochDay, numberOfHolidays, holidaysToReturn);
+
+        int year = currentYear - 1;
+        while (holidaysToReturn.size() < numberOfHolidays && year >= oldestYear) {
+            int batchSize = year == currentYear - 1 ? 1 : Math.min(numberOfHolidays - holidaysToReturn.size(), year - oldestYear + 1);
+            List<HolidayCacheKey> keys = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                keys.add(new HolidayCacheKey(year - i, countryCode));
+            }
+            Map<HolidayCacheKey, HolidayCalendar> prefetched = batchSize > 1 ? parallelHolidayFetcher.prefetchHolidays(keys) : Map.of();
+            for (HolidayCacheKey key : keys) {
+                if (holidaysToReturn.size() >= numberOfHolidays) {
+                    break;
+                }
+                HolidayCalendar yearHolidays = prefetched.get(key);
+                if (yearHolidays == null) {
+                    try {
+                        // not prefetched or failed, looked up again to get its error
+                        yearHolidays = fetchHolidays(key.year(), countryCode);
+                    } catch (InvalidParameterException e) {
+                        // no data before this year, return the holidays found so far
+                        return Collections.unmodifiableList(holidaysToReturn);
+                    }
+                }
+                dependencies.add(key.year(), countryCode, yearHolidays);
+                addLastGivenNumberOfHolidays(yearHolidays, todayEpochDay, numberOfHolidays, holidaysToReturn);
+            }
+            year -= batchSize;
         }
-        // Find shared holidays based on date
-        List<SharedHoliday> sharedHolidays = holidays2.stream()
-                .filter(holiday -> holidayMap1.containsKey(holiday.getDate()))
-                .map(holiday -> new SharedHoliday(holiday.getDate(), holidayMap1.get(holiday.getDate()), holiday.getLocalName()))
-                .filter(sharedHoliday -> sharedHoliday.getDate() != null)
-                .sorted(Comparator.comparing(SharedHoliday::getDate))
+        return Collections.unmodifiableList(holidaysToReturn);
+    }
+
+    /**
+     * Fetch holidays of all country codes concurrently and look up the non-weekend count of each.
+     *
+     * @param year Year of the holidays
+     * @param countryCodes Different upper case country codes
+     * @param dependencies Records the holidays of each country
+     * @return Country holiday counts in descending order of the count
+     */
+    private List<CountryHolidayCount> countNonWeekendHolidays(int year, List<String> countryCodes,
+                                                              HolidayResultCache.Dependencies dependencies) {
+        List<CountryHolidayCount> holidayCounts = new ArrayList<>();
+        Map<String, HolidayCalendar> holidaysByCountry = parallelHolidayFetcher.fetchHolidays(year, countryCodes);
+        for (Map.Entry<String, HolidayCalendar> countryHolidays : holidaysByCountry.entrySet()) {
+            String countryCode = countryHolidays.getKey();
+            dependencies.add(year, countryCode, countryHolidays.getValue());
+            // computed once when the holidays were cached
+            int nonWeekendCount = countryHolidays.getValue().aggregates().nonWeekendCount();
+            holidayCounts.add(new CountryHolidayCount(countryCode.toUpperCase(), nonWeekendCount));
+        }
+        // Sort in descending order by holiday count
+        return holidayCounts.stream()
+                .sorted((countryHolidayCount1, countryHolidayCount2)
+                        -> {
+                    if (countryHolidayCount1.getHolidayCount() == null || countryHolidayCount2.getHolidayCount() == null) return 0;
+                    return Integer.compare(countryHolidayCount2.getHolidayCount(), countryHolidayCount1.getHolidayCount());
+                })
                 .toList();
-        log.info("shared holiday for country code '{}' and '{}' are: {}", countryCode1.toUpperCase(), countryCode2.toUpperCase()
-                ,getJsonString(sharedHolidays, SharedHoliday.class));
-        return sharedHolidays;
     }
-}
\ No newline at end of file
+
+    /**
+     * Shared days of the countries of given key, from the result cache or computed.
+     *
+     * @param resultKey Key of the shared holidays
+     * @return Dates on which all countries have a holiday, with local names in the country code order of the key, with
+     * the version of the cached result
+     */
+    private VersionedResult<List<SharedHolidayIntersection.SharedDay>> getSharedDays(HolidayResultKey resultKey) {
+        return holidayResultCache.getVersioned(resultKey,
+                dependencies -> findSharedDays(resultKey.year(), resultKey.countryCodes(), dependencies));
+    }
+
+    /**
+     * Fetch holidays of all country codes concurrently and intersect their day of year bitmaps.
+     *
+     * @param year Year of the holidays
+     * @param countryCodes Different upper case country codes
+     * @param dependencies Records the holidays of each country
+     * @return Dates on which all countries have a holiday, in date order, with local names in country code order
+     */
+    private List<SharedHolidayIntersection.SharedDay> findSharedDays(int year, List<String> countryCodes,
+                                                                     HolidayResultCache.Dependencies dependencies) {
+        Map<String, HolidayCalendar> holidaysByCountry = parallelHolidayFetcher.fetchHolidays(year, countryCodes);
+        List<HolidayCalendar> calendars = new ArrayList<>(countryCodes.size());
+        for (String countryCode : countryCodes) {
+            HolidayCalendar calendar = holidaysByCountry.get(countryCode);
+            dependencies.add(year, countryCode, calendar);
+            calendars.add(calendar);
+        }
+        return SharedHolidayIntersection.of(year, calendars);
+    }
+}
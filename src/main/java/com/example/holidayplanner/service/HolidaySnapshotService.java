@@ -0,0 +1,100 @@
+package com.example.holidayplanner.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.holidayplanner.cache.CachedHolidays;
+import com.example.holidayplanner.cache.HolidayCacheKey;
+import com.example.holidayplanner.cache.HolidaySnapshotFile;
+
+/**
+ * This class persists cached Nager Date API data to a snapshot file and restores it on startup.
+ * <p>
+ * The snapshot is restored while the application context starts, before the web server accepts requests,
+ * so a restarted instance answers its hot keys without upstream calls. It is written periodically and once more
+ * on graceful shutdown.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HolidaySnapshotService {
+
+    @Value("${holiday.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
+
+    @Value("${holiday.snapshot.path:${java.io.tmpdir}/holiday-planner-api/holidays.snapshot}")
+    private Path snapshotPath;
+
+    @Value("${holiday.snapshot.max-age:7d}")
+    private Duration snapshotMaxAge;
+
+    private final NagerDateApiService nagerDateApiService;
+
+    /**
+     * Restore cached data from the snapshot file, snapshots older than the configured max age are ignored.
+     */
+    @PostConstruct
+    public void restoreSnapshot() {
+        if (!snapshotEnabled || !Files.isReadable(snapshotPath)) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            HolidaySnapshotFile.Snapshot snapshot = HolidaySnapshotFile.read(snapshotPath);
+            if (snapshot.writtenAt().isBefore(Instant.now().minus(snapshotMaxAge))) {
+                log.info("ignoring holiday snapshot {} written at {}, older than {}", snapshotPath, snapshot.writtenAt(), snapshotMaxAge);
+                return;
+            }
+            if (snapshot.availableCountries() != null) {
+                nagerDateApiService.restoreAvailableCountries(snapshot.availableCountries());
+            }
+            snapshot.holidays().forEach(nagerDateApiService::restoreHolidays);
+            log.info("restored {} holiday entries from snapshot {} in {} ms", snapshot.holidays().size(), snapshotPath,
+                    Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+        } catch (IOException | RuntimeException e) {
+            log.warn("failed to restore holiday snapshot {}, starting with empty cache: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Write the current cache content to the snapshot file periodically.
+     */
+    @Scheduled(initialDelayString = "${holiday.snapshot.write-interval:10m}", fixedDelayString = "${holiday.snapshot.write-interval:10m}")
+    public void writeSnapshot() {
+        if (!snapshotEnabled) {
+            return;
+        }
+        Map<HolidayCacheKey, CachedHolidays> cachedHolidays = nagerDateApiService.getCachedHolidays();
+        if (cachedHolidays.isEmpty()) {
+            // keep the previous snapshot rather than replacing it with an empty one
+            return;
+        }
+        try {
+            HolidaySnapshotFile.write(snapshotPath, new HolidaySnapshotFile.Snapshot(Instant.now(),
+                    nagerDateApiService.getCachedAvailableCountries().orElse(null), cachedHolidays));
+            log.debug("wrote {} holiday entries to snapshot {}", cachedHolidays.size(), snapshotPath);
+        } catch (IOException | RuntimeException e) {
+            log.warn("failed to write holiday snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Write a last snapshot on shutdown, after the web server stopped taking requests.
+     */
+    @PreDestroy
+    public void writeSnapshotOnShutdown() {
+        writeSnapshot();
+    }
+}
@@ -1,46 +1,387 @@
 package com.example.holidayplanner.service;
 
-import lombok.RequiredArgsConstructor;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
 
+import com.example.holidayplanner.cache.CacheWeights;
+import com.example.holidayplanner.cache.CachedHolidays;
+import com.example.holidayplanner.cache.HolidayCacheKey;
+import com.example.holidayplanner.cache.HolidayCalendar;
+import com.example.holidayplanner.cache.HotKeyTracker;
+import com.example.holidayplanner.cache.NegativeLookupCache;
+import com.example.holidayplanner.cache.OffHeapHolidayStore;
+import com.example.holidayplanner.cache.RefreshAheadCache;
+import com.example.holidayplanner.cache.RefreshAheadCacheFactory;
+import com.example.holidayplanner.cache.SingleFlightLoader;
+import com.example.holidayplanner.cluster.PeerHolidayCache;
 import com.example.holidayplanner.exception.InvalidParameterException;
 import com.example.holidayplanner.model.AvailableCountry;
-import com.example.holidayplanner.generated.model.Holiday;
+import com.example.holidayplanner.ratelimit.UpstreamPriority;
+import com.example.holidayplanner.ratelimit.RateLimitExceededException;
+import com.example.holidayplanner.ratelimit.UpstreamRateLimiter;
 
 /**
  * This class contains methods to interact with the Nager Date API.
  * <p>
  * For example, fetching supported country codes and public holidays for a given country and year.
+ * Results are kept in refresh-ahead caches, entries past their soft TTL are served while reloaded in the background.
+ * All upstream calls run through the nagerDateApi circuit breaker, when it is open or the upstream fails the
+ * last-known-good value is served if one is retained, otherwise the call fails fast.
+ * Holidays are reloaded with conditional requests using the ETag and Last-Modified of the previous response,
+ * a 304 keeps the cached holidays without downloading or parsing them again.
+ * Loaded holidays are also kept in an off-heap store, misses of the holidays cache are promoted from it while fresh.
+ * In a cluster, misses of holidays owned by another instance are asked from that peer before calling the upstream.
+ * Holidays the upstream answered as not found, or failed to load while no last-known-good value was retained, are
+ * kept in a negative cache for a short time, repeated requests for them fail the same way without upstream call.
+ * Upstream calls take a permit of the rate limiter lane of their priority first, outside of the circuit breaker so
+ * throttled calls do not count as upstream failures.
  */
 @Component
-@RequiredArgsConstructor
+@Slf4j
 public class NagerDateApiService {
 
+    private static final String AVAILABLE_COUNTRIES_KEY = "availableCountries";
+    private static final String CIRCUIT_BREAKER_NAME = "nagerDateApi";
+
     @Value("${nager.date.api.url:https://date.nager.at/api/v3/PublicHolidays/{year}/{countryCode}}")
     private String nagerDateApi;
     @Value("${nagar.available.countries.api.url:https://date.nager.at/api/v3/AvailableCountries}")
     private String availableCountriesApi;
 
     private final RestClient restClient;
+    private final SingleFlightLoader singleFlightLoader;
+    private final HotKeyTracker hotKeyTracker;
+    private final OffHeapHolidayStore offHeapHolidayStore;
+    private final PeerHolidayCache peerHolidayCache;
+    private final UpstreamRateLimiter upstreamRateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final RefreshAheadCache<HolidayCacheKey, CachedHolidays> holidaysCache;
+    private final NegativeLookupCache<HolidayCacheKey> negativeHolidaysCache;
+    private final RefreshAheadCache<String, Set<AvailableCountry>> availableCountriesCache;
+    private final Counter notModifiedRevalidations;
+    private final Counter modifiedRevalidations;
+    private final Counter revalidationBytesSaved;
+
+    /**
+     * Creates the service and its holidays and availableCountries caches.
+     *
+     * @param restClient Client used to call Nager Date API
+     * @param singleFlightLoader Loader coalescing concurrent upstream calls for the same key
+     * @param refreshAheadCacheFactory Factory creating the caches from application properties
+     * @param circuitBreakerRegistry Registry providing the nagerDateApi circuit breaker
+     * @param hotKeyTracker Tracker counting accesses per holidays key for warmup
+     * @param offHeapHolidayStore Off-heap second level of the holidays cache
+     * @param peerHolidayCache Peers asked for holidays owned by another instance
+     * @param upstreamRateLimiter Limiter of upstream calls per priority lane
+     * @param meterRegistry Registry to publish revalidation metrics to
+     */
+    public NagerDateApiService(RestClient restClient, SingleFlightLoader singleFlightLoader,
+                               RefreshAheadCacheFactory refreshAheadCacheFactory,
+                               CircuitBreakerRegistry circuitBreakerRegistry, HotKeyTracker hotKeyTracker,
+                               OffHeapHolidayStore offHeapHolidayStore, PeerHolidayCache peerHolidayCache,
+                               UpstreamRateLimiter upstreamRateLimiter, MeterRegistry meterRegistry) {
+        this.restClient = restClient;
+        this.singleFlightLoader = singleFlightLoader;
+        this.hotKeyTracker = hotKeyTracker;
+        this.offHeapHolidayStore = offHeapHolidayStore;
+        this.peerHolidayCache = peerHolidayCache;
+        this.upstreamRateLimiter = upstreamRateLimiter;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER_NAME);
+        this.holidaysCache = refreshAheadCacheFactory.create("holidays", this::loadHolidays, CacheWeights::holidays);
+        this.negativeHolidaysCache = refreshAheadCacheFactory.createNegative("holidays");
+        this.availableCountriesCache = refreshAheadCacheFactory.create("availableCountries",
+                (String key, Set<AvailableCountry> previous) -> loadAvailableCountries(key), CacheWeights::availableCountries);
+        this.notModifiedRevalidations = Counter.builder("nager.api.revalidations")
+                .description("Conditional holidays requests, by whether the upstream answered 304 Not Modified")
+                .tag("result", "not_modified")
+                .register(meterRegistry);
+        this.modifiedRevalidations = Counter.builder("nager.api.revalidations")
+                .description("Conditional holidays requests, by whether the upstream answered 304 Not Modified")
+                .tag("result", "modified")
+                .register(meterRegistry);
+        this.revalidationBytesSaved = Counter.builder("nager.api.revalidation.bytes.saved")
+                .description("Response body bytes not downloaded because the upstream answered 304 Not Modified")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
 
     /**
      * Fetch all supported country codes from Nager Date API and cache the result as availableCountries.
      *
      * @return Set of available countries supported by Nager Date API
      */
-    @Cacheable("availableCountries")
     public Set<AvailableCountry> getAvailableCountries() {
+        return getOrLastKnownGood(availableCountriesCache, AVAILABLE_COUNTRIES_KEY);
+    }
+
+    /**
+     * Load all supported country codes from Nager Date API, bypassing the cache, and cache the result as
+     * availableCountries. Used by the background refresh of the available countries.
+     *
+     * @return Set of available countries supported by Nager Date API
+     */
+    public Set<AvailableCountry> reloadAvailableCountries() {
+        Set<AvailableCountry> availableCountries = loadAvailableCountries(AVAILABLE_COUNTRIES_KEY);
+        availableCountriesCache.put(AVAILABLE_COUNTRIES_KEY, availableCountries);
+        return availableCountries;
+    }
+
+    /**
+     * Fetch holidays for given year and country code from Nager Date API and cache the result
+     * in holidays per year and country code.
+     *
+     * @param year Year for which holidays are to be fetched
+     * @param countryCode Country code for which holidays are to be fetched
+     * @return Holidays for the given year and country code
+     */
+    public HolidayCalendar fetchHolidays(int year, String countryCode) {
+        HolidayCacheKey key = new HolidayCacheKey(year, countryCode);
+        hotKeyTracker.recordAccess(key);
+        return getHolidays(key).calendar();
+    }
+
+    /**
+     * Holidays for given year and country code as currently cached, without loading them or counting an access.
+     *
+     * @param year Year of the holidays
+     * @param countryCode Upper case country code of the holidays
+     * @return Cached holidays, empty if not cached
+     */
+    public Optional<HolidayCalendar> peekHolidays(int year, String countryCode) {
+        return holidaysCache.getIfPresent(new HolidayCacheKey(year, countryCode)).map(CachedHolidays::calendar);
+    }
+
+    /**
+     * Holidays of given key for a peer of the cluster, this instance owns the key and never asks another peer for it.
+     * A cached entry is served as is, a missing one is loaded from the off-heap store or the upstream and cached.
+     *
+     * @param key Year and country code of the holidays
+     * @return Holidays with their upstream validators
+     */
+    public CachedHolidays fetchHolidaysForPeer(HolidayCacheKey key) {
+        hotKeyTracker.recordAccess(key);
+        Optional<CachedHolidays> cachedHolidays = holidaysCache.getIfPresent(key);
+        if (cachedHolidays.isPresent()) {
+            return cachedHolidays.get();
+        }
+        negativeHolidaysCache.throwIfPresent(key);
+        try {
+            CachedHolidays holidays = loadOwnHolidays(key, null);
+            holidaysCache.put(key, holidays);
+            return holidays;
+        } catch (InvalidParameterException e) {
+            negativeHolidaysCache.recordNotFound(key, e);
+            throw e;
+        } catch (CallNotPermittedException | ResourceAccessException | HttpServerErrorException e) {
+            Optional<CachedHolidays> lastKnownGood = holidaysCache.getLastKnownGood(key);
+            if (lastKnownGood.isEmpty()) {
+                recordFailure(key, e);
+                throw e;
+            }
+            log.warn("serving last known holidays for key '{}' to peer, Nager Date API call failed: {}", key, e.getMessage());
+            return lastKnownGood.get();
+        }
+    }
+
+    /**
+     * Load holidays of given key into the cache ahead of requests, without counting it as an access.
+     * Upstream calls of prefetches run with BACKGROUND priority.
+     *
+     * @param key Year and country code of the holidays
+     */
+    public void prefetchHolidays(HolidayCacheKey key) {
+        UpstreamPriority.runAs(UpstreamPriority.BACKGROUND, () -> getHolidays(key));
+    }
+
+    /**
+     * All holidays entries currently cached with their upstream validators, used to write snapshots.
+     *
+     * @return Cached holidays per year and country code
+     */
+    public Map<HolidayCacheKey, CachedHolidays> getCachedHolidays() {
+        return holidaysCache.entries();
+    }
+
+    /**
+     * Available countries if currently cached, used to write snapshots.
+     *
+     * @return Cached available countries if present
+     */
+    public Optional<Set<AvailableCountry>> getCachedAvailableCountries() {
+        return availableCountriesCache.getIfPresent(AVAILABLE_COUNTRIES_KEY);
+    }
+
+    /**
+     * Put holidays restored from a snapshot into the cache, entries already loaded are not replaced.
+     *
+     * @param key Year and country code of the holidays
+     * @param holidays Restored holidays with their upstream validators
+     */
+    public void restoreHolidays(HolidayCacheKey key, CachedHolidays holidays) {
+        if (holidaysCache.getIfPresent(key).isEmpty()) {
+            holidaysCache.put(key, holidays);
+            negativeHolidaysCache.invalidate(key);
+        }
+    }
+
+    /**
+     * Put available countries restored from a snapshot into the cache, unless already loaded.
+     *
+     * @param availableCountries Restored available countries
+     */
+    public void restoreAvailableCountries(Set<AvailableCountry> availableCountries) {
+        if (availableCountriesCache.getIfPresent(AVAILABLE_COUNTRIES_KEY).isEmpty()) {
+            availableCountriesCache.put(AVAILABLE_COUNTRIES_KEY, availableCountries);
+        }
+    }
+
+    /**
+     * Get holidays of given key from the cache or the last-known-good store, unless a recent lookup of the key failed.
+     * Failed lookups are recorded in the negative cache, answers of the upstream that the key is unknown for longer
+     * than failures of an unavailable upstream.
+     *
+     * @param key Year and country code of the holidays
+     * @return Cached, loaded or last-known-good holidays
+     */
+    private CachedHolidays getHolidays(HolidayCacheKey key) {
+        negativeHolidaysCache.throwIfPresent(key);
+        try {
+            return getOrLastKnownGood(holidaysCache, key);
+        } catch (InvalidParameterException e) {
+            negativeHolidaysCache.recordNotFound(key, e);
+            throw e;
+        } catch (CallNotPermittedException | ResourceAccessException | HttpServerErrorException e) {
+            // only reached when no last-known-good holidays are retained
+            recordFailure(key, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Record a failed lookup in the negative cache, unless our own rate limiter rejected it before the upstream was
+     * asked, then the next lookup tries again.
+     *
+     * @param key Year and country code of the holidays
+     * @param e Failure of the lookup
+     */
+    private void recordFailure(HolidayCacheKey key, RuntimeException e) {
+        if (!(e instanceof RateLimitExceededException)) {
+            negativeHolidaysCache.recordFailure(key, e);
+        }
+    }
+
+    /**
+     * Get value from cache, when loading fails because the circuit breaker is open or the upstream is
+     * unreachable serve the last-known-good value instead, if none is retained rethrow the failure.
+     *
+     * @param cache Cache to read from
+     * @param key Cache key
+     * @param <K> Type of cache key
+     * @param <V> Type of cached value
+     * @return Cached, loaded or last-known-good value
+     */
+    private <K, V> V getOrLastKnownGood(RefreshAheadCache<K, V> cache, K key) {
+        try {
+            return cache.get(key);
+        } catch (CallNotPermittedException | ResourceAccessException | HttpServerErrorException e) {
+            V lastKnownGood = cache.getLastKnownGood(key).orElseThrow(() -> e);
+            log.warn("serving last known {} for key '{}', Nager Date API call failed: {}", cache.getName(), key, e.getMessage());
+            return lastKnownGood;
+        }
+    }
+
+    /**
+     * Cache loader of availableCountries, concurrent misses and refreshes share one upstream call.
+     *
+     * @param key Cache key
+     * @return Set of available countries supported by Nager Date API
+     */
+    private Set<AvailableCountry> loadAvailableCountries(String key) {
+        return singleFlightLoader.load(key, () -> {
+            upstreamRateLimiter.acquire();
+            return circuitBreaker.executeSupplier(this::requestAvailableCountries);
+        });
+    }
+
+    /**
+     * Cache loader of holidays, a fresh entry of the off-heap store is promoted without upstream call, then holidays
+     * owned by another instance of the cluster are asked from that peer. Otherwise concurrent misses and refreshes for
+     * the same key share one upstream call whose result is stored off-heap.
+     *
+     * @param key Cache key
+     * @param previous Cached or last-known-good holidays of the key to revalidate, null when none is retained
+     * @return Holidays for the year and country code of the key
+     */
+    private CachedHolidays loadHolidays(HolidayCacheKey key, CachedHolidays previous) {
+        Optional<CachedHolidays> offHeapHolidays = offHeapHolidayStore.get(key);
+        if (offHeapHolidays.isPresent()) {
+            return offHeapHolidays.get();
+        }
+        Optional<CachedHolidays> peerHolidays = peerHolidayCache.fetchFromOwner(key);
+        if (peerHolidays.isPresent()) {
+            offHeapHolidayStore.put(key, peerHolidays.get());
+            return peerHolidays.get();
+        }
+        return requestAndStoreHolidays(key, previous);
+    }
+
+    /**
+     * Holidays of given key from the off-heap store or the upstream, never from a peer.
+     *
+     * @param key Cache key
+     * @param previous Holidays of the key to revalidate, null when none is retained
+     * @return Holidays for the year and country code of the key
+     */
+    private CachedHolidays loadOwnHolidays(HolidayCacheKey key, CachedHolidays previous) {
+        return offHeapHolidayStore.get(key).orElseGet(() -> requestAndStoreHolidays(key, previous));
+    }
+
+    /**
+     * Call the upstream for holidays of given key, concurrent calls for the same key share one upstream call,
+     * and store the result off-heap.
+     *
+     * @param key Cache key
+     * @param previous Holidays of the key to revalidate, null when none is retained
+     * @return Holidays for the year and country code of the key
+     */
+    private CachedHolidays requestAndStoreHolidays(HolidayCacheKey key, CachedHolidays previous) {
+        CachedHolidays holidays = singleFlightLoader.load(key.toString(), () -> {
+            upstreamRateLimiter.acquire();
+            return circuitBreaker.executeSupplier(() -> requestHolidays(key.year(), key.countryCode(), previous));
+        });
+        offHeapHolidayStore.put(key, holidays);
+        return holidays;
+    }
+
+    /**
+     * Call Nager Date API for all supported country codes.
+     *
+     * @return Set of available countries supported by Nager Date API
+     */
+    private Set<AvailableCountry> requestAvailableCountries() {
         try {
 
             AvailableCountry[] countriesArray = restClient.get()
@@ -56,29 +397,65 @@ public class NagerDateApiService {
     }
 
     /**
-     * Fetch holidays for given year and country code from Nager Date API and cache the result
-     * in holidays as holidays_year_countryCode.
+     * Call Nager Date API for holidays of given year and country code, conditionally when validators of a previous
+     * response are known.
      *
      * @param year Year for which holidays are to be fetched
      * @param countryCode Country code for which holidays are to be fetched
-     * @return List of holidays for the given year and country code
+     * @param previous Previous holidays of the year and country code, null when none is retained
+     * @return Holidays for the given year and country code, the previous ones when the upstream answered 304
      */
-    @Cacheable(value = "holidays", key = "#year + '_' + #countryCode")
-    public List<Holiday> fetchHolidays(int year, String countryCode) {
+    private CachedHolidays requestHolidays(int year, String countryCode, CachedHolidays previous) {
         String url = nagerDateApi.replace("{year}", String.valueOf(year)).replace("{countryCode}", countryCode);
+        boolean conditional = previous != null && previous.hasValidators();
         try {
-            Holiday[] holidays = restClient.get()
-                    .uri(url)
+            RestClient.RequestHeadersSpec<?> request = restClient.get().uri(url);
+            if (conditional && previous.eTag() != null) {
+                request = request.header(HttpHeaders.IF_NONE_MATCH, previous.eTag());
+            }
+            if (conditional && previous.lastModified() != null) {
+                request = request.header(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified());
+            }
+            ResponseEntity<byte[]> response = request
                     .retrieve()
                     .onStatus(status -> status == HttpStatus.NOT_FOUND, (req, res) -> {
                         throw new InvalidParameterException("No holidays found for country: " + countryCode + " in year: " + year);
                     })
-                    .body(Holiday[].class);
+                    .toEntity(byte[].class);
 
-            return holidays != null ? Arrays.asList(holidays) : Collections.emptyList();
+            HttpHeaders headers = response.getHeaders();
+            if (conditional && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                notModifiedRevalidations.increment();
+                if (previous.contentLength() > 0) {
+                    revalidationBytesSaved.increment(previous.contentLength());
+                }
+                return previous.revalidated(headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED));
+            }
+            if (conditional) {
+                modifiedRevalidations.increment();
+            }
+            byte[] body = response.getBody();
+            return new CachedHolidays(parseHolidays(body, url), headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED),
+                    body != null ? body.length : 0);
         } catch (HttpClientErrorException e) {
             throw new InvalidParameterException("No holidays found for country: " + countryCode + " in year: " + year);
         }
 
     }
+
+    /**
+     * Stream parse a holidays response body into a calendar, reading only date and localName.
+     *
+     * @param body Response body, null when the upstream sent none
+     * @param url Requested url, for the error message
+     * @return Holidays of the body
+     * @throws RestClientException if the body is not a JSON array of holidays
+     */
+    private static HolidayCalendar parseHolidays(byte[] body, String url) {
+        try {
+            return HolidayCalendar.parse(body);
+        } catch (IOException e) {
+            throw new RestClientException("Failed to read holidays from " + url + ": " + e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,160 @@
+package com.example.holidayplanner.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.example.holidayplanner.cache.HolidayCacheKey;
+import com.example.holidayplanner.cache.HolidayCalendar;
+import com.example.holidayplanner.provider.HolidayDataProviderChain;
+
+/**
+ * This class fans out holiday fetches for several country codes of the same year to a bounded thread pool.
+ * <p>
+ * All fetches share one overall deadline, so a cold multi-country query costs roughly one upstream round trip
+ * instead of one per country. Results are returned in the iteration order of the input country codes.
+ * <p>
+ * Batches of queries prefetch the union of all their years and country codes the same way, each key once.
+ */
+@Component
+@Slf4j
+public class ParallelHolidayFetcher {
+
+    private final HolidayDataProviderChain holidayDataProviderChain;
+    private final ThreadPoolExecutor fetchExecutor;
+    private final Duration fetchTimeout;
+
+    /**
+     * Creates the fetcher with a fixed size pool and bounded work queue, callers run the fetch themselves
+     * when the queue is full.
+     *
+     * @param holidayDataProviderChain Providers to fetch holidays from
+     * @param maxConcurrency Maximum number of upstream fetches running at the same time
+     * @param queueCapacity Maximum number of fetches waiting for a free thread
+     * @param fetchTimeout Overall deadline for all fetches of one call
+     */
+    public ParallelHolidayFetcher(HolidayDataProviderChain holidayDataProviderChain,
+                                  @Value("${nager.date.api.fetch.max-concurrency:8}") int maxConcurrency,
+                                  @Value("${nager.date.api.fetch.queue-capacity:100}") int queueCapacity,
+                                  @Value("${nager.date.api.fetch.timeout:10s}") Duration fetchTimeout) {
+        this.holidayDataProviderChain = holidayDataProviderChain;
+        this.fetchTimeout = fetchTimeout;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("holiday-fetch-");
+        threadFactory.setDaemon(true);
+        this.fetchExecutor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.fetchExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Fetch holidays of given year for all given country codes concurrently.
+     *
+     * @param year Year for which holidays are to be fetched
+     * @param countryCodes Upper case country codes for which holidays are to be fetched
+     * @return Holidays per country code, in the iteration order of countryCodes
+     */
+    @SneakyThrows
+    public Map<String, HolidayCalendar> fetchHolidays(int year, Collection<String> countryCodes) {
+        Map<String, HolidayCalendar> holidaysByCountry = new LinkedHashMap<>();
+        if (countryCodes.size() == 1) {
+            // nothing to parallelise, avoid the thread hop
+            String countryCode = countryCodes.iterator().next();
+            holidaysByCountry.put(countryCode, holidayDataProviderChain.fetchHolidays(year, countryCode));
+            return holidaysByCountry;
+        }
+
+        Map<String, Future<HolidayCalendar>> pendingFetches = new LinkedHashMap<>();
+        for (String countryCode : countryCodes) {
+            pendingFetches.put(countryCode, fetchExecutor.submit(() -> holidayDataProviderChain.fetchHolidays(year, countryCode)));
+        }
+        long deadline = System.nanoTime() + fetchTimeout.toNanos();
+        try {
+            for (Map.Entry<String, Future<HolidayCalendar>> pendingFetch : pendingFetches.entrySet()) {
+                long remainingNanos = Math.max(0, deadline - System.nanoTime());
+                holidaysByCountry.put(pendingFetch.getKey(), pendingFetch.getValue().get(remainingNanos, TimeUnit.NANOSECONDS));
+            }
+        } catch (ExecutionException e) {
+            cancelAll(pendingFetches);
+            // surface the original failure, e.g. InvalidParameterException or ResourceAccessException
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            cancelAll(pendingFetches);
+            log.warn("fetching holidays for year {} and country codes '{}' did not complete within {}", year, String.join(",", countryCodes), fetchTimeout);
+            throw new ResourceAccessException("I/O error: fetching holidays for year " + year + " did not complete within " + fetchTimeout.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            cancelAll(pendingFetches);
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("I/O error: interrupted while fetching holidays for year " + year);
+        }
+        return holidaysByCountry;
+    }
+
+    /**
+     * Fetch holidays of all given keys concurrently, each key once, under one overall deadline. Unlike
+     * {@link #fetchHolidays(int, Collection)} a failing or late key does not fail the others, it is left out and the
+     * caller looks it up again to get its error, which is then answered from the caches of the providers.
+     *
+     * @param keys Years and upper case country codes for which holidays are to be fetched
+     * @return Holidays per fetched key, in the iteration order of keys
+     */
+    public Map<HolidayCacheKey, HolidayCalendar> prefetchHolidays(Collection<HolidayCacheKey> keys) {
+        Map<HolidayCacheKey, Future<HolidayCalendar>> pendingFetches = new LinkedHashMap<>();
+        for (HolidayCacheKey key : keys) {
+            // submitted only for the first occurrence, putIfAbsent would submit duplicates before checking the key
+            if (!pendingFetches.containsKey(key)) {
+                pendingFetches.put(key, fetchExecutor.submit(() -> holidayDataProviderChain.fetchHolidays(key.year(), key.countryCode())));
+            }
+        }
+        Map<HolidayCacheKey, HolidayCalendar> holidaysByKey = new LinkedHashMap<>();
+        long deadline = System.nanoTime() + fetchTimeout.toNanos();
+        for (Map.Entry<HolidayCacheKey, Future<HolidayCalendar>> pendingFetch : pendingFetches.entrySet()) {
+            long remainingNanos = Math.max(0, deadline - System.nanoTime());
+            try {
+                holidaysByKey.put(pendingFetch.getKey(), pendingFetch.getValue().get(remainingNanos, TimeUnit.NANOSECONDS));
+            } catch (ExecutionException | CancellationException e) {
+                log.debug("prefetching holidays for {} failed: {}", pendingFetch.getKey(), e.getMessage());
+            } catch (TimeoutException e) {
+                // later keys get no time left either, their lookups by the caller wait on the same loads
+                log.warn("prefetching holidays for {} did not complete within {}", pendingFetch.getKey(), fetchTimeout);
+            } catch (InterruptedException e) {
+                cancelAll(pendingFetches);
+                Thread.currentThread().interrupt();
+                throw new ResourceAccessException("I/O error: interrupted while fetching holidays for " + keys.size() + " keys");
+            }
+        }
+        return holidaysByKey;
+    }
+
+    /**
+     * Cancel all fetches of one call which are still pending.
+     *
+     * @param pendingFetches Fetches to cancel
+     */
+    private void cancelAll(Map<?, Future<HolidayCalendar>> pendingFetches) {
+        pendingFetches.values().forEach(pendingFetch -> pendingFetch.cancel(true));
+    }
+
+    /**
+     * Stop the fetch pool when the application context is closed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+}
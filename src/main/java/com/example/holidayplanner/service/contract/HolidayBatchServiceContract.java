@@ -0,0 +1,25 @@
+package com.example.holidayplanner.service.contract;
+
+import com.example.holidayplanner.generated.model.HolidayBatchRequest;
+import com.example.holidayplanner.generated.model.HolidayBatchResponse;
+
+/**
+ * Service contract interface defining the batch of holiday queries supported by HolidayBatchService.
+ * <p>
+ * This interface provides a method to run several queries of the holiday operations of HolidayServiceContract in one
+ * request, with a result or error per query.
+ */
+public interface HolidayBatchServiceContract {
+
+    /**
+     * Run all queries of the batch.
+     * <p>
+     * Validates all queries first, fetches the holidays needed by any of them once and returns the result or error of
+     * each query in the order of the queries.
+     *
+     * @param holidayBatchRequest Queries to run
+     * @param path Description of the batch request, the path of the errors of failed queries
+     * @return HolidayBatchResponse with one HolidayQueryResult per query
+     */
+    HolidayBatchResponse getHolidayBatch(HolidayBatchRequest holidayBatchRequest, String path);
+}
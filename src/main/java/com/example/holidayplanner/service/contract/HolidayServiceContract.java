@@ -1,7 +1,9 @@
 package com.example.holidayplanner.service.contract;
 
 import java.util.List;
+import java.util.OptionalLong;
 
+import com.example.holidayplanner.generated.model.CommonHoliday;
 import com.example.holidayplanner.generated.model.CountryHolidayCount;
 import com.example.holidayplanner.generated.model.Holiday;
 import com.example.holidayplanner.generated.model.SharedHoliday;
@@ -11,7 +13,7 @@ import com.example.holidayplanner.generated.model.SharedHoliday;
  * <p>
  * This interface provides methods to fetch holidays for the current and previous year,
  * retrieve non-weekend holiday counts for given countries and year, and find shared holidays
- * between two countries for a specific year.
+ * between two or more countries for a specific year.
  */
 public interface HolidayServiceContract {
 
@@ -49,4 +51,96 @@ public interface HolidayServiceContract {
      * @return List of SharedHoliday objects representing holidays common to both countries
      */
     List<SharedHoliday> getSharedHolidays(String year, String countryCode1, String countryCode2);
+
+    /**
+     * Fetch holidays for given year and comma separated country codes and find holidays shared by all of them.
+     * <p>
+     * Finds the dates on which every given country has a holiday for the specified year, in date order.
+     *
+     * @param year Year for which shared holidays are to be found
+     * @param countryCodes Comma-separated ISO country codes, at least two different ones
+     * @return List of CommonHoliday objects with the local name of each country
+     */
+    List<CommonHoliday> getCommonHolidays(String year, String countryCodes);
+
+    /**
+     * Last N holidays like {@link #getLastNumberOfHolidays(String, String)}, with the version of the cached result
+     * they were taken from, used as ETag of the response.
+     *
+     * @param countryCode ISO country code for which holidays are to be fetched
+     * @param inputNumberOfHolidays Number of holidays to return
+     * @return Last N holidays with the version of the cached result
+     */
+    VersionedResult<List<Holiday>> getLastNumberOfHolidaysWithVersion(String countryCode, String inputNumberOfHolidays);
+
+    /**
+     * Non-weekend holiday counts like {@link #getNonWeekendHolidayCounts(String, String)}, with the version of the
+     * cached result they were taken from, used as ETag of the response.
+     *
+     * @param year Year for which holiday counts are to be fetched
+     * @param countryCodes Comma-separated ISO country codes
+     * @return Non-weekend holiday counts with the version of the cached result
+     */
+    VersionedResult<List<CountryHolidayCount>> getNonWeekendHolidayCountsWithVersion(String year, String countryCodes);
+
+    /**
+     * Shared holidays like {@link #getSharedHolidays(String, String, String)}, with the version of the cached result
+     * they were taken from, used as ETag of the response.
+     *
+     * @param year Year for which shared holidays are to be found
+     * @param countryCode1 First ISO country code
+     * @param countryCode2 Second ISO country code
+     * @return Shared holidays with the version of the cached result
+     */
+    VersionedResult<List<SharedHoliday>> getSharedHolidaysWithVersion(String year, String countryCode1, String countryCode2);
+
+    /**
+     * Holidays shared by several countries like {@link #getCommonHolidays(String, String)}, with the version of the
+     * cached result they were taken from, used as ETag of the response.
+     *
+     * @param year Year for which shared holidays are to be found
+     * @param countryCodes Comma-separated ISO country codes, at least two different ones
+     * @return Holidays shared by all countries with the version of the cached result
+     */
+    VersionedResult<List<CommonHoliday>> getCommonHolidaysWithVersion(String year, String countryCodes);
+
+    /**
+     * Version of the cached last N holidays, used as ETag of the response.
+     * <p>
+     * Validates the input like {@link #getLastNumberOfHolidays(String, String)}, but never computes the holidays nor
+     * loads the holidays the cached result was computed from.
+     *
+     * @param countryCode ISO country code for which holidays are to be fetched
+     * @param inputNumberOfHolidays Number of holidays to return
+     * @return Version of the current result, empty when it is not cached
+     */
+    OptionalLong getLastNumberOfHolidaysVersion(String countryCode, String inputNumberOfHolidays);
+
+    /**
+     * Version of the cached non-weekend holiday counts, used as ETag of the response.
+     *
+     * @param year Year for which holiday counts are to be fetched
+     * @param countryCodes Comma-separated ISO country codes
+     * @return Version of the current result, empty when it is not cached
+     */
+    OptionalLong getNonWeekendHolidayCountsVersion(String year, String countryCodes);
+
+    /**
+     * Version of the cached shared holidays of two countries, used as ETag of the response.
+     *
+     * @param year Year for which shared holidays are to be found
+     * @param countryCode1 First ISO country code
+     * @param countryCode2 Second ISO country code
+     * @return Version of the current result, empty when it is not cached
+     */
+    OptionalLong getSharedHolidaysVersion(String year, String countryCode1, String countryCode2);
+
+    /**
+     * Version of the cached holidays shared by several countries, used as ETag of the response.
+     *
+     * @param year Year for which shared holidays are to be found
+     * @param countryCodes Comma-separated ISO country codes, at least two different ones
+     * @return Version of the current result, empty when it is not cached
+     */
+    OptionalLong getCommonHolidaysVersion(String year, String countryCodes);
 }
@@ -0,0 +1,13 @@
+package com.example.holidayplanner.service.contract;
+
+import java.util.OptionalLong;
+
+/**
+ * Result of a holiday operation together with the version of the cached result it was taken from.
+ *
+ * @param result Result of the operation
+ * @param version Version of the cached result, empty when the result cache is disabled
+ * @param <T> Type of the result
+ */
+public record VersionedResult<T>(T result, OptionalLong version) {
+}
@@ -0,0 +1,109 @@
+package com.example.holidayplanner.validation;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+
+import com.example.holidayplanner.model.AvailableCountry;
+
+/**
+ * Registry of two letter country codes, answering ISO 3166-1 alpha-2 validity and Nager Date API support in constant
+ * time without allocation.
+ * <p>
+ * Codes are kept as bits of a 26 x 26 bitset indexed by their two letters, case-insensitively. The ISO bitset is built
+ * once from {@link Locale#getISOCountries()}. The supported bitset is built from the available countries it was last
+ * asked with and swapped in as one immutable snapshot whenever a different set is passed, so a refreshed
+ * availableCountries cache entry is picked up on the next lookup and readers never see a half built bitset.
+ */
+public class CountryCodeRegistry {
+
+    private static final int LETTERS = 26;
+    private static final long[] ISO_COUNTRIES = bitsOf(Arrays.asList(Locale.getISOCountries()));
+
+    /**
+     * Supported country codes built from one available countries set.
+     *
+     * @param source Available countries the bitset was built from, compared by identity
+     * @param bits Bitset of the supported country codes
+     */
+    private record Supported(Set<AvailableCountry> source, long[] bits) {
+    }
+
+    private volatile Supported supported = new Supported(null, new long[words()]);
+
+    /**
+     * Checks if given code is an ISO 3166-1 alpha-2 country code, ignoring case.
+     *
+     * @param countryCode Country code to check, may be null
+     * @return true if the code is a two letter ISO country code
+     */
+    public static boolean isIsoCountry(String countryCode) {
+        return contains(ISO_COUNTRIES, countryCode);
+    }
+
+    /**
+     * Checks if given code is one of the available countries, ignoring case.
+     * <p>
+     * The bitset is rebuilt only when a different available countries set is passed than on the previous call.
+     *
+     * @param availableCountries Countries currently supported by the holiday data providers
+     * @param countryCode Country code to check, may be null
+     * @return true if the code is supported
+     */
+    public boolean isSupported(Set<AvailableCountry> availableCountries, String countryCode) {
+        Supported current = supported;
+        if (current.source() != availableCountries) {
+            current = new Supported(availableCountries, bitsOf(availableCountries.stream()
+                    .map(AvailableCountry::getCountryCode)
+                    .toList()));
+            supported = current;
+        }
+        return contains(current.bits(), countryCode);
+    }
+
+    /**
+     * Bit index of a two letter code, first letter times 26 plus second letter.
+     *
+     * @param countryCode Country code
+     * @return Index between 0 and 675, -1 if the code is not two ASCII letters
+     */
+    static int indexOf(String countryCode) {
+        if (countryCode == null || countryCode.length() != 2) {
+            return -1;
+        }
+        int first = letterOf(countryCode.charAt(0));
+        int second = letterOf(countryCode.charAt(1));
+        return first < 0 || second < 0 ? -1 : first * LETTERS + second;
+    }
+
+    private static int letterOf(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        return -1;
+    }
+
+    private static boolean contains(long[] bits, String countryCode) {
+        int index = indexOf(countryCode);
+        return index >= 0 && (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static long[] bitsOf(Collection<String> countryCodes) {
+        long[] bits = new long[words()];
+        for (String countryCode : countryCodes) {
+            int index = indexOf(countryCode);
+            if (index >= 0) {
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+        return bits;
+    }
+
+    private static int words() {
+        return (LETTERS * LETTERS + Long.SIZE - 1) / Long.SIZE;
+    }
+}
@@ -4,10 +4,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Locale;
 import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,20 +11,23 @@ import org.springframework.stereotype.Component;
 
 import com.example.holidayplanner.exception.InvalidParameterException;
 import com.example.holidayplanner.model.AvailableCountry;
-import com.example.holidayplanner.service.NagerDateApiService;
+import com.example.holidayplanner.provider.HolidayDataProviderChain;
 import com.example.holidayplanner.validation.contract.HolidayServiceValidatorContract;
 
 /**
  * This class contains methods to validate all input parameters for all holiday API endpoints.
  * <p>
- * It validates country codes, years, and number of holidays for different holiday service operations.
+ * It validates country codes, years, and number of holidays for different holiday service operations. Country codes
+ * are looked up in a {@link CountryCodeRegistry}, so validation does not scan the ISO or available country lists.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class HolidayServiceValidator implements HolidayServiceValidatorContract {
 
-    private final NagerDateApiService nagerDateApiService;
+    private final HolidayDataProviderChain holidayDataProviderChain;
+
+    private final CountryCodeRegistry countryCodeRegistry = new CountryCodeRegistry();
 
     @Value("${max.number.of.holidays.can-be-returned:12}")
     private int maxHolidayDays;
@@ -39,17 +38,8 @@ public class HolidayServiceValidator implements HolidayServiceValidatorContract
     @Value("${max.holiday.search.supported.year:2075}")
     private int maxHolidaySupportedYear;
 
-    /**
-     * Filters out invalid country codes from the input set.
-     *
-     * @param inputCountryCodes Set of country codes to validate
-     * @return Set of valid country codes
-     */
-    private HashSet<String> filterInvalidCountryCode(Set<String> inputCountryCodes) {
-        return new HashSet<>(inputCountryCodes.stream()
-                .filter(item -> List.of(Locale.getISOCountries()).contains(item))
-                .toList());
-    }
+    @Value("${max.number.of.shared.holiday.countries:20}")
+    private int maxSharedHolidayCountries;
 
     /**
      * Checks if a single input country code is valid ISO 3166-1 alpha-2 code.
@@ -67,7 +57,7 @@ public class HolidayServiceValidator implements HolidayServiceValidatorContract
             return;
         }
 
-        if (Arrays.stream(Locale.getISOCountries()).noneMatch(isoCode -> isoCode.equalsIgnoreCase(inputCountryCode))) {
+        if (!CountryCodeRegistry.isIsoCountry(inputCountryCode)) {
             if (!invalidCountryCodes.isEmpty()) {
                 invalidCountryCodes.append(", ");
             }
@@ -153,8 +143,9 @@ public class HolidayServiceValidator implements HolidayServiceValidatorContract
     }
 
     /**
-     * Checks if input country codes are supported by Nager Date API service.
-     * Appends unsupported code found to the provided input list.
+     * Checks if input country codes are supported by the holiday data providers.
+     * Appends unsupported code found to the provided input list, codes which are not ISO country codes are skipped as
+     * they are already reported.
      *
      * @param supportedCountries Set of supported countries
      * @param inputCountryCodes Set of input country codes
@@ -162,13 +153,8 @@ public class HolidayServiceValidator implements HolidayServiceValidatorContract
      */
     private void checkIfCountiesSupported(Set<AvailableCountry> supportedCountries, Set<String> inputCountryCodes, ArrayList<String> errorInInputCountryCodes) {
         StringBuilder unSupportedCountryCodes = new StringBuilder();
-        Set<String> validInputCodes = inputCountryCodes;
-        if (!errorInInputCountryCodes.isEmpty()) {
-            validInputCodes = filterInvalidCountryCode(inputCountryCodes);
-        }
-        for (String countryCode : validInputCodes) {
-            if (supportedCountries.stream().noneMatch(country ->
-                    country.getCountryCode().equalsIgnoreCase(countryCode))) {
+        for (String countryCode : inputCountryCodes) {
+            if (CountryCodeRegistry.isIsoCountry(countryCode) && !countryCodeRegistry.isSupported(supportedCountries, countryCode)) {
                 if (!unSupportedCountryCodes.isEmpty()) {
                     unSupportedCountryCodes.append(", ");
                 }
@@ -191,7 +177,7 @@ public class HolidayServiceValidator implements HolidayServiceValidatorContract
         ArrayList <String> errorMessage = new ArrayList<>();
         validateInputNumberOfHolidays(numberOfDaysStr, errorMessage);
         validateInputCountryCodes(inputCountryCodes, errorMessage);
-        checkIfCountiesSupported(nagerDateApiService.getAvailableCountries()
+        checkIfCountiesSupported(holidayDataProviderChain.getAvailableCountries()
                 , inputCountryCodes, errorMessage);
         throwExceptionIfError(errorMessage);
     }
@@ -206,7 +192,7 @@ public class HolidayServiceValidator implements HolidayServiceValidatorContract
     public void validateCountryCodesAndYear(String yearString, Set<String> inputCountryCodes) {
         ArrayList <String> errorMessage = new ArrayList<>();
         validateInputCountryCodes(inputCountryCodes, errorMessage);
-        checkIfCountiesSupported(nagerDateApiService.getAvailableCountries()
+        checkIfCountiesSupported(holidayDataProviderChain.getAvailableCountries()
                 , inputCountryCodes, errorMessage);
         validateInputYear(yearString, errorMessage);
         throwExceptionIfError(errorMessage);
@@ -225,7 +211,28 @@ public class HolidayServiceValidator implements HolidayServiceValidatorContract
             errorMessage.add(String.format("both input country code '%s' are same or only one country code given, two different codes must be provided for shared holidays", String.join("", inputCountryCodes)));
         }
         validateInputCountryCodes(inputCountryCodes, errorMessage);
-        checkIfCountiesSupported(nagerDateApiService.getAvailableCountries()
+        checkIfCountiesSupported(holidayDataProviderChain.getAvailableCountries()
+                , inputCountryCodes, errorMessage);
+        validateInputYear(year, errorMessage);
+        throwExceptionIfError(errorMessage);
+    }
+
+    /**
+     * Called by Holiday Service, it validates between two and the supported number of different input country codes
+     * and input year for holidays shared by several countries.
+     *
+     * @param year Year as string
+     * @param inputCountryCodes Set of different input country codes
+     */
+    @Override
+    public void validateCommonHolidayCountryCodesAndYear(String year, Set<String> inputCountryCodes) {
+        ArrayList <String> errorMessage = new ArrayList<>();
+        if (inputCountryCodes.size() < 2 || inputCountryCodes.size() > maxSharedHolidayCountries) {
+            errorMessage.add(String.format("%d different country code(s) given, between 2 and %d different codes must be provided for shared holidays",
+                    inputCountryCodes.size(), maxSharedHolidayCountries));
+        }
+        validateInputCountryCodes(inputCountryCodes, errorMessage);
+        checkIfCountiesSupported(holidayDataProviderChain.getAvailableCountries()
                 , inputCountryCodes, errorMessage);
         validateInputYear(year, errorMessage);
         throwExceptionIfError(errorMessage);
@@ -39,4 +39,15 @@ public interface HolidayServiceValidatorContract {
      * @param inputCountryCodes Set of exactly two ISO country codes to validate
      */
     void validateSharedHolidayCountryCodesAndYear(String year, Set<String> inputCountryCodes);
+
+    /**
+     * Validates input year and the input country codes of holidays shared by several countries.
+     * <p>
+     * Ensures that the year and country codes are valid and that at least two and at most the supported number of
+     * different countries are given.
+     *
+     * @param year String representing the year to validate
+     * @param inputCountryCodes Set of different ISO country codes to validate
+     */
+    void validateCommonHolidayCountryCodesAndYear(String year, Set<String> inputCountryCodes);
 }
@@ -0,0 +1,65 @@
+package com.example.holidayplanner.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import com.example.holidayplanner.generated.model.Holiday;
+import com.example.holidayplanner.model.AvailableCountry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheWeightsTest {
+
+    @Test
+    @DisplayName("Test holidays - weight grows with the number of holidays")
+    void holidays_MoreHolidays_WeighMore() {
+        HolidayCacheKey key = new HolidayCacheKey(2025, "NL");
+
+        int fiveHolidays = CacheWeights.holidays(key, CachedHolidays.of(calendarOf(5)));
+        int fortyHolidays = CacheWeights.holidays(key, CachedHolidays.of(calendarOf(40)));
+
+        // the fixed overhead per entry cancels out, each extra holiday adds an epoch day, day of week, name slot and name
+        long perHolidayBytes = 0;
+        for (int i = 5; i < 40; i++) {
+            perHolidayBytes += Integer.BYTES + Byte.BYTES + 4 + 40 + ("Holiday " + i).length();
+        }
+        assertEquals(perHolidayBytes, fortyHolidays - fiveHolidays);
+        assertTrue(CacheWeights.holidays(key, CachedHolidays.of(HolidayCalendar.empty())) > 0);
+    }
+
+    @Test
+    @DisplayName("Test holidays - upstream validators are part of the weight")
+    void holidays_WithValidators_WeighMore() {
+        HolidayCacheKey key = new HolidayCacheKey(2025, "NL");
+        HolidayCalendar calendar = calendarOf(10);
+
+        assertTrue(CacheWeights.holidays(key, new CachedHolidays(calendar, "\"nl-2025\"", "Wed, 01 Jan 2025 00:00:00 GMT", 2048))
+                > CacheWeights.holidays(key, CachedHolidays.of(calendar)));
+    }
+
+    @Test
+    @DisplayName("Test availableCountries - weight grows with the number of countries")
+    void availableCountries_MoreCountries_WeighMore() {
+        AvailableCountry netherlands = new AvailableCountry();
+        netherlands.setCountryCode("NL");
+        netherlands.setName("Netherlands");
+        AvailableCountry germany = new AvailableCountry();
+        germany.setCountryCode("DE");
+        germany.setName("Germany");
+
+        assertTrue(CacheWeights.availableCountries("availableCountries", Set.of(netherlands, germany))
+                > CacheWeights.availableCountries("availableCountries", Set.of(netherlands)));
+    }
+
+    private static HolidayCalendar calendarOf(int size) {
+        List<Holiday> holidays = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            holidays.add(new Holiday("2025-01-01", "Holiday " + i));
+        }
+        return HolidayCalendar.of(holidays);
+    }
+}
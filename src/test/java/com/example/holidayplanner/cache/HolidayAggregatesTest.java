@@ -0,0 +1,59 @@
+package com.example.holidayplanner.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.OptionalInt;
+
+import com.example.holidayplanner.generated.model.Holiday;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HolidayAggregatesTest {
+
+    @Test
+    @DisplayName("Test aggregates - computed when the calendar is built")
+    void aggregates_Calendar_ComputedAtBuild() {
+        HolidayCalendar calendar = HolidayCalendar.of(List.of(
+                new Holiday("2025-12-26", "Tweede Kerstdag"),  // Friday
+                new Holiday("2025-01-01", "Nieuwjaarsdag"),    // Wednesday
+                new Holiday("2025-04-20", "Eerste Paasdag"),   // Sunday
+                new Holiday("2025-04-26", "Koningsdag"),       // Saturday
+                new Holiday("2025-12-26", "Second Day")        // Friday, same date
+        ));
+
+        HolidayAggregates aggregates = calendar.aggregates();
+
+        assertEquals(3, aggregates.nonWeekendCount());
+        assertEquals(2, aggregates.count(DayOfWeek.FRIDAY));
+        assertEquals(1, aggregates.count(DayOfWeek.WEDNESDAY));
+        assertEquals(0, aggregates.count(DayOfWeek.MONDAY));
+        assertEquals(0b1110100, aggregates.dayOfWeekMask());
+        assertEquals(OptionalInt.of((int) LocalDate.of(2025, 1, 1).toEpochDay()), aggregates.firstEpochDay());
+        assertEquals(OptionalInt.of((int) LocalDate.of(2025, 12, 26).toEpochDay()), aggregates.lastEpochDay());
+    }
+
+    @Test
+    @DisplayName("Test aggregates - empty calendar has no holidays on any day")
+    void aggregates_EmptyCalendar_NoHolidays() {
+        HolidayAggregates aggregates = HolidayCalendar.empty().aggregates();
+
+        assertEquals(0, aggregates.nonWeekendCount());
+        assertEquals(0, aggregates.dayOfWeekMask());
+        assertTrue(aggregates.firstEpochDay().isEmpty());
+        assertTrue(aggregates.lastEpochDay().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test aggregates - calendars restored from epoch days get the same aggregates")
+    void aggregates_RestoredCalendar_SameAggregates() {
+        HolidayCalendar calendar = HolidayCalendar.of(List.of(new Holiday("2025-04-18", "Goede Vrijdag")));
+        HolidayCalendar restored = HolidayCalendar.of(new int[]{calendar.epochDay(0)}, new String[]{calendar.localName(0)});
+
+        assertEquals(calendar.aggregates().nonWeekendCount(), restored.aggregates().nonWeekendCount());
+        assertEquals(calendar.aggregates().dayOfWeekMask(), restored.aggregates().dayOfWeekMask());
+    }
+}
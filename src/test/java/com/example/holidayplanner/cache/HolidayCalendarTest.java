@@ -0,0 +1,95 @@
+package com.example.holidayplanner.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import com.example.holidayplanner.generated.model.Holiday;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HolidayCalendarTest {
+
+    @Test
+    @DisplayName("Test parse - only date and localName are read, other fields and nested values are skipped")
+    void parse_NagerResponse_ReadsDateAndLocalName() throws IOException {
+        byte[] json = """
+                [{"date":"2025-12-25","localName":"Eerste Kerstdag","name":"Christmas Day","countryCode":"NL",
+                  "fixed":true,"global":true,"counties":null,"launchYear":null,"types":["Public"]},
+                 {"date":"2025-04-18","localName":"Goede Vrijdag","extra":{"nested":[1,2,{"deep":true}]}}]
+                """.getBytes(StandardCharsets.UTF_8);
+
+        HolidayCalendar calendar = HolidayCalendar.parse(json);
+
+        assertEquals(List.of(new Holiday("2025-04-18", "Goede Vrijdag"), new Holiday("2025-12-25", "Eerste Kerstdag")),
+                calendar.toHolidays());
+        assertEquals(DayOfWeek.FRIDAY, calendar.dayOfWeek(0));
+        assertEquals(DayOfWeek.THURSDAY, calendar.dayOfWeek(1));
+    }
+
+    @Test
+    @DisplayName("Test parse - empty and null bodies give an empty calendar")
+    void parse_EmptyBody_ReturnsEmptyCalendar() throws IOException {
+        assertEquals(0, HolidayCalendar.parse(null).size());
+        assertEquals(0, HolidayCalendar.parse(new byte[0]).size());
+        assertEquals(0, HolidayCalendar.parse("null".getBytes(StandardCharsets.UTF_8)).size());
+        assertEquals(0, HolidayCalendar.parse("[]".getBytes(StandardCharsets.UTF_8)).size());
+    }
+
+    @Test
+    @DisplayName("Test parse - invalid date or a body which is not an array throws IOException")
+    void parse_InvalidBody_ThrowsIOException() {
+        assertThrows(IOException.class,
+                () -> HolidayCalendar.parse("[{\"date\":\"18-04-2025\"}]".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IOException.class,
+                () -> HolidayCalendar.parse("{\"date\":\"2025-04-18\"}".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IOException.class,
+                () -> HolidayCalendar.parse("[\"2025-04-18\"]".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Test of - holidays are sorted by date, same date keeps input order and missing dates are dropped")
+    void of_UnsortedHolidays_SortsStableAndDropsMissingDates() {
+        HolidayCalendar calendar = HolidayCalendar.of(Arrays.asList(
+                new Holiday("2025-12-26", "Tweede Kerstdag"),
+                new Holiday(null, "Bevrijdingsdag"),
+                new Holiday("2025-04-18", "Goede Vrijdag"),
+                new Holiday("2025-04-18", "Good Friday")));
+
+        assertEquals(List.of(new Holiday("2025-04-18", "Goede Vrijdag"), new Holiday("2025-04-18", "Good Friday"),
+                new Holiday("2025-12-26", "Tweede Kerstdag")), calendar.toHolidays());
+        assertEquals(calendar, HolidayCalendar.of(new int[]{calendar.epochDay(0), calendar.epochDay(1), calendar.epochDay(2)},
+                new String[]{"Goede Vrijdag", "Good Friday", "Tweede Kerstdag"}));
+    }
+
+    @Test
+    @DisplayName("Test indexAfter - returns the first holiday after the day")
+    void indexAfter_Days_ReturnsFirstLaterHoliday() {
+        HolidayCalendar calendar = HolidayCalendar.of(List.of(
+                new Holiday("2025-04-18", "Goede Vrijdag"),
+                new Holiday("2025-04-18", "Good Friday"),
+                new Holiday("2025-12-25", "Eerste Kerstdag")));
+
+        assertEquals(0, calendar.indexAfter((int) LocalDate.of(2025, 4, 17).toEpochDay()));
+        assertEquals(2, calendar.indexAfter((int) LocalDate.of(2025, 4, 18).toEpochDay()));
+        assertEquals(2, calendar.indexAfter((int) LocalDate.of(2025, 12, 24).toEpochDay()));
+        assertEquals(3, calendar.indexAfter((int) LocalDate.of(2025, 12, 25).toEpochDay()));
+    }
+
+    @Test
+    @DisplayName("Test version - equal holidays have the same version, changed dates or names another one")
+    void version_Holidays_ChangesWithContent() {
+        HolidayCalendar calendar = HolidayCalendar.of(List.of(new Holiday("2025-04-27", "Koningsdag")));
+
+        assertEquals(calendar.version(), HolidayCalendar.of(List.of(new Holiday("2025-04-27", "Koningsdag"))).version());
+        assertNotEquals(calendar.version(), HolidayCalendar.of(List.of(new Holiday("2025-04-26", "Koningsdag"))).version());
+        assertNotEquals(calendar.version(), HolidayCalendar.of(List.of(new Holiday("2025-04-27", "King's Day"))).version());
+        assertNotEquals(calendar.version(), HolidayCalendar.empty().version());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.holidayplanner.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.holidayplanner.generated.model.Holiday;
+import com.example.holidayplanner.model.AvailableCountry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HolidaySnapshotFileTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("Test write and read - snapshot round trip keeps countries, holidays and upstream validators")
+    void writeAndRead_ValidSnapshot_ReturnsSameContent() throws IOException {
+        AvailableCountry netherlands = new AvailableCountry();
+        netherlands.setCountryCode("NL");
+        netherlands.setName("Netherlands");
+        Map<HolidayCacheKey, CachedHolidays> holidays = Map.of(
+                new HolidayCacheKey(2025, "NL"), new CachedHolidays(HolidayCalendar.of(List.of(new Holiday("2025-04-18", "Goede Vrijdag"),
+                        new Holiday("2025-12-25", "Eerste Kerstdag"))), "\"nl-2025\"", "Wed, 01 Jan 2025 00:00:00 GMT", 2048),
+                new HolidayCacheKey(2025, "DE"), CachedHolidays.of(HolidayCalendar.of(List.of(new Holiday("2025-10-03", "Tag der Deutschen Einheit")))));
+        Instant writtenAt = Instant.ofEpochMilli(1_760_000_000_000L);
+        Path path = tempDir.resolve("snapshots/holidays.snapshot");
+
+        HolidaySnapshotFile.write(path, new HolidaySnapshotFile.Snapshot(writtenAt, Set.of(netherlands), holidays));
+        HolidaySnapshotFile.Snapshot snapshot = HolidaySnapshotFile.read(path);
+
+        assertEquals(writtenAt, snapshot.writtenAt());
+        assertEquals(1, snapshot.availableCountries().size());
+        AvailableCountry country = snapshot.availableCountries().iterator().next();
+        assertEquals("NL", country.getCountryCode());
+        assertEquals("Netherlands", country.getName());
+        assertEquals(holidays, snapshot.holidays());
+    }
+
+    @Test
+    @DisplayName("Test write and read - missing countries and names are kept as null")
+    void writeAndRead_MissingValues_ReturnsNulls() throws IOException {
+        Map<HolidayCacheKey, CachedHolidays> holidays = Map.of(
+                new HolidayCacheKey(2025, "NL"), CachedHolidays.of(HolidayCalendar.of(List.of(new Holiday("2025-05-05", null)))));
+        Path path = tempDir.resolve("holidays.snapshot");
+
+        HolidaySnapshotFile.write(path, new HolidaySnapshotFile.Snapshot(Instant.now(), null, holidays));
+        HolidaySnapshotFile.Snapshot snapshot = HolidaySnapshotFile.read(path);
+
+        assertNull(snapshot.availableCountries());
+        assertEquals(holidays, snapshot.holidays());
+    }
+
+    @Test
+    @DisplayName("Test read - file which is not a snapshot throws IOException")
+    void read_InvalidFile_ThrowsIOException() throws IOException {
+        Path path = Files.writeString(tempDir.resolve("holidays.snapshot"), "not a snapshot");
+
+        assertThrows(IOException.class, () -> HolidaySnapshotFile.read(path));
+    }
+
+    @Test
+    @DisplayName("Test read - truncated snapshot throws IOException")
+    void read_TruncatedFile_ThrowsIOException() throws IOException {
+        Path path = tempDir.resolve("holidays.snapshot");
+        HolidaySnapshotFile.write(path, new HolidaySnapshotFile.Snapshot(Instant.now(), null,
+                Map.of(new HolidayCacheKey(2025, "NL"), CachedHolidays.of(HolidayCalendar.of(List.of(new Holiday("2025-04-18", "Goede Vrijdag")))))));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 4));
+
+        assertThrows(IOException.class, () -> HolidaySnapshotFile.read(path));
+    }
+
+    @Test
+    @DisplayName("Test write and read - strings longer than 32767 UTF-8 bytes round trip")
+    void writeAndRead_LongString_ReturnsSameContent() throws IOException {
+        // 20000 two-byte characters, 40000 UTF-8 bytes
+        String longETag = "\"" + "\u00e9".repeat(20_000) + "\"";
+        Map<HolidayCacheKey, CachedHolidays> holidays = Map.of(new HolidayCacheKey(2025, "NL"),
+                new CachedHolidays(HolidayCalendar.of(List.of(new Holiday("2025-04-18", "Goede Vrijdag"))), longETag, null, 0));
+        Path path = tempDir.resolve("holidays.snapshot");
+
+        HolidaySnapshotFile.write(path, new HolidaySnapshotFile.Snapshot(Instant.now(), null, holidays));
+
+        assertEquals(holidays, HolidaySnapshotFile.read(path).holidays());
+    }
+
+    @Test
+    @DisplayName("Test read - corrupt counts throw IOException without allocating for them")
+    void read_CorruptCount_ThrowsIOException() throws IOException {
+        Path path = tempDir.resolve("holidays.snapshot");
+        HolidaySnapshotFile.write(path, new HolidaySnapshotFile.Snapshot(Instant.now(), null, Map.of()));
+        byte[] bytes = Files.readAllBytes(path);
+        // entry count follows magic, version, write time and the absent country count
+        ByteBuffer.wrap(bytes).putInt(20, Integer.MAX_VALUE);
+        Files.write(path, bytes);
+
+        assertThrows(IOException.class, () -> HolidaySnapshotFile.read(path));
+
+        ByteBuffer.wrap(bytes).putInt(16, -2);
+        Files.write(path, bytes);
+
+        assertThrows(IOException.class, () -> HolidaySnapshotFile.read(path));
+    }
+}
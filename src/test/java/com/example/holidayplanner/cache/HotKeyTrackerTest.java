@@ -0,0 +1,75 @@
+package com.example.holidayplanner.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyTrackerTest {
+
+    private static final HolidayCacheKey NL_2025 = new HolidayCacheKey(2025, "NL");
+    private static final HolidayCacheKey DE_2025 = new HolidayCacheKey(2025, "DE");
+    private static final HolidayCacheKey BE_2025 = new HolidayCacheKey(2025, "BE");
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("Test topKeys - keys are ordered by access count and limited")
+    void topKeys_RecordedAccesses_ReturnsHottestFirst() {
+        HotKeyTracker tracker = new HotKeyTracker(tempDir.resolve("hot-keys.txt"), 10);
+        record(tracker, DE_2025, 2);
+        record(tracker, NL_2025, 5);
+        record(tracker, BE_2025, 1);
+
+        assertEquals(List.of(NL_2025, DE_2025), tracker.topKeys(2));
+    }
+
+    @Test
+    @DisplayName("Test rotate - counts older than the previous window are dropped")
+    void rotate_TwoWindows_DropsOldestWindow() {
+        HotKeyTracker tracker = new HotKeyTracker(tempDir.resolve("hot-keys.txt"), 10);
+        record(tracker, NL_2025, 5);
+        tracker.rotate();
+        record(tracker, DE_2025, 1);
+
+        assertEquals(List.of(NL_2025, DE_2025), tracker.topKeys(10));
+
+        tracker.rotate();
+
+        assertEquals(List.of(DE_2025), tracker.topKeys(10));
+    }
+
+    @Test
+    @DisplayName("Test writeHotKeys - hot keys are read back by the next tracker")
+    void writeHotKeys_NewTracker_ReadsPersistedKeys() {
+        Path path = tempDir.resolve("warmup/hot-keys.txt");
+        HotKeyTracker tracker = new HotKeyTracker(path, 1);
+        record(tracker, DE_2025, 3);
+        record(tracker, NL_2025, 1);
+
+        tracker.writeHotKeys();
+
+        assertEquals(List.of(DE_2025), new HotKeyTracker(path, 10).topKeys(10));
+    }
+
+    @Test
+    @DisplayName("Test constructor - unreadable hot keys file is ignored")
+    void constructor_InvalidFile_StartsEmpty() throws IOException {
+        Path path = Files.writeString(tempDir.resolve("hot-keys.txt"), "2025_NL many\n");
+
+        assertTrue(new HotKeyTracker(path, 10).topKeys(10).isEmpty());
+    }
+
+    private static void record(HotKeyTracker tracker, HolidayCacheKey key, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.recordAccess(key);
+        }
+    }
+}
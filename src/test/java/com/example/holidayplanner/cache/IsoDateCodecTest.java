@@ -0,0 +1,62 @@
+package com.example.holidayplanner.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsoDateCodecTest {
+
+    @Test
+    @DisplayName("Test parseEpochDay - every date of the supported years parses like LocalDate")
+    void parseEpochDay_AllDates_SameAsLocalDate() {
+        for (LocalDate date = LocalDate.of(1900, 1, 1); date.getYear() <= 2100; date = date.plusDays(1)) {
+            assertEquals(date.toEpochDay(), IsoDateCodec.parseEpochDay(date.toString()), date.toString());
+        }
+        assertEquals(LocalDate.of(0, 3, 1).toEpochDay(), IsoDateCodec.parseEpochDay("0000-03-01"));
+        assertEquals(LocalDate.of(9999, 12, 31).toEpochDay(), IsoDateCodec.parseEpochDay("9999-12-31"));
+    }
+
+    @Test
+    @DisplayName("Test parseEpochDay - date in the middle of a character buffer")
+    void parseEpochDay_CharacterBuffer_ParsesDate() {
+        char[] chars = "\"date\":\"2024-02-29\"".toCharArray();
+
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), IsoDateCodec.parseEpochDay(chars, 8, 10));
+    }
+
+    @Test
+    @DisplayName("Test parseEpochDay - invalid dates throw DateTimeParseException with the parsed text")
+    void parseEpochDay_InvalidDate_ThrowsException() {
+        String[] invalidDates = {"", "2025-1-01", "2025/01/01", "2025-01-011", "+2025-01-01", "2025-00-10", "2025-13-01",
+                "2025-01-00", "2025-04-31", "2025-02-29", "1900-02-29", "2O25-01-01", "2025-01-0 "};
+        for (String text : invalidDates) {
+            DateTimeParseException exception = assertThrows(DateTimeParseException.class, () -> IsoDateCodec.parseEpochDay(text));
+            assertEquals(text, exception.getParsedString());
+            assertThrows(DateTimeParseException.class, () -> IsoDateCodec.parseEpochDay(text.toCharArray(), 0, text.length()));
+        }
+    }
+
+    @Test
+    @DisplayName("Test format - dates are formatted like LocalDate, cached dates return the same string")
+    void format_Dates_SameAsLocalDate() {
+        for (LocalDate date = LocalDate.of(1960, 1, 1); date.getYear() <= 2110; date = date.plusDays(1)) {
+            assertEquals(date.toString(), IsoDateCodec.format((int) date.toEpochDay()));
+        }
+        int cachedEpochDay = (int) LocalDate.of(2025, 12, 25).toEpochDay();
+        assertSame(IsoDateCodec.format(cachedEpochDay), IsoDateCodec.format(cachedEpochDay));
+    }
+
+    @Test
+    @DisplayName("Test dayOfWeek - day of week of dates before and after the epoch")
+    void dayOfWeek_Dates_SameAsLocalDate() {
+        for (LocalDate date = LocalDate.of(1960, 1, 1); date.getYear() <= 1980; date = date.plusDays(1)) {
+            assertEquals(date.getDayOfWeek(), IsoDateCodec.dayOfWeek((int) date.toEpochDay()), date.toString());
+        }
+        assertEquals(DayOfWeek.THURSDAY.getValue(), IsoDateCodec.isoDayOfWeek(0));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.holidayplanner.cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.holidayplanner.exception.InvalidParameterException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NegativeLookupCacheTest {
+
+    private static final HolidayCacheKey NL_1900 = new HolidayCacheKey(1900, "NL");
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final Ticker ticker = nanoTime::get;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NegativeLookupCache<HolidayCacheKey> cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new NegativeLookupCache<>("holidays", new NegativeLookupCache.Settings(100, Duration.ofMinutes(10),
+                Duration.ofSeconds(5)), ticker, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Test throwIfPresent - not found lookup is rethrown until the not-found TTL passed")
+    void throwIfPresent_NotFound_RethrownWithinTtl() {
+        InvalidParameterException notFound = new InvalidParameterException("No holidays found for country: NL in year: 1900");
+        cache.recordNotFound(NL_1900, notFound);
+
+        nanoTime.addAndGet(Duration.ofMinutes(9).toNanos());
+        assertSame(notFound, assertThrows(InvalidParameterException.class, () -> cache.throwIfPresent(NL_1900)));
+
+        nanoTime.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertDoesNotThrow(() -> cache.throwIfPresent(NL_1900));
+        assertEquals(1, meterRegistry.get("holiday.cache.negative.hits").tag("failure", "not_found").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test throwIfPresent - failed lookup is only kept for the shorter failure TTL")
+    void throwIfPresent_Failure_ExpiresAfterFailureTtl() {
+        cache.recordFailure(NL_1900, new ResourceAccessException("I/O error: Connection refused"));
+
+        assertThrows(ResourceAccessException.class, () -> cache.throwIfPresent(NL_1900));
+
+        nanoTime.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertDoesNotThrow(() -> cache.throwIfPresent(NL_1900));
+        assertEquals(1, meterRegistry.get("holiday.cache.negative.hits").tag("failure", "unavailable").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test invalidate - recorded failure is dropped")
+    void invalidate_RecordedFailure_NoLongerThrown() {
+        cache.recordNotFound(NL_1900, new InvalidParameterException("No holidays found for country: NL in year: 1900"));
+
+        cache.invalidate(NL_1900);
+
+        assertDoesNotThrow(() -> cache.throwIfPresent(NL_1900));
+    }
+
+    @Test
+    @DisplayName("Test recordFailure - failures are not kept with a zero failure TTL")
+    void recordFailure_ZeroTtl_NotKept() {
+        NegativeLookupCache<HolidayCacheKey> notFoundOnly = new NegativeLookupCache<>("holidays",
+                new NegativeLookupCache.Settings(100, Duration.ofMinutes(10), Duration.ZERO), ticker, new SimpleMeterRegistry());
+
+        notFoundOnly.recordFailure(NL_1900, new ResourceAccessException("I/O error: Connection refused"));
+
+        assertDoesNotThrow(() -> notFoundOnly.throwIfPresent(NL_1900));
+    }
+}
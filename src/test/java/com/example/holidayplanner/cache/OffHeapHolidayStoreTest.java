@@ -0,0 +1,141 @@
+package com.example.holidayplanner.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.holidayplanner.generated.model.Holiday;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapHolidayStoreTest {
+
+    private final AtomicLong millis = new AtomicLong(1_760_000_000_000L);
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis.get());
+        }
+    };
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Test put and get - stored entry is read back with holidays and upstream validators")
+    void putAndGet_StoredEntry_ReturnsSameContent() {
+        OffHeapHolidayStore store = storeOf(DataSize.ofKilobytes(64));
+        CachedHolidays holidays = new CachedHolidays(HolidayCalendar.of(List.of(new Holiday("2025-04-18", "Goede Vrijdag"),
+                new Holiday("2025-12-25", "Eerste Kerstdag"))), "\"nl-2025\"", "Wed, 01 Jan 2025 00:00:00 GMT", 2048);
+
+        store.put(new HolidayCacheKey(2025, "NL"), holidays);
+
+        assertEquals(holidays, store.get(new HolidayCacheKey(2025, "NL")).orElseThrow());
+        assertTrue(store.get(new HolidayCacheKey(2025, "DE")).isEmpty());
+        assertEquals(1, requests("hit"));
+        assertEquals(1, requests("miss"));
+    }
+
+    @Test
+    @DisplayName("Test put - full store evicts the oldest entries first and wraps around")
+    void put_StoreFull_EvictsOldestEntries() {
+        CachedHolidays holidays = calendarOf(20);
+        OffHeapHolidayStore probe = storeOf(DataSize.ofKilobytes(64));
+        probe.put(new HolidayCacheKey(2000, "NL"), holidays);
+        long recordBytes = probe.getUsedBytes();
+        OffHeapHolidayStore store = storeOf(DataSize.ofBytes(recordBytes * 3 + recordBytes / 2));
+
+        for (int year = 2020; year < 2025; year++) {
+            store.put(new HolidayCacheKey(year, "NL"), holidays);
+        }
+
+        assertEquals(3, store.size());
+        assertTrue(store.get(new HolidayCacheKey(2020, "NL")).isEmpty());
+        assertTrue(store.get(new HolidayCacheKey(2021, "NL")).isEmpty());
+        for (int year = 2022; year < 2025; year++) {
+            assertEquals(holidays, store.get(new HolidayCacheKey(year, "NL")).orElseThrow());
+        }
+        assertEquals(2, meterRegistry.get("holiday.cache.offheap.evictions").counter().count());
+        assertEquals(3 * recordBytes, store.getUsedBytes());
+    }
+
+    @Test
+    @DisplayName("Test put - replaced entry is served in its new version only")
+    void put_ExistingKey_ReplacesEntry() {
+        OffHeapHolidayStore store = storeOf(DataSize.ofKilobytes(64));
+        store.put(new HolidayCacheKey(2025, "NL"), calendarOf(2));
+        long firstBytes = store.getUsedBytes();
+
+        store.put(new HolidayCacheKey(2025, "NL"), calendarOf(3));
+
+        assertEquals(calendarOf(3), store.get(new HolidayCacheKey(2025, "NL")).orElseThrow());
+        assertEquals(1, store.size());
+        assertTrue(store.getUsedBytes() > firstBytes);
+    }
+
+    @Test
+    @DisplayName("Test get - entry past its maximum age is not served")
+    void get_PastMaxAge_ReturnsEmpty() {
+        OffHeapHolidayStore store = storeOf(DataSize.ofKilobytes(64));
+        store.put(new HolidayCacheKey(2025, "NL"), calendarOf(2));
+
+        millis.addAndGet(Duration.ofHours(13).toMillis());
+
+        assertTrue(store.get(new HolidayCacheKey(2025, "NL")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test put - store without capacity and entries larger than the store keep nothing")
+    void put_NoCapacityOrEntryTooLarge_StoresNothing() {
+        OffHeapHolidayStore disabled = storeOf(DataSize.ofBytes(0));
+        OffHeapHolidayStore tiny = storeOf(DataSize.ofBytes(16));
+
+        disabled.put(new HolidayCacheKey(2025, "NL"), calendarOf(2));
+        tiny.put(new HolidayCacheKey(2025, "NL"), calendarOf(2));
+
+        assertEquals(0, disabled.size());
+        assertEquals(0, tiny.size());
+    }
+
+    private OffHeapHolidayStore storeOf(DataSize capacity) {
+        return new OffHeapHolidayStore(capacity, Duration.ofHours(12), clock, meterRegistry);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("holiday.cache.offheap.requests").tag("result", result).counter().count();
+    }
+
+    private static CachedHolidays calendarOf(int size) {
+        List<Holiday> holidays = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            holidays.add(new Holiday("2025-01-0" + (i % 9 + 1), "Holiday " + i));
+        }
+        return CachedHolidays.of(HolidayCalendar.of(holidays));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.holidayplanner.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshAheadCacheFactoryTest {
+
+    private static final long MAXIMUM_HEAP_BYTES = 512L * 1024 * 1024;
+
+    private MockEnvironment environment;
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshAheadCacheFactory refreshAheadCacheFactory;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment();
+        environment.setConversionService(new ApplicationConversionService());
+        meterRegistry = new SimpleMeterRegistry();
+        refreshAheadCacheFactory = new RefreshAheadCacheFactory(environment, meterRegistry, 1, MAXIMUM_HEAP_BYTES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshAheadCacheFactory.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test create - byte budget of a weighted cache is the configured share of the maximum heap")
+    void create_HeapShare_DerivesBudgetFromMaximumHeap() {
+        environment.setProperty("holiday.cache.holidays.heap-share", "0.05");
+
+        refreshAheadCacheFactory.create("holidays", (String key, String previous) -> key, (String key, String value) -> value.length());
+
+        assertEquals((long) (MAXIMUM_HEAP_BYTES * 0.05), maximumWeight("holidays"));
+    }
+
+    @Test
+    @DisplayName("Test create - fixed maximum weight wins over heap share")
+    void create_MaximumWeight_OverridesHeapShare() {
+        environment.setProperty("holiday.cache.availableCountries.heap-share", "0.05");
+        environment.setProperty("holiday.cache.availableCountries.maximum-weight", "256KB");
+
+        refreshAheadCacheFactory.create("availableCountries", (String key, String previous) -> key,
+                (String key, String value) -> value.length());
+
+        assertEquals(256 * 1024, maximumWeight("availableCountries"));
+    }
+
+    @Test
+    @DisplayName("Test create - cache without weigher is bounded by maximum size entries")
+    void create_WithoutWeigher_UsesMaximumSize() {
+        environment.setProperty("holiday.cache.plain.maximum-size", "42");
+
+        refreshAheadCacheFactory.create("plain", (String key) -> key);
+
+        assertEquals(42, maximumWeight("plain"));
+    }
+
+    @Test
+    @DisplayName("Test create - heap share outside of (0, 1] throws IllegalStateException")
+    void create_InvalidHeapShare_ThrowsIllegalStateException() {
+        environment.setProperty("holiday.cache.holidays.heap-share", "1.5");
+
+        assertThrows(IllegalStateException.class, () -> refreshAheadCacheFactory.create("holidays",
+                (String key, String previous) -> key, (String key, String value) -> value.length()));
+    }
+
+    private double maximumWeight(String cacheName) {
+        return meterRegistry.get("holiday.cache.maximum.weight").tag("cache", cacheName).gauge().value();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.holidayplanner.cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshAheadCacheTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final Ticker ticker = nanoTime::get;
+    private final Queue<Runnable> pendingRefreshes = new ArrayDeque<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshAheadCache<String, String> cache;
+    private volatile boolean upstreamDown;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RefreshAheadCache.Settings settings = new RefreshAheadCache.Settings(100, Duration.ofHours(12), Duration.ofHours(24),
+                500, Duration.ofDays(7));
+        cache = new RefreshAheadCache<>("holidays", settings, key -> {
+            if (upstreamDown) {
+                throw new IllegalStateException("upstream down");
+            }
+            return key + "-v" + loads.incrementAndGet();
+        }, pendingRefreshes::add, ticker, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Entry past soft TTL should be served stale while reloaded in background")
+    void get_PastSoftTtl_ServesStaleAndRefreshes() {
+        assertEquals("2025_NL-v1", cache.get("2025_NL"));
+
+        advance(Duration.ofHours(13));
+
+        assertEquals("2025_NL-v1", cache.get("2025_NL"));
+        runPendingRefreshes();
+        assertEquals("2025_NL-v2", cache.get("2025_NL"));
+        assertEquals(1, counter("holiday.cache.refreshes"));
+        assertEquals(1, counter("holiday.cache.stale.serves"));
+        assertEquals(0, counter("holiday.cache.refresh.failures"));
+    }
+
+    @Test
+    @DisplayName("Failed background reload should keep serving the stale value")
+    void get_RefreshFails_KeepsStaleValue() {
+        cache.get("2025_NL");
+        advance(Duration.ofHours(13));
+        upstreamDown = true;
+
+        assertEquals("2025_NL-v1", cache.get("2025_NL"));
+        runPendingRefreshes();
+
+        assertEquals("2025_NL-v1", cache.get("2025_NL"));
+        assertEquals(1, counter("holiday.cache.refresh.failures"));
+    }
+
+    @Test
+    @DisplayName("Entry past hard TTL should be reloaded inline")
+    void get_PastHardTtl_LoadsInline() {
+        cache.get("2025_NL");
+        advance(Duration.ofHours(25));
+
+        assertEquals("2025_NL-v2", cache.get("2025_NL"));
+        runPendingRefreshes();
+        assertEquals(0, counter("holiday.cache.refreshes"));
+        assertEquals(0, counter("holiday.cache.stale.serves"));
+    }
+
+    @Test
+    @DisplayName("Loader exception on a miss should be rethrown unchanged")
+    void get_LoaderFailsOnMiss_RethrowsException() {
+        upstreamDown = true;
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> cache.get("2025_NL"));
+
+        assertEquals("upstream down", thrown.getMessage());
+        assertTrue(cache.getIfPresent("2025_NL").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Entry dropped after hard TTL should stay available as last known good value")
+    void getLastKnownGood_PastHardTtlAndLoaderFails_ReturnsEvictedValue() {
+        cache.get("2025_NL");
+        advance(Duration.ofHours(25));
+        upstreamDown = true;
+
+        assertThrows(IllegalStateException.class, () -> cache.get("2025_NL"));
+
+        assertEquals("2025_NL-v1", cache.getLastKnownGood("2025_NL").orElseThrow());
+        assertTrue(cache.getLastKnownGood("2025_DE").isEmpty());
+        assertEquals(1, counter("holiday.cache.last.known.good.serves"));
+    }
+
+    @Test
+    @DisplayName("Last known good value should be dropped after its retention")
+    void getLastKnownGood_PastRetention_ReturnsEmpty() {
+        cache.get("2025_NL");
+        advance(Duration.ofHours(25));
+        upstreamDown = true;
+        assertThrows(IllegalStateException.class, () -> cache.get("2025_NL"));
+
+        advance(Duration.ofDays(8));
+
+        assertTrue(cache.getLastKnownGood("2025_NL").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Loader should receive the stale value on reload and the last known good value on a miss")
+    void get_PreviousValueLoader_ReceivesPreviousValues() {
+        List<String> previousValues = new ArrayList<>();
+        RefreshAheadCache.Settings settings = new RefreshAheadCache.Settings(100, Duration.ofHours(12), Duration.ofHours(24),
+                500, Duration.ofDays(7));
+        RefreshAheadCache<String, String> revalidatingCache = new RefreshAheadCache<>("revalidating", settings,
+                (String key, String previousValue) -> {
+                    previousValues.add(previousValue);
+                    return key + "-v" + loads.incrementAndGet();
+                }, pendingRefreshes::add, ticker, meterRegistry);
+
+        revalidatingCache.get("2025_NL");
+        advance(Duration.ofHours(13));
+        revalidatingCache.get("2025_NL");
+        runPendingRefreshes();
+        advance(Duration.ofHours(25));
+        revalidatingCache.get("2025_NL");
+
+        assertEquals(Arrays.asList(null, "2025_NL-v1", "2025_NL-v2"), previousValues);
+    }
+
+    @Test
+    @DisplayName("Weighted cache should evict by total weight and keep evicted entries as last known good")
+    void put_OverMaximumWeight_EvictsToLastKnownGood() {
+        RefreshAheadCache.Settings settings = new RefreshAheadCache.Settings(10, Duration.ofHours(12), Duration.ofHours(24),
+                100, Duration.ofDays(7));
+        RefreshAheadCache<String, String> weightedCache = new RefreshAheadCache<>("weighted", settings,
+                (String key, String previousValue) -> key, (String key, String value) -> value.length(),
+                pendingRefreshes::add, ticker, meterRegistry);
+
+        List<String> keys = List.of("2025_NL", "2025_DE", "2025_BE");
+        keys.forEach(key -> weightedCache.put(key, key));
+        runPendingRefreshes();
+
+        assertEquals(1, weightedCache.entries().size());
+        assertEquals(7, meterRegistry.get("holiday.cache.weighted.size").tag("cache", "weighted").gauge().value());
+        assertEquals(10, meterRegistry.get("holiday.cache.maximum.weight").tag("cache", "weighted").gauge().value());
+        keys.forEach(key -> assertEquals(key, weightedCache.getLastKnownGood(key).orElseThrow()));
+    }
+
+    private void advance(Duration duration) {
+        nanoTime.addAndGet(duration.toNanos());
+    }
+
+    private void runPendingRefreshes() {
+        Runnable refresh;
+        while ((refresh = pendingRefreshes.poll()) != null) {
+            refresh.run();
+        }
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("cache", "holidays").counter().count();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.holidayplanner.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.example.holidayplanner.generated.model.Holiday;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedHolidayIntersectionTest {
+
+    @Test
+    @DisplayName("Test of - dates shared by all countries in date order with the first local name of each country")
+    void of_ThreeCountries_ReturnsSharedDatesInOrder() {
+        HolidayCalendar netherlands = HolidayCalendar.of(List.of(
+                new Holiday("2024-01-01", "Nieuwjaarsdag"),
+                new Holiday("2024-04-27", "Koningsdag"),
+                new Holiday("2024-12-25", "Eerste Kerstdag"),
+                new Holiday("2024-12-31", "Oudejaarsdag")));
+        HolidayCalendar germany = HolidayCalendar.of(List.of(
+                new Holiday("2024-12-31", "Silvester"),
+                new Holiday("2024-12-25", "Erster Weihnachtstag"),
+                new Holiday("2024-12-25", "Christtag"),
+                new Holiday("2024-01-01", "Neujahr")));
+        HolidayCalendar belgium = HolidayCalendar.of(List.of(
+                new Holiday("2024-01-01", "Nieuwjaar"),
+                new Holiday("2024-12-25", "Kerstmis"),
+                new Holiday("2024-12-31", "Oudejaar")));
+
+        List<SharedHolidayIntersection.SharedDay> sharedDays = SharedHolidayIntersection.of(2024, List.of(netherlands, germany, belgium));
+
+        assertEquals(List.of(
+                new SharedHolidayIntersection.SharedDay(epochDay("2024-01-01"), List.of("Nieuwjaarsdag", "Neujahr", "Nieuwjaar")),
+                new SharedHolidayIntersection.SharedDay(epochDay("2024-12-25"), List.of("Eerste Kerstdag", "Erster Weihnachtstag", "Kerstmis")),
+                // day 366 of the leap year, last bit used in the bitmap
+                new SharedHolidayIntersection.SharedDay(epochDay("2024-12-31"), List.of("Oudejaarsdag", "Silvester", "Oudejaar"))),
+                sharedDays);
+    }
+
+    @Test
+    @DisplayName("Test of - one country without holidays shares no date")
+    void of_EmptyCalendar_ReturnsNoDates() {
+        HolidayCalendar netherlands = HolidayCalendar.of(List.of(new Holiday("2025-01-01", "Nieuwjaarsdag")));
+
+        assertTrue(SharedHolidayIntersection.of(2025, List.of(netherlands, HolidayCalendar.empty())).isEmpty());
+        assertTrue(SharedHolidayIntersection.of(2025, List.of()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test of - holidays outside the requested year are not shared")
+    void of_OtherYear_OnlyRequestedYearShared() {
+        HolidayCalendar netherlands = HolidayCalendar.of(List.of(
+                new Holiday("2024-12-31", "Oudejaarsdag"),
+                new Holiday("2025-01-01", "Nieuwjaarsdag")));
+        HolidayCalendar germany = HolidayCalendar.of(List.of(
+                new Holiday("2024-12-31", "Silvester"),
+                new Holiday("2025-01-01", "Neujahr")));
+
+        List<SharedHolidayIntersection.SharedDay> sharedDays = SharedHolidayIntersection.of(2025, List.of(netherlands, germany));
+
+        assertEquals(1, sharedDays.size());
+        assertEquals(epochDay("2025-01-01"), sharedDays.get(0).epochDay());
+    }
+
+    private static int epochDay(String date) {
+        return (int) LocalDate.parse(date).toEpochDay();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.holidayplanner.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightLoaderTest {
+
+    private static final int PARALLEL_CALLERS = 32;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlightLoader singleFlightLoader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlightLoader = new SingleFlightLoader(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("N parallel callers for the same key should trigger exactly one upstream load")
+    void load_ParallelCallersSameKey_OneUpstreamCall() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch releaseUpstream = new CountDownLatch(1);
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    startGate.await();
+                    return singleFlightLoader.load("2025_NL", () -> {
+                        upstreamCalls.incrementAndGet();
+                        awaitQuietly(releaseUpstream);
+                        return "holidays-2025-NL";
+                    });
+                }));
+            }
+            startGate.countDown();
+            // keep the leader blocked until every other caller has joined its flight
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (singleFlightLoader.getCoalescedWaiterCount() < PARALLEL_CALLERS - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            releaseUpstream.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("holidays-2025-NL", result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, singleFlightLoader.getLeaderLoadCount());
+        assertEquals(PARALLEL_CALLERS - 1, singleFlightLoader.getCoalescedWaiterCount());
+        assertEquals(PARALLEL_CALLERS - 1, meterRegistry.get("nager.api.singleflight.coalesced").counter().count());
+        assertEquals(0, meterRegistry.get("nager.api.singleflight.inflight").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Waiters should receive the same exception as the leader")
+    void load_LeaderFails_WaitersGetSameException() throws Exception {
+        CountDownLatch releaseUpstream = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlightLoader.load("2025_XX", () -> {
+                awaitQuietly(releaseUpstream);
+                throw new IllegalStateException("upstream down");
+            }));
+            while (singleFlightLoader.getLeaderLoadCount() == 0) {
+                Thread.sleep(1);
+            }
+            Future<String> waiter = executor.submit(() -> singleFlightLoader.load("2025_XX", () -> "not expected"));
+            while (singleFlightLoader.getCoalescedWaiterCount() == 0) {
+                Thread.sleep(1);
+            }
+            releaseUpstream.countDown();
+
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(10, TimeUnit.SECONDS));
+            Exception waiterError = assertThrows(Exception.class, () -> waiter.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+            assertInstanceOf(IllegalStateException.class, waiterError.getCause());
+            assertEquals("upstream down", waiterError.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Sequential calls and different keys should not be coalesced")
+    void load_SequentialAndDifferentKeys_EachLoads() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        singleFlightLoader.load("2025_NL", upstreamCalls::incrementAndGet);
+        singleFlightLoader.load("2025_NL", upstreamCalls::incrementAndGet);
+        singleFlightLoader.load("2025_DE", upstreamCalls::incrementAndGet);
+
+        assertEquals(3, upstreamCalls.get());
+        assertEquals(0, singleFlightLoader.getCoalescedWaiterCount());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.holidayplanner.cluster;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> PEERS = List.of("http://localhost:8080", "http://localhost:8081", "http://localhost:8082");
+
+    @Test
+    @DisplayName("Test ownerOf - rings built from the same peers in any order agree on every owner")
+    void ownerOf_SamePeersDifferentOrder_SameOwners() {
+        ConsistentHashRing ring = new ConsistentHashRing(PEERS, 128);
+        ConsistentHashRing reorderedRing = new ConsistentHashRing(List.of(PEERS.get(2), PEERS.get(0), PEERS.get(1)), 128);
+
+        for (int year = 1975; year <= 2075; year++) {
+            assertEquals(ring.ownerOf(year + "_NL"), reorderedRing.ownerOf(year + "_NL"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test ownerOf - keys are spread over all peers")
+    void ownerOf_ManyKeys_SpreadOverAllPeers() {
+        ConsistentHashRing ring = new ConsistentHashRing(PEERS, 128);
+        Map<String, Integer> keysPerPeer = new HashMap<>();
+
+        for (int year = 1975; year <= 2075; year++) {
+            for (String countryCode : List.of("NL", "DE", "FR", "BE", "GB", "US")) {
+                keysPerPeer.merge(ring.ownerOf(year + "_" + countryCode), 1, Integer::sum);
+            }
+        }
+
+        assertEquals(3, keysPerPeer.size());
+        // 606 keys, each peer should own a fair share of the expected 202
+        keysPerPeer.values().forEach(keys -> assertTrue(keys > 100, "uneven spread " + keysPerPeer));
+    }
+
+    @Test
+    @DisplayName("Test ownerOf - removing a peer only moves the keys it owned")
+    void ownerOf_PeerRemoved_OnlyItsKeysMove() {
+        ConsistentHashRing ring = new ConsistentHashRing(PEERS, 128);
+        ConsistentHashRing shrunkRing = new ConsistentHashRing(PEERS.subList(0, 2), 128);
+
+        for (int year = 1975; year <= 2075; year++) {
+            String owner = ring.ownerOf(year + "_DE");
+            if (!owner.equals(PEERS.get(2))) {
+                assertEquals(owner, shrunkRing.ownerOf(year + "_DE"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test ownerOf - empty ring has no owner")
+    void ownerOf_EmptyRing_ReturnsNull() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(), 128);
+
+        assertTrue(ring.isEmpty());
+        assertNull(ring.ownerOf("2025_NL"));
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.holidayplanner.cluster;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import com.example.holidayplanner.cache.CachedHolidays;
+import com.example.holidayplanner.cache.HolidayCacheKey;
+import com.example.holidayplanner.cache.HolidayCalendar;
+import com.example.holidayplanner.cache.HolidaySnapshotFile;
+import com.example.holidayplanner.exception.InvalidParameterException;
+import com.example.holidayplanner.generated.model.Holiday;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.never;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class PeerHolidayCacheTest {
+
+    private static final String SELF = "http://localhost:8080";
+    private static final String PEER = "http://localhost:8081";
+    private static final String SECRET = "cluster-secret";
+
+    private RestClient.Builder restClientBuilder;
+    private MockRestServiceServer peerServer;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        restClientBuilder = RestClient.builder();
+        peerServer = MockRestServiceServer.bindTo(restClientBuilder).build();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Test fetchFromOwner - holidays owned by the peer are read from the peer")
+    void fetchFromOwner_PeerOwnsKey_ReturnsPeerHolidays() {
+        PeerHolidayCache peerHolidayCache = peerCacheOf(true);
+        HolidayCacheKey key = keyOwnedBy(peerHolidayCache, false);
+        CachedHolidays holidays = new CachedHolidays(HolidayCalendar.of(List.of(new Holiday(key.year() + "-01-01", "Nieuwjaarsdag"))),
+                "\"nl\"", null, 512);
+        peerServer.expect(requestTo(PEER + "/internal/cluster/holidays/" + key.year() + "/NL"))
+                .andExpect(header(PeerHolidayCache.PEER_SECRET_HEADER, SECRET))
+                .andRespond(withSuccess(HolidaySnapshotFile.encodeHolidays(holidays), MediaType.APPLICATION_OCTET_STREAM));
+
+        Optional<CachedHolidays> result = peerHolidayCache.fetchFromOwner(key);
+
+        assertEquals(Optional.of(holidays), result);
+        assertEquals(1, meterRegistry.get("holiday.cluster.peer.requests").tag("result", "hit").counter().count());
+        peerServer.verify();
+    }
+
+    @Test
+    @DisplayName("Test fetchFromOwner - holidays owned by this instance are not asked from any peer")
+    void fetchFromOwner_SelfOwnsKey_ReturnsEmpty() {
+        PeerHolidayCache peerHolidayCache = peerCacheOf(true);
+        HolidayCacheKey key = keyOwnedBy(peerHolidayCache, true);
+        peerServer.expect(never(), requestTo(PEER + "/internal/cluster/holidays/" + key.year() + "/NL"));
+
+        assertTrue(peerHolidayCache.fetchFromOwner(key).isEmpty());
+        peerServer.verify();
+    }
+
+    @Test
+    @DisplayName("Test fetchFromOwner - failed peer is skipped until the retry period ends")
+    void fetchFromOwner_PeerFails_SkippedForRetryPeriod() {
+        PeerHolidayCache peerHolidayCache = peerCacheOf(true);
+        HolidayCacheKey key = keyOwnedBy(peerHolidayCache, false);
+        peerServer.expect(requestTo(PEER + "/internal/cluster/holidays/" + key.year() + "/NL")).andRespond(withServerError());
+
+        assertTrue(peerHolidayCache.fetchFromOwner(key).isEmpty());
+        assertTrue(peerHolidayCache.fetchFromOwner(key).isEmpty());
+
+        assertEquals(1, meterRegistry.get("holiday.cluster.peer.requests").tag("result", "error").counter().count());
+        assertEquals(1, meterRegistry.get("holiday.cluster.peer.requests").tag("result", "skipped").counter().count());
+        peerServer.verify();
+    }
+
+    @Test
+    @DisplayName("Test fetchFromOwner - unknown holidays of the owner fail with InvalidParameterException")
+    void fetchFromOwner_PeerAnswersBadRequest_ThrowsInvalidParameterException() {
+        PeerHolidayCache peerHolidayCache = peerCacheOf(true);
+        HolidayCacheKey key = keyOwnedBy(peerHolidayCache, false);
+        peerServer.expect(requestTo(PEER + "/internal/cluster/holidays/" + key.year() + "/NL")).andRespond(withStatus(HttpStatus.BAD_REQUEST));
+
+        assertThrows(InvalidParameterException.class, () -> peerHolidayCache.fetchFromOwner(key));
+        peerServer.verify();
+    }
+
+    @Test
+    @DisplayName("Test fetchFromOwner - disabled cluster never asks peers and owns every key")
+    void fetchFromOwner_Disabled_ReturnsEmpty() {
+        PeerHolidayCache peerHolidayCache = peerCacheOf(false);
+
+        assertTrue(peerHolidayCache.fetchFromOwner(new HolidayCacheKey(2025, "NL")).isEmpty());
+        assertTrue(peerHolidayCache.isOwner(new HolidayCacheKey(2025, "NL")));
+        peerServer.verify();
+    }
+
+    @Test
+    @DisplayName("Test constructor - enabled cluster without self in peers fails to start")
+    void constructor_SelfNotInPeers_ThrowsIllegalStateException() {
+        assertThrows(IllegalStateException.class, () -> new PeerHolidayCache(true, "http://localhost:9090", List.of(SELF, PEER),
+                SECRET, 128, Duration.ofSeconds(10), restClientBuilder, Clock.systemUTC(), meterRegistry));
+    }
+
+    @Test
+    @DisplayName("Test constructor - enabled cluster without shared secret fails to start")
+    void constructor_NoSecret_ThrowsIllegalStateException() {
+        assertThrows(IllegalStateException.class, () -> new PeerHolidayCache(true, SELF, List.of(SELF, PEER),
+                " ", 128, Duration.ofSeconds(10), restClientBuilder, Clock.systemUTC(), meterRegistry));
+    }
+
+    @Test
+    @DisplayName("Test isAuthorized - only peer requests with the shared secret are answered")
+    void isAuthorized_PresentedSecret_MatchesSharedSecret() {
+        PeerHolidayCache peerHolidayCache = peerCacheOf(true);
+
+        assertTrue(peerHolidayCache.isAuthorized(SECRET));
+        assertFalse(peerHolidayCache.isAuthorized("other-secret"));
+        assertFalse(peerHolidayCache.isAuthorized(null));
+        assertFalse(peerCacheOf(false).isAuthorized(SECRET));
+    }
+
+    private PeerHolidayCache peerCacheOf(boolean enabled) {
+        return new PeerHolidayCache(enabled, SELF + "/", List.of(SELF, PEER), SECRET, 128, Duration.ofSeconds(10), restClientBuilder,
+                Clock.fixed(Instant.parse("2025-06-01T00:00:00Z"), ZoneOffset.UTC), meterRegistry);
+    }
+
+    private static HolidayCacheKey keyOwnedBy(PeerHolidayCache peerHolidayCache, boolean self) {
+        for (int year = 1975; year <= 2075; year++) {
+            HolidayCacheKey key = new HolidayCacheKey(year, "NL");
+            if (peerHolidayCache.isOwner(key) == self) {
+                return key;
+            }
+        }
+        throw new AssertionError("no key owned by " + (self ? "self" : "peer"));
+    }
+}
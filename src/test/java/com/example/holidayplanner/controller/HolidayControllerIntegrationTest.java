@@ -2,6 +2,10 @@ package com.example.holidayplanner.controller;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.OptionalLong;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,6 +15,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
@@ -18,17 +23,31 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
+import com.example.holidayplanner.generated.model.CommonHoliday;
+import com.example.holidayplanner.generated.model.CountryLocalName;
+import com.example.holidayplanner.generated.model.HolidayBatchResponse;
+import com.example.holidayplanner.generated.model.HolidayQueryResult;
 import com.example.holidayplanner.generated.model.SharedHoliday;
+import com.example.holidayplanner.service.contract.HolidayBatchServiceContract;
 import com.example.holidayplanner.service.contract.HolidayServiceContract;
+import com.example.holidayplanner.service.contract.VersionedResult;
 import com.example.holidayplanner.validation.HolidayServiceValidator;
 import com.jayway.jsonpath.JsonPath;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -47,6 +66,9 @@ class HolidayControllerIntegrationTest {
     @Autowired
     private HolidayServiceValidator holidayServiceValidator;
 
+    @Autowired
+    private HolidayBatchServiceContract holidayBatchServiceContract;
+
     @TestConfiguration
     static class ContextConfiguration {
         @Bean
@@ -56,18 +78,23 @@ class HolidayControllerIntegrationTest {
 
         @Bean
         HolidayServiceValidator holidayServiceValidator() {return Mockito.mock(HolidayServiceValidator.class); }
+
+        @Bean
+        HolidayBatchServiceContract holidayBatchServiceContract() {
+            return Mockito.mock(HolidayBatchServiceContract.class);
+        }
     }
 
 
     @BeforeEach
     void resetMocks() {
-        Mockito.reset(holidayServiceContract);
+        Mockito.reset(holidayServiceContract, holidayBatchServiceContract);
     }
 
     @Test
     @DisplayName("with valid parameters returns holidays")
     void getLastNumberOfHolidays_ExceedsMaxLimit_ReturnsBadRequest() throws Exception {
-        when(holidayServiceContract.getLastNumberOfHolidays(anyString(), anyString()))
+        when(holidayServiceContract.getLastNumberOfHolidaysWithVersion(anyString(), anyString()))
                 .thenThrow(new com.example.holidayplanner.exception.InvalidParameterException("non-supported numberOfHolidays '20', must be between 1 and 12 inclusive"));
         mockMvc.perform(get("/api/holidays/last-number-of-holidays/NL")
                         .param("numberOfHolidays", "20") // Exceeds max limit of 12
@@ -82,6 +109,7 @@ class HolidayControllerIntegrationTest {
     @DisplayName("with valid parameters returns holidays")
     void getLastNumberOfHolidays_ExceedsMaxLimit_ReturnsOK() throws Exception {
         doNothing().when(holidayServiceValidator).validateCountryCodesAndDays(anySet(), anyString());
+        when(holidayServiceContract.getLastNumberOfHolidaysWithVersion(anyString(), anyString())).thenReturn(unversioned(Collections.emptyList()));
 
         mockMvc.perform(get("/api/holidays/last-number-of-holidays/NL")
                         .param("numberOfHolidays", "20") // Exceeds max limit of 12
@@ -95,6 +123,7 @@ class HolidayControllerIntegrationTest {
     @DisplayName("with valid country code returns ok")
     void getNonWeekendHolidayCounts_ValidCountryCodes_ReturnsBadRequest() throws Exception {
         doNothing().when(holidayServiceValidator).validateCountryCodesAndYear(anyString(), anySet());
+        when(holidayServiceContract.getNonWeekendHolidayCountsWithVersion(anyString(), anyString())).thenReturn(unversioned(Collections.emptyList()));
 
         mockMvc.perform(get("/api/holidays/non-weekend/2025")
                         .param("countryCodes", "NL") // Valid country code
@@ -107,7 +136,7 @@ class HolidayControllerIntegrationTest {
     @Test
     @DisplayName("with invalid country code returns bad request")
     void getNonWeekendHolidayCounts_InvalidCountryCodes_ReturnsBadRequest() throws Exception {
-        when(holidayServiceContract.getNonWeekendHolidayCounts(anyString(), anyString()))
+        when(holidayServiceContract.getNonWeekendHolidayCountsWithVersion(anyString(), anyString()))
                 .thenThrow(new com.example.holidayplanner.exception.InvalidParameterException("non ISO 3166-1 alpha-2 compliant country code(s) 'XYZ'"));
 
         mockMvc.perform(get("/api/holidays/non-weekend/2025")
@@ -124,7 +153,7 @@ class HolidayControllerIntegrationTest {
     void getSharedHolidays_InvalidYearFormat_ReturnsBadRequest() throws Exception {
         Mockito.doThrow(new com.example.holidayplanner.exception.InvalidParameterException("year 'invalidYear' is not a valid year, must be a number between 1975 and 2075 inclusive"))
                 .when(holidayServiceContract)
-                .getSharedHolidays(anyString(), anyString(), anyString());
+                .getSharedHolidaysWithVersion(anyString(), anyString(), anyString());
 
         mockMvc.perform(get("/api/holidays/shared/invalidYear/NL/FR")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -140,7 +169,7 @@ class HolidayControllerIntegrationTest {
     @Test
     @DisplayName("with invalid year 1800 returns bad request")
     void getNonWeekendHolidayCounts_InvalidYear_ReturnsBadRequest() throws Exception {
-        when(holidayServiceContract.getNonWeekendHolidayCounts(anyString(), anyString()))
+        when(holidayServiceContract.getNonWeekendHolidayCountsWithVersion(anyString(), anyString()))
                 .thenThrow(new com.example.holidayplanner.exception.InvalidParameterException("non-supported year '1800', must be between 1975 and 2075 inclusive"));
 
         mockMvc.perform(get("/api/holidays/non-weekend/1800?countryCodes=NL")
@@ -157,7 +186,7 @@ class HolidayControllerIntegrationTest {
         SharedHoliday[] sharedHolidays = new SharedHoliday[]{
                 new SharedHoliday("2025-01-01", "Nieuwjaarsdag", "Neujahr")
         };
-        when(holidayServiceContract.getSharedHolidays(anyString(), anyString(), anyString())).thenReturn(Arrays.asList(sharedHolidays));
+        when(holidayServiceContract.getSharedHolidaysWithVersion(anyString(), anyString(), anyString())).thenReturn(unversioned(Arrays.asList(sharedHolidays)));
 
         mockMvc.perform(get("/api/holidays/shared/2025/NL/DE")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -167,10 +196,26 @@ class HolidayControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].localNameCountry2").value("Neujahr"));
     }
 
+    @Test
+    @DisplayName("with several country codes returns holidays shared by all")
+    void getCommonHolidays_ValidInput_ReturnsCommonHolidays() throws Exception {
+        when(holidayServiceContract.getCommonHolidaysWithVersion(anyString(), anyString())).thenReturn(unversioned(List.of(
+                new CommonHoliday("2025-01-01", List.of(new CountryLocalName("NL", "Nieuwjaarsdag"),
+                        new CountryLocalName("DE", "Neujahr"), new CountryLocalName("FR", "Jour de l'an"))))));
+
+        mockMvc.perform(get("/api/holidays/shared/2025")
+                        .param("countryCodes", "NL,DE,FR")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].date").value("2025-01-01"))
+                .andExpect(jsonPath("$[0].localNames.length()").value(3))
+                .andExpect(jsonPath("$[0].localNames[2].countryCode").value("FR"));
+    }
+
     @Test
     @DisplayName("with invalid country code returns bad request")
     void getSharedHolidays_InvalidCountry_ReturnsBadRequest() throws Exception {
-        when(holidayServiceContract.getSharedHolidays(anyString(), anyString(), anyString()))
+        when(holidayServiceContract.getSharedHolidaysWithVersion(anyString(), anyString(), anyString()))
                 .thenThrow(new com.example.holidayplanner.exception.InvalidParameterException("non ISO 3166-1 alpha-2 compliant country code(s) 'XX'"));
 
         mockMvc.perform(get("/api/holidays/shared/2025/XX/GB")
@@ -186,7 +231,7 @@ class HolidayControllerIntegrationTest {
     void getSharedHolidays_NoResourceFoundException() throws Exception {
         doAnswer(invocation -> {
             throw new NoResourceFoundException(HttpMethod.GET, "/invalid/path");
-        }).when(holidayServiceContract).getSharedHolidays(anyString(), anyString(), anyString());
+        }).when(holidayServiceContract).getSharedHolidaysWithVersion(anyString(), anyString(), anyString());
 
         mockMvc.perform(get("/api/holidays/shared1/2025/XX/GB")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -199,7 +244,7 @@ class HolidayControllerIntegrationTest {
     @Test
     @DisplayName("when no shared holidays returns empty list")
     void getSharedHolidays_NoSharedHolidays_ReturnsEmptyList() throws Exception {
-        when(holidayServiceContract.getSharedHolidays(anyString(), anyString(), anyString())).thenReturn(Collections.emptyList());
+        when(holidayServiceContract.getSharedHolidaysWithVersion(anyString(), anyString(), anyString())).thenReturn(unversioned(Collections.emptyList()));
 
         mockMvc.perform(get("/api/holidays/shared/2025/NL/FR")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -208,6 +253,94 @@ class HolidayControllerIntegrationTest {
                 .andExpect(jsonPath("$.length()").value(0));
     }
 
+    @Test
+    @DisplayName("with If-None-Match of the cached version returns not modified without computing the holidays")
+    void getSharedHolidays_MatchingETag_ReturnsNotModified() throws Exception {
+        when(holidayServiceContract.getSharedHolidaysVersion("2025", "NL", "DE")).thenReturn(OptionalLong.of(0xabcL));
+
+        mockMvc.perform(get("/api/holidays/shared/2025/NL/DE")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\"")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().string(""));
+        verify(holidayServiceContract, never()).getSharedHolidaysWithVersion(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("with past year returns ETag and long-lived Cache-Control")
+    void getNonWeekendHolidayCounts_PastYear_ReturnsETagAndLongMaxAge() throws Exception {
+        doNothing().when(holidayServiceValidator).validateCountryCodesAndYear(anyString(), anySet());
+        when(holidayServiceContract.getNonWeekendHolidayCountsVersion("2020", "NL")).thenReturn(OptionalLong.of(0x1234L));
+        when(holidayServiceContract.getNonWeekendHolidayCountsWithVersion("2020", "NL")).thenReturn(new VersionedResult<>(Collections.emptyList(), OptionalLong.of(0x1234L)));
+
+        mockMvc.perform(get("/api/holidays/non-weekend/2020")
+                        .param("countryCodes", "NL")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"5678\"")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1234\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=604800, public"));
+    }
+
+    @Test
+    @DisplayName("last holidays expire at local midnight at the latest")
+    void getLastNumberOfHolidays_CacheControl_ExpiresByMidnight() throws Exception {
+        when(holidayServiceContract.getLastNumberOfHolidaysWithVersion(anyString(), anyString())).thenReturn(unversioned(Collections.emptyList()));
+
+        String cacheControl = mockMvc.perform(get("/api/holidays/last-number-of-holidays/NL")
+                        .param("numberOfHolidays", "3")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.CACHE_CONTROL);
+
+        long maxAge = Long.parseLong(cacheControl.replaceAll("max-age=(\\d+).*", "$1"));
+        assertTrue(maxAge <= 3600 && maxAge <= Duration.between(LocalTime.now(), LocalTime.MAX).getSeconds() + 1, cacheControl);
+        // without If-None-Match the version comes with the result only
+        verify(holidayServiceContract, never()).getLastNumberOfHolidaysVersion(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("batch returns the result of each query without client caching")
+    void getHolidayBatch_ValidQueries_ReturnsResultPerQuery() throws Exception {
+        HolidayBatchResponse batchResponse = new HolidayBatchResponse().results(List.of(
+                new HolidayQueryResult().id("shared").type("SHARED_HOLIDAYS").status(200)
+                        .sharedHolidays(List.of(new SharedHoliday("2025-12-25", "Eerste Kerstdag", "Erster Weihnachtstag"))),
+                new HolidayQueryResult().id("invalid").type("NON_WEEKEND_HOLIDAY_COUNTS").status(400)));
+        when(holidayBatchServiceContract.getHolidayBatch(any(), eq("uri=/api/holidays/batch"))).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/api/holidays/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"queries": [
+                                  {"id": "shared", "type": "SHARED_HOLIDAYS", "year": "2025", "countryCodes": "NL,DE"},
+                                  {"id": "invalid", "type": "NON_WEEKEND_HOLIDAY_COUNTS", "year": "2025", "countryCodes": "XYZ"}
+                                ]}"""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0].sharedHolidays[0].date").value("2025-12-25"))
+                .andExpect(jsonPath("$.results[1].status").value(400));
+    }
+
+    @Test
+    @DisplayName("batch without queries or with an unknown query type returns bad request")
+    void getHolidayBatch_MalformedRequest_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/holidays/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+
+        mockMvc.perform(post("/api/holidays/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"queries\": [{\"type\": \"UNKNOWN\"}]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Bad Request"));
+
+        verify(holidayBatchServiceContract, never()).getHolidayBatch(any(), any());
+    }
+
     @Test
     @DisplayName("health endpoint returns UP status")
     void getHealthEndpoint_ReturnsUpStatus() throws Exception {
@@ -217,4 +350,7 @@ class HolidayControllerIntegrationTest {
                 .andExpect(jsonPath("$.status").value("UP"));
     }
 
-}
\ No newline at end of file
+    private static <T> VersionedResult<T> unversioned(T result) {
+        return new VersionedResult<>(result, OptionalLong.empty());
+    }
+}
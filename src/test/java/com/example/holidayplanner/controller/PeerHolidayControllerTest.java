@@ -0,0 +1,73 @@
+package com.example.holidayplanner.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Set;
+
+import com.example.holidayplanner.cache.CachedHolidays;
+import com.example.holidayplanner.cache.HolidayCacheKey;
+import com.example.holidayplanner.cache.HolidayCalendar;
+import com.example.holidayplanner.cache.HolidaySnapshotFile;
+import com.example.holidayplanner.cluster.PeerHolidayCache;
+import com.example.holidayplanner.exception.InvalidParameterException;
+import com.example.holidayplanner.generated.model.Holiday;
+import com.example.holidayplanner.service.NagerDateApiService;
+import com.example.holidayplanner.validation.contract.HolidayServiceValidatorContract;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PeerHolidayControllerTest {
+
+    private NagerDateApiService nagerDateApiService;
+    private PeerHolidayCache peerHolidayCache;
+    private HolidayServiceValidatorContract holidayServiceValidator;
+    private PeerHolidayController peerHolidayController;
+
+    @BeforeEach
+    void setUp() {
+        nagerDateApiService = mock(NagerDateApiService.class);
+        peerHolidayCache = mock(PeerHolidayCache.class);
+        holidayServiceValidator = mock(HolidayServiceValidatorContract.class);
+        peerHolidayController = new PeerHolidayController(nagerDateApiService, peerHolidayCache, holidayServiceValidator);
+        when(peerHolidayCache.isAuthorized("cluster-secret")).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Test getHolidays - peer with the shared secret gets the holidays of a valid key")
+    void getHolidays_AuthorizedValidKey_ReturnsHolidays() {
+        CachedHolidays holidays = CachedHolidays.of(HolidayCalendar.of(List.of(new Holiday("2025-01-01", "Nieuwjaarsdag"))));
+        when(nagerDateApiService.fetchHolidaysForPeer(new HolidayCacheKey(2025, "NL"))).thenReturn(holidays);
+
+        ResponseEntity<byte[]> response = peerHolidayController.getHolidays("cluster-secret", 2025, "nl");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(holidays, HolidaySnapshotFile.decodeHolidays(response.getBody()));
+        verify(holidayServiceValidator).validateCountryCodesAndYear("2025", Set.of("NL"));
+    }
+
+    @Test
+    @DisplayName("Test getHolidays - requests without the shared secret are forbidden and load nothing")
+    void getHolidays_WrongSecret_ReturnsForbidden() {
+        ResponseEntity<byte[]> response = peerHolidayController.getHolidays("guess", 2025, "NL");
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verifyNoInteractions(nagerDateApiService, holidayServiceValidator);
+    }
+
+    @Test
+    @DisplayName("Test getHolidays - keys outside the supported years or countries are rejected before loading")
+    void getHolidays_InvalidKey_ThrowsInvalidParameterException() {
+        doThrow(new InvalidParameterException("non-supported year '1800', must be between 1975 and 2075 inclusive"))
+                .when(holidayServiceValidator).validateCountryCodesAndYear("1800", Set.of("NL"));
+
+        assertThrows(InvalidParameterException.class, () -> peerHolidayController.getHolidays("cluster-secret", 1800, "NL"));
+        verify(nagerDateApiService, never()).fetchHolidaysForPeer(any());
+    }
+}
@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -28,7 +30,7 @@ class GlobalExceptionHandlerTest {
 
     @BeforeEach
     void setUp() {
-        globalExceptionHandler = new GlobalExceptionHandler();
+        globalExceptionHandler = new GlobalExceptionHandler(new ErrorResponseFactory("https://date.nager.at/api/v3/AvailableCountries"));
         webRequest = mock(WebRequest.class);
         when(webRequest.getDescription(false)).thenReturn("Mocked request description");
     }
@@ -70,6 +72,21 @@ class GlobalExceptionHandlerTest {
         Assertions.assertTrue(response.getBody().getMessage().startsWith("I/O error occurred - possible network issue or north bound nagar date service might be down, please check this URL from web browser"));
     }
 
+    @Test
+    @DisplayName("Test handleCallNotPermittedException returns SERVICE_UNAVAILABLE")
+    void handleCallNotPermittedException_ShouldReturnServiceUnavailable() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("nagerDateApi");
+        circuitBreaker.transitionToOpenState();
+        CallNotPermittedException exception = CallNotPermittedException.createCallNotPermittedException(circuitBreaker);
+
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleCallNotPermittedException(exception, webRequest);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        String errorMessage = response.getBody() != null ? response.getBody().getError() : "wrong message";
+        assertEquals("Service Unavailable", errorMessage);
+        Assertions.assertTrue(response.getBody().getMessage().startsWith("CircuitBreaker 'nagerDateApi' is OPEN"));
+    }
+
     @Test
     @DisplayName("Test handleGlobalException returns INTERNAL_SERVER_ERROR")
     void handleGlobalException_ShouldReturnInternalServerError() {
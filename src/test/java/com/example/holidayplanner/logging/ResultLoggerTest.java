@@ -0,0 +1,57 @@
+package com.example.holidayplanner.logging;
+
+import com.example.holidayplanner.generated.model.Holiday;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(OutputCaptureExtension.class)
+class ResultLoggerTest {
+
+    private final List<Holiday> holidays = List.of(
+            new Holiday("2025-12-25", "Eerste Kerstdag"),
+            new Holiday("2025-12-26", "Tweede Kerstdag"));
+
+    @Test
+    @DisplayName("Test log - sampled request logs results as JSON array")
+    void log_Sampled_LogsResultsAsJson(CapturedOutput output) {
+        ResultLogger resultLogger = new ResultLogger(new ObjectMapper(), 1.0, 2000);
+
+        resultLogger.log("last {} holidays for country code '{}' are: {}", holidays, "2", "NL");
+
+        assertTrue(output.getOut().contains("last 2 holidays for country code 'NL' are: [{\"date\":\"2025-12-25\",\"localName\":\"Eerste Kerstdag\"},"
+                + "{\"date\":\"2025-12-26\",\"localName\":\"Tweede Kerstdag\"}]"), output.getOut());
+    }
+
+    @Test
+    @DisplayName("Test log - request not sampled never serializes results")
+    void log_NotSampled_NoSerialization(CapturedOutput output) {
+        ObjectMapper objectMapper = mock(ObjectMapper.class);
+        ResultLogger resultLogger = new ResultLogger(objectMapper, 0.0, 2000);
+
+        resultLogger.log("last {} holidays for country code '{}' are: {}", holidays, "2", "NL");
+
+        verifyNoInteractions(objectMapper);
+        assertFalse(output.getOut().contains("last 2 holidays"));
+    }
+
+    @Test
+    @DisplayName("Test log - results longer than the maximum length are cut off")
+    void log_LongResults_Truncated(CapturedOutput output) {
+        ResultLogger resultLogger = new ResultLogger(new ObjectMapper(), 1.0, 20);
+
+        resultLogger.log("holidays are: {}", holidays);
+
+        assertTrue(output.getOut().contains("holidays are: [{\"date\":\"2025-12-25..."), output.getOut());
+        assertFalse(output.getOut().contains("Tweede Kerstdag"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.holidayplanner.provider;
+
+import com.example.holidayplanner.generated.model.Holiday;
+import com.example.holidayplanner.model.AvailableCountry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileHolidayDataProviderTest {
+
+    @TempDir
+    private Path datasetDirectory;
+
+    private FileHolidayDataProvider fileHolidayDataProvider;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(datasetDirectory.resolve("2025_NL.json"), """
+                [{"date":"2025-04-18","localName":"Goede Vrijdag","name":"Good Friday","countryCode":"NL"},
+                 {"date":"2025-12-25","localName":"Eerste Kerstdag","name":"Christmas Day","countryCode":"NL"}]
+                """);
+        Files.writeString(datasetDirectory.resolve("2025_de.csv"), """
+                date,localName
+                2025-10-03,Tag der Deutschen Einheit
+                """);
+        Files.writeString(datasetDirectory.resolve("countries.csv"), """
+                countryCode,name
+                NL,Netherlands
+                DE,Germany
+                """);
+        Files.writeString(datasetDirectory.resolve("README.txt"), "not a dataset file");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (fileHolidayDataProvider != null) {
+            fileHolidayDataProvider.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Test start - JSON and CSV files are indexed by year and upper case country code")
+    void start_DatasetFiles_IndexesHolidaysAndCountries() throws IOException {
+        fileHolidayDataProvider = startProvider(false);
+
+        assertEquals(List.of(new Holiday("2025-04-18", "Goede Vrijdag"), new Holiday("2025-12-25", "Eerste Kerstdag")),
+                fileHolidayDataProvider.findHolidays(2025, "NL").orElseThrow().toHolidays());
+        assertEquals(List.of(new Holiday("2025-10-03", "Tag der Deutschen Einheit")),
+                fileHolidayDataProvider.findHolidays(2025, "DE").orElseThrow().toHolidays());
+        assertEquals(Set.of("NL", "DE"), fileHolidayDataProvider.findAvailableCountries().orElseThrow().stream()
+                .map(AvailableCountry::getCountryCode).collect(Collectors.toSet()));
+        assertTrue(fileHolidayDataProvider.findHolidays(2024, "NL").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test start - file with invalid dates is skipped")
+    void start_InvalidFile_SkipsFile() throws IOException {
+        Files.writeString(datasetDirectory.resolve("2025_BE.csv"), "18-04-2025,Goede Vrijdag\n");
+
+        fileHolidayDataProvider = startProvider(false);
+
+        assertTrue(fileHolidayDataProvider.findHolidays(2025, "BE").isEmpty());
+        assertTrue(fileHolidayDataProvider.findHolidays(2025, "NL").isPresent());
+    }
+
+    @Test
+    @DisplayName("Test reindex - deleted files are dropped and changed files reloaded")
+    void reindex_ChangedDirectory_UpdatesIndex() throws IOException {
+        fileHolidayDataProvider = startProvider(false);
+        Files.delete(datasetDirectory.resolve("2025_de.csv"));
+        Files.delete(datasetDirectory.resolve("countries.csv"));
+        Files.writeString(datasetDirectory.resolve("2025_NL.csv"), "2025-05-05,Bevrijdingsdag\n");
+        Files.delete(datasetDirectory.resolve("2025_NL.json"));
+
+        fileHolidayDataProvider.reindex();
+
+        assertTrue(fileHolidayDataProvider.findHolidays(2025, "DE").isEmpty());
+        assertTrue(fileHolidayDataProvider.findAvailableCountries().isEmpty());
+        assertEquals(List.of(new Holiday("2025-05-05", "Bevrijdingsdag")), fileHolidayDataProvider.findHolidays(2025, "NL").orElseThrow().toHolidays());
+    }
+
+    @Test
+    @DisplayName("Test watch - new and deleted files are picked up without restart")
+    void watch_FileCreatedAndDeleted_UpdatesIndex() throws IOException, InterruptedException {
+        fileHolidayDataProvider = startProvider(true);
+
+        Files.writeString(datasetDirectory.resolve("2025_BE.csv"), "2025-07-21,Nationale feestdag\n");
+        assertEventually(() -> fileHolidayDataProvider.findHolidays(2025, "BE"), Optional::isPresent);
+
+        Files.delete(datasetDirectory.resolve("2025_BE.csv"));
+        assertEventually(() -> fileHolidayDataProvider.findHolidays(2025, "BE"), Optional::isEmpty);
+    }
+
+    private FileHolidayDataProvider startProvider(boolean watchEnabled) throws IOException {
+        FileHolidayDataProvider provider = new FileHolidayDataProvider(datasetDirectory, watchEnabled, Jackson2ObjectMapperBuilder.json().build());
+        provider.start();
+        return provider;
+    }
+
+    private static <T> void assertEventually(Supplier<T> actual, Predicate<T> condition) throws InterruptedException {
+        // polling watch services may take several seconds to report changes
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (!condition.test(actual.get())) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(50);
+        }
+    }
+}
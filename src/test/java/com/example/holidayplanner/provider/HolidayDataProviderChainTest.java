@@ -0,0 +1,96 @@
+package com.example.holidayplanner.provider;
+
+import com.example.holidayplanner.cache.HolidayCalendar;
+import com.example.holidayplanner.exception.InvalidParameterException;
+import com.example.holidayplanner.generated.model.Holiday;
+import com.example.holidayplanner.model.AvailableCountry;
+import com.example.holidayplanner.provider.contract.HolidayDataProvider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HolidayDataProviderChainTest {
+
+    @Mock
+    private HolidayDataProvider fileProvider;
+
+    @Mock
+    private HolidayDataProvider upstreamProvider;
+
+    private HolidayDataProviderChain holidayDataProviderChain;
+
+    @BeforeEach
+    void setUp() {
+        holidayDataProviderChain = new HolidayDataProviderChain(List.of(fileProvider, upstreamProvider));
+    }
+
+    @Test
+    @DisplayName("Test fetchHolidays - first provider having holidays answers, later providers are not asked")
+    void fetchHolidays_FirstProviderHasData_ReturnsItsHolidays() {
+        HolidayCalendar holidays = HolidayCalendar.of(List.of(new Holiday("2025-04-18", "Goede Vrijdag")));
+        when(fileProvider.findHolidays(2025, "NL")).thenReturn(Optional.of(holidays));
+
+        assertEquals(holidays, holidayDataProviderChain.fetchHolidays(2025, "NL"));
+        verifyNoInteractions(upstreamProvider);
+    }
+
+    @Test
+    @DisplayName("Test fetchHolidays - missing holidays fall through to the next provider")
+    void fetchHolidays_FirstProviderEmpty_AsksNextProvider() {
+        HolidayCalendar holidays = HolidayCalendar.of(List.of(new Holiday("2025-10-03", "Tag der Deutschen Einheit")));
+        when(fileProvider.findHolidays(2025, "DE")).thenReturn(Optional.empty());
+        when(upstreamProvider.findHolidays(2025, "DE")).thenReturn(Optional.of(holidays));
+
+        assertEquals(holidays, holidayDataProviderChain.fetchHolidays(2025, "DE"));
+    }
+
+    @Test
+    @DisplayName("Test fetchHolidays and getAvailableCountries - no provider having data throws InvalidParameterException")
+    void fetchHolidays_NoProviderHasData_ThrowsInvalidParameterException() {
+        when(fileProvider.findHolidays(2025, "BE")).thenReturn(Optional.empty());
+        when(upstreamProvider.findHolidays(2025, "BE")).thenReturn(Optional.empty());
+        when(fileProvider.findAvailableCountries()).thenReturn(Optional.empty());
+        when(upstreamProvider.findAvailableCountries()).thenReturn(Optional.empty());
+
+        InvalidParameterException exception = assertThrows(InvalidParameterException.class,
+                () -> holidayDataProviderChain.fetchHolidays(2025, "BE"));
+        assertEquals("No holidays found for country: BE in year: 2025", exception.getMessage());
+        assertThrows(InvalidParameterException.class, () -> holidayDataProviderChain.getAvailableCountries());
+    }
+
+    @Test
+    @DisplayName("Test peekHolidays - holidays are only peeked at, nothing is loaded and missing holidays are empty")
+    void peekHolidays_NotHeldByAnyProvider_ReturnsEmptyWithoutLoading() {
+        HolidayCalendar holidays = HolidayCalendar.of(List.of(new Holiday("2025-10-03", "Tag der Deutschen Einheit")));
+        when(fileProvider.peekHolidays(anyInt(), anyString())).thenReturn(Optional.empty());
+        when(upstreamProvider.peekHolidays(2025, "DE")).thenReturn(Optional.of(holidays));
+        when(upstreamProvider.peekHolidays(2025, "BE")).thenReturn(Optional.empty());
+
+        assertEquals(Optional.of(holidays), holidayDataProviderChain.peekHolidays(2025, "DE"));
+        assertEquals(Optional.empty(), holidayDataProviderChain.peekHolidays(2025, "BE"));
+        verify(fileProvider, never()).findHolidays(anyInt(), anyString());
+        verify(upstreamProvider, never()).findHolidays(anyInt(), anyString());
+    }
+
+    @Test
+    @DisplayName("Test getAvailableCountries - first provider having countries answers")
+    void getAvailableCountries_SecondProviderHasData_ReturnsItsCountries() {
+        Set<AvailableCountry> countries = Set.of(new AvailableCountry());
+        when(fileProvider.findAvailableCountries()).thenReturn(Optional.empty());
+        when(upstreamProvider.findAvailableCountries()).thenReturn(Optional.of(countries));
+
+        assertEquals(countries, holidayDataProviderChain.getAvailableCountries());
+    }
+}
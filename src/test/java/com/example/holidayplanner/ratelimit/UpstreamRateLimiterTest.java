@@ -0,0 +1,116 @@
+package com.example.holidayplanner.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamRateLimiterTest {
+
+    private MockEnvironment environment;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment();
+        environment.setConversionService(new ApplicationConversionService());
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Test acquire - permits of the burst are taken without waiting, the next one waits for the refill")
+    void acquire_BurstUsed_WaitsForRefill() {
+        environment.withProperty("nager.date.api.rate-limit.interactive.rate", "20")
+                .withProperty("nager.date.api.rate-limit.interactive.burst", "2");
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(environment, meterRegistry);
+
+        long startNanos = System.nanoTime();
+        rateLimiter.acquire(UpstreamPriority.INTERACTIVE);
+        rateLimiter.acquire(UpstreamPriority.INTERACTIVE);
+        rateLimiter.acquire(UpstreamPriority.INTERACTIVE);
+
+        // the third permit is refilled after 1/20 second
+        assertTrue(System.nanoTime() - startNanos >= TimeUnit.MILLISECONDS.toNanos(40));
+        assertEquals(3, meterRegistry.get("nager.api.ratelimit.wait").tag("lane", "interactive").timer().count());
+    }
+
+    @Test
+    @DisplayName("Test acquire - caller failing to get a permit within max wait is rejected")
+    void acquire_MaxWaitPassed_ThrowsRateLimitExceededException() {
+        environment.withProperty("nager.date.api.rate-limit.background.rate", "0.01")
+                .withProperty("nager.date.api.rate-limit.background.max-wait", "50ms");
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(environment, meterRegistry);
+        rateLimiter.acquire(UpstreamPriority.BACKGROUND);
+
+        assertThrows(RateLimitExceededException.class, () -> rateLimiter.acquire(UpstreamPriority.BACKGROUND));
+        assertEquals(1, meterRegistry.get("nager.api.ratelimit.rejections").tag("lane", "background").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test acquire - caller beyond the queue capacity is rejected right away")
+    void acquire_QueueFull_ThrowsRateLimitExceededException() {
+        environment.withProperty("nager.date.api.rate-limit.interactive.rate", "0.01")
+                .withProperty("nager.date.api.rate-limit.interactive.queue-capacity", "0");
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(environment, meterRegistry);
+        rateLimiter.acquire(UpstreamPriority.INTERACTIVE);
+
+        long startNanos = System.nanoTime();
+        assertThrows(RateLimitExceededException.class, () -> rateLimiter.acquire(UpstreamPriority.INTERACTIVE));
+        assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    @DisplayName("Test acquire - background caller yields its permit while an interactive caller is waiting")
+    void acquire_InteractiveWaiting_BackgroundYields() throws Exception {
+        environment.withProperty("nager.date.api.rate-limit.interactive.rate", "2")
+                .withProperty("nager.date.api.rate-limit.interactive.burst", "1")
+                .withProperty("nager.date.api.rate-limit.background.max-wait", "100ms");
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(environment, meterRegistry);
+        rateLimiter.acquire(UpstreamPriority.INTERACTIVE);
+        CompletableFuture<Void> interactive = CompletableFuture.runAsync(() -> rateLimiter.acquire(UpstreamPriority.INTERACTIVE));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (rateLimiter.getQueueDepth(UpstreamPriority.INTERACTIVE) == 0 && !interactive.isDone()) {
+            assertTrue(System.nanoTime() < deadline, "interactive caller not waiting in time");
+            Thread.sleep(1);
+        }
+
+        // the interactive caller waits about 500 ms for its refill, longer than the background max wait
+        assertThrows(RateLimitExceededException.class, () -> rateLimiter.acquire(UpstreamPriority.BACKGROUND));
+        interactive.get(5, TimeUnit.SECONDS);
+        rateLimiter.acquire(UpstreamPriority.BACKGROUND);
+        assertEquals(0, rateLimiter.getQueueDepth(UpstreamPriority.INTERACTIVE));
+    }
+
+    @Test
+    @DisplayName("Test acquire - disabled limiter never waits")
+    void acquire_Disabled_NeverWaits() {
+        environment.withProperty("nager.date.api.rate-limit.enabled", "false")
+                .withProperty("nager.date.api.rate-limit.interactive.rate", "0.01")
+                .withProperty("nager.date.api.rate-limit.interactive.queue-capacity", "0");
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(environment, meterRegistry);
+
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.acquire(UpstreamPriority.INTERACTIVE);
+        }
+        assertEquals(0, meterRegistry.get("nager.api.ratelimit.rejections").tag("lane", "interactive").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test acquire - calls use the priority of the current thread")
+    void acquire_BackgroundThread_UsesBackgroundLane() {
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(environment, meterRegistry);
+
+        UpstreamPriority.runAs(UpstreamPriority.BACKGROUND, rateLimiter::acquire);
+
+        assertEquals(1, meterRegistry.get("nager.api.ratelimit.wait").tag("lane", "background").timer().count());
+        assertEquals(UpstreamPriority.INTERACTIVE, UpstreamPriority.current());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.holidayplanner.service;
+
+import com.example.holidayplanner.model.AvailableCountry;
+import com.example.holidayplanner.ratelimit.UpstreamPriority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailableCountriesRefresherTest {
+
+    private static final String BUNDLED_COUNTRIES = "[{\"countryCode\":\"NL\",\"name\":\"Netherlands\"}]";
+
+    @Mock
+    private NagerDateApiService nagerDateApiService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Test getAvailableCountries - bundled countries are served before the first refresh")
+    void getAvailableCountries_NotRefreshed_ReturnsBundledCountries() {
+        AvailableCountriesRefresher refresher = refresher(true);
+
+        assertEquals(Set.of("NL"), countryCodesOf(refresher.getAvailableCountries()));
+        verifyNoInteractions(nagerDateApiService);
+    }
+
+    @Test
+    @DisplayName("Test getAvailableCountries - the application ships a bundled country list")
+    void getAvailableCountries_ApplicationBundle_ContainsNagerCountries() {
+        AvailableCountriesRefresher refresher = new AvailableCountriesRefresher(nagerDateApiService, new ObjectMapper(),
+                new ClassPathResource("available-countries.json"), true, true, meterRegistry);
+
+        assertTrue(countryCodesOf(refresher.getAvailableCountries()).containsAll(Set.of("NL", "DE", "FR", "US")));
+    }
+
+    @Test
+    @DisplayName("Test refresh - refreshed countries replace the known list, loaded as background call")
+    void refresh_Success_ReplacesCountries() {
+        AtomicReference<UpstreamPriority> priority = new AtomicReference<>();
+        when(nagerDateApiService.reloadAvailableCountries()).thenAnswer(invocation -> {
+            priority.set(UpstreamPriority.current());
+            return Set.of(availableCountry("DE"), availableCountry("FR"));
+        });
+        AvailableCountriesRefresher refresher = refresher(true);
+
+        refresher.refresh();
+
+        assertEquals(Set.of("DE", "FR"), countryCodesOf(refresher.getAvailableCountries()));
+        assertEquals(UpstreamPriority.BACKGROUND, priority.get());
+        assertEquals(1, meterRegistry.get("holiday.available.countries.refreshes").tag("result", "success").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test refresh - failed refresh keeps the known list in fail-open mode")
+    void refresh_FailureFailOpen_KeepsCountries() {
+        when(nagerDateApiService.reloadAvailableCountries())
+                .thenReturn(Set.of(availableCountry("DE")))
+                .thenThrow(new ResourceAccessException("I/O error: Connection refused"));
+        AvailableCountriesRefresher refresher = refresher(true);
+
+        refresher.refresh();
+        refresher.refresh();
+
+        assertEquals(Set.of("DE"), countryCodesOf(refresher.getAvailableCountries()));
+        assertEquals(1, meterRegistry.get("holiday.available.countries.refreshes").tag("result", "failure").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test refresh - failed refresh fails validation until refreshed in fail-closed mode")
+    void refresh_FailureFailClosed_ThrowsUntilRefreshed() {
+        when(nagerDateApiService.reloadAvailableCountries())
+                .thenThrow(new ResourceAccessException("I/O error: Connection refused"))
+                .thenReturn(Set.of(availableCountry("DE")));
+        AvailableCountriesRefresher refresher = refresher(false);
+
+        refresher.refresh();
+        assertThrows(ResourceAccessException.class, refresher::getAvailableCountries);
+
+        refresher.refresh();
+        assertEquals(Set.of("DE"), countryCodesOf(refresher.getAvailableCountries()));
+    }
+
+    @Test
+    @DisplayName("Test refresh - empty answer before any successful refresh serves the countries restored from the snapshot")
+    void refresh_EmptyAnswer_ServesCachedCountries() {
+        when(nagerDateApiService.reloadAvailableCountries()).thenReturn(Set.of());
+        when(nagerDateApiService.getCachedAvailableCountries()).thenReturn(Optional.of(Set.of(availableCountry("BE"))));
+        AvailableCountriesRefresher refresher = refresher(true);
+
+        refresher.refresh();
+
+        assertEquals(Set.of("BE"), countryCodesOf(refresher.getAvailableCountries()));
+    }
+
+    @Test
+    @DisplayName("Test refresh - disabled refresh never calls Nager Date API")
+    void refresh_Disabled_NoUpstreamCall() {
+        AvailableCountriesRefresher refresher = new AvailableCountriesRefresher(nagerDateApiService, new ObjectMapper(),
+                new ByteArrayResource(BUNDLED_COUNTRIES.getBytes(StandardCharsets.UTF_8)), false, true, meterRegistry);
+
+        refresher.refresh();
+
+        verifyNoInteractions(nagerDateApiService);
+        assertEquals(Set.of("NL"), countryCodesOf(refresher.getAvailableCountries()));
+    }
+
+    private AvailableCountriesRefresher refresher(boolean failOpen) {
+        return new AvailableCountriesRefresher(nagerDateApiService, new ObjectMapper(),
+                new ByteArrayResource(BUNDLED_COUNTRIES.getBytes(StandardCharsets.UTF_8)), true, failOpen, meterRegistry);
+    }
+
+    private static AvailableCountry availableCountry(String countryCode) {
+        AvailableCountry availableCountry = new AvailableCountry();
+        availableCountry.setCountryCode(countryCode);
+        return availableCountry;
+    }
+
+    private static Set<String> countryCodesOf(Set<AvailableCountry> availableCountries) {
+        return availableCountries.stream().map(AvailableCountry::getCountryCode).collect(Collectors.toSet());
+    }
+}
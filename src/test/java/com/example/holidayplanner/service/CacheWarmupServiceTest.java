@@ -0,0 +1,101 @@
+package com.example.holidayplanner.service;
+
+import com.example.holidayplanner.cache.HolidayCacheKey;
+import com.example.holidayplanner.cache.HotKeyTracker;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmupServiceTest {
+
+    private static final HolidayCacheKey NL_2025 = new HolidayCacheKey(2025, "NL");
+    private static final HolidayCacheKey DE_2025 = new HolidayCacheKey(2025, "DE");
+
+    @Mock
+    private NagerDateApiService nagerDateApiService;
+
+    @Mock
+    private HotKeyTracker hotKeyTracker;
+
+    @Test
+    @DisplayName("Test warmUp - available countries and hot keys are loaded and health turns UP")
+    void warmUp_HotKeys_LoadsAllKeys() {
+        when(hotKeyTracker.topKeys(10)).thenReturn(List.of(NL_2025, DE_2025));
+        CacheWarmupService warmupService = new CacheWarmupService(nagerDateApiService, hotKeyTracker, true, 10, 2, Duration.ofSeconds(5));
+        CacheWarmupHealthIndicator healthIndicator = new CacheWarmupHealthIndicator(warmupService);
+
+        assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+
+        warmupService.warmUp();
+
+        verify(nagerDateApiService).getAvailableCountries();
+        verify(nagerDateApiService).prefetchHolidays(NL_2025);
+        verify(nagerDateApiService).prefetchHolidays(DE_2025);
+        assertEquals(CacheWarmupService.State.COMPLETED, warmupService.getState());
+        assertEquals(3, warmupService.getLoadedKeys());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        assertEquals(3, healthIndicator.health().getDetails().get("totalKeys"));
+    }
+
+    @Test
+    @DisplayName("Test warmUp - failing keys are counted and do not stop warmup")
+    void warmUp_UpstreamFailure_CountsFailedKeys() {
+        when(hotKeyTracker.topKeys(10)).thenReturn(List.of(NL_2025, DE_2025));
+        doAnswer(invocation -> {
+            if (NL_2025.equals(invocation.getArgument(0))) {
+                throw new ResourceAccessException("I/O error");
+            }
+            return null;
+        }).when(nagerDateApiService).prefetchHolidays(any());
+        CacheWarmupService warmupService = new CacheWarmupService(nagerDateApiService, hotKeyTracker, true, 10, 2, Duration.ofSeconds(5));
+
+        warmupService.warmUp();
+
+        assertEquals(CacheWarmupService.State.COMPLETED, warmupService.getState());
+        assertEquals(2, warmupService.getLoadedKeys());
+        assertEquals(1, warmupService.getFailedKeys());
+    }
+
+    @Test
+    @DisplayName("Test warmUp - hanging upstream times out warmup and health turns UP")
+    void warmUp_SlowUpstream_TimesOut() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(hotKeyTracker.topKeys(10)).thenReturn(List.of(NL_2025));
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(nagerDateApiService).prefetchHolidays(NL_2025);
+        CacheWarmupService warmupService = new CacheWarmupService(nagerDateApiService, hotKeyTracker, true, 10, 2, Duration.ofMillis(200));
+
+        warmupService.warmUp();
+        release.countDown();
+
+        assertEquals(CacheWarmupService.State.TIMED_OUT, warmupService.getState());
+        assertEquals(Status.UP, new CacheWarmupHealthIndicator(warmupService).health().getStatus());
+    }
+
+    @Test
+    @DisplayName("Test startWarmup - disabled warmup loads nothing and reports UP")
+    void startWarmup_Disabled_DoesNothing() {
+        CacheWarmupService warmupService = new CacheWarmupService(nagerDateApiService, hotKeyTracker, false, 10, 2, Duration.ofSeconds(5));
+
+        warmupService.startWarmup();
+
+        verifyNoInteractions(nagerDateApiService, hotKeyTracker);
+        assertEquals(Status.UP, new CacheWarmupHealthIndicator(warmupService).health().getStatus());
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.holidayplanner.service;
+
+import com.example.holidayplanner.cache.HolidayCacheKey;
+import com.example.holidayplanner.exception.ErrorResponseFactory;
+import com.example.holidayplanner.exception.InvalidParameterException;
+import com.example.holidayplanner.generated.model.CountryHolidayCount;
+import com.example.holidayplanner.generated.model.Holiday;
+import com.example.holidayplanner.generated.model.HolidayBatchRequest;
+import com.example.holidayplanner.generated.model.HolidayBatchResponse;
+import com.example.holidayplanner.generated.model.HolidayQuery;
+import com.example.holidayplanner.generated.model.HolidayQueryResult;
+import com.example.holidayplanner.generated.model.SharedHoliday;
+import com.example.holidayplanner.service.contract.VersionedResult;
+import com.example.holidayplanner.validation.contract.HolidayServiceValidatorContract;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HolidayBatchServiceTest {
+
+    private static final String BATCH_PATH = "uri=/api/holidays/batch";
+
+    @Mock
+    private HolidayService holidayService;
+
+    @Mock
+    private HolidayServiceValidatorContract holidayServiceValidator;
+
+    @Mock
+    private ParallelHolidayFetcher parallelHolidayFetcher;
+
+    @Spy
+    private ErrorResponseFactory errorResponseFactory = new ErrorResponseFactory("https://date.nager.at/api/v3/AvailableCountries");
+
+    @InjectMocks
+    private HolidayBatchService holidayBatchService;
+
+    private AutoCloseable closeable;
+
+    @BeforeEach
+    void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(holidayBatchService, "maxBatchQueries", 3);
+        when(parallelHolidayFetcher.prefetchHolidays(anyCollection())).thenReturn(Map.of());
+    }
+
+    @AfterEach
+    void releaseMocks() throws Exception {
+        closeable.close();
+    }
+
+    @Test
+    @DisplayName("Test getHolidayBatch - heterogeneous queries prefetch the union of their holidays once and answer in query order")
+    void getHolidayBatch_HeterogeneousQueries_PrefetchesUnionOnce() {
+        List<SharedHoliday> sharedHolidays = List.of(new SharedHoliday("2025-12-25", "Eerste Kerstdag", "Erster Weihnachtstag"));
+        List<CountryHolidayCount> holidayCounts = List.of(new CountryHolidayCount("DE", 9), new CountryHolidayCount("NL", 8));
+        List<Holiday> lastHolidays = List.of(new Holiday("2025-12-26", "Tweede Kerstdag"));
+        when(holidayService.getValidatedSharedHolidays("2025", "NL", "DE")).thenReturn(unversioned(sharedHolidays));
+        when(holidayService.getValidatedNonWeekendHolidayCounts("2025", Set.of("DE", "NL"))).thenReturn(unversioned(holidayCounts));
+        when(holidayService.getValidatedLastNumberOfHolidays("NL", "1")).thenReturn(unversioned(lastHolidays));
+
+        HolidayBatchResponse response = holidayBatchService.getHolidayBatch(new HolidayBatchRequest().queries(List.of(
+                query("shared", HolidayQuery.TypeEnum.SHARED_HOLIDAYS).year("2025").countryCodes("nl,DE"),
+                query("counts", HolidayQuery.TypeEnum.NON_WEEKEND_HOLIDAY_COUNTS).year("2025").countryCodes("DE,NL"),
+                query("last", HolidayQuery.TypeEnum.LAST_NUMBER_OF_HOLIDAYS).countryCode("NL").numberOfHolidays("1"))), BATCH_PATH);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<HolidayCacheKey>> keys = ArgumentCaptor.forClass(Collection.class);
+        verify(parallelHolidayFetcher, times(1)).prefetchHolidays(keys.capture());
+        assertEquals(List.of(new HolidayCacheKey(2025, "NL"), new HolidayCacheKey(2025, "DE"),
+                new HolidayCacheKey(LocalDate.now().getYear(), "NL")).stream().distinct().toList(), new ArrayList<>(keys.getValue()));
+
+        List<HolidayQueryResult> results = response.getResults();
+        assertEquals(List.of("shared", "counts", "last"), results.stream().map(HolidayQueryResult::getId).toList());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == 200 && result.getError() == null));
+        assertEquals("SHARED_HOLIDAYS", results.get(0).getType());
+        assertEquals(sharedHolidays, results.get(0).getSharedHolidays());
+        assertEquals(holidayCounts, results.get(1).getHolidayCounts());
+        assertEquals(lastHolidays, results.get(2).getHolidays());
+        // each query is validated once, by the batch
+        verify(holidayServiceValidator).validateSharedHolidayCountryCodesAndYear("2025", Set.of("NL", "DE"));
+        verify(holidayServiceValidator).validateCountryCodesAndYear("2025", Set.of("DE", "NL"));
+        verify(holidayServiceValidator).validateCountryCodesAndDays(Set.of("NL"), "1");
+        verifyNoMoreInteractions(holidayServiceValidator);
+    }
+
+    @Test
+    @DisplayName("Test getHolidayBatch - invalid queries get their error, fetch nothing and do not fail the others")
+    void getHolidayBatch_InvalidQueries_ReturnErrorPerQuery() {
+        doThrow(new InvalidParameterException("non ISO 3166-1 alpha-2 compliant country code(s) 'XX'"))
+                .when(holidayServiceValidator).validateCountryCodesAndYear("2025", Set.of("XX"));
+        when(holidayService.getValidatedCommonHolidays("2025", List.of("NL", "BE", "LU"))).thenReturn(unversioned(Collections.emptyList()));
+
+        HolidayBatchResponse response = holidayBatchService.getHolidayBatch(new HolidayBatchRequest().queries(List.of(
+                query("invalid", HolidayQuery.TypeEnum.NON_WEEKEND_HOLIDAY_COUNTS).year("2025").countryCodes("XX"),
+                query("missing", HolidayQuery.TypeEnum.COMMON_HOLIDAYS).countryCodes("NL,BE"),
+                query("common", HolidayQuery.TypeEnum.COMMON_HOLIDAYS).year("2025").countryCodes("NL,BE,LU"))), BATCH_PATH);
+
+        List<HolidayQueryResult> results = response.getResults();
+        assertEquals(400, results.get(0).getStatus());
+        assertEquals("non ISO 3166-1 alpha-2 compliant country code(s) 'XX'", results.get(0).getError().getMessage());
+        assertEquals(400, results.get(1).getStatus());
+        assertEquals("missing parameter 'year' for query type COMMON_HOLIDAYS", results.get(1).getError().getMessage());
+        assertEquals(200, results.get(2).getStatus());
+        // only the keys of the valid query are fetched
+        verify(parallelHolidayFetcher).prefetchHolidays(
+                Set.of(new HolidayCacheKey(2025, "NL"), new HolidayCacheKey(2025, "BE"), new HolidayCacheKey(2025, "LU")));
+        verify(holidayService, never()).getValidatedNonWeekendHolidayCounts(anyString(), anySet());
+    }
+
+    @Test
+    @DisplayName("Test getHolidayBatch - shared holidays need exactly two country codes")
+    void getHolidayBatch_SharedHolidaysThreeCountries_ReturnsBadRequestResult() {
+        HolidayBatchResponse response = holidayBatchService.getHolidayBatch(new HolidayBatchRequest().queries(List.of(
+                query("shared", HolidayQuery.TypeEnum.SHARED_HOLIDAYS).year("2025").countryCodes("NL,DE,FR"))), BATCH_PATH);
+
+        HolidayQueryResult result = response.getResults().get(0);
+        assertEquals(400, result.getStatus());
+        assertEquals("Bad Request", result.getError().getError());
+        verify(parallelHolidayFetcher, never()).prefetchHolidays(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Test getHolidayBatch - upstream failures are returned with the status of the single endpoints")
+    void getHolidayBatch_UpstreamFailures_ReturnServerErrorResults() {
+        when(holidayService.getValidatedNonWeekendHolidayCounts("2025", Set.of("NL")))
+                .thenThrow(new ResourceAccessException("I/O error: fetching holidays for year 2025 did not complete within 10000 ms"));
+        when(holidayService.getValidatedNonWeekendHolidayCounts("2025", Set.of("DE")))
+                .thenThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("nagerDateApi")));
+
+        HolidayBatchResponse response = holidayBatchService.getHolidayBatch(new HolidayBatchRequest().queries(List.of(
+                query("nl", HolidayQuery.TypeEnum.NON_WEEKEND_HOLIDAY_COUNTS).year("2025").countryCodes("NL"),
+                query("de", HolidayQuery.TypeEnum.NON_WEEKEND_HOLIDAY_COUNTS).year("2025").countryCodes("DE"))), BATCH_PATH);
+
+        assertEquals(500, response.getResults().get(0).getStatus());
+        assertEquals("Internal Server Error", response.getResults().get(0).getError().getError());
+        // same message as the single endpoint, with the troubleshooting info of network errors
+        assertEquals("I/O error: fetching holidays for year 2025 did not complete within 10000 ms - possible network issue or north bound nagar date service might be down, please check this URL from web browser https://date.nager.at/api/v3/AvailableCountries",
+                response.getResults().get(0).getError().getMessage());
+        assertEquals(503, response.getResults().get(1).getStatus());
+        assertEquals("Service Unavailable", response.getResults().get(1).getError().getError());
+        assertEquals(BATCH_PATH, response.getResults().get(1).getError().getPath());
+    }
+
+    @Test
+    @DisplayName("Test getHolidayBatch - batches without queries or with too many queries are rejected")
+    void getHolidayBatch_UnsupportedNumberOfQueries_ThrowsInvalidParameterException() {
+        List<HolidayQuery> tooManyQueries = Collections.nCopies(4,
+                query("counts", HolidayQuery.TypeEnum.NON_WEEKEND_HOLIDAY_COUNTS).year("2025").countryCodes("NL"));
+
+        InvalidParameterException thrown = assertThrows(InvalidParameterException.class,
+                () -> holidayBatchService.getHolidayBatch(new HolidayBatchRequest().queries(tooManyQueries), BATCH_PATH));
+
+        assertEquals("non-supported number of queries '4', must be between 1 and 3 inclusive", thrown.getMessage());
+        assertThrows(InvalidParameterException.class,
+                () -> holidayBatchService.getHolidayBatch(new HolidayBatchRequest().queries(List.of()), BATCH_PATH));
+        verifyNoInteractions(parallelHolidayFetcher, holidayService);
+    }
+
+    private static <T> VersionedResult<T> unversioned(T result) {
+        return new VersionedResult<>(result, OptionalLong.empty());
+    }
+
+    private static HolidayQuery query(String id, HolidayQuery.TypeEnum type) {
+        return new HolidayQuery().id(id).type(type);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.holidayplanner.service;
+
+import com.example.holidayplanner.cache.HolidayCalendar;
+import com.example.holidayplanner.cache.SingleFlightLoader;
+import com.example.holidayplanner.generated.model.Holiday;
+import com.example.holidayplanner.provider.HolidayDataProviderChain;
+import com.example.holidayplanner.service.contract.VersionedResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HolidayResultCacheTest {
+
+    private static final HolidayCalendar NL = HolidayCalendar.of(List.of(new Holiday("2025-04-27", "Koningsdag")));
+    private static final HolidayCalendar DE = HolidayCalendar.of(List.of(new Holiday("2025-10-03", "Tag der Deutschen Einheit")));
+    private static final HolidayCalendar FR = HolidayCalendar.of(List.of(new Holiday("2025-07-14", "Fête nationale")));
+
+    @Mock
+    private HolidayDataProviderChain holidayDataProviderChain;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Test HolidayResultKey - country codes are upper cased, deduplicated and sorted")
+    void key_CountryCodes_Normalized() {
+        assertEquals(HolidayResultKey.sharedHolidays(2025, List.of("NL", "DE")), HolidayResultKey.sharedHolidays(2025, List.of("de", "nl")));
+        assertEquals(List.of("DE", "FR", "NL"), HolidayResultKey.nonWeekendCounts(2025, List.of("nl", "FR", "de", "NL")).countryCodes());
+        assertNotEquals(HolidayResultKey.sharedHolidays(2025, List.of("NL", "DE")), HolidayResultKey.nonWeekendCounts(2025, List.of("NL", "DE")));
+        assertNotEquals(HolidayResultKey.lastHolidays("NL", 3, 20000), HolidayResultKey.lastHolidays("NL", 3, 20001));
+    }
+
+    @Test
+    @DisplayName("Test get - changed holidays of one country invalidate only the results computed from them")
+    void get_ChangedDependency_InvalidatesDependentResults() {
+        when(holidayDataProviderChain.peekHolidays(2025, "NL")).thenReturn(Optional.of(NL));
+        when(holidayDataProviderChain.peekHolidays(2025, "DE")).thenReturn(Optional.of(DE));
+        HolidayResultCache resultCache = resultCache(true);
+        HolidayResultKey nlDe = HolidayResultKey.sharedHolidays(2025, List.of("NL", "DE"));
+        HolidayResultKey fr = HolidayResultKey.nonWeekendCounts(2025, List.of("FR"));
+        AtomicInteger computations = new AtomicInteger();
+        resultCache.get(nlDe, dependencies -> compute(dependencies, computations, "NL", NL, "DE", DE));
+        resultCache.get(fr, dependencies -> compute(dependencies, computations, "FR", FR));
+
+        when(holidayDataProviderChain.peekHolidays(2025, "FR")).thenReturn(Optional.of(HolidayCalendar.of(List.of(new Holiday("2025-05-01", "Fête du Travail")))));
+        resultCache.get(nlDe, dependencies -> compute(dependencies, computations, "NL", NL, "DE", DE));
+        resultCache.get(fr, dependencies -> compute(dependencies, computations, "FR", FR));
+
+        assertEquals(3, computations.get());
+        assertEquals(1, meterRegistry.get("holiday.result.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("holiday.result.cache.requests").tag("result", "invalidated").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test get - equal holidays reloaded for a dependency keep the cached result")
+    void get_EqualDependency_CachedResult() {
+        when(holidayDataProviderChain.peekHolidays(2025, "NL")).thenReturn(Optional.of(HolidayCalendar.of(List.of(new Holiday("2025-04-27", "Koningsdag")))));
+        HolidayResultCache resultCache = resultCache(true);
+        HolidayResultKey key = HolidayResultKey.nonWeekendCounts(2025, List.of("NL"));
+        AtomicInteger computations = new AtomicInteger();
+
+        resultCache.get(key, dependencies -> compute(dependencies, computations, "NL", NL));
+        String result = resultCache.get(key, dependencies -> compute(dependencies, computations, "NL", NL));
+
+        assertEquals("result 1", result);
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    @DisplayName("Test get - holidays which left their cache invalidate the result without being loaded")
+    void get_DependencyNotCached_RecomputedWithoutLoading() {
+        when(holidayDataProviderChain.peekHolidays(2025, "NL")).thenReturn(Optional.empty());
+        HolidayResultCache resultCache = resultCache(true);
+        HolidayResultKey key = HolidayResultKey.nonWeekendCounts(2025, List.of("NL"));
+        AtomicInteger computations = new AtomicInteger();
+
+        resultCache.get(key, dependencies -> compute(dependencies, computations, "NL", NL));
+        assertTrue(resultCache.version(key).isEmpty());
+        String result = resultCache.get(key, dependencies -> compute(dependencies, computations, "NL", NL));
+
+        assertEquals("result 2", result);
+        verify(holidayDataProviderChain, never()).fetchHolidays(anyInt(), anyString());
+    }
+
+    @Test
+    @DisplayName("Test get - concurrent misses of the same key compute the result once")
+    void get_ConcurrentMisses_ComputedOnce() throws Exception {
+        lenient().when(holidayDataProviderChain.peekHolidays(2025, "NL")).thenReturn(Optional.of(NL));
+        HolidayResultCache resultCache = resultCache(true);
+        HolidayResultKey key = HolidayResultKey.nonWeekendCounts(2025, List.of("NL"));
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> resultCache.get(key, dependencies -> {
+                computing.countDown();
+                awaitQuietly(release);
+                return compute(dependencies, computations, "NL", NL);
+            }));
+            assertTrue(computing.await(5, TimeUnit.SECONDS));
+            AtomicReference<Thread> secondThread = new AtomicReference<>();
+            Future<String> second = executor.submit(() -> {
+                secondThread.set(Thread.currentThread());
+                return resultCache.get(key, dependencies -> compute(dependencies, computations, "NL", NL));
+            });
+            // release the first computation once the second miss waits for it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!isWaiting(secondThread.get()) && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertEquals("result 1", first.get(5, TimeUnit.SECONDS));
+            assertEquals("result 1", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, computations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test version - version of a cached result is read without computing it and changes with its holidays")
+    void version_CachedResult_ChangesWithDependencies() {
+        when(holidayDataProviderChain.peekHolidays(2025, "NL")).thenReturn(Optional.of(NL));
+        HolidayResultCache resultCache = resultCache(true);
+        HolidayResultKey key = HolidayResultKey.nonWeekendCounts(2025, List.of("NL"));
+        AtomicInteger computations = new AtomicInteger();
+
+        assertTrue(resultCache.version(key).isEmpty());
+        VersionedResult<String> computed = resultCache.getVersioned(key, dependencies -> compute(dependencies, computations, "NL", NL));
+        long version = resultCache.version(key).orElseThrow();
+        assertEquals(version, computed.version().orElseThrow());
+        assertEquals(computed, resultCache.getVersioned(key, dependencies -> compute(dependencies, computations, "NL", NL)));
+        when(holidayDataProviderChain.peekHolidays(2025, "NL")).thenReturn(Optional.of(DE));
+
+        assertTrue(resultCache.version(key).isEmpty());
+        resultCache.get(key, dependencies -> compute(dependencies, computations, "NL", DE));
+        assertNotEquals(version, resultCache.version(key).orElseThrow());
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    @DisplayName("Test get - disabled cache computes every result")
+    void get_Disabled_AlwaysComputed() {
+        HolidayResultCache resultCache = resultCache(false);
+        HolidayResultKey key = HolidayResultKey.nonWeekendCounts(2025, List.of("NL"));
+        AtomicInteger computations = new AtomicInteger();
+
+        resultCache.get(key, dependencies -> compute(dependencies, computations, "NL", NL));
+        resultCache.get(key, dependencies -> compute(dependencies, computations, "NL", NL));
+
+        assertEquals(2, computations.get());
+        verifyNoInteractions(holidayDataProviderChain);
+    }
+
+    @Test
+    @DisplayName("Test ttlOf - last holidays expire at midnight, other results after expire-after-write")
+    void ttlOf_LastHolidays_ExpireAtMidnight() {
+        ZoneId zone = ZoneId.of("Europe/Amsterdam");
+        LocalDate today = LocalDate.of(2025, 12, 31);
+        ZonedDateTime now = today.atTime(23, 30).atZone(zone);
+        Duration expireAfterWrite = Duration.ofMinutes(10);
+
+        assertEquals(Duration.ofMinutes(30).toNanos(), HolidayResultCache.ttlOf(
+                HolidayResultKey.lastHolidays("NL", 3, (int) today.toEpochDay()), now, Duration.ofHours(1)));
+        assertEquals(expireAfterWrite.toNanos(), HolidayResultCache.ttlOf(
+                HolidayResultKey.lastHolidays("NL", 3, (int) today.toEpochDay()), now.minusHours(2), expireAfterWrite));
+        assertEquals(0, HolidayResultCache.ttlOf(
+                HolidayResultKey.lastHolidays("NL", 3, (int) today.toEpochDay() - 1), now, expireAfterWrite));
+        assertEquals(expireAfterWrite.toNanos(), HolidayResultCache.ttlOf(
+                HolidayResultKey.sharedHolidays(2025, List.of("NL", "DE")), now, expireAfterWrite));
+    }
+
+    private HolidayResultCache resultCache(boolean enabled) {
+        return new HolidayResultCache(holidayDataProviderChain, new SingleFlightLoader(meterRegistry), enabled, 100, Duration.ofMinutes(10), meterRegistry);
+    }
+
+    private static boolean isWaiting(Thread thread) {
+        return thread != null && (thread.getState() == Thread.State.BLOCKED || thread.getState() == Thread.State.WAITING);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String compute(HolidayResultCache.Dependencies dependencies, AtomicInteger computations, Object... countryCalendars) {
+        for (int i = 0; i < countryCalendars.length; i += 2) {
+            dependencies.add(2025, (String) countryCalendars[i], (HolidayCalendar) countryCalendars[i + 1]);
+        }
+        return "result " + computations.incrementAndGet();
+    }
+}
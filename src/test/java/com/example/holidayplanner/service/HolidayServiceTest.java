@@ -1,10 +1,18 @@
 package com.example.holidayplanner.service;
 
+import com.example.holidayplanner.cache.HolidayCalendar;
+import com.example.holidayplanner.cache.SingleFlightLoader;
+import com.example.holidayplanner.exception.InvalidParameterException;
+import com.example.holidayplanner.generated.model.CommonHoliday;
 import com.example.holidayplanner.generated.model.CountryHolidayCount;
+import com.example.holidayplanner.generated.model.CountryLocalName;
 import com.example.holidayplanner.generated.model.Holiday;
 import com.example.holidayplanner.generated.model.SharedHoliday;
+import com.example.holidayplanner.logging.ResultLogger;
+import com.example.holidayplanner.provider.HolidayDataProviderChain;
 import com.example.holidayplanner.validation.contract.HolidayServiceValidatorContract;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,11 +20,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,7 +35,7 @@ import static org.mockito.Mockito.*;
 class HolidayServiceTest {
 
     @Mock
-    private NagerDateApiService nagerDateApiService;
+    private HolidayDataProviderChain holidayDataProviderChain;
 
     @Mock
     private HolidayServiceValidatorContract holidayServiceValidator;
@@ -34,28 +45,44 @@ class HolidayServiceTest {
 
     private List<Holiday> mockHolidays;
 
+    private ParallelHolidayFetcher parallelHolidayFetcher;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private AutoCloseable closeable;
 
     @BeforeEach
     void setUp() {
         closeable = MockitoAnnotations.openMocks(this);
+        // years without a stub have no holidays, as the chain would answer for an empty dataset
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), anyString())).thenReturn(HolidayCalendar.empty());
+        // the providers hold every year they answer for, cached results are checked against the current stubs
+        when(holidayDataProviderChain.peekHolidays(anyInt(), anyString())).thenAnswer(invocation ->
+                Optional.of(holidayDataProviderChain.fetchHolidays(invocation.getArgument(0), invocation.getArgument(1))));
         mockHolidays = List.of(
                 new Holiday("2025-01-01", "Nieuwjaarsdag"),
                 new Holiday("2025-04-18", "Goede Vrijdag"),
                 new Holiday("2025-04-20", "Eerste Paasdag")
         );
-        ReflectionTestUtils.setField(holidayService, "objectMapper", Mockito.mock(ObjectMapper.class));
+        ReflectionTestUtils.setField(holidayService, "resultLogger", new ResultLogger(new ObjectMapper(), 1.0, 2000));
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(holidayService, "holidayResultCache",
+                new HolidayResultCache(holidayDataProviderChain, new SingleFlightLoader(meterRegistry), true, 100, Duration.ofMinutes(10), meterRegistry));
+        ReflectionTestUtils.setField(holidayService, "minHolidaySupportedYear", 1975);
+        parallelHolidayFetcher = new ParallelHolidayFetcher(holidayDataProviderChain, 4, 10, Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(holidayService, "parallelHolidayFetcher", parallelHolidayFetcher);
     }
 
     @AfterEach
     void releaseMocks() throws Exception {
+        parallelHolidayFetcher.shutdown();
         closeable.close();
     }
 
     @Test
     @DisplayName("Test getLastNumberOfHolidays with valid input")
     void getLastNumberOfHolidays_ValidInput_ReturnsHolidays() {
-        when(nagerDateApiService.fetchHolidays(anyInt(), anyString())).thenReturn(mockHolidays);
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), anyString())).thenReturn(HolidayCalendar.of(mockHolidays));
 
         List<Holiday> holidays = holidayService.getLastNumberOfHolidays("NL", "2");
 
@@ -67,19 +94,20 @@ class HolidayServiceTest {
     @Test
     @DisplayName("Test getLastNumberOfHolidays with valid input and also holiday of previous year")
     void getLastNumberOfHolidays_ValidInput_ReturnsCurrentAndPreviousYearHolidays() {
+        LocalDate today = LocalDate.now();
+        int currentYear = today.getYear();
+        int lastYear = currentYear - 1;
         List<Holiday> currentYearHoliday = List.of(
-                new Holiday("2025-01-01", "Nieuwjaarsdag"),
-                new Holiday("2025-04-18", "Goede Vrijdag")
+                new Holiday(currentYear + "-01-01", "Nieuwjaarsdag"),
+                new Holiday(today.toString(), "Goede Vrijdag")
         );
         List<Holiday> lastYearHoliday = List.of(
-                new Holiday("2024-05-20", "Tweede Pinksterdag"),
-                new Holiday("2024-12-25", "Eerste Kerstdag"),
-                new Holiday("2024-12-26", "Tweede Kerstdag")
+                new Holiday(lastYear + "-05-20", "Tweede Pinksterdag"),
+                new Holiday(lastYear + "-12-25", "Eerste Kerstdag"),
+                new Holiday(lastYear + "-12-26", "Tweede Kerstdag")
                 );
-        int currentYear = 2025;
-        int lastYear = 2024;
-        when(nagerDateApiService.fetchHolidays(eq(currentYear), anyString())).thenReturn(currentYearHoliday);
-        when(nagerDateApiService.fetchHolidays(eq(lastYear), anyString())).thenReturn(lastYearHoliday);
+        when(holidayDataProviderChain.fetchHolidays(eq(currentYear), anyString())).thenReturn(HolidayCalendar.of(currentYearHoliday));
+        when(holidayDataProviderChain.fetchHolidays(eq(lastYear), anyString())).thenReturn(HolidayCalendar.of(lastYearHoliday));
 
         List<Holiday> holidays = holidayService.getLastNumberOfHolidays("NL", "4");
 
@@ -89,6 +117,57 @@ class HolidayServiceTest {
     }
 
 
+    @Test
+    @DisplayName("Test getLastNumberOfHolidays spanning more than two years")
+    void getLastNumberOfHolidays_ValidInput_ReturnsHolidaysOfThreeYears() {
+        int currentYear = LocalDate.now().getYear();
+        when(holidayDataProviderChain.fetchHolidays(eq(currentYear), anyString())).thenReturn(HolidayCalendar.of(List.of(
+                new Holiday(currentYear + "-01-01", "Nieuwjaarsdag"))));
+        when(holidayDataProviderChain.fetchHolidays(eq(currentYear - 1), anyString())).thenReturn(HolidayCalendar.of(List.of(
+                new Holiday((currentYear - 1) + "-12-25", "Eerste Kerstdag"))));
+        when(holidayDataProviderChain.fetchHolidays(eq(currentYear - 2), anyString())).thenReturn(HolidayCalendar.of(List.of(
+                new Holiday((currentYear - 2) + "-04-27", "Koningsdag"),
+                new Holiday((currentYear - 2) + "-12-26", "Tweede Kerstdag"))));
+
+        List<Holiday> holidays = holidayService.getLastNumberOfHolidays("NL", "3");
+
+        assertEquals(List.of("Nieuwjaarsdag", "Eerste Kerstdag", "Tweede Kerstdag"), holidays.stream().map(Holiday::getLocalName).toList());
+        verify(holidayDataProviderChain, never()).fetchHolidays(eq(currentYear - 3), anyString());
+    }
+
+    @Test
+    @DisplayName("Test getLastNumberOfHolidays looks at most N years back for a country without holidays in older years")
+    void getLastNumberOfHolidays_SparseOlderYears_LooksBackAtMostNYears() {
+        int currentYear = LocalDate.now().getYear();
+        when(holidayDataProviderChain.fetchHolidays(eq(currentYear), anyString())).thenReturn(HolidayCalendar.of(List.of(
+                new Holiday(currentYear + "-01-01", "Nieuwjaarsdag"))));
+        when(holidayDataProviderChain.fetchHolidays(eq(currentYear - 1), anyString())).thenReturn(HolidayCalendar.of(List.of(
+                new Holiday((currentYear - 1) + "-12-25", "Eerste Kerstdag"))));
+
+        List<Holiday> holidays = holidayService.getLastNumberOfHolidays("NL", "5");
+
+        assertEquals(List.of("Nieuwjaarsdag", "Eerste Kerstdag"), holidays.stream().map(Holiday::getLocalName).toList());
+        for (int year = currentYear - 2; year >= currentYear - 5; year--) {
+            verify(holidayDataProviderChain).fetchHolidays(year, "NL");
+        }
+        verify(holidayDataProviderChain, never()).fetchHolidays(eq(currentYear - 6), anyString());
+    }
+
+    @Test
+    @DisplayName("Test getLastNumberOfHolidays stops at the first older year without data")
+    void getLastNumberOfHolidays_OlderYearUnknown_ReturnsHolidaysFound() {
+        int currentYear = LocalDate.now().getYear();
+        when(holidayDataProviderChain.fetchHolidays(eq(currentYear), anyString())).thenReturn(HolidayCalendar.of(List.of(
+                new Holiday(currentYear + "-01-01", "Nieuwjaarsdag"))));
+        when(holidayDataProviderChain.fetchHolidays(eq(currentYear - 1), anyString()))
+                .thenThrow(new InvalidParameterException("No holidays found for country: NL in year: " + (currentYear - 1)));
+
+        List<Holiday> holidays = holidayService.getLastNumberOfHolidays("NL", "5");
+
+        assertEquals(1, holidays.size());
+        verify(holidayDataProviderChain, never()).fetchHolidays(eq(currentYear - 2), anyString());
+    }
+
     @Test
     @DisplayName("Test getLastNumberOfHolidays with null date and also holiday previous year null date")
     void getLastNumberOfHolidays_NullDateInputCurrentAndPreviousYearHolidays() {
@@ -103,8 +182,8 @@ class HolidayServiceTest {
         );
         int currentYear = 2025;
         int lastYear = 2024;
-        when(nagerDateApiService.fetchHolidays(eq(currentYear), anyString())).thenReturn(currentYearHoliday);
-        when(nagerDateApiService.fetchHolidays(eq(lastYear), anyString())).thenReturn(lastYearHoliday);
+        when(holidayDataProviderChain.fetchHolidays(eq(currentYear), anyString())).thenReturn(HolidayCalendar.of(currentYearHoliday));
+        when(holidayDataProviderChain.fetchHolidays(eq(lastYear), anyString())).thenReturn(HolidayCalendar.of(lastYearHoliday));
 
         List<Holiday> holidays = holidayService.getLastNumberOfHolidays("NL", "4");
 
@@ -117,7 +196,7 @@ class HolidayServiceTest {
     @DisplayName("Test getLastNumberOfHolidays with default number of holidays")
     void getLastNumberOfHolidays_DefaultNumberOfHolidays_ReturnsHolidays() {
         ReflectionTestUtils.setField(holidayService, "defaultNumberOfHolidays", 3);
-        when(nagerDateApiService.fetchHolidays(anyInt(), anyString())).thenReturn(mockHolidays);
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), anyString())).thenReturn(HolidayCalendar.of(mockHolidays));
 
 
         List<Holiday> holidays = holidayService.getLastNumberOfHolidays("NL", null);
@@ -130,7 +209,7 @@ class HolidayServiceTest {
     @DisplayName("Test getLastNumberOfHolidays with non number input number of holidays")
     void getLastNumberOfHolidays_DefaultNumberOfHolidays_NonNumberInput() {
         ReflectionTestUtils.setField(holidayService, "defaultNumberOfHolidays", 3);
-        when(nagerDateApiService.fetchHolidays(anyInt(), anyString())).thenReturn(mockHolidays);
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), anyString())).thenReturn(HolidayCalendar.of(mockHolidays));
 
 
         List<Holiday> holidays = holidayService.getLastNumberOfHolidays("NL", "abcd");
@@ -143,7 +222,7 @@ class HolidayServiceTest {
     @DisplayName("Test getLastNumberOfHolidays with value less then 1 for number of holidays")
     void getLastNumberOfHolidays_DefaultNumberOfHolidays_LessThenOneInput() {
         ReflectionTestUtils.setField(holidayService, "defaultNumberOfHolidays", 3);
-        when(nagerDateApiService.fetchHolidays(anyInt(), anyString())).thenReturn(mockHolidays);
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), anyString())).thenReturn(HolidayCalendar.of(mockHolidays));
 
 
         List<Holiday> holidays = holidayService.getLastNumberOfHolidays("NL", "-1");
@@ -155,7 +234,7 @@ class HolidayServiceTest {
     @Test
     @DisplayName("Test getNonWeekendHolidayCounts with valid input")
     void getNonWeekendHolidayCounts_ValidInput_ReturnsCounts() {
-        when(nagerDateApiService.fetchHolidays(anyInt(), anyString())).thenReturn(mockHolidays);
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), anyString())).thenReturn(HolidayCalendar.of(mockHolidays));
 
         List<CountryHolidayCount> counts = holidayService.getNonWeekendHolidayCounts("2025", "NL");
 
@@ -165,6 +244,23 @@ class HolidayServiceTest {
         verify(holidayServiceValidator).validateCountryCodesAndYear(anyString(), anySet());
     }
 
+    @Test
+    @DisplayName("Test getNonWeekendHolidayCounts with multiple countries sorted by count")
+    void getNonWeekendHolidayCounts_MultipleCountries_SortedByCountDescending() {
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("NL"))).thenReturn(HolidayCalendar.of(mockHolidays));
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("DE"))).thenReturn(HolidayCalendar.of(List.of(new Holiday("2025-01-01", "Neujahr"))));
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("FR"))).thenReturn(HolidayCalendar.empty());
+
+        List<CountryHolidayCount> counts = holidayService.getNonWeekendHolidayCounts("2025", "fr,NL,de");
+
+        assertEquals(3, counts.size());
+        assertEquals("NL", counts.get(0).getCountryCode());
+        assertEquals(2, counts.get(0).getHolidayCount());
+        assertEquals("DE", counts.get(1).getCountryCode());
+        assertEquals("FR", counts.get(2).getCountryCode());
+        assertEquals(0, counts.get(2).getHolidayCount());
+    }
+
     @Test
     @DisplayName("Test getNonWeekendHolidayCounts with null holidayCount values")
     void getNonWeekendHolidayCounts_NullHolidayCount_SortingHandled() {
@@ -173,7 +269,7 @@ class HolidayServiceTest {
         CountryHolidayCount count3 = new CountryHolidayCount("FR", null);
 
         // Mock fetchHolidays to return empty lists so that nonWeekendCount is always 0 (simulate nulls manually)
-        when(nagerDateApiService.fetchHolidays(anyInt(), anyString())).thenReturn(List.of());
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), anyString())).thenReturn(HolidayCalendar.empty());
 
         // Use ReflectionTestUtils to inject a custom list with nulls
         List<CountryHolidayCount> holidayCounts = List.of(count1, count2, count3);
@@ -198,8 +294,8 @@ class HolidayServiceTest {
         List<Holiday> holidays1 = List.of(new Holiday("2025-01-01", "Nieuwjaarsdag"));
         List<Holiday> holidays2 = List.of(new Holiday("2025-01-01", "Neujahr"));
 
-        when(nagerDateApiService.fetchHolidays(anyInt(), eq("NL"))).thenReturn(holidays1);
-        when(nagerDateApiService.fetchHolidays(anyInt(), eq("DE"))).thenReturn(holidays2);
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("NL"))).thenReturn(HolidayCalendar.of(holidays1));
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("DE"))).thenReturn(HolidayCalendar.of(holidays2));
 
         List<SharedHoliday> sharedHolidays = holidayService.getSharedHolidays("2025", "NL", "DE");
 
@@ -214,12 +310,80 @@ class HolidayServiceTest {
         List<Holiday> holidays1 = List.of(new Holiday("2025-12-25", "Eerste Kerstdag"));
         List<Holiday> holidays2 = List.of(new Holiday("2025-12-26", "Tweede Kerstdag"));
 
-        when(nagerDateApiService.fetchHolidays(anyInt(), eq("NL"))).thenReturn(holidays1);
-        when(nagerDateApiService.fetchHolidays(anyInt(), eq("DE"))).thenReturn(holidays2);
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("NL"))).thenReturn(HolidayCalendar.of(holidays1));
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("DE"))).thenReturn(HolidayCalendar.of(holidays2));
 
         List<SharedHoliday> sharedHolidays = holidayService.getSharedHolidays("2025", "NL", "DE");
 
         assertTrue(sharedHolidays.isEmpty());
         verify(holidayServiceValidator).validateSharedHolidayCountryCodesAndYear(anyString(), anySet());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test getCommonHolidays with three countries returns dates shared by all in date order")
+    void getCommonHolidays_ThreeCountries_ReturnsSharedHolidays() {
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("NL"))).thenReturn(HolidayCalendar.of(List.of(
+                new Holiday("2025-12-25", "Eerste Kerstdag"), new Holiday("2025-01-01", "Nieuwjaarsdag"),
+                new Holiday("2025-04-27", "Koningsdag"))));
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("DE"))).thenReturn(HolidayCalendar.of(List.of(
+                new Holiday("2025-01-01", "Neujahr"), new Holiday("2025-12-25", "Erster Weihnachtstag"))));
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("FR"))).thenReturn(HolidayCalendar.of(List.of(
+                new Holiday("2025-01-01", "Jour de l'an"), new Holiday("2025-12-25", "Noël"))));
+
+        List<CommonHoliday> commonHolidays = holidayService.getCommonHolidays("2025", "nl,DE,fr,NL");
+
+        assertEquals(List.of("2025-01-01", "2025-12-25"), commonHolidays.stream().map(CommonHoliday::getDate).toList());
+        assertEquals(List.of(new CountryLocalName("NL", "Eerste Kerstdag"), new CountryLocalName("DE", "Erster Weihnachtstag"),
+                new CountryLocalName("FR", "Noël")), commonHolidays.get(1).getLocalNames());
+        verify(holidayServiceValidator).validateCommonHolidayCountryCodesAndYear("2025", Set.of("NL", "DE", "FR"));
+    }
+
+    @Test
+    @DisplayName("Test getSharedHolidays - reversed country codes reuse the cached result with local names in requested order")
+    void getSharedHolidays_ReversedCountryCodes_ReusesCachedResult() {
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("NL"))).thenReturn(HolidayCalendar.of(List.of(new Holiday("2025-01-01", "Nieuwjaarsdag"))));
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("DE"))).thenReturn(HolidayCalendar.of(List.of(new Holiday("2025-01-01", "Neujahr"))));
+
+        List<SharedHoliday> nlDe = holidayService.getSharedHolidays("2025", "NL", "DE");
+        List<SharedHoliday> deNl = holidayService.getSharedHolidays("2025", "de", "nl");
+
+        assertEquals(new SharedHoliday("2025-01-01", "Nieuwjaarsdag", "Neujahr"), nlDe.get(0));
+        assertEquals(new SharedHoliday("2025-01-01", "Neujahr", "Nieuwjaarsdag"), deNl.get(0));
+        assertEquals(1, meterRegistry.get("holiday.result.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test getNonWeekendHolidayCounts - changed holidays of one country recompute the cached result")
+    void getNonWeekendHolidayCounts_ChangedHolidays_Recomputed() {
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("NL"))).thenReturn(HolidayCalendar.of(mockHolidays));
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("DE"))).thenReturn(HolidayCalendar.of(List.of(new Holiday("2025-01-01", "Neujahr"))));
+        holidayService.getNonWeekendHolidayCounts("2025", "NL,DE");
+
+        // same holidays of a background refresh keep the cached result
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("NL"))).thenReturn(HolidayCalendar.of(mockHolidays));
+        holidayService.getNonWeekendHolidayCounts("2025", "de,nl,DE");
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), eq("DE"))).thenReturn(HolidayCalendar.of(List.of(
+                new Holiday("2025-01-01", "Neujahr"), new Holiday("2025-10-03", "Tag der Deutschen Einheit"), new Holiday("2025-12-25", "Erster Weihnachtstag"))));
+        List<CountryHolidayCount> counts = holidayService.getNonWeekendHolidayCounts("2025", "NL,DE");
+
+        assertEquals(List.of(new CountryHolidayCount("DE", 3), new CountryHolidayCount("NL", 2)), counts);
+        assertEquals(1, meterRegistry.get("holiday.result.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("holiday.result.cache.requests").tag("result", "invalidated").counter().count());
+    }
+
+    @Test
+    @DisplayName("Test getLastNumberOfHolidays - repeated request of the same day is answered from the result cache")
+    void getLastNumberOfHolidays_RepeatedRequest_CachedResult() {
+        int currentYear = LocalDate.now().getYear();
+        when(holidayDataProviderChain.fetchHolidays(eq(currentYear), anyString())).thenReturn(HolidayCalendar.of(List.of(
+                new Holiday(currentYear + "-01-01", "Nieuwjaarsdag"))));
+        when(holidayDataProviderChain.fetchHolidays(eq(currentYear - 1), anyString())).thenReturn(HolidayCalendar.of(List.of(
+                new Holiday((currentYear - 1) + "-12-25", "Eerste Kerstdag"))));
+
+        List<Holiday> first = holidayService.getLastNumberOfHolidays("NL", "2");
+        List<Holiday> second = holidayService.getLastNumberOfHolidays("nl", "2");
+
+        assertEquals(first, second);
+        assertEquals(1, meterRegistry.get("holiday.result.cache.requests").tag("result", "hit").counter().count());
+    }
+}
@@ -1,18 +1,39 @@
 package com.example.holidayplanner.service;
 
+import com.example.holidayplanner.cache.CachedHolidays;
+import com.example.holidayplanner.cache.HolidayCacheKey;
+import com.example.holidayplanner.cache.HolidayCalendar;
+import com.example.holidayplanner.cache.HotKeyTracker;
+import com.example.holidayplanner.cache.OffHeapHolidayStore;
+import com.example.holidayplanner.cache.RefreshAheadCacheFactory;
+import com.example.holidayplanner.cache.SingleFlightLoader;
+import com.example.holidayplanner.cluster.PeerHolidayCache;
 import com.example.holidayplanner.exception.InvalidParameterException;
 import com.example.holidayplanner.model.AvailableCountry;
+import com.example.holidayplanner.ratelimit.RateLimitExceededException;
+import com.example.holidayplanner.ratelimit.UpstreamRateLimiter;
 import com.example.holidayplanner.generated.model.Holiday;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.HttpClientErrorException;
@@ -23,6 +44,7 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,6 +55,9 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class NagerDateApiServiceTest {
 
+    // declared first, the caches created by refreshAheadCacheFactory publish their metrics to it
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Mock
     private RestClient restClient;
 
@@ -45,7 +70,31 @@ class NagerDateApiServiceTest {
     @Mock
     private RestClient.ResponseSpec responseSpec;
 
-    @InjectMocks
+    @Spy
+    private SingleFlightLoader singleFlightLoader = new SingleFlightLoader(new SimpleMeterRegistry());
+
+    @Spy
+    private RefreshAheadCacheFactory refreshAheadCacheFactory = new RefreshAheadCacheFactory(new MockEnvironment(), meterRegistry, 1);
+
+    @Spy
+    private CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowSize(2)
+            .minimumNumberOfCalls(2)
+            .ignoreExceptions(InvalidParameterException.class)
+            .build());
+
+    @Mock
+    private HotKeyTracker hotKeyTracker;
+
+    @Mock
+    private OffHeapHolidayStore offHeapHolidayStore;
+
+    @Mock
+    private PeerHolidayCache peerHolidayCache;
+
+    @Mock
+    private UpstreamRateLimiter upstreamRateLimiter;
+
     private NagerDateApiService nagerDateApiService;
 
     private static final String AVAILABLE_COUNTRIES_URL = "https://dummyurl.com/api/v3/AvailableCountries";
@@ -53,6 +102,9 @@ class NagerDateApiServiceTest {
 
     @BeforeEach
     void setUp() {
+        nagerDateApiService = new NagerDateApiService(restClient, singleFlightLoader, refreshAheadCacheFactory,
+                circuitBreakerRegistry, hotKeyTracker, offHeapHolidayStore,
+                peerHolidayCache, upstreamRateLimiter, meterRegistry);
         // Set up the mock chain for restClient
         doReturn(requestHeadersUriSpec).when(restClient).get();
         doReturn(requestHeadersSpec).when(requestHeadersUriSpec).uri(any(String.class));
@@ -83,6 +135,24 @@ class NagerDateApiServiceTest {
         verify(responseSpec).body(AvailableCountry[].class);
     }
 
+    @Test
+    @DisplayName("Should reload available countries from the API even when cached and cache the result")
+    void reloadAvailableCountries_Cached_CallsApiAndCaches() {
+        // Arrange
+        when(responseSpec.body(AvailableCountry[].class))
+                .thenReturn(new AvailableCountry[]{createCountry("NL", "Netherlands")})
+                .thenReturn(new AvailableCountry[]{createCountry("NL", "Netherlands"), createCountry("FR", "France")});
+        nagerDateApiService.getAvailableCountries();
+
+        // Act
+        Set<AvailableCountry> result = nagerDateApiService.reloadAvailableCountries();
+
+        // Assert
+        assertEquals(2, result.size());
+        assertSame(result, nagerDateApiService.getCachedAvailableCountries().orElseThrow());
+        verify(responseSpec, times(2)).body(AvailableCountry[].class);
+    }
+
     @Test
     @DisplayName("Should return an empty set when API response is null")
     void getAvailableCountries_NullResponse_ReturnsEmptySet() {
@@ -120,22 +190,129 @@ class NagerDateApiServiceTest {
     @DisplayName("Should return a list of holidays when API response is successful")
     void fetchHolidays_Success_ReturnsHolidayList() {
         // Arrange
-        Holiday[] holidays = new Holiday[]{
-                new Holiday("2025-01-01", "Nieuwjaarsdag"),
+        byte[] holidays = holidaysJson(
                 new Holiday("2025-04-18", "Goede Vrijdag"),
-        };
+                new Holiday("2025-01-01", "Nieuwjaarsdag"));
         when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
-        when(responseSpec.body(Holiday[].class)).thenReturn(holidays);
+        when(responseSpec.toEntity(byte[].class)).thenReturn(ResponseEntity.ok(holidays));
 
         // Act
-        List<Holiday> result = nagerDateApiService.fetchHolidays(2025, "NL");
+        List<Holiday> result = nagerDateApiService.fetchHolidays(2025, "NL").toHolidays();
 
         // Assert
-        assertEquals(2, result.size());
-        assertTrue(result.stream().anyMatch(h -> h.getLocalName().equals("Nieuwjaarsdag")));
-        assertTrue(result.stream().anyMatch(h -> h.getLocalName().equals("Goede Vrijdag")));
+        assertEquals(List.of(new Holiday("2025-01-01", "Nieuwjaarsdag"), new Holiday("2025-04-18", "Goede Vrijdag")), result);
         verify(requestHeadersUriSpec).uri(HOLIDAYS_URL);
-        verify(responseSpec).body(Holiday[].class);
+        verify(responseSpec).toEntity(byte[].class);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated holiday lookups from cache with one API call")
+    void fetchHolidays_RepeatedCalls_ServedFromCache() {
+        // Arrange
+        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        when(responseSpec.toEntity(byte[].class)).thenReturn(ResponseEntity.ok(holidaysJson(new Holiday("2025-01-01", "Nieuwjaarsdag"))));
+
+        // Act
+        HolidayCalendar first = nagerDateApiService.fetchHolidays(2025, "NL");
+        HolidayCalendar second = nagerDateApiService.fetchHolidays(2025, "NL");
+
+        // Assert
+        assertSame(first, second);
+        verify(responseSpec, times(1)).toEntity(byte[].class);
+    }
+
+    @Test
+    @DisplayName("Should promote holidays from the off-heap store without calling the API")
+    @MockitoSettings(strictness = Strictness.LENIENT) // the rest client chain of setUp is not used
+    void fetchHolidays_OffHeapHit_DoesNotCallApi() {
+        // Arrange
+        HolidayCalendar holidays = HolidayCalendar.of(List.of(new Holiday("2025-01-01", "Nieuwjaarsdag")));
+        when(offHeapHolidayStore.get(new HolidayCacheKey(2025, "NL"))).thenReturn(Optional.of(CachedHolidays.of(holidays)));
+
+        // Act
+        HolidayCalendar result = nagerDateApiService.fetchHolidays(2025, "NL");
+
+        // Assert
+        assertEquals(holidays, result);
+        verify(restClient, never()).get();
+        verify(offHeapHolidayStore, never()).put(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should store holidays loaded from the API in the off-heap store")
+    void fetchHolidays_OffHeapMiss_StoresLoadedHolidays() {
+        // Arrange
+        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        when(responseSpec.toEntity(byte[].class)).thenReturn(ResponseEntity.ok(holidaysJson(new Holiday("2025-01-01", "Nieuwjaarsdag"))));
+
+        // Act
+        HolidayCalendar result = nagerDateApiService.fetchHolidays(2025, "NL");
+
+        // Assert
+        verify(offHeapHolidayStore).put(eq(new HolidayCacheKey(2025, "NL")), argThat(stored -> stored.calendar().equals(result)));
+    }
+
+    @Test
+    @DisplayName("Should take holidays owned by a peer from that peer without calling the API")
+    @MockitoSettings(strictness = Strictness.LENIENT) // the rest client chain of setUp is not used
+    void fetchHolidays_PeerHit_DoesNotCallApi() {
+        // Arrange
+        HolidayCalendar holidays = HolidayCalendar.of(List.of(new Holiday("2025-01-01", "Nieuwjaarsdag")));
+        when(peerHolidayCache.fetchFromOwner(new HolidayCacheKey(2025, "NL"))).thenReturn(Optional.of(CachedHolidays.of(holidays)));
+
+        // Act
+        HolidayCalendar result = nagerDateApiService.fetchHolidays(2025, "NL");
+
+        // Assert
+        assertEquals(holidays, result);
+        verify(restClient, never()).get();
+        verify(offHeapHolidayStore).put(eq(new HolidayCacheKey(2025, "NL")), argThat(stored -> stored.calendar().equals(holidays)));
+    }
+
+    @Test
+    @DisplayName("Should load holidays requested by a peer from the API without asking another peer and cache them")
+    void fetchHolidaysForPeer_Miss_LoadsFromApiOnly() {
+        // Arrange
+        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        when(responseSpec.toEntity(byte[].class)).thenReturn(ResponseEntity.ok(holidaysJson(new Holiday("2025-01-01", "Nieuwjaarsdag"))));
+
+        // Act
+        CachedHolidays result = nagerDateApiService.fetchHolidaysForPeer(new HolidayCacheKey(2025, "NL"));
+
+        // Assert
+        assertEquals(1, result.calendar().size());
+        assertSame(result, nagerDateApiService.getCachedHolidays().get(new HolidayCacheKey(2025, "NL")));
+        verify(peerHolidayCache, never()).fetchFromOwner(any());
+    }
+
+    @Test
+    @DisplayName("Should not call the API when no rate limit permit is available and no earlier data is retained")
+    @MockitoSettings(strictness = Strictness.LENIENT) // the rest client chain of setUp is not used
+    void fetchHolidays_RateLimited_ThrowsWithoutCallingApi() {
+        // Arrange
+        doThrow(new RateLimitExceededException("Nager Date API rate limit reached")).when(upstreamRateLimiter).acquire();
+
+        // Act & Assert
+        assertThrows(ResourceAccessException.class, () -> nagerDateApiService.fetchHolidays(2025, "NL"));
+        verify(restClient, never()).get();
+        assertEquals(0, circuitBreakerRegistry.circuitBreaker("nagerDateApi").getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    @DisplayName("Should not answer the next lookup from the negative cache after a rate limit rejection")
+    void fetchHolidays_RateLimitedOnce_NextLookupCallsApi() {
+        // Arrange
+        doThrow(new RateLimitExceededException("Nager Date API rate limit reached")).doNothing().when(upstreamRateLimiter).acquire();
+        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        when(responseSpec.toEntity(byte[].class)).thenReturn(ResponseEntity.ok(null));
+
+        // Act
+        assertThrows(RateLimitExceededException.class, () -> nagerDateApiService.fetchHolidays(2025, "NL"));
+        HolidayCalendar result = nagerDateApiService.fetchHolidays(2025, "NL");
+
+        // Assert
+        assertEquals(0, result.size());
+        verify(responseSpec, times(1)).toEntity(byte[].class);
     }
 
     @Test
@@ -143,15 +320,15 @@ class NagerDateApiServiceTest {
     void fetchHolidays_NullResponse_ReturnsEmptyList() {
         // Arrange
         when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
-        when(responseSpec.body(Holiday[].class)).thenReturn(null);
+        when(responseSpec.toEntity(byte[].class)).thenReturn(ResponseEntity.ok(null));
 
         // Act
-        List<Holiday> result = nagerDateApiService.fetchHolidays(2023, "NL");
+        HolidayCalendar result = nagerDateApiService.fetchHolidays(2023, "NL");
 
         // Assert
-        assertTrue(result.isEmpty());
+        assertEquals(0, result.size());
         verify(requestHeadersUriSpec).uri(HOLIDAYS_URL);
-        verify(responseSpec).body(Holiday[].class);
+        verify(responseSpec).toEntity(byte[].class);
     }
 
     @Test
@@ -179,7 +356,7 @@ class NagerDateApiServiceTest {
                 HttpStatus.BAD_REQUEST, "Bad Request", null, null, StandardCharsets.UTF_8
         );
         when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
-        when(responseSpec.body(Holiday[].class)).thenThrow(exception);
+        when(responseSpec.toEntity(byte[].class)).thenThrow(exception);
 
         // Act & Assert
         InvalidParameterException thrown = assertThrows(
@@ -198,7 +375,7 @@ class NagerDateApiServiceTest {
         when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
         doAnswer(invocation -> {
             throw new NoResourceFoundException(HttpMethod.GET, "/invalid/path");
-        }).when(responseSpec).body(Holiday[].class);
+        }).when(responseSpec).toEntity(byte[].class);
 
         // Act & Assert
         NoResourceFoundException thrown = assertThrows(
@@ -220,7 +397,7 @@ class NagerDateApiServiceTest {
                     "I/O error: Failed to connect to Nager Date API",
                     new IOException("Connection timed out")
             );
-        }).when(responseSpec).body(Holiday[].class);
+        }).when(responseSpec).toEntity(byte[].class);
 
         // Act & Assert
         ResourceAccessException thrown = assertThrows(
@@ -231,6 +408,113 @@ class NagerDateApiServiceTest {
         verify(requestHeadersUriSpec).uri(HOLIDAYS_URL);
     }
 
+    @Test
+    @DisplayName("Should fail fast without calling API once the circuit breaker is open")
+    void fetchHolidays_RepeatedIoErrors_CircuitBreakerOpensAndFailsFast() {
+        // Arrange
+        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        when(responseSpec.toEntity(byte[].class)).thenThrow(new ResourceAccessException("I/O error: Connection refused"));
+        assertThrows(ResourceAccessException.class, () -> nagerDateApiService.fetchHolidays(2023, "NL"));
+        assertThrows(ResourceAccessException.class, () -> nagerDateApiService.fetchHolidays(2024, "NL"));
+
+        // Act & Assert
+        assertThrows(CallNotPermittedException.class, () -> nagerDateApiService.fetchHolidays(2025, "NL"));
+        verify(responseSpec, times(2)).toEntity(byte[].class);
+    }
+
+    @Test
+    @DisplayName("Should not open the circuit breaker for holidays not found")
+    void fetchHolidays_RepeatedNotFound_CircuitBreakerStaysClosed() {
+        // Arrange
+        when(responseSpec.onStatus(any(), any())).thenThrow(
+                new InvalidParameterException("No holidays found for country: NL in year: 2023")
+        );
+
+        // Act & Assert
+        for (int year = 2021; year <= 2023; year++) {
+            int requestedYear = year;
+            assertThrows(InvalidParameterException.class, () -> nagerDateApiService.fetchHolidays(requestedYear, "NL"));
+        }
+        verify(responseSpec, times(3)).onStatus(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should answer repeated lookups of holidays not found from the negative cache")
+    void fetchHolidays_RepeatedNotFoundSameKey_CallsApiOnce() {
+        // Arrange
+        when(responseSpec.onStatus(any(), any())).thenThrow(
+                new InvalidParameterException("No holidays found for country: NL in year: 1900")
+        );
+
+        // Act
+        InvalidParameterException first = assertThrows(InvalidParameterException.class, () -> nagerDateApiService.fetchHolidays(1900, "NL"));
+        InvalidParameterException second = assertThrows(InvalidParameterException.class, () -> nagerDateApiService.fetchHolidays(1900, "NL"));
+
+        // Assert
+        assertEquals(first.getMessage(), second.getMessage());
+        verify(responseSpec, times(1)).onStatus(any(), any());
+        assertEquals(1, meterRegistry.get("holiday.cache.negative.hits").tag("failure", "not_found").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should answer repeated lookups failing on an unreachable API from the negative cache")
+    void fetchHolidays_RepeatedIoErrorSameKey_CallsApiOnce() {
+        // Arrange
+        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        when(responseSpec.toEntity(byte[].class)).thenThrow(new ResourceAccessException("I/O error: Connection refused"));
+
+        // Act & Assert
+        assertThrows(ResourceAccessException.class, () -> nagerDateApiService.fetchHolidays(2023, "NL"));
+        assertThrows(ResourceAccessException.class, () -> nagerDateApiService.fetchHolidays(2023, "NL"));
+        verify(responseSpec, times(1)).toEntity(byte[].class);
+    }
+
+    @Test
+    @DisplayName("Should revalidate holidays with ETag and keep them when API returns 304 Not Modified")
+    void fetchHolidays_RefreshNotModified_KeepsHolidaysAndCountsSavedBytes() throws InterruptedException {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment().withProperty("holiday.cache.holidays.refresh-after-write", "1ms");
+        environment.setConversionService(new ApplicationConversionService());
+        NagerDateApiService revalidatingService = new NagerDateApiService(restClient, singleFlightLoader,
+                new RefreshAheadCacheFactory(environment, meterRegistry, 1), circuitBreakerRegistry, hotKeyTracker, offHeapHolidayStore,
+                peerHolidayCache, upstreamRateLimiter, meterRegistry);
+        ReflectionTestUtils.setField(revalidatingService, "nagerDateApi", HOLIDAYS_URL);
+        doReturn(requestHeadersSpec).when(requestHeadersSpec).header(any(String.class), any(String[].class));
+        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        byte[] holidays = holidaysJson(new Holiday("2023-04-07", "Goede Vrijdag"));
+        when(responseSpec.toEntity(byte[].class)).thenReturn(
+                ResponseEntity.ok().eTag("\"nl-2023\"").body(holidays),
+                ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"nl-2023\"").build());
+        HolidayCalendar first = revalidatingService.fetchHolidays(2023, "NL");
+        Thread.sleep(5);
+
+        // Act
+        revalidatingService.fetchHolidays(2023, "NL");
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (meterRegistry.get("nager.api.revalidations").tag("result", "not_modified").counter().count() < 1) {
+            assertTrue(System.nanoTime() < deadline, "revalidation not done in time");
+            Thread.sleep(10);
+        }
+
+        // Assert
+        // read the entry without fetchHolidays, which would start another revalidation with the 1ms soft TTL
+        assertSame(first, revalidatingService.getCachedHolidays().get(new HolidayCacheKey(2023, "NL")).calendar());
+        verify(requestHeadersSpec).header(HttpHeaders.IF_NONE_MATCH, "\"nl-2023\"");
+        assertEquals(holidays.length, meterRegistry.get("nager.api.revalidation.bytes.saved").counter().count());
+        assertEquals(0, meterRegistry.get("nager.api.revalidations").tag("result", "modified").counter().count());
+    }
+
+    private static byte[] holidaysJson(Holiday... holidays) {
+        StringBuilder json = new StringBuilder("[");
+        for (Holiday holiday : holidays) {
+            json.append(json.length() > 1 ? "," : "")
+                    .append("{\"date\":\"").append(holiday.getDate())
+                    .append("\",\"localName\":\"").append(holiday.getLocalName())
+                    .append("\",\"countryCode\":\"NL\",\"fixed\":false,\"counties\":null,\"types\":[\"Public\"]}");
+        }
+        return json.append("]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
     private AvailableCountry createCountry(String code, String name) {
         AvailableCountry country = new AvailableCountry();
         country.setCountryCode(code);
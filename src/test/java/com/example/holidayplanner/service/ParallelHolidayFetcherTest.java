@@ -0,0 +1,129 @@
+package com.example.holidayplanner.service;
+
+import com.example.holidayplanner.cache.HolidayCacheKey;
+import com.example.holidayplanner.cache.HolidayCalendar;
+import com.example.holidayplanner.exception.InvalidParameterException;
+import com.example.holidayplanner.generated.model.Holiday;
+import com.example.holidayplanner.provider.HolidayDataProviderChain;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ParallelHolidayFetcherTest {
+
+    @Mock
+    private HolidayDataProviderChain holidayDataProviderChain;
+
+    private ParallelHolidayFetcher parallelHolidayFetcher;
+
+    private AutoCloseable closeable;
+
+    @BeforeEach
+    void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        parallelHolidayFetcher = new ParallelHolidayFetcher(holidayDataProviderChain, 4, 10, Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void releaseMocks() throws Exception {
+        parallelHolidayFetcher.shutdown();
+        closeable.close();
+    }
+
+    @Test
+    @DisplayName("Fetches for all country codes should run concurrently and keep input order")
+    void fetchHolidays_MultipleCountries_FetchedConcurrentlyInInputOrder() {
+        List<String> countryCodes = List.of("NL", "DE", "FR", "BE");
+        // every fetch waits until all four are in flight, which only succeeds if they run concurrently
+        CyclicBarrier allInFlight = new CyclicBarrier(countryCodes.size());
+        when(holidayDataProviderChain.fetchHolidays(eq(2025), anyString())).thenAnswer(invocation -> {
+            allInFlight.await(2, TimeUnit.SECONDS);
+            return HolidayCalendar.of(List.of(new Holiday("2025-01-01", "holiday " + invocation.getArgument(1))));
+        });
+
+        Map<String, HolidayCalendar> holidaysByCountry = parallelHolidayFetcher.fetchHolidays(2025, new LinkedHashSet<>(countryCodes));
+
+        assertEquals(countryCodes, new ArrayList<>(holidaysByCountry.keySet()));
+        assertEquals("holiday FR", holidaysByCountry.get("FR").localName(0));
+        verify(holidayDataProviderChain, times(4)).fetchHolidays(eq(2025), anyString());
+    }
+
+    @Test
+    @DisplayName("Failure of one fetch should surface the original exception")
+    void fetchHolidays_OneCountryFails_ThrowsOriginalException() {
+        when(holidayDataProviderChain.fetchHolidays(2025, "NL")).thenReturn(HolidayCalendar.empty());
+        when(holidayDataProviderChain.fetchHolidays(2025, "XK"))
+                .thenThrow(new InvalidParameterException("No holidays found for country: XK in year: 2025"));
+
+        InvalidParameterException thrown = assertThrows(InvalidParameterException.class,
+                () -> parallelHolidayFetcher.fetchHolidays(2025, List.of("NL", "XK")));
+
+        assertEquals("No holidays found for country: XK in year: 2025", thrown.getMessage());
+    }
+
+    @Test
+    @DisplayName("Fetches exceeding the overall deadline should fail with ResourceAccessException")
+    void fetchHolidays_DeadlineExceeded_ThrowsResourceAccessException() {
+        parallelHolidayFetcher.shutdown();
+        parallelHolidayFetcher = new ParallelHolidayFetcher(holidayDataProviderChain, 4, 10, Duration.ofMillis(100));
+        when(holidayDataProviderChain.fetchHolidays(anyInt(), anyString())).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return HolidayCalendar.empty();
+        });
+
+        ResourceAccessException thrown = assertThrows(ResourceAccessException.class,
+                () -> parallelHolidayFetcher.fetchHolidays(2025, List.of("NL", "DE")));
+
+        assertTrue(thrown.getMessage().startsWith("I/O error"));
+    }
+
+    @Test
+    @DisplayName("Single country code should be fetched on the calling thread")
+    void fetchHolidays_SingleCountry_FetchedInline() {
+        String callerThread = Thread.currentThread().getName();
+        when(holidayDataProviderChain.fetchHolidays(2025, "NL")).thenAnswer(invocation -> {
+            assertEquals(callerThread, Thread.currentThread().getName());
+            return HolidayCalendar.of(List.of(new Holiday("2025-01-01", "Nieuwjaarsdag")));
+        });
+
+        Map<String, HolidayCalendar> holidaysByCountry = parallelHolidayFetcher.fetchHolidays(2025, List.of("NL"));
+
+        assertEquals(1, holidaysByCountry.get("NL").size());
+    }
+
+    @Test
+    @DisplayName("Prefetch should fetch every key once and leave out failing keys")
+    void prefetchHolidays_DuplicateAndFailingKeys_FetchesEachOnceWithoutFailing() {
+        when(holidayDataProviderChain.fetchHolidays(2025, "NL")).thenReturn(HolidayCalendar.of(List.of(new Holiday("2025-01-01", "Nieuwjaarsdag"))));
+        when(holidayDataProviderChain.fetchHolidays(2024, "NL")).thenReturn(HolidayCalendar.empty());
+        when(holidayDataProviderChain.fetchHolidays(2025, "XK"))
+                .thenThrow(new InvalidParameterException("No holidays found for country: XK in year: 2025"));
+
+        Map<HolidayCacheKey, HolidayCalendar> holidaysByKey = parallelHolidayFetcher.prefetchHolidays(List.of(
+                new HolidayCacheKey(2025, "NL"), new HolidayCacheKey(2025, "XK"),
+                new HolidayCacheKey(2024, "NL"), new HolidayCacheKey(2025, "NL")));
+
+        assertEquals(List.of(new HolidayCacheKey(2025, "NL"), new HolidayCacheKey(2024, "NL")), new ArrayList<>(holidaysByKey.keySet()));
+        verify(holidayDataProviderChain, times(1)).fetchHolidays(2025, "NL");
+        verify(holidayDataProviderChain, times(1)).fetchHolidays(2025, "XK");
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.holidayplanner.validation;
+
+import com.example.holidayplanner.model.AvailableCountry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountryCodeRegistryTest {
+
+    private final CountryCodeRegistry countryCodeRegistry = new CountryCodeRegistry();
+
+    @Test
+    @DisplayName("Test isIsoCountry - answers the same as the ISO country list for all two letter codes")
+    void isIsoCountry_AllTwoLetterCodes_MatchesLocale() {
+        Set<String> isoCountries = Set.of(Locale.getISOCountries());
+        for (char first = 'A'; first <= 'Z'; first++) {
+            for (char second = 'A'; second <= 'Z'; second++) {
+                String countryCode = "" + first + second;
+                assertEquals(isoCountries.contains(countryCode), CountryCodeRegistry.isIsoCountry(countryCode), countryCode);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test isIsoCountry - lower case codes are valid, malformed codes are not")
+    void isIsoCountry_CaseAndMalformedCodes() {
+        assertTrue(CountryCodeRegistry.isIsoCountry("nl"));
+        assertTrue(CountryCodeRegistry.isIsoCountry("De"));
+        assertFalse(CountryCodeRegistry.isIsoCountry(null));
+        assertFalse(CountryCodeRegistry.isIsoCountry(""));
+        assertFalse(CountryCodeRegistry.isIsoCountry("NLD"));
+        assertFalse(CountryCodeRegistry.isIsoCountry("N1"));
+        assertFalse(CountryCodeRegistry.isIsoCountry("XX"));
+    }
+
+    @Test
+    @DisplayName("Test isSupported - only available countries are supported")
+    void isSupported_AvailableCountries() {
+        Set<AvailableCountry> availableCountries = availableCountriesOf("NL", "DE");
+
+        assertTrue(countryCodeRegistry.isSupported(availableCountries, "NL"));
+        assertTrue(countryCodeRegistry.isSupported(availableCountries, "de"));
+        assertFalse(countryCodeRegistry.isSupported(availableCountries, "FR"));
+        assertFalse(countryCodeRegistry.isSupported(availableCountries, "NLD"));
+    }
+
+    @Test
+    @DisplayName("Test isSupported - refreshed available countries replace the previous ones")
+    void isSupported_RefreshedAvailableCountries_Rebuilt() {
+        assertTrue(countryCodeRegistry.isSupported(availableCountriesOf("NL"), "NL"));
+
+        Set<AvailableCountry> refreshed = availableCountriesOf("FR");
+
+        assertFalse(countryCodeRegistry.isSupported(refreshed, "NL"));
+        assertTrue(countryCodeRegistry.isSupported(refreshed, "FR"));
+    }
+
+    private static Set<AvailableCountry> availableCountriesOf(String... countryCodes) {
+        return Arrays.stream(countryCodes).map(countryCode -> {
+            AvailableCountry availableCountry = new AvailableCountry();
+            availableCountry.setCountryCode(countryCode);
+            return availableCountry;
+        }).collect(Collectors.toSet());
+    }
+}
@@ -2,7 +2,7 @@ package com.example.holidayplanner.validation;
 
 import com.example.holidayplanner.exception.InvalidParameterException;
 import com.example.holidayplanner.model.AvailableCountry;
-import com.example.holidayplanner.service.NagerDateApiService;
+import com.example.holidayplanner.provider.HolidayDataProviderChain;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -24,7 +24,7 @@ import static org.mockito.Mockito.*;
 class HolidayServiceValidatorTest {
 
     @Mock
-    private NagerDateApiService nagerDateApiService;
+    private HolidayDataProviderChain holidayDataProviderChain;
 
     @InjectMocks
     private HolidayServiceValidator holidayServiceValidator;
@@ -37,7 +37,8 @@ class HolidayServiceValidatorTest {
         ReflectionTestUtils.setField(holidayServiceValidator, "maxHolidayDays", 12);
         ReflectionTestUtils.setField(holidayServiceValidator, "minHolidaySupportedYear", 1975);
         ReflectionTestUtils.setField(holidayServiceValidator, "maxHolidaySupportedYear", 2075);
-        ReflectionTestUtils.setField(holidayServiceValidator, "nagerDateApiService", nagerDateApiService);
+        ReflectionTestUtils.setField(holidayServiceValidator, "maxSharedHolidayCountries", 2);
+        ReflectionTestUtils.setField(holidayServiceValidator, "holidayDataProviderChain", holidayDataProviderChain);
     }
 
     @AfterEach
@@ -50,17 +51,17 @@ class HolidayServiceValidatorTest {
     @DisplayName("Valid country codes and days should not throw an exception")
     void validateCountryCodesAndDays_ValidInput_NoExceptionThrown() {
         Set<String> inputCountryCodes = new HashSet<>(Set.of("NL", "FR"));
-        when(nagerDateApiService.getAvailableCountries()).thenReturn(createAvailableCountries());
+        when(holidayDataProviderChain.getAvailableCountries()).thenReturn(createAvailableCountries());
 
         assertDoesNotThrow(() -> holidayServiceValidator.validateCountryCodesAndDays(inputCountryCodes, "5"));
-        verify(nagerDateApiService).getAvailableCountries();
+        verify(holidayDataProviderChain).getAvailableCountries();
     }
 
     @Test
     @DisplayName("Invalid country code should throw InvalidParameterException")
     void validateCountryCodesAndDays_InvalidCountryCode_ThrowsException() {
         Set<String> inputCountryCodes = new HashSet<>(Set.of("XX"));
-        when(nagerDateApiService.getAvailableCountries()).thenReturn(createAvailableCountries());
+        when(holidayDataProviderChain.getAvailableCountries()).thenReturn(createAvailableCountries());
 
         InvalidParameterException exception = assertThrows(InvalidParameterException.class, () ->
                 holidayServiceValidator.validateCountryCodesAndDays(inputCountryCodes, "5"));
@@ -71,7 +72,7 @@ class HolidayServiceValidatorTest {
     @DisplayName("Exceeding maximum days should throw InvalidParameterException")
     void validateCountryCodesAndDays_ExceedsMaxDays_ThrowsException() {
         Set<String> inputCountryCodes = new HashSet<>(Set.of("NL"));
-        when(nagerDateApiService.getAvailableCountries()).thenReturn(createNl());
+        when(holidayDataProviderChain.getAvailableCountries()).thenReturn(createNl());
 
         InvalidParameterException exception = assertThrows(InvalidParameterException.class, () ->
                 holidayServiceValidator.validateCountryCodesAndDays(inputCountryCodes, "20"));
@@ -82,7 +83,7 @@ class HolidayServiceValidatorTest {
     @DisplayName("Validate non number input throw InvalidParameterException")
     void validateCountryCodesAndDays_ValidateNonNumber_ThrowsException() {
         Set<String> inputCountryCodes = new HashSet<>(Set.of("NL"));
-        when(nagerDateApiService.getAvailableCountries()).thenReturn(createNl());
+        when(holidayDataProviderChain.getAvailableCountries()).thenReturn(createNl());
 
         InvalidParameterException exception = assertThrows(InvalidParameterException.class, () ->
                 holidayServiceValidator.validateCountryCodesAndDays(inputCountryCodes, "abc"));
@@ -93,60 +94,60 @@ class HolidayServiceValidatorTest {
     @DisplayName("Validate empty number input throw InvalidParameterException")
     void validateCountryCodesAndDays_ValidateEmptyNumber_ThrowsException() {
         Set<String> inputCountryCodes = new HashSet<>(Set.of("NL"));
-        when(nagerDateApiService.getAvailableCountries()).thenReturn(createNl());
+        when(holidayDataProviderChain.getAvailableCountries()).thenReturn(createNl());
 
         assertDoesNotThrow(() -> holidayServiceValidator.validateCountryCodesAndDays(inputCountryCodes, "5"));
-        verify(nagerDateApiService).getAvailableCountries();
+        verify(holidayDataProviderChain).getAvailableCountries();
     }
 
     @Test
     @DisplayName("Valid country codes and year should not throw an exception")
     void validateCountryCodesAndYear_ValidInput_NoExceptionThrown() {
         Set<String> inputCountryCodes = new HashSet<>(Set.of("NL"));
-        when(nagerDateApiService.getAvailableCountries()).thenReturn(createNl());
+        when(holidayDataProviderChain.getAvailableCountries()).thenReturn(createNl());
 
         assertDoesNotThrow(() -> holidayServiceValidator.validateCountryCodesAndYear("2025", inputCountryCodes));
-        verify(nagerDateApiService).getAvailableCountries();
+        verify(holidayDataProviderChain).getAvailableCountries();
     }
 
     @Test
     @DisplayName("Valid, Unsupported and Invalid country codes should throw an exception")
     void validateCountryCodesAndYear_ValidUnsupportedAndInvalidInputCode_ExceptionThrown() {
         Set<String> inputCountryCodes = new HashSet<>(Set.of("NL","XX", "AA", "FR", "BD", "PK", "ABED"));
-        when(nagerDateApiService.getAvailableCountries()).thenReturn(createAvailableCountries());
+        when(holidayDataProviderChain.getAvailableCountries()).thenReturn(createAvailableCountries());
 
         Assertions.assertThrowsExactly(InvalidParameterException.class, () ->
                 holidayServiceValidator.validateCountryCodesAndYear("2025", inputCountryCodes));
-        verify(nagerDateApiService).getAvailableCountries();
+        verify(holidayDataProviderChain).getAvailableCountries();
     }
 
     @Test
     @DisplayName("Valid country codes and invalid year format throw an exception")
     void validateSharedHolidayCountryCodesAndYear_InvalidYearFormat_ExceptionThrown() {
         Set<String> inputCountryCodes = new HashSet<>(Set.of("NL", "FR"));
-        when(nagerDateApiService.getAvailableCountries()).thenReturn(createAvailableCountries());
+        when(holidayDataProviderChain.getAvailableCountries()).thenReturn(createAvailableCountries());
 
         Assertions.assertThrowsExactly(InvalidParameterException.class, () ->
                 holidayServiceValidator.validateSharedHolidayCountryCodesAndYear("abcd", inputCountryCodes));
-        verify(nagerDateApiService).getAvailableCountries();
+        verify(holidayDataProviderChain).getAvailableCountries();
     }
 
     @Test
     @DisplayName("Valid country codes and null year throw an exception")
     void validateSharedHolidayCountryCodesAndYear_NullYear_ExceptionThrown() {
         Set<String> inputCountryCodes = new HashSet<>(Set.of("NL", "FR"));
-        when(nagerDateApiService.getAvailableCountries()).thenReturn(createAvailableCountries());
+        when(holidayDataProviderChain.getAvailableCountries()).thenReturn(createAvailableCountries());
 
         Assertions.assertThrowsExactly(InvalidParameterException.class, () ->
                 holidayServiceValidator.validateSharedHolidayCountryCodesAndYear(null, inputCountryCodes));
-        verify(nagerDateApiService).getAvailableCountries();
+        verify(holidayDataProviderChain).getAvailableCountries();
     }
 
     @Test
     @DisplayName("Invalid year 1900 should throw InvalidParameterException")
     void validateCountryCodesAndYear_InvalidYear_ThrowsException() {
         Set<String> inputCountryCodes = new HashSet<>(Set.of("NL"));
-        when(nagerDateApiService.getAvailableCountries()).thenReturn(createNl());
+        when(holidayDataProviderChain.getAvailableCountries()).thenReturn(createNl());
 
         InvalidParameterException exception = assertThrows(InvalidParameterException.class, () ->
                 holidayServiceValidator.validateCountryCodesAndYear("1900", inputCountryCodes));
@@ -157,17 +158,17 @@ class HolidayServiceValidatorTest {
     @DisplayName("Valid shared country codes and year should not throw an exception")
     void validateSharedHolidayCountryCodesAndYear_ValidInput_NoExceptionThrown() {
         Set<String> inputCountryCodes = new HashSet<>(Set.of("NL", "FR"));
-        when(nagerDateApiService.getAvailableCountries()).thenReturn(createAvailableCountries());
+        when(holidayDataProviderChain.getAvailableCountries()).thenReturn(createAvailableCountries());
 
         assertDoesNotThrow(() -> holidayServiceValidator.validateSharedHolidayCountryCodesAndYear("2025", inputCountryCodes));
-        verify(nagerDateApiService).getAvailableCountries();
+        verify(holidayDataProviderChain).getAvailableCountries();
     }
 
     @Test
     @DisplayName("Duplicate country code for validateSharedHolidayCountryCodesAndYear should throw InvalidParameterException")
     void validateSharedHolidayCountryCodesAndYear_SameCountryCodes_ThrowsException() {
         Set<String> inputCountryCodes = new HashSet<>(List.of("NL", "NL"));
-        when(nagerDateApiService.getAvailableCountries()).thenReturn(createNl());
+        when(holidayDataProviderChain.getAvailableCountries()).thenReturn(createNl());
 
         InvalidParameterException exception = assertThrows(InvalidParameterException.class, () ->
                 holidayServiceValidator.validateSharedHolidayCountryCodesAndYear("2025", inputCountryCodes));
@@ -183,6 +184,28 @@ class HolidayServiceValidatorTest {
         return countries;
     }
 
+    @Test
+    @DisplayName("Valid country codes of several countries and year should not throw an exception")
+    void validateCommonHolidayCountryCodesAndYear_ValidInput_NoExceptionThrown() {
+        Set<String> inputCountryCodes = new HashSet<>(Set.of("NL", "FR"));
+        when(holidayDataProviderChain.getAvailableCountries()).thenReturn(createAvailableCountries());
+
+        assertDoesNotThrow(() -> holidayServiceValidator.validateCommonHolidayCountryCodesAndYear("2025", inputCountryCodes));
+    }
+
+    @Test
+    @DisplayName("Fewer than two or more than the supported number of countries throw an exception")
+    void validateCommonHolidayCountryCodesAndYear_CountryCountOutOfRange_ExceptionThrown() {
+        when(holidayDataProviderChain.getAvailableCountries()).thenReturn(createAvailableCountries());
+
+        InvalidParameterException single = assertThrows(InvalidParameterException.class, () ->
+                holidayServiceValidator.validateCommonHolidayCountryCodesAndYear("2025", Set.of("NL")));
+        InvalidParameterException tooMany = assertThrows(InvalidParameterException.class, () ->
+                holidayServiceValidator.validateCommonHolidayCountryCodesAndYear("2025", Set.of("NL", "FR", "DE")));
+        assertTrue(single.getMessage().startsWith("1 different country code(s) given, between 2 and 2"));
+        assertTrue(tooMany.getMessage().startsWith("3 different country code(s) given"));
+    }
+
     private Set<AvailableCountry> createAvailableCountries() {
         Set<AvailableCountry> countries = new HashSet<>();
         AvailableCountry nl = new AvailableCountry();